@@ -12,10 +12,23 @@
 package campuspaths;
 
 import campuspaths.utils.CORSFilter;
+import campuspaths.utils.PathJsonWriter;
+import campuspaths.utils.PrecomputedResponse;
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import graph.Node;
+import pathfinder.CacheStats;
 import pathfinder.CampusMap;
+import pathfinder.Route;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
 import spark.Spark;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 public class SparkServer {
 
     // Files used for campus information
@@ -25,6 +38,20 @@ public class SparkServer {
     // GSon to convert to JSon
     private static final Gson gson = new Gson();
 
+    // Most pairs of buildings one /paths request may ask for
+    private static final int maxBatchSize = 1000;
+    // Most alternate routes one /alternatePaths request may ask for, and how many when not said
+    private static final int maxAlternates = 10;
+    private static final int defaultAlternates = 3;
+
+    /*
+     * One pair of buildings in the body of a /paths request, named as /path's query parameters
+     */
+    private static class BuildingPair {
+        private String startName;
+        private String endName;
+    }
+
     public static void main(String[] args) {
         CORSFilter corsFilter = new CORSFilter();
         corsFilter.apply();
@@ -37,17 +64,126 @@ public class SparkServer {
         // Stores the campus map
         CampusMap map = new CampusMap();
         map.initializeData(buildingsFile, pathsFile);
+        // Works out every route between buildings now, so requests are table lookups
+        map.precomputeRoutes(Runtime.getRuntime().availableProcessors());
+        // and contracts the paths, so routes between clicked points search only a little of them
+        map.buildContractionHierarchy();
 
-        // Returns the buildings within campus map
-        Spark.get("/buildings", (req, res) -> gson.toJson(map.buildingNames()));
+        // Returns the buildings within campus map.  They never change once loaded, so the JSON is
+        // made once here, and requests are answered with its bytes, or 304 if the ETag matches
+        PrecomputedResponse buildings = new PrecomputedResponse(gson.toJson(map.buildingNames()),
+                "application/json");
+        Spark.get("/buildings", buildings::serve);
 
-        // Returns the shortest path between two campus paths
+        // Returns the shortest path between two campus paths, with the version of the
+        // campus paths that answered in the X-Graph-Version header
         //(?startName=...&endName=...)
         Spark.get("/path", (req, res) -> {
             String startName = req.queryParams("startName");
             String endName = req.queryParams("endName");
-            return gson.toJson(map.findShortestPath(startName, endName));
+            Route route = map.findRoute(startName, endName, CampusMap.Engine.DIJKSTRA);
+            res.header("X-Graph-Version", Long.toString(route.getGraphVersion()));
+            return PathJsonWriter.serve(route.getPath(), res); // Same JSON as gson.toJson
+        });
+
+        // Returns a few different routes between two buildings, shortest first, as a JSON array of
+        // paths in the same JSON as /path
+        //(startName, endName, and optionally k: how many routes, at most maxAlternates)
+        Spark.get("/alternatePaths", (req, res) -> {
+            int k = defaultAlternates;
+            if (req.queryParams("k") != null) {
+                try {
+                    k = Integer.parseInt(req.queryParams("k"));
+                } catch (NumberFormatException e) {
+                    throw Spark.halt(400, "k must be a whole number");
+                }
+            }
+            if (k < 1 || k > maxAlternates) {
+                throw Spark.halt(400, "k must be from 1 to " + maxAlternates);
+            }
+            List<Path<Node<Point>>> paths;
+            try {
+                paths = map.findKShortestPaths(req.queryParams("startName"), req.queryParams("endName"), k);
+            } catch (IllegalArgumentException e) {
+                throw Spark.halt(400, "startName and endName must be short names of buildings");
+            }
+            return PathJsonWriter.serveAll(paths, res);
+        });
+
+        // Returns the shortest path between the locations closest to two points on the map, ex:
+        // where the user clicked, in the same JSON as /path
+        //(startX, startY, endX, endY in map pixels)
+        Spark.get("/pointPath", (req, res) -> {
+            Point start = pointParam(req.queryParams("startX"), req.queryParams("startY"));
+            Point end = pointParam(req.queryParams("endX"), req.queryParams("endY"));
+            Route route = map.findRoute(start, end);
+            res.header("X-Graph-Version", Long.toString(route.getGraphVersion()));
+            return PathJsonWriter.serve(route.getPath(), res);
+        });
+
+        // Returns the shortest paths between many pairs of buildings in one response, as a JSON
+        // array in the same order as the pairs, all found on the version in X-Graph-Version.
+        // Pairs from the same start building share one search
+        //(body: [{"startName":...,"endName":...}, ...])
+        Spark.post("/paths", (req, res) -> {
+            BuildingPair[] requested;
+            try {
+                requested = gson.fromJson(req.body(), BuildingPair[].class);
+            } catch (JsonParseException e) {
+                throw Spark.halt(400, "Body must be a JSON array of {startName, endName}");
+            }
+            if (requested == null) {
+                throw Spark.halt(400, "Body must be a JSON array of {startName, endName}");
+            }
+            if (requested.length > maxBatchSize) {
+                throw Spark.halt(413, "At most " + maxBatchSize + " pairs per request");
+            }
+            List<String[]> pairs = new ArrayList<>(requested.length);
+            for (BuildingPair pair : requested) {
+                pairs.add(pair == null ? null : new String[] {pair.startName, pair.endName});
+            }
+            List<Route> routes;
+            try {
+                routes = map.findRoutes(pairs);
+            } catch (IllegalArgumentException e) {
+                throw Spark.halt(400, "Every pair must be two short names of buildings");
+            }
+            List<Path<Node<Point>>> paths = new ArrayList<>(routes.size());
+            for (Route route : routes) {
+                paths.add(route.getPath());
+            }
+            long version = routes.isEmpty() ? map.getGraphVersion() : routes.get(0).getGraphVersion();
+            res.header("X-Graph-Version", Long.toString(version));
+            return PathJsonWriter.serveAll(paths, res);
         });
+        // Browsers ask before POSTing JSON from another origin; CORSFilter adds the answer
+        Spark.options("/paths", (req, res) -> "");
+
+        // Returns the counters of the route cache, and the share of /path requests it answered
+        Spark.get("/metrics", (req, res) -> {
+            CacheStats stats = map.getCacheStats();
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("routeCache", stats);
+            metrics.put("routeCacheHitRate", stats.hitRate());
+            metrics.put("graphVersion", map.getGraphVersion());
+            return gson.toJson(metrics);
+        });
+    }
+
+    /*
+     * Returns the point at x, y, or halts with 400 if either is missing or not a finite number
+     */
+    private static Point pointParam(String x, String y) {
+        try {
+            double parsedX = Double.parseDouble(x);
+            double parsedY = Double.parseDouble(y);
+            if (Double.isFinite(parsedX) && Double.isFinite(parsedY)) {
+                return new Point(parsedX, parsedY);
+            }
+        } catch (NullPointerException | NumberFormatException e) {
+            // Falls through to the halt below
+        }
+        throw Spark.halt(400, "startX, startY, endX and endY must be numbers");
     }
 
 }
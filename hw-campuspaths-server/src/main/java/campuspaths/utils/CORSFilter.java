@@ -55,6 +55,7 @@ public class CORSFilter {
         corsHeaders.put("Access-Control-Allow-Headers",
                 "Content-Type,Authorization,X-Requested-With,Content-Length,Accept,Origin,");
         corsHeaders.put("Access-Control-Allow-Credentials", "true");
+        corsHeaders.put("Access-Control-Expose-Headers", "X-Graph-Version,ETag"); // so clients can read them
     }
 
     /**
@@ -66,9 +67,10 @@ public class CORSFilter {
         Filter filter = new Filter() {
             @Override
             public void handle(Request request, Response response) {
-                corsHeaders.forEach(response::header);
+                corsHeaders.forEach(response.raw()::setHeader); // Set, not added, as it runs twice
             }
         };
+        Spark.before(filter); // So responses a route writes out itself, ex: gzip bytes, have them too
         Spark.afterAfter(filter); // Applies this filter even if there's a halt() or exception.
         //
         Logger logger = LoggerFactory.getLogger("CampusPaths Server");
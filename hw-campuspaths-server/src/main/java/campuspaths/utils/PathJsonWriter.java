@@ -0,0 +1,217 @@
+package campuspaths.utils;
+
+import graph.Node;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import spark.Response;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * PathJsonWriter writes a path of campus locations as JSON, segment by segment, straight to
+ * the stream it is going to.  It writes exactly what Gson's toJson writes for the same path:
+ * <pre>
+ * {"cost":c,"start":{"data":{"x":x,"y":y}},
+ *  "path":[{"start":{"data":{"x":x,"y":y}},"end":{"data":{"x":x,"y":y}},"cost":c},...]}
+ * </pre>
+ * with no whitespace, and null for no path, but without Gson looking over the fields of each
+ * class or building the whole text up as a String first.  The text is only ever the fixed
+ * field names and numbers, all ASCII, so it is encoded by hand a byte per char into a small
+ * buffer that goes out to the stream whenever it fills.
+ */
+public final class PathJsonWriter {
+
+    // Bytes gathered before each write to the stream
+    private static final int BUFFER_SIZE = 2048;
+
+    // The fixed parts of the JSON, in the order they are written
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] PATH_COST = ascii("{\"cost\":");
+    private static final byte[] PATH_START = ascii(",\"start\":");
+    private static final byte[] PATH_SEGMENTS = ascii(",\"path\":[");
+    private static final byte[] SEGMENT_START = ascii("{\"start\":");
+    private static final byte[] SEGMENT_END = ascii(",\"end\":");
+    private static final byte[] SEGMENT_COST = ascii(",\"cost\":");
+    private static final byte[] NODE_X = ascii("{\"data\":{\"x\":");
+    private static final byte[] NODE_Y = ascii(",\"y\":");
+    private static final byte[] NODE_CLOSE = ascii("}}");
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int length = 0; // bytes of buffer not yet written to out
+
+    /*
+     * Constructs a PathJsonWriter that writes to out
+     */
+    private PathJsonWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes path as JSON to out, encoded as UTF-8.
+     * @param path the path to write, or null if there is none
+     * @param out where to write it
+     * @spec.requires out != null
+     * @spec.effects Writes the JSON of path to out and flushes it.  out is not closed.
+     * @throws IOException if out cannot be written to
+     */
+    public static void write(Path<Node<Point>> path, OutputStream out) throws IOException {
+        PathJsonWriter json = new PathJsonWriter(out);
+        json.appendPath(path);
+        json.flush();
+    }
+
+    /**
+     * Writes paths as a JSON array to out, encoded as UTF-8, each path as write writes it.
+     * @param paths the paths to write, each null if there is none
+     * @param out where to write them
+     * @spec.requires paths != null, out != null
+     * @spec.effects Writes the JSON of paths to out and flushes it.  out is not closed.
+     * @throws IOException if out cannot be written to
+     */
+    public static void writeAll(List<Path<Node<Point>>> paths, OutputStream out) throws IOException {
+        PathJsonWriter json = new PathJsonWriter(out);
+        json.append('[');
+        for (int i = 0; i < paths.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.appendPath(paths.get(i));
+        }
+        json.append(']');
+        json.flush();
+    }
+
+    /**
+     * Answers a request with path as JSON, written straight to the response.
+     * @param path the path to send, or null if there is none
+     * @param res the response to send it in
+     * @spec.requires res != null, and nothing has been written to res yet
+     * @spec.effects Sets the type of res to JSON and writes path to it, which commits res.
+     * @return what the route should return: an empty body, as res was already written
+     * @throws IOException if the response cannot be written to
+     */
+    public static Object serve(Path<Node<Point>> path, Response res) throws IOException {
+        res.type("application/json; charset=utf-8");
+        write(path, res.raw().getOutputStream()); // Flushes, so Spark writes nothing more
+        return "";
+    }
+
+    /**
+     * Answers a request with paths as a JSON array, written straight to the response.
+     * @param paths the paths to send, each null if there is none
+     * @param res the response to send them in
+     * @spec.requires paths != null, res != null, and nothing has been written to res yet
+     * @spec.effects Sets the type of res to JSON and writes paths to it, which commits res.
+     * @return what the route should return: an empty body, as res was already written
+     * @throws IOException if the response cannot be written to
+     */
+    public static Object serveAll(List<Path<Node<Point>>> paths, Response res) throws IOException {
+        res.type("application/json; charset=utf-8");
+        writeAll(paths, res.raw().getOutputStream()); // Flushes, so Spark writes nothing more
+        return "";
+    }
+
+    /*
+     * Writes a path as Gson would, or null
+     */
+    private void appendPath(Path<Node<Point>> path) throws IOException {
+        if (path == null) {
+            append(NULL);
+            return;
+        }
+        append(PATH_COST); // Same field order as Path and Segment declare them
+        append(path.getCost());
+        append(PATH_START);
+        appendNode(path.getStart());
+        append(PATH_SEGMENTS);
+        boolean first = true;
+        for (Path<Node<Point>>.Segment segment : path) {
+            if (!first) {
+                append(',');
+            }
+            first = false;
+            append(SEGMENT_START);
+            appendNode(segment.getStart());
+            append(SEGMENT_END);
+            appendNode(segment.getEnd());
+            append(SEGMENT_COST);
+            append(segment.getCost());
+            append('}');
+        }
+        append(']');
+        append('}');
+    }
+
+    /*
+     * Writes a Node of a Point as {"data":{"x":x,"y":y}}
+     */
+    private void appendNode(Node<Point> node) throws IOException {
+        Point point = node.getData();
+        append(NODE_X);
+        append(point.getX());
+        append(NODE_Y);
+        append(point.getY());
+        append(NODE_CLOSE);
+    }
+
+    /*
+     * Writes a number as Gson does, with Double.toString
+     */
+    private void append(double number) throws IOException {
+        String text = Double.toString(number);
+        if (length + text.length() > buffer.length) {
+            drain();
+        }
+        for (int i = 0; i < text.length(); i++) { // Digits, '.', '-' and 'E' are all ASCII
+            buffer[length++] = (byte) text.charAt(i);
+        }
+    }
+
+    /*
+     * Writes fixed ASCII bytes
+     */
+    private void append(byte[] bytes) throws IOException {
+        if (length + bytes.length > buffer.length) {
+            drain();
+        }
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    /*
+     * Writes one ASCII char
+     */
+    private void append(char c) throws IOException {
+        if (length == buffer.length) {
+            drain();
+        }
+        buffer[length++] = (byte) c;
+    }
+
+    /*
+     * Writes out the bytes gathered so far
+     */
+    private void drain() throws IOException {
+        out.write(buffer, 0, length);
+        length = 0;
+    }
+
+    /*
+     * Writes out the bytes gathered so far and flushes the stream
+     */
+    private void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    /*
+     * Returns the bytes of ASCII text
+     */
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,151 @@
+package campuspaths.utils;
+
+import spark.Request;
+import spark.Response;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A PrecomputedResponse is the body of a response that never changes, ex: the JSON of the
+ * campus buildings, encoded once as bytes and once as gzip bytes up front.  Serving it only
+ * copies bytes out.  Each variant has a strong ETag, taken from a hash of the body, and a
+ * request that already holds either one in If-None-Match gets a 304 with no body at all.
+ */
+public class PrecomputedResponse {
+
+    private final String contentType;
+    private final byte[] body;
+    private final byte[] gzipBody;
+    private final String etag; // of body
+    private final String gzipEtag; // of gzipBody; strong ETags must differ between encodings
+
+    /**
+     * Encodes a body to serve from now on.
+     * @param body the text of the response
+     * @param contentType the media type of body, ex: "application/json"
+     * @spec.requires body != null, contentType != null
+     */
+    public PrecomputedResponse(String body, String contentType) {
+        this.contentType = contentType + "; charset=utf-8";
+        this.body = body.getBytes(StandardCharsets.UTF_8);
+        this.gzipBody = gzip(this.body);
+        String hash = sha256(this.body);
+        this.etag = "\"" + hash + "\"";
+        this.gzipEtag = "\"" + hash + "-gzip\"";
+    }
+
+    /**
+     * Answers a request with this body, as a Spark Route would.  The gzip bytes are written
+     * out directly, as Spark would otherwise gzip them a second time.
+     * @param req the request to answer
+     * @param res the response to fill in
+     * @return what the route should return: the plain bytes, or an empty body if the response
+     *         is a 304 or was already written out
+     * @throws IOException if the gzip bytes cannot be written out
+     */
+    public Object serve(Request req, Response res) throws IOException {
+        boolean gzip = acceptsGzip(req.headers("Accept-Encoding"));
+        res.header("Vary", "Accept-Encoding");
+        res.header("ETag", gzip ? gzipEtag : etag);
+        res.type(contentType);
+        if (matches(req.headers("If-None-Match"))) { // Client already has it
+            res.status(HttpServletResponse.SC_NOT_MODIFIED);
+            return "";
+        }
+        if (!gzip) {
+            return body;
+        }
+        HttpServletResponse raw = res.raw();
+        raw.setHeader("Content-Encoding", "gzip");
+        raw.setContentLength(gzipBody.length);
+        OutputStream out = raw.getOutputStream();
+        out.write(gzipBody);
+        out.flush(); // Commits the response, so Spark writes nothing more
+        return "";
+    }
+
+    /*
+     * Returns if an If-None-Match header names the ETag of either variant, or is "*"
+     */
+    private boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) { // If-None-Match compares weakly
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag) || tag.equals(gzipEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Returns if an Accept-Encoding header allows gzip, by name or by "*", with a q above 0
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) { // ex: gzip;q=0 means no gzip
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        refused = Double.parseDouble(param.substring(2)) <= 0;
+                    } catch (NumberFormatException e) {
+                        refused = true; // Not a q we can read
+                    }
+                }
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Returns bytes compressed with gzip
+     */
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(bytes);
+        } catch (IOException e) { // Cannot happen writing to memory
+            throw new IllegalStateException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    /*
+     * Returns the SHA-256 hash of bytes in hex
+     */
+    private static String sha256(byte[] bytes) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes)) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) { // Every JVM has SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package campuspaths.benchmarks;
+
+import campuspaths.utils.PathJsonWriter;
+import com.google.gson.Gson;
+import graph.Node;
+import pathfinder.CampusMap;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import spark.Spark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares gson.toJson with PathJsonWriter for the paths /path sends.  First checks that both
+ * write exactly the same text for the path between every pair of campus buildings, then times
+ * writing every path out to a stream that throws the bytes away, and reports the bytes each
+ * allocates.  Last, serves the same routes both ways from a local Spark server and has a few
+ * client threads request random pairs as fast as they can, reporting requests per second.
+ * The clients and the server share the machine, so the load numbers are only comparable
+ * with each other.
+ */
+public class PathJsonBenchmark {
+    private static final String buildingFile = "campus_buildings.tsv";
+    private static final String pathsFile = "campus_paths.tsv";
+    private static final int rounds = 5; // the first rounds also warm up the JIT
+    private static final int port = 4568; // not the server's own, in case it is running
+    private static final int clients = 4;
+    private static final long loadMillis = 5000;
+    private static final long SEED = 331;
+
+    public static void main(String[] args) throws Exception {
+        Gson gson = new Gson();
+        CampusMap map = new CampusMap(0, 1); // No route cache, so both ways do the same searches
+        map.initializeData(buildingFile, pathsFile);
+        List<String> names = new ArrayList<>(map.buildingNames().keySet());
+        Collections.sort(names);
+        List<Path<Node<Point>>> paths = new ArrayList<>();
+        for (String start : names) {
+            for (String end : names) {
+                paths.add(map.findShortestPath(start, end));
+            }
+        }
+        paths.add(null); // As sent when there is no path
+        for (Path<Node<Point>> path : paths) { // Both must write exactly the same text
+            ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+            PathJsonWriter.write(path, streamed);
+            if (!gson.toJson(path).equals(streamed.toString(StandardCharsets.UTF_8))) {
+                throw new IllegalStateException("JSON differs for " + path);
+            }
+        }
+        System.out.println("paths: " + paths.size() + ", all written the same both ways");
+
+        OutputStream discard = OutputStream.nullOutputStream();
+        for (int round = 0; round < rounds; round++) {
+            System.out.println("round " + round + ":");
+            long allocated = allocatedBytes();
+            long start = System.nanoTime();
+            for (Path<Node<Point>> path : paths) { // As Spark sends a String body
+                discard.write(gson.toJson(path).getBytes(StandardCharsets.UTF_8));
+            }
+            report("gson.toJson", System.nanoTime() - start, allocatedBytes() - allocated, paths.size());
+            allocated = allocatedBytes();
+            start = System.nanoTime();
+            for (Path<Node<Point>> path : paths) { // As PathJsonWriter.serve sends it
+                PathJsonWriter.write(path, discard);
+            }
+            report("PathJsonWriter", System.nanoTime() - start, allocatedBytes() - allocated, paths.size());
+        }
+
+        Spark.port(port);
+        Spark.get("/gson", (req, res) ->
+                gson.toJson(map.findShortestPath(req.queryParams("startName"), req.queryParams("endName"))));
+        Spark.get("/stream", (req, res) -> PathJsonWriter.serve(
+                map.findShortestPath(req.queryParams("startName"), req.queryParams("endName")), res));
+        Spark.awaitInitialization();
+        for (int round = 0; round < 2; round++) { // The first round warms up the server
+            System.out.println("load round " + round + ", " + clients + " clients:");
+            for (String route : new String[] {"/gson", "/stream"}) {
+                System.out.println(String.format("  %-8s %.0f requests per second", route,
+                        load(route, names)));
+            }
+        }
+        Spark.stop();
+        Spark.awaitStop();
+    }
+
+    /*
+     * Requests random pairs of names from route for loadMillis and returns the requests per second
+     */
+    private static double load(String route, List<String> names) throws InterruptedException {
+        AtomicLong requests = new AtomicLong();
+        long end = System.currentTimeMillis() + loadMillis;
+        List<Thread> threads = new ArrayList<>();
+        for (int client = 0; client < clients; client++) {
+            Random random = new Random(SEED + client);
+            Thread thread = new Thread(() -> {
+                byte[] buffer = new byte[8192];
+                try {
+                    while (System.currentTimeMillis() < end) {
+                        URL url = new URL("http://localhost:" + port + route + "?startName="
+                                + encode(names.get(random.nextInt(names.size()))) + "&endName="
+                                + encode(names.get(random.nextInt(names.size()))));
+                        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+                        try (InputStream in = connection.getInputStream()) { // Read it all, to keep alive
+                            while (in.read(buffer) != -1) {
+                                // Throw the bytes away
+                            }
+                        }
+                        requests.incrementAndGet();
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return requests.get() * 1000.0 / loadMillis;
+    }
+
+    /*
+     * Returns name made safe for a query string
+     */
+    private static String encode(String name) {
+        return URLEncoder.encode(name, StandardCharsets.UTF_8);
+    }
+
+    /*
+     * Prints the time and allocation per path of one round of one writer
+     */
+    private static void report(String name, long elapsed, long allocated, int count) {
+        System.out.println(String.format("  %-15s %.2f us per path, %.2f KB allocated per path", name,
+                elapsed / 1e3 / count, allocated / 1024.0 / count));
+    }
+
+    /*
+     * Returns the number of bytes allocated so far by the current thread, or -1 if the JVM
+     * cannot report it
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(
+                    Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
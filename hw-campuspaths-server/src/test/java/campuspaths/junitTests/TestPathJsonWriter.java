@@ -0,0 +1,125 @@
+package campuspaths.junitTests;
+
+import campuspaths.utils.PathJsonWriter;
+import com.google.gson.Gson;
+import graph.Node;
+import org.junit.Test;
+import pathfinder.CampusMap;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/*
+ * To test that PathJsonWriter writes exactly the JSON that Gson writes for the same paths,
+ * as the clients of the server read it
+ */
+public class TestPathJsonWriter {
+    private final Gson gson = new Gson();
+
+    /*
+     * Returns the JSON PathJsonWriter.write writes for path
+     */
+    private String write(Path<Node<Point>> path) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PathJsonWriter.write(path, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /*
+     * Returns the path from start through each of points in turn, each segment costing cost
+     */
+    private Path<Node<Point>> pathOf(Point start, double cost, Point... points) {
+        Path<Node<Point>> path = new Path<>(new Node<>(start));
+        for (Point point : points) {
+            path = path.extend(new Node<>(point), cost);
+        }
+        return path;
+    }
+
+    /*
+     * Test that a path of many segments is written as Gson writes it
+     */
+    @Test
+    public void testMultiSegmentPath() throws IOException {
+        Path<Node<Point>> path = pathOf(new Point(1.5, 2.25), 3.125,
+                new Point(4.5, 6.75), new Point(8.0, 9.5), new Point(10.125, 11.0));
+        assertEquals(gson.toJson(path), write(path));
+    }
+
+    /*
+     * Test that a path from a building to itself, with no segments, is written as Gson writes it
+     */
+    @Test
+    public void testZeroLengthPath() throws IOException {
+        CampusMap map = new CampusMap();
+        map.initializeData("campus_buildings.tsv", "campus_paths.tsv");
+        Path<Node<Point>> path = map.findShortestPath("CSE", "CSE");
+        assertEquals(0.0, path.getCost(), 0.0);
+        assertEquals(gson.toJson(path), write(path));
+    }
+
+    /*
+     * Test that real campus paths are written as Gson writes them
+     */
+    @Test
+    public void testCampusPaths() throws IOException {
+        CampusMap map = new CampusMap();
+        map.initializeData("campus_buildings.tsv", "campus_paths.tsv");
+        for (String end : new String[] {"MGH", "KNE", "BAG"}) {
+            Path<Node<Point>> path = map.findShortestPath("CSE", end);
+            assertEquals(gson.toJson(path), write(path));
+        }
+    }
+
+    /*
+     * Test that doubles that print awkwardly are written as Gson writes them: integral values,
+     * very large and very small exponents, negatives, negative zero and the extremes
+     */
+    @Test
+    public void testAwkwardDoubles() throws IOException {
+        double[] numbers = {0.0, -0.0, 1.0, -1.0, 100.0, 1e7, 1.0E-3, 9.999999e-4, 1e300, -1e300,
+                1e-300, -1e-300, 123456789.0, 0.1 + 0.2, Double.MAX_VALUE, Double.MIN_VALUE,
+                -Double.MAX_VALUE};
+        for (double x : numbers) {
+            for (double y : new double[] {x, -x, 2.5}) {
+                Path<Node<Point>> path = pathOf(new Point(x, y), Math.abs(x) / 4, // Finite, summed
+                        new Point(y, x), new Point(-x, -y));
+                assertEquals(gson.toJson(path), write(path));
+            }
+        }
+    }
+
+    /*
+     * Test that no path is written as null, as Gson writes it
+     */
+    @Test
+    public void testNoPath() throws IOException {
+        assertEquals(gson.toJson(null), write(null));
+    }
+
+    /*
+     * Test that a list of paths, some missing, is written as the array Gson writes, even when
+     * it is longer than the writer's buffer
+     */
+    @Test
+    public void testWriteAll() throws IOException {
+        List<Path<Node<Point>>> paths = new ArrayList<>(Arrays.asList(
+                pathOf(new Point(1, 2), 3, new Point(4, 5)), null, pathOf(new Point(-1e-9, 7e21), 0)));
+        Point[] points = new Point[200];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new Point(i * 1.1, -i / 3.0);
+        }
+        paths.add(pathOf(new Point(0, 0), 0.7, points));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PathJsonWriter.writeAll(paths, out);
+        assertEquals(gson.toJson(paths), out.toString(StandardCharsets.UTF_8));
+    }
+}
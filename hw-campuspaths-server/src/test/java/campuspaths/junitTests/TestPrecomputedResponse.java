@@ -0,0 +1,222 @@
+package campuspaths.junitTests;
+
+import campuspaths.utils.PrecomputedResponse;
+import org.junit.Before;
+import org.junit.Test;
+import spark.Request;
+import spark.RequestResponseFactory;
+import spark.Response;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+/*
+ * To test that a PrecomputedResponse answers with 304s for ETags the client holds, and picks
+ * the gzip variant only for clients that accept it
+ */
+public class TestPrecomputedResponse {
+    private final String text = "{\"buildings\":[\"CSE\",\"MGH\",\"KNE\"]}";
+    private PrecomputedResponse response;
+    private Map<String, String> sentHeaders; // headers of the last response, by lower case name
+    private int sentStatus; // status of the last response, 200 unless set
+    private ByteArrayOutputStream sentBody; // bytes written straight out by the last response
+    private Object returned; // what serve returned for the last response
+
+    @Before
+    public void setUp() {
+        response = new PrecomputedResponse(text, "application/json");
+    }
+
+    /*
+     * Serves a request with the given headers, as name then value, and keeps what was sent
+     */
+    private void serve(String... headers) throws IOException {
+        Map<String, String> requestHeaders = new HashMap<>();
+        for (int i = 0; i < headers.length; i += 2) {
+            requestHeaders.put(headers[i].toLowerCase(), headers[i + 1]);
+        }
+        sentHeaders = new HashMap<>();
+        sentStatus = HttpServletResponse.SC_OK;
+        sentBody = new ByteArrayOutputStream();
+        ServletOutputStream out = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                sentBody.write(b);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+            }
+        };
+        HttpServletRequest rawRequest = (HttpServletRequest) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[] {HttpServletRequest.class},
+                (proxy, method, args) -> method.getName().equals("getHeader")
+                        ? requestHeaders.get(((String) args[0]).toLowerCase()) : null);
+        HttpServletResponse rawResponse = (HttpServletResponse) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[] {HttpServletResponse.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "addHeader":
+                        case "setHeader":
+                            sentHeaders.put(((String) args[0]).toLowerCase(), (String) args[1]);
+                            return null;
+                        case "setContentType":
+                            sentHeaders.put("content-type", (String) args[0]);
+                            return null;
+                        case "setContentLength":
+                            sentHeaders.put("content-length", String.valueOf(args[0]));
+                            return null;
+                        case "setStatus":
+                            sentStatus = (Integer) args[0];
+                            return null;
+                        case "getOutputStream":
+                            return out;
+                        default:
+                            return null;
+                    }
+                });
+        Request req = RequestResponseFactory.create(rawRequest);
+        Response res = RequestResponseFactory.create(rawResponse);
+        returned = response.serve(req, res);
+    }
+
+    /*
+     * Asserts that the last response was a 304 with no body
+     */
+    private void assertNotModified() {
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, sentStatus);
+        assertEquals("", returned);
+        assertEquals(0, sentBody.size());
+        assertNull(sentHeaders.get("content-encoding"));
+    }
+
+    /*
+     * Returns the bytes of the last response's body, whether returned or written straight out
+     */
+    private byte[] body() {
+        return (returned instanceof byte[]) ? (byte[]) returned : sentBody.toByteArray();
+    }
+
+    /*
+     * Test that a client without gzip gets the plain body, with an ETag, and Vary set
+     */
+    @Test
+    public void testPlain() throws IOException {
+        serve();
+        assertEquals(HttpServletResponse.SC_OK, sentStatus);
+        assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), body());
+        assertNull(sentHeaders.get("content-encoding"));
+        assertEquals("Accept-Encoding", sentHeaders.get("vary"));
+        assertEquals("application/json; charset=utf-8", sentHeaders.get("content-type"));
+    }
+
+    /*
+     * Test that a client accepting gzip gets the gzip body under its own ETag, and Vary set
+     */
+    @Test
+    public void testGzip() throws IOException {
+        serve();
+        String plainTag = sentHeaders.get("etag");
+        serve("Accept-Encoding", "deflate, gzip");
+        assertEquals(HttpServletResponse.SC_OK, sentStatus);
+        assertEquals("gzip", sentHeaders.get("content-encoding"));
+        assertEquals("Accept-Encoding", sentHeaders.get("vary"));
+        assertNotEquals(plainTag, sentHeaders.get("etag"));
+        assertEquals(String.valueOf(sentBody.size()), sentHeaders.get("content-length"));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body()))) {
+            assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), in.readAllBytes());
+        }
+    }
+
+    /*
+     * Test that gzip with a q of 0 is refused, and the plain body is sent
+     */
+    @Test
+    public void testGzipRefused() throws IOException {
+        for (String accept : new String[] {"gzip;q=0", "gzip; q=0.0", "br, gzip;q=0", "*;q=0"}) {
+            serve("Accept-Encoding", accept);
+            assertNull(accept, sentHeaders.get("content-encoding"));
+            assertArrayEquals(accept, text.getBytes(StandardCharsets.UTF_8), body());
+            assertEquals("Accept-Encoding", sentHeaders.get("vary"));
+        }
+    }
+
+    /*
+     * Test that a matching ETag, of either variant, gets a 304 with an empty body
+     */
+    @Test
+    public void testMatchingEtag() throws IOException {
+        serve();
+        String plainTag = sentHeaders.get("etag");
+        serve("Accept-Encoding", "gzip");
+        String gzipTag = sentHeaders.get("etag");
+        serve("If-None-Match", plainTag);
+        assertNotModified();
+        serve("Accept-Encoding", "gzip", "If-None-Match", gzipTag);
+        assertNotModified();
+        assertEquals("Accept-Encoding", sentHeaders.get("vary"));
+        serve("If-None-Match", gzipTag); // Either variant is the same content
+        assertNotModified();
+    }
+
+    /*
+     * Test that a weak ETag, an ETag in a list, and * all get a 304 with an empty body
+     */
+    @Test
+    public void testWeakListedAndStarEtags() throws IOException {
+        serve();
+        String tag = sentHeaders.get("etag");
+        serve("If-None-Match", "W/" + tag);
+        assertNotModified();
+        serve("If-None-Match", "\"other\", " + tag + " ,\"another\"");
+        assertNotModified();
+        serve("If-None-Match", "*");
+        assertNotModified();
+    }
+
+    /*
+     * Test that an ETag that does not match gets a 200 with the whole body
+     */
+    @Test
+    public void testNonMatchingEtag() throws IOException {
+        serve();
+        String tag = sentHeaders.get("etag");
+        serve("If-None-Match", "\"other\", W/\"another\"");
+        assertEquals(HttpServletResponse.SC_OK, sentStatus);
+        assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), body());
+        serve("If-None-Match", tag.substring(0, tag.length() - 2) + "\""); // Cut short
+        assertEquals(HttpServletResponse.SC_OK, sentStatus);
+    }
+
+    /*
+     * Test that different bodies have different ETags
+     */
+    @Test
+    public void testEtagsDiffer() throws IOException {
+        serve();
+        String tag = sentHeaders.get("etag");
+        response = new PrecomputedResponse(text + " ", "application/json");
+        serve();
+        assertNotEquals(tag, sentHeaders.get("etag"));
+    }
+}
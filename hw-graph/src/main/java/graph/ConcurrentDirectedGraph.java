@@ -0,0 +1,365 @@
+package graph;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * This class represents the concept of a directed graph, like DirectedGraph, that many threads
+ * can read and change at once.  Adding and removing nodes and edges are linearizable: each one
+ * appears to happen all at once, at some moment between its call and its return.  The sets
+ * returned by listNodes, listChildren and listParents are weakly consistent views, as for
+ * ConcurrentHashMap: they never throw ConcurrentModificationException, they show everything
+ * that was in the graph when they were created and not removed since, and they may or may not
+ * show changes made while they are being read.
+ * A ConcurrentDirectedGraph has type parameters, NodeType the type of data stored in the node
+ * (ex: String) and EdgeType the type of data stored in the edges (ex: Double).
+ */
+
+public class ConcurrentDirectedGraph<NodeType, EdgeType> implements Graph<NodeType, EdgeType> {
+
+    private static final int STRIPES = 64; // number of locks, a power of two
+
+    private final ConcurrentHashMap<Node<NodeType>, Set<Edge<NodeType, EdgeType>>> graph;
+    private final ConcurrentHashMap<Node<NodeType>, Set<Edge<NodeType, EdgeType>>> parents; // incoming edges
+    private final ReentrantLock[] locks; // locks[stripe(node)] guards changes touching node
+    private final AtomicInteger edgeSize; // number of non-reflexive edges
+
+    // Abstraction Function:
+    //   A ConcurrentDirectedGraph g represents the same directed graph as a DirectedGraph with
+    //   the same graph and parents maps: the nodes are the keys of g.graph, each mapped to its
+    //   set of outgoing edges, and g.parents holds the same edges grouped by end node.
+    //   If a graph has no nodes (thus, no edges), the graph represents an empty non-null graph.
+
+    // Representation invariant for every ConcurrentDirectedGraph g, whenever no change is
+    // part way done (every lock is free):
+    // g.graph != null && g.parents != null && g.locks != null && g.edgeSize != null &&
+    // g.parents.keySet().equals(g.graph.keySet()) &&
+    // forall edges e, g.graph.get(e.getStart()).contains(e) iff g.parents.get(e.getEnd()).contains(e) &&
+    // forall edges e in g.graph, e.getStart() and e.getEnd() are keys of g.graph &&
+    // g.edgeSize.get() == the number of edges e in g.graph with e.getStart() != e.getEnd()
+    // In other words,
+    //   * every field always points to some usable object
+    //   * parents holds exactly the edges of graph, grouped by end node instead of start node
+    //   * every edge joins two nodes of the graph
+    //   * the edge count is the number of non-reflexive edges
+    // A change that touches a node is only made while holding that node's lock, so changes to
+    // the same nodes never interleave.  Readers take no locks.
+
+    // Change this to run expensive methods in checkRep() if set to true, otherwise does not run.
+    private final boolean needsCheckRep = false;
+
+    /**
+     * Constructs a ConcurrentDirectedGraph.
+     * @spec.effects Constructs a new, empty ConcurrentDirectedGraph.
+     */
+    public ConcurrentDirectedGraph() {
+        graph = new ConcurrentHashMap<>();
+        parents = new ConcurrentHashMap<>();
+        locks = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        edgeSize = new AtomicInteger();
+        checkRep();
+    }
+
+    /**
+     * Adds a node to the graph.
+     * @param node that is added to the graph
+     * @spec.requires node != null
+     * @spec.effects Adds a node to the graph, if not in the graph.  Otherwise, does not add.
+     */
+    @Override
+    public void addNode(Node<NodeType> node) {
+        ReentrantLock lock = locks[stripe(node)];
+        lock.lock();
+        try {
+            if (!graph.containsKey(node)) { // If node not in graph
+                parents.put(node, ConcurrentHashMap.newKeySet()); // Index first, so it is ready
+                graph.put(node, ConcurrentHashMap.newKeySet());
+            }
+        } finally {
+            lock.unlock();
+        }
+        checkRep();
+    }
+
+    /**
+     * Adds a directed edge to the graph.
+     * @param edge that is to be added to the graph
+     * @spec.requires edge != null
+     * @spec.effects Adds the directed edge to the graph, if both its nodes are in the graph and
+     * the edge is not.  Otherwise, does not.
+     */
+    @Override
+    public void addEdge(Edge<NodeType, EdgeType> edge) {
+        Node<NodeType> startNode = edge.getStart();
+        Node<NodeType> endNode = edge.getEnd();
+        int[] stripes = lockStripes(stripe(startNode), stripe(endNode));
+        try {
+            Set<Edge<NodeType, EdgeType>> children = graph.get(startNode);
+            if (children != null && graph.containsKey(endNode) && children.add(edge)) {
+                parents.get(endNode).add(edge);
+                if (!startNode.equals(endNode)) { // Ignores reflexive
+                    edgeSize.incrementAndGet();
+                }
+            }
+        } finally {
+            unlockStripes(stripes);
+        }
+        checkRep();
+    }
+
+    /**
+     * Removes a node from the graph, along with every edge into or out of it.
+     * @param node that is removed from the graph
+     * @spec.requires node != null
+     * @spec.effects Removes a node from the graph, if in the graph.  Otherwise, does not remove.
+     * @return the node that was removed, or null if it was not in the graph
+     */
+    @Override
+    public Node<NodeType> removeNode(Node<NodeType> node) {
+        if (node == null) {
+            return null;
+        }
+        while (true) {
+            // Lock the node and every neighbour, then check that no neighbour was added
+            // before the node's own lock was taken; if one was, try again with it too
+            int[] stripes = lockStripes(neighbourStripes(node));
+            try {
+                if (!graph.containsKey(node)) {
+                    return null; // No node was removed
+                }
+                if (!covers(stripes, neighbourStripes(node))) {
+                    continue;
+                }
+                Set<Edge<NodeType, EdgeType>> outgoing = graph.remove(node); // This node and its outgoing edges
+                Set<Edge<NodeType, EdgeType>> incoming = parents.remove(node); // and its incoming edges
+                for (Edge<NodeType, EdgeType> edge : outgoing) { // Unlink outgoing edges from their children
+                    if (!edge.getEnd().equals(node)) { // Ignores reflexive, already gone with node
+                        parents.get(edge.getEnd()).remove(edge);
+                        edgeSize.decrementAndGet();
+                    }
+                }
+                for (Edge<NodeType, EdgeType> edge : incoming) { // Unlink incoming edges from their parents
+                    if (!edge.getStart().equals(node)) { // Ignores reflexive, already gone with node
+                        graph.get(edge.getStart()).remove(edge);
+                        edgeSize.decrementAndGet();
+                    }
+                }
+                return node; // Node that was removed
+            } finally {
+                unlockStripes(stripes);
+                checkRep();
+            }
+        }
+    }
+
+    /**
+     * Removes a directed edge from the graph.
+     * @param edge that is to be removed from the graph
+     * @spec.requires edge != null
+     * @spec.effects Removes the directed edge from the graph, if in the graph.
+     * Otherwise, does not.  Both nodes connected by this edge still remain after removal.
+     * @return the edge that was removed, or null if it was not in the graph
+     */
+    @Override
+    public Edge<NodeType, EdgeType> removeEdge(Edge<NodeType, EdgeType> edge) {
+        Node<NodeType> startNode = edge.getStart();
+        int[] stripes = lockStripes(stripe(startNode), stripe(edge.getEnd()));
+        try {
+            Set<Edge<NodeType, EdgeType>> children = graph.get(startNode);
+            if (children != null && children.remove(edge)) { // If edge is in graph, remove it
+                parents.get(edge.getEnd()).remove(edge);
+                if (!startNode.equals(edge.getEnd())) {
+                    edgeSize.decrementAndGet();
+                }
+                return edge; // Edge that was removed
+            }
+            return null; // No edge was removed
+        } finally {
+            unlockStripes(stripes);
+            checkRep();
+        }
+    }
+
+    /**
+     * Returns an unordered, unmodifiable, weakly consistent view of the nodes of this graph
+     * @return an unmodifiable set of nodes of this graph
+     */
+    @Override
+    public Set<Node<NodeType>> listNodes() {
+        return Collections.unmodifiableSet(graph.keySet());
+    }
+
+    /**
+     * Returns an unsorted, unmodifiable, weakly consistent view of the children edges of this
+     * node.  If the node is not in the graph, or is removed, the view is empty.
+     * @param parentNode the node whose children are listed
+     * @param includeSelf boolean to include parent as a child, true if considering reflexive edges
+     * @spec.requires parentNode != null
+     * @return an unmodifiable set of edges in this graph, of this parent node
+     */
+    @Override
+    public Set<Edge<NodeType, EdgeType>> listChildren(Node<NodeType> parentNode, boolean includeSelf) {
+        return new EdgeSetView<>(graph.getOrDefault(parentNode, Collections.emptySet()), parentNode, includeSelf);
+    }
+
+    /**
+     * Calls action once for every child edge of this node, as listChildren would list them.
+     * @param parentNode the node whose children are visited
+     * @param includeSelf boolean to include parent as a child, true if considering reflexive edges
+     * @param action what to do with each child edge
+     * @spec.requires parentNode and action are not null
+     */
+    @Override
+    public void forEachChild(Node<NodeType> parentNode, boolean includeSelf,
+                             Consumer<? super Edge<NodeType, EdgeType>> action) {
+        for (Edge<NodeType, EdgeType> child : graph.getOrDefault(parentNode, Collections.emptySet())) {
+            if (includeSelf || !child.getEnd().equals(parentNode)) { // considering reflexive
+                action.accept(child);
+            }
+        }
+    }
+
+    /**
+     * Returns an unsorted, unmodifiable, weakly consistent view of the parent edges of this
+     * node, that is the edges that end at this node.  If the node is not in the graph, or is
+     * removed, the view is empty.
+     * @param childNode the node whose parents are listed
+     * @param includeSelf boolean to include child as a parent, true if considering reflexive edges
+     * @spec.requires childNode != null
+     * @return an unmodifiable set of edges in this graph, of this child node
+     */
+    @Override
+    public Set<Edge<NodeType, EdgeType>> listParents(Node<NodeType> childNode, boolean includeSelf) {
+        return new EdgeSetView<>(parents.getOrDefault(childNode, Collections.emptySet()), childNode, includeSelf);
+    }
+
+    /**
+     * Returns a string representation of this graph, in the same form as
+     * DirectedGraph#toString().  Changes made while it is being built may or may not show.
+     * @return a String representation of this graph.
+     */
+    @Override
+    public String toString() {
+        return GraphFormat.describe(this);
+    }
+
+    /**
+     * Returns if graph contains node.
+     * @param node the node in question
+     * @return a boolean, true if node is in the graph.  False otherwise.
+     */
+    @Override
+    public boolean containsNode(Node<NodeType> node) {
+        return graph.containsKey(node);
+    }
+
+    /**
+     * Returns the size of this graph.
+     * @return an int; the number of nodes in this graph
+     */
+    @Override
+    public int size() {
+        return graph.size();
+    }
+
+    /**
+     * Returns the number of non-reflexive edges in this graph.
+     * @return an int; the number of non-reflexive edges in this graph
+     */
+    @Override
+    public int getEdgeCount() {
+        return edgeSize.get();
+    }
+
+    /**
+     * Returns if graph is empty.
+     * @return a boolean; true if graph has no nodes, false otherwise
+     */
+    @Override
+    public boolean isEmpty() {
+        return graph.isEmpty();
+    }
+
+    /*
+     * Returns the index of the lock guarding node
+     */
+    private static int stripe(Node<?> node) {
+        int hash = node.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    /*
+     * Returns the stripes of node and of every node joined to it by an edge, as they are now
+     */
+    private int[] neighbourStripes(Node<NodeType> node) {
+        BitSet stripes = new BitSet(STRIPES);
+        stripes.set(stripe(node));
+        for (Edge<NodeType, EdgeType> edge : graph.getOrDefault(node, Collections.emptySet())) {
+            stripes.set(stripe(edge.getEnd()));
+        }
+        for (Edge<NodeType, EdgeType> edge : parents.getOrDefault(node, Collections.emptySet())) {
+            stripes.set(stripe(edge.getStart()));
+        }
+        return stripes.stream().toArray();
+    }
+
+    /*
+     * Returns true if every stripe in needed is in held
+     */
+    private static boolean covers(int[] held, int[] needed) {
+        for (int stripe : needed) {
+            if (Arrays.binarySearch(held, stripe) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Locks the given stripes in increasing order, so that threads never wait on each other
+     * in a cycle, and returns them sorted without repeats for unlockStripes
+     */
+    private int[] lockStripes(int... stripes) {
+        int[] sorted = Arrays.stream(stripes).sorted().distinct().toArray();
+        for (int stripe : sorted) {
+            locks[stripe].lock();
+        }
+        return sorted;
+    }
+
+    /*
+     * Unlocks stripes locked by lockStripes
+     */
+    private void unlockStripes(int[] stripes) {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            locks[stripes[i]].unlock();
+        }
+    }
+
+    /*
+        Throws an exception if the representation invariant is violated.  Only meaningful
+        when no other thread is changing the graph.
+     */
+    private void checkRep() {
+        assert (graph != null && parents != null && locks != null && edgeSize != null) : "Fields cannot be null";
+        if (needsCheckRep) { // Only check expensive checks if needed
+            int nonReflexive = 0;
+            for (Map.Entry<Node<NodeType>, Set<Edge<NodeType, EdgeType>>> entry : graph.entrySet()) {
+                assert (parents.containsKey(entry.getKey())) : "Node missing from parents index";
+                for (Edge<NodeType, EdgeType> e : entry.getValue()) {
+                    assert (parents.get(e.getEnd()).contains(e)) : "Edge missing from parents index";
+                    if (!e.getStart().equals(e.getEnd())) {
+                        nonReflexive++;
+                    }
+                }
+            }
+            assert (nonReflexive == edgeSize.get()) : "Edge count is wrong";
+        }
+    }
+}
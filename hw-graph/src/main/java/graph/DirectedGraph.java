@@ -1,6 +1,11 @@
 package graph;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 /**
  * This class represents the concept of a directed graph, which have may have Nodes and Edges.
@@ -12,10 +17,13 @@ import java.util.*;
 public class DirectedGraph<NodeType, EdgeType> implements Graph<NodeType, EdgeType> {
 
     private final Map<Node<NodeType>, Set<Edge<NodeType, EdgeType>>> graph;
+    private final Map<Node<NodeType>, Set<Edge<NodeType, EdgeType>>> parents; // incoming edges
 
     // Abstraction Function:
     //   A DirectedGraph g represents a directed graph which have nodes and each node
-    //   has a set of outgoing edges associated with that node.  This means,
+    //   has a set of outgoing edges associated with that node.  Each node is also
+    //   mapped in parents to the set of its incoming edges, which is an index of the
+    //   same edges, kept so a node's parents can be found without a full scan.  This means,
     //   by definition, that a node with no outgoing edges is either an
     //   end node or an island node.
     //   There are no duplicate nodes or edges and the graph is mutable as nodes and edges
@@ -23,7 +31,8 @@ public class DirectedGraph<NodeType, EdgeType> implements Graph<NodeType, EdgeTy
     //   If a graph has no nodes (thus, no edges), the graph represents an empty non-null graph.
 
     // Representation invariant for every DirectedGraph g:
-    // g.graph != null &&
+    // g.graph != null && g.parents != null && g.parents.keySet().equals(g.graph.keySet()) &&
+    // forall edges e, g.graph.get(e.getStart()).contains(e) iff g.parents.get(e.getEnd()).contains(e) &&
     // forall i such that (0 <= i < g.graph.size()), g.graph.get(i) != null &&
     // forall i such that (0 <= i < g.graph.size() - 1), g.graph.get(i) != g.graph.get(i+1) &&
     // forall j such that (0 <= j < g.graph.get(i).size()), g.graph.get(i).get(j) != null &&
@@ -35,6 +44,7 @@ public class DirectedGraph<NodeType, EdgeType> implements Graph<NodeType, EdgeTy
     //   * there are no duplicate nodes in the graph (by definition of a map)
     //   * no outgoing edge in the graph for any node is null
     //   * there are no duplicate outgoing edges in the graph for any node (by definition of a set)
+    //   * parents holds exactly the edges of graph, grouped by end node instead of start node
 
     // Change this to run expensive methods in checkRep() if set to true, otherwise does not run.
     private final boolean needsCheckRep = false;
@@ -47,6 +57,7 @@ public class DirectedGraph<NodeType, EdgeType> implements Graph<NodeType, EdgeTy
      */
     public DirectedGraph() {
         graph = new HashMap<>();
+        parents = new HashMap<>();
         edgeSize = 0;
     }
 
@@ -60,6 +71,7 @@ public class DirectedGraph<NodeType, EdgeType> implements Graph<NodeType, EdgeTy
     public void addNode(Node<NodeType> node) {
         if (!graph.containsKey(node)) { // If node not in graph
             graph.put(node, new HashSet<>());
+            parents.put(node, new HashSet<>());
         }
         checkRep();
     }
@@ -78,8 +90,8 @@ public class DirectedGraph<NodeType, EdgeType> implements Graph<NodeType, EdgeTy
         Node<NodeType> endNode = edge.getEnd();
         // If edge has valid arguments to be added
         if (graph.containsKey(startNode) && graph.containsKey(endNode)) {
-            if (!graph.get(startNode).contains(edge)) { // And edge not in graph already
-                graph.get(startNode).add(edge);
+            if (graph.get(startNode).add(edge)) { // And edge not in graph already
+                parents.get(endNode).add(edge);
                 if (!startNode.equals(endNode)) { // Ignores reflexive
                     edgeSize++;
                 }
@@ -94,28 +106,28 @@ public class DirectedGraph<NodeType, EdgeType> implements Graph<NodeType, EdgeTy
      * @spec.requires node != null
      * @spec.effects Removes a node from the graph, if in the graph.
      * Otherwise, does not remove.  Note that removing this node removes
-     * any nodes/edges in contact with this node.
+     * any nodes/edges in contact with this node.  Only the edges touching this node
+     * are visited, so this takes time proportional to the node's degree.
      * @return the node that was removed
      */
     @Override
     public Node<NodeType> removeNode(Node<NodeType> node) {
         if (node != null && graph.containsKey(node)) { // graph has this node
-            edgeSize -= graph.get(node).size();
-            graph.remove(node); // Removes this node and all its outgoing edges
-            Iterator<Map.Entry<Node<NodeType>, Set<Edge<NodeType, EdgeType>>>> itr = graph.entrySet().iterator();
-            while (itr.hasNext()) { // Traverses all remaining Node<NodeType>s
-                Map.Entry<Node<NodeType>, Set<Edge<NodeType, EdgeType>>> entry = itr.next();
-                Iterator<Edge<NodeType, EdgeType>> eItr = entry.getValue().iterator();
-                while (eItr.hasNext()) { // Traverses outgoing edges of remaining node
-                    Edge<NodeType, EdgeType> edge = eItr.next();
-                    if (edge.getEnd().equals(node)) { // If outgoing edge is to this removed node
-                        removeEdge(edge); // Removes this outgoing edge leading to removed node
-                        if (!edge.getStart().equals(edge.getEnd())) {
-                            edgeSize--; // Reduce non-reflexive edge count
-                        }
-                    }
+            Set<Edge<NodeType, EdgeType>> outgoing = graph.remove(node); // This node and its outgoing edges
+            Set<Edge<NodeType, EdgeType>> incoming = parents.remove(node); // and its incoming edges
+            for (Edge<NodeType, EdgeType> edge : outgoing) { // Unlink outgoing edges from their children
+                if (!edge.getEnd().equals(node)) { // Ignores reflexive, already gone with node
+                    parents.get(edge.getEnd()).remove(edge);
+                    edgeSize--;
                 }
             }
+            for (Edge<NodeType, EdgeType> edge : incoming) { // Unlink incoming edges from their parents
+                if (!edge.getStart().equals(node)) { // Ignores reflexive, already gone with node
+                    graph.get(edge.getStart()).remove(edge);
+                    edgeSize--;
+                }
+            }
+            checkRep();
             return node; // Node that was removed
         }
         return null; // No node was removed
@@ -135,8 +147,8 @@ public class DirectedGraph<NodeType, EdgeType> implements Graph<NodeType, EdgeTy
     public Edge<NodeType, EdgeType> removeEdge(Edge<NodeType, EdgeType> edge) {
         Node<NodeType> startNode = edge.getStart();
         if (graph.containsKey(startNode)) { // If edge has startNode in graph
-            if (graph.get(startNode).contains(edge)) { // If edge is in graph
-                graph.get(startNode).remove(edge); // Remove edge requested for removal
+            if (graph.get(startNode).remove(edge)) { // If edge is in graph, remove it
+                parents.get(edge.getEnd()).remove(edge);
                 if (!edge.getStart().equals(edge.getEnd())) {
                     edgeSize--;
                 }
@@ -156,7 +168,9 @@ public class DirectedGraph<NodeType, EdgeType> implements Graph<NodeType, EdgeTy
     }
 
     /**
-     * Returns an unsorted unmodifiable set of children edges of this node
+     * Returns an unsorted unmodifiable view of the children edges of this node.  Nothing is
+     * copied, reflexive edges are skipped as the view is read, and later changes to this
+     * node's edges show through the view.
      * @param parentNode that is in this graph
      * @param includeSelf boolean to include parent as a child, true if considering reflexive edges
      * @spec.requires node is in graph, boolean is not null
@@ -164,13 +178,37 @@ public class DirectedGraph<NodeType, EdgeType> implements Graph<NodeType, EdgeTy
      */
     @Override
     public Set<Edge<NodeType, EdgeType>> listChildren(Node<NodeType> parentNode, boolean includeSelf) {
-        Set<Edge<NodeType, EdgeType>> edges = new HashSet<>();
+        return new EdgeSetView<>(graph.get(parentNode), parentNode, includeSelf);
+    }
+
+    /**
+     * Calls action once for every child edge of this node, without building any set.
+     * @param parentNode that is in this graph
+     * @param includeSelf boolean to include parent as a child, true if considering reflexive edges
+     * @param action what to do with each child edge
+     * @spec.requires node is in graph, action is not null, action does not modify this graph
+     */
+    @Override
+    public void forEachChild(Node<NodeType> parentNode, boolean includeSelf,
+                             Consumer<? super Edge<NodeType, EdgeType>> action) {
         for (Edge<NodeType, EdgeType> child : graph.get(parentNode)) {
-            if (!child.getEnd().equals(parentNode) || includeSelf) { // considering reflexive
-                edges.add(child);
+            if (includeSelf || !child.getEnd().equals(parentNode)) { // considering reflexive
+                action.accept(child);
             }
         }
-        return Collections.unmodifiableSet(edges);
+    }
+
+    /**
+     * Returns an unsorted unmodifiable view of the parent edges of this node, that is the
+     * edges that end at this node.  Like listChildren, nothing is copied.
+     * @param childNode that is in this graph
+     * @param includeSelf boolean to include child as a parent, true if considering reflexive edges
+     * @spec.requires node is in graph, boolean is not null
+     * @return an unmodifiable set of edges in this graph, of this child node
+     */
+    @Override
+    public Set<Edge<NodeType, EdgeType>> listParents(Node<NodeType> childNode, boolean includeSelf) {
+        return new EdgeSetView<>(parents.get(childNode), childNode, includeSelf);
     }
 
     /**
@@ -187,28 +225,7 @@ public class DirectedGraph<NodeType, EdgeType> implements Graph<NodeType, EdgeTy
      */
     @Override
     public String toString() {
-        String graphString = "graph contains:";
-        Set<Node<NodeType>> sortedNodes = listNodes();
-        List<Node<NodeType>> parentNodes = new ArrayList<>();
-        List<Set<Edge<NodeType, EdgeType>>> sortedChildren = new ArrayList<>();
-        // Saves all parent nodes in graph
-        for (Node<NodeType> node : sortedNodes) {
-            graphString += " " + node.toString();
-            parentNodes.add(node);
-            sortedChildren.add(listChildren(node, true));
-        }
-        graphString += "\n";
-        int parentIndex = 0;
-        // Then, saves all children of those parent nodes
-        for (Set<Edge<NodeType, EdgeType>> childrenSet : sortedChildren) {
-            graphString += "the children of " + parentNodes.get(parentIndex) + " are:";
-            for (Edge<NodeType, EdgeType> child : childrenSet) {
-                graphString += " " + child.getEnd().toString() + "(" + child.getLabel() + ")";
-            }
-            graphString += "\n";
-            parentIndex++; // Go to next parent node
-        }
-        return graphString;
+        return GraphFormat.describe(this);
     }
 
     /**
@@ -237,6 +254,87 @@ public class DirectedGraph<NodeType, EdgeType> implements Graph<NodeType, EdgeTy
         return edgeSize;
     }
 
+    /**
+     * Returns a read-only snapshot of this graph, packed for fast repeated queries.
+     * @return an ImmutableGraph with the nodes and edges currently in this graph.  Later
+     * changes to this graph are not seen by the snapshot.
+     */
+    public ImmutableGraph<NodeType, EdgeType> freeze() {
+        return new ImmutableGraph<>(this);
+    }
+
+    /**
+     * Returns a new DirectedGraph holding every node and edge of every graph in parts, as if
+     * they had all been added to one graph.  The nodes are split into runs, and pool builds
+     * the outgoing and incoming edge sets of each run in parallel, each set as the union of
+     * the parts' sets for that node, so no two workers ever touch the same set.
+     * @param parts the graphs to merge, ex: pieces of one graph built by separate threads
+     * @param pool where to run the merge
+     * @param <NodeType> the type of data stored in the nodes
+     * @param <EdgeType> the type of data stored in the edges
+     * @spec.requires parts and pool are not null, and no part is null
+     * @return a new DirectedGraph with the union of the nodes and edges of parts
+     * @throws IllegalStateException if the merge is interrupted
+     */
+    public static <NodeType, EdgeType> DirectedGraph<NodeType, EdgeType> merge(
+            Collection<? extends Graph<NodeType, EdgeType>> parts, ForkJoinPool pool) {
+        Set<Node<NodeType>> allNodes = new LinkedHashSet<>();
+        for (Graph<NodeType, EdgeType> part : parts) {
+            allNodes.addAll(part.listNodes());
+        }
+        List<Node<NodeType>> nodes = new ArrayList<>(allNodes);
+        List<Set<Edge<NodeType, EdgeType>>> children = new ArrayList<>(Collections.nCopies(nodes.size(), null));
+        List<Set<Edge<NodeType, EdgeType>>> incoming = new ArrayList<>(Collections.nCopies(nodes.size(), null));
+        int runs = Math.min(nodes.size(), pool.getParallelism() * 4); // a few runs per worker, for balance
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int run = 0; run < runs; run++) {
+            int from = (int) ((long) nodes.size() * run / runs);
+            int to = (int) ((long) nodes.size() * (run + 1) / runs);
+            tasks.add(() -> { // Fills in nodes from..to-1 and counts their non-reflexive edges
+                int nonReflexive = 0;
+                for (int i = from; i < to; i++) {
+                    Node<NodeType> node = nodes.get(i);
+                    Set<Edge<NodeType, EdgeType>> nodeChildren = new HashSet<>();
+                    Set<Edge<NodeType, EdgeType>> nodeParents = new HashSet<>();
+                    for (Graph<NodeType, EdgeType> part : parts) {
+                        if (part.containsNode(node)) {
+                            nodeChildren.addAll(part.listChildren(node, true));
+                            nodeParents.addAll(part.listParents(node, true));
+                        }
+                    }
+                    for (Edge<NodeType, EdgeType> edge : nodeChildren) {
+                        if (!edge.getEnd().equals(node)) { // Ignores reflexive
+                            nonReflexive++;
+                        }
+                    }
+                    children.set(i, nodeChildren); // Each index is only set by one task
+                    incoming.set(i, nodeParents);
+                }
+                return nonReflexive;
+            });
+        }
+        DirectedGraph<NodeType, EdgeType> merged = new DirectedGraph<>();
+        try {
+            for (Future<Integer> result : pool.invokeAll(tasks)) {
+                merged.edgeSize += result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while merging graphs", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        for (int i = 0; i < nodes.size(); i++) { // invokeAll waited, so every set is visible
+            merged.graph.put(nodes.get(i), children.get(i));
+            merged.parents.put(nodes.get(i), incoming.get(i));
+        }
+        merged.checkRep();
+        return merged;
+    }
+
     /**
      * Returns if graph is empty.
      * @return a boolean; true if graph has no nodes, false otherwise
@@ -250,7 +348,7 @@ public class DirectedGraph<NodeType, EdgeType> implements Graph<NodeType, EdgeTy
         Throws an exception if the representation invariant is violated.
      */
     private void checkRep() {
-        assert (graph != null); // graph cannot be null
+        assert (graph != null && parents != null); // graph and its index cannot be null
         if (needsCheckRep) { // Only check expensive checks if needed
             Iterator<Map.Entry<Node<NodeType>, Set<Edge<NodeType, EdgeType>>>> itr = graph.entrySet().iterator();
             while (itr.hasNext()) {
@@ -260,6 +358,7 @@ public class DirectedGraph<NodeType, EdgeType> implements Graph<NodeType, EdgeTy
                 while (eItr.hasNext()) {
                     Edge<NodeType, EdgeType> e = eItr.next();
                     assert (e != null) : "Graph cannot have a null edge";
+                    assert (parents.get(e.getEnd()).contains(e)) : "Edge missing from parents index";
                 }
             }
         }
@@ -10,6 +10,7 @@ public class Edge<NodeType, EdgeType> {
     private final Node<NodeType> startNode;
     private final Node<NodeType> endNode;
     private final EdgeType label;
+    private final transient int hash; // hash of the nodes and label, worked out once
 
     // Abstraction Function:
     //   An Edge e is immutable and contains two non-null nodes, a startNode and endNode,
@@ -23,6 +24,7 @@ public class Edge<NodeType, EdgeType> {
     // In other words,
     //   * e.startNode and e.endNode are always non-null
     //   * e.label is non-null
+    //   * e.hash caches hashCode(), which cannot change since the edge is immutable
 
     /**
      * Constructs a new Edge.
@@ -36,6 +38,7 @@ public class Edge<NodeType, EdgeType> {
         this.startNode = startNode;
         this.endNode = endNode;
         this.label = label;
+        this.hash = startNode.hashCode() + endNode.hashCode() + label.hashCode();
         checkRep();
     }
 
@@ -80,7 +83,7 @@ public class Edge<NodeType, EdgeType> {
      */
     @Override
     public int hashCode() {
-        return startNode.hashCode() + endNode.hashCode() + label.hashCode();
+        return hash;
     }
 
     /**
@@ -99,7 +102,7 @@ public class Edge<NodeType, EdgeType> {
             return false;
         }
         Edge<?, ?> e = (Edge<?, ?>) obj;
-        return startNode.equals(e.startNode) && endNode.equals(e.endNode) && label.equals(e.label);
+        return hash == e.hash && startNode.equals(e.startNode) && endNode.equals(e.endNode) && label.equals(e.label);
     }
 
     /*
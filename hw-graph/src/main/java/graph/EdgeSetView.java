@@ -0,0 +1,127 @@
+package graph;
+
+import java.util.*;
+
+/**
+ * This class represents a read-only, lazily filtered view of a set of edges that all start
+ * (or all end) at one node, leaving out the reflexive edges of that node if asked to.
+ * Nothing is copied: the view reads straight through to the backing set, so it shows later
+ * changes to that set.  Graphs use it to hand out their adjacency sets without exposing them.
+ * There are type parameters NodeType and EdgeType, each representing the data type stored
+ * in the respective Node and Edge.
+ */
+
+class EdgeSetView<NodeType, EdgeType> extends AbstractSet<Edge<NodeType, EdgeType>> {
+    private final Set<Edge<NodeType, EdgeType>> edges;
+    private final Node<NodeType> node;
+    private final boolean includeSelf;
+
+    // Abstraction Function:
+    //   An EdgeSetView v represents the set of edges in v.edges, minus every edge from v.node
+    //   to itself if v.includeSelf is false.
+
+    // Representation invariant for every EdgeSetView v:
+    // v.edges != null && v.node != null
+    // In other words,
+    //   * the backing set and the node always point to some usable object
+
+    /**
+     * Constructs a new EdgeSetView.
+     * @param edges the set of edges that the view reads through to
+     * @param node the node that every edge in edges starts or ends at
+     * @param includeSelf boolean to keep reflexive edges of node in the view
+     * @spec.requires edges != null and node != null
+     * @spec.effects Constructs a new view of edges, without node's reflexive edges unless includeSelf.
+     */
+    EdgeSetView(Set<Edge<NodeType, EdgeType>> edges, Node<NodeType> node, boolean includeSelf) {
+        this.edges = edges;
+        this.node = node;
+        this.includeSelf = includeSelf;
+        checkRep();
+    }
+
+    /**
+     * Returns an iterator over the edges of this view, which does not support removal.
+     * @return an iterator over the edges of this view
+     */
+    @Override
+    public Iterator<Edge<NodeType, EdgeType>> iterator() {
+        if (includeSelf) { // Nothing to filter out
+            return Collections.unmodifiableSet(edges).iterator();
+        }
+        return new Iterator<Edge<NodeType, EdgeType>>() {
+            private final Iterator<Edge<NodeType, EdgeType>> backingIterator = edges.iterator();
+            private Edge<NodeType, EdgeType> nextEdge = advance();
+
+            @Override
+            public boolean hasNext() {
+                return nextEdge != null;
+            }
+
+            @Override
+            public Edge<NodeType, EdgeType> next() {
+                if (nextEdge == null) {
+                    throw new NoSuchElementException();
+                }
+                Edge<NodeType, EdgeType> edge = nextEdge;
+                nextEdge = advance();
+                return edge;
+            }
+
+            // Returns the next non-reflexive edge of the backing set, or null if there is none
+            private Edge<NodeType, EdgeType> advance() {
+                while (backingIterator.hasNext()) {
+                    Edge<NodeType, EdgeType> edge = backingIterator.next();
+                    if (!isSelf(edge)) {
+                        return edge;
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Returns the number of edges in this view.
+     * @return an int; the number of edges in this view
+     */
+    @Override
+    public int size() {
+        if (includeSelf) {
+            return edges.size();
+        }
+        int count = 0;
+        for (Edge<NodeType, EdgeType> edge : edges) {
+            if (!isSelf(edge)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns if this view contains an edge, using the backing set's lookup.
+     * @param obj the edge in question
+     * @return a boolean; true if obj is an edge in this view, false otherwise
+     */
+    @Override
+    public boolean contains(Object obj) {
+        if (!edges.contains(obj)) {
+            return false;
+        }
+        return includeSelf || !isSelf((Edge<?, ?>) obj);
+    }
+
+    // Returns true if edge goes from node to itself
+    private boolean isSelf(Edge<?, ?> edge) {
+        return edge.getStart().equals(node) && edge.getEnd().equals(node);
+    }
+
+    /*
+        Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert (edges != null) : "Backing edge set cannot be null";
+        assert (node != null) : "View node cannot be null";
+    }
+}
@@ -1,6 +1,7 @@
 package graph;
 
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * An interface of the concept of a graph, which all types of graphs must follow.
@@ -53,6 +54,29 @@ public interface Graph<NodeType, EdgeType> {
      */
     Set<Edge<NodeType, EdgeType>> listChildren(Node<NodeType> parentNode, boolean includeSelf);
 
+    /**
+     * Calls action once for every edge to a child of this parent node.  Unlike listChildren,
+     * implementations can visit the edges without building a set to hold them.
+     * @param parentNode the parent node of the children in graph
+     * @param includeSelf boolean to include parent as a child, true if considering reflexive edges
+     * @param action what to do with each edge associated with this parent node
+     * @spec.requires action does not modify this graph
+     */
+    default void forEachChild(Node<NodeType> parentNode, boolean includeSelf,
+                              Consumer<? super Edge<NodeType, EdgeType>> action) {
+        for (Edge<NodeType, EdgeType> child : listChildren(parentNode, includeSelf)) {
+            action.accept(child);
+        }
+    }
+
+    /**
+     * Returns the set of all edges from parents of this child node
+     * @param childNode the child node of the parents in graph
+     * @param includeSelf boolean to include child as a parent, true if considering reflexive edges
+     * @return a set; the set of edges that end at this child node
+     */
+    Set<Edge<NodeType, EdgeType>> listParents(Node<NodeType> childNode, boolean includeSelf);
+
     /**
      * Returns the size of this graph.
      * @return an int, the size of this graph.
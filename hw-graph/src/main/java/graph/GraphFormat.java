@@ -0,0 +1,55 @@
+package graph;
+
+import java.util.*;
+
+/**
+ * This class holds the string form shared by the graphs in this package, so that any two
+ * graphs with the same nodes and edges print the same, however they were built or stored.
+ */
+
+final class GraphFormat {
+
+    private GraphFormat() {
+    }
+
+    /**
+     * Returns a string representation of graph in the form of all the nodes, and then the
+     * children nodes of each parent node.  The list of nodes and each parent node and their
+     * children are separated by a new line.  Nodes are listed in alphabetical order of their
+     * string forms, and the children of each node in alphabetical order of end node, then label.
+     * Ex:
+     *     graph contains: n0 n1 n2
+     *     the children of n0 are:
+     *     the children of n1 are: n2(e8)
+     *     the children of n2 are:
+     * @param graph the graph to describe
+     * @spec.requires graph != null
+     * @return a String representation of graph.
+     */
+    static <NodeType, EdgeType> String describe(Graph<NodeType, EdgeType> graph) {
+        List<Node<NodeType>> sortedNodes = new ArrayList<>(graph.listNodes());
+        sortedNodes.sort(Comparator.comparing(Node::toString));
+        StringBuilder graphString = new StringBuilder("graph contains:");
+        for (Node<NodeType> node : sortedNodes) { // Saves all parent nodes in graph
+            graphString.append(" ").append(node.toString());
+        }
+        graphString.append("\n");
+        // Then, saves all children of those parent nodes
+        Comparator<Edge<NodeType, EdgeType>> childOrder =
+                Comparator.comparing((Edge<NodeType, EdgeType> edge) -> edge.getEnd().toString())
+                        .thenComparing(edge -> String.valueOf(edge.getLabel()));
+        List<Edge<NodeType, EdgeType>> sortedChildren = new ArrayList<>();
+        for (Node<NodeType> node : sortedNodes) {
+            graphString.append("the children of ").append(node).append(" are:");
+            sortedChildren.clear();
+            sortedChildren.addAll(graph.listChildren(node, true));
+            sortedChildren.sort(childOrder);
+            for (Edge<NodeType, EdgeType> child : sortedChildren) {
+                graphString.append(" ").append(child.getEnd().toString())
+                        .append("(").append(child.getLabel()).append(")");
+            }
+            graphString.append("\n");
+        }
+        return graphString.toString();
+    }
+}
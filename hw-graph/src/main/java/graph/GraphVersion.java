@@ -0,0 +1,485 @@
+package graph;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * This class represents one published version of a VersionedGraph: a directed graph that never
+ * changes, numbered so that later versions have larger numbers.  Readers that hold a
+ * GraphVersion see the same nodes and edges for as long as they keep it, whatever writers do
+ * to the VersionedGraph meanwhile, so they need no locks.
+ * A new version shares almost all of its structure with the one it was made from: the nodes are
+ * split by hash into a fixed number of buckets, and a change copies only the buckets and edge
+ * sets of the nodes it touches.  Since it cannot change, any attempt to add or remove nodes or
+ * edges throws an UnsupportedOperationException.
+ * A GraphVersion has type parameters, NodeType the type of data stored in the node (ex: String)
+ * and EdgeType the type of data stored in the edges (ex: Double).
+ */
+
+public final class GraphVersion<NodeType, EdgeType> implements Graph<NodeType, EdgeType> {
+
+    private static final int BUCKETS = 64; // number of node buckets, a power of two
+
+    private final long version;
+    private final List<Map<Node<NodeType>, Set<Edge<NodeType, EdgeType>>>> children; // bucket -> node -> outgoing edges
+    private final List<Map<Node<NodeType>, Set<Edge<NodeType, EdgeType>>>> parents; // bucket -> node -> incoming edges
+    private final int nodeSize; // number of nodes
+    private final int edgeSize; // number of non-reflexive edges
+
+    // Abstraction Function:
+    //   A GraphVersion g is version number g.version of a graph whose nodes are the keys of the
+    //   maps in g.children, each node n mapped to its set of outgoing edges in the map
+    //   g.children.get(bucket(n)).  g.parents holds the same edges grouped by end node.
+    //   If a graph has no nodes (thus, no edges), the graph represents an empty non-null graph.
+
+    // Representation invariant for every GraphVersion g:
+    // g.children != null && g.parents != null &&
+    // g.children.size() == g.parents.size() == BUCKETS &&
+    // forall nodes n in g.children.get(i), bucket(n) == i and n is a key of g.parents.get(i) &&
+    // forall edges e, e is in the outgoing set of e.getStart() iff it is in the incoming set of e.getEnd() &&
+    // forall edges e, e.getStart() and e.getEnd() are nodes of g &&
+    // g.nodeSize == the number of keys over all maps of g.children &&
+    // g.edgeSize == the number of edges e with e.getStart() != e.getEnd()
+    // No list, map or set reachable from g is changed after g is constructed.
+    // In other words,
+    //   * every node sits in the bucket its hash picks, in both tables
+    //   * parents holds exactly the edges of children, grouped by end node instead of start node
+    //   * every edge joins two nodes of the graph
+    //   * the node and edge counts are right
+    //   * versions may share buckets and edge sets, so nothing shared is ever changed
+
+    // Change this to run expensive methods in checkRep() if set to true, otherwise does not run.
+    private final boolean needsCheckRep = false;
+
+    /*
+     * Constructs a GraphVersion from its parts, which are not copied
+     */
+    private GraphVersion(long version, List<Map<Node<NodeType>, Set<Edge<NodeType, EdgeType>>>> children,
+                         List<Map<Node<NodeType>, Set<Edge<NodeType, EdgeType>>>> parents,
+                         int nodeSize, int edgeSize) {
+        this.version = version;
+        this.children = children;
+        this.parents = parents;
+        this.nodeSize = nodeSize;
+        this.edgeSize = edgeSize;
+        checkRep();
+    }
+
+    /**
+     * Returns version 0, an empty graph.
+     * @param <NodeType> the type of data stored in the nodes
+     * @param <EdgeType> the type of data stored in the edges
+     * @return an empty GraphVersion numbered 0
+     */
+    static <NodeType, EdgeType> GraphVersion<NodeType, EdgeType> empty() {
+        List<Map<Node<NodeType>, Set<Edge<NodeType, EdgeType>>>> children = new ArrayList<>(BUCKETS);
+        List<Map<Node<NodeType>, Set<Edge<NodeType, EdgeType>>>> parents = new ArrayList<>(BUCKETS);
+        for (int i = 0; i < BUCKETS; i++) {
+            children.add(Collections.emptyMap());
+            parents.add(Collections.emptyMap());
+        }
+        return new GraphVersion<>(0, children, parents, 0, 0);
+    }
+
+    /**
+     * Returns the number of this version.
+     * @return a long; larger for versions published later by the same VersionedGraph
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the next version, with node added.
+     * @param node the node to add
+     * @spec.requires node != null
+     * @return the next version, or this version if node is already in it
+     */
+    GraphVersion<NodeType, EdgeType> withNode(Node<NodeType> node) {
+        if (containsNode(node)) {
+            return this;
+        }
+        Change change = new Change();
+        change.setChildren(node, Collections.emptySet());
+        change.setParents(node, Collections.emptySet());
+        return change.publish(nodeSize + 1, edgeSize);
+    }
+
+    /**
+     * Returns the next version, with edge added.
+     * @param edge the edge to add
+     * @spec.requires edge != null
+     * @return the next version, or this version if edge is already in it or either of its
+     * nodes is not
+     */
+    GraphVersion<NodeType, EdgeType> withEdge(Edge<NodeType, EdgeType> edge) {
+        Set<Edge<NodeType, EdgeType>> outgoing = outgoing(edge.getStart());
+        if (outgoing == null || !containsNode(edge.getEnd()) || outgoing.contains(edge)) {
+            return this;
+        }
+        Change change = new Change();
+        change.setChildren(edge.getStart(), plus(outgoing, edge));
+        change.setParents(edge.getEnd(), plus(change.parentsOf(edge.getEnd()), edge));
+        return change.publish(nodeSize, edgeSize + (isReflexive(edge) ? 0 : 1));
+    }
+
+    /**
+     * Returns the next version, with node and every edge into or out of it removed.
+     * @param node the node to remove
+     * @spec.requires node != null
+     * @return the next version, or this version if node is not in it
+     */
+    GraphVersion<NodeType, EdgeType> withoutNode(Node<NodeType> node) {
+        Set<Edge<NodeType, EdgeType>> outgoing = outgoing(node);
+        if (outgoing == null) {
+            return this;
+        }
+        Set<Edge<NodeType, EdgeType>> incoming = incoming(node);
+        Change change = new Change();
+        int removed = 0;
+        for (Edge<NodeType, EdgeType> edge : outgoing) { // Unlink outgoing edges from their children
+            if (!isReflexive(edge)) { // Reflexive edges go with the node
+                change.setParents(edge.getEnd(), minus(change.parentsOf(edge.getEnd()), edge));
+                removed++;
+            }
+        }
+        for (Edge<NodeType, EdgeType> edge : incoming) { // Unlink incoming edges from their parents
+            if (!isReflexive(edge)) {
+                change.setChildren(edge.getStart(), minus(change.childrenOf(edge.getStart()), edge));
+                removed++;
+            }
+        }
+        change.setChildren(node, null);
+        change.setParents(node, null);
+        return change.publish(nodeSize - 1, edgeSize - removed);
+    }
+
+    /**
+     * Returns the next version, with edge removed.
+     * @param edge the edge to remove
+     * @spec.requires edge != null
+     * @return the next version, or this version if edge is not in it
+     */
+    GraphVersion<NodeType, EdgeType> withoutEdge(Edge<NodeType, EdgeType> edge) {
+        Set<Edge<NodeType, EdgeType>> outgoing = outgoing(edge.getStart());
+        if (outgoing == null || !outgoing.contains(edge)) {
+            return this;
+        }
+        Change change = new Change();
+        change.setChildren(edge.getStart(), minus(outgoing, edge));
+        change.setParents(edge.getEnd(), minus(change.parentsOf(edge.getEnd()), edge));
+        return change.publish(nodeSize, edgeSize - (isReflexive(edge) ? 0 : 1));
+    }
+
+    /**
+     * Returns the next version, with edge replaced by the edge between the same nodes labeled
+     * label.  If that edge is already in this version, the two become one.
+     * @param edge the edge to relabel
+     * @param label the new label of the edge
+     * @spec.requires edge != null
+     * @return the next version, or this version if edge is not in it or is already labeled label
+     */
+    GraphVersion<NodeType, EdgeType> withLabel(Edge<NodeType, EdgeType> edge, EdgeType label) {
+        Set<Edge<NodeType, EdgeType>> outgoing = outgoing(edge.getStart());
+        if (outgoing == null || !outgoing.contains(edge) || Objects.equals(edge.getLabel(), label)) {
+            return this;
+        }
+        Edge<NodeType, EdgeType> relabeled = new Edge<>(edge.getStart(), edge.getEnd(), label);
+        boolean merged = outgoing.contains(relabeled);
+        Change change = new Change();
+        change.setChildren(edge.getStart(), plus(minus(outgoing, edge), relabeled));
+        change.setParents(edge.getEnd(), plus(minus(change.parentsOf(edge.getEnd()), edge), relabeled));
+        return change.publish(nodeSize, edgeSize - ((merged && !isReflexive(edge)) ? 1 : 0));
+    }
+
+    /**
+     * Unsupported, since a GraphVersion cannot change.  Change the VersionedGraph instead.
+     * @param node ignored
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addNode(Node<NodeType> node) {
+        throw new UnsupportedOperationException("GraphVersion cannot be modified");
+    }
+
+    /**
+     * Unsupported, since a GraphVersion cannot change.  Change the VersionedGraph instead.
+     * @param edge ignored
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addEdge(Edge<NodeType, EdgeType> edge) {
+        throw new UnsupportedOperationException("GraphVersion cannot be modified");
+    }
+
+    /**
+     * Unsupported, since a GraphVersion cannot change.  Change the VersionedGraph instead.
+     * @param node ignored
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public Node<NodeType> removeNode(Node<NodeType> node) {
+        throw new UnsupportedOperationException("GraphVersion cannot be modified");
+    }
+
+    /**
+     * Unsupported, since a GraphVersion cannot change.  Change the VersionedGraph instead.
+     * @param edge ignored
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public Edge<NodeType, EdgeType> removeEdge(Edge<NodeType, EdgeType> edge) {
+        throw new UnsupportedOperationException("GraphVersion cannot be modified");
+    }
+
+    /**
+     * Returns an unordered unmodifiable set of the nodes of this version
+     * @return an unmodifiable set of nodes of this graph
+     */
+    @Override
+    public Set<Node<NodeType>> listNodes() {
+        return new AbstractSet<Node<NodeType>>() {
+            @Override
+            public Iterator<Node<NodeType>> iterator() {
+                return new Iterator<Node<NodeType>>() {
+                    private int bucket = 0;
+                    private Iterator<Node<NodeType>> bucketIterator = Collections.emptyIterator();
+
+                    @Override
+                    public boolean hasNext() {
+                        while (!bucketIterator.hasNext() && bucket < BUCKETS) { // Skip empty buckets
+                            bucketIterator = Collections.unmodifiableSet(children.get(bucket).keySet()).iterator();
+                            bucket++;
+                        }
+                        return bucketIterator.hasNext();
+                    }
+
+                    @Override
+                    public Node<NodeType> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        return bucketIterator.next();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return nodeSize;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked") // Only used for lookup, as Map.containsKey is
+            public boolean contains(Object o) {
+                return o instanceof Node<?> && containsNode((Node<NodeType>) o);
+            }
+        };
+    }
+
+    /**
+     * Returns an unsorted unmodifiable set of children edges of this node
+     * @param parentNode that is in this graph
+     * @param includeSelf boolean to include parent as a child, true if considering reflexive edges
+     * @spec.requires node is in graph, boolean is not null
+     * @return an unmodifiable set of edges in this graph, of this parent node
+     */
+    @Override
+    public Set<Edge<NodeType, EdgeType>> listChildren(Node<NodeType> parentNode, boolean includeSelf) {
+        return new EdgeSetView<>(outgoing(parentNode), parentNode, includeSelf);
+    }
+
+    /**
+     * Calls action once for every child edge of this node, as listChildren would list them.
+     * @param parentNode that is in this graph
+     * @param includeSelf boolean to include parent as a child, true if considering reflexive edges
+     * @param action what to do with each child edge
+     * @spec.requires node is in graph, action is not null
+     */
+    @Override
+    public void forEachChild(Node<NodeType> parentNode, boolean includeSelf,
+                             Consumer<? super Edge<NodeType, EdgeType>> action) {
+        for (Edge<NodeType, EdgeType> child : outgoing(parentNode)) {
+            if (includeSelf || !child.getEnd().equals(parentNode)) { // considering reflexive
+                action.accept(child);
+            }
+        }
+    }
+
+    /**
+     * Returns an unsorted unmodifiable set of parent edges of this node, that is the edges
+     * that end at this node
+     * @param childNode that is in this graph
+     * @param includeSelf boolean to include child as a parent, true if considering reflexive edges
+     * @spec.requires node is in graph, boolean is not null
+     * @return an unmodifiable set of edges in this graph, of this child node
+     */
+    @Override
+    public Set<Edge<NodeType, EdgeType>> listParents(Node<NodeType> childNode, boolean includeSelf) {
+        return new EdgeSetView<>(incoming(childNode), childNode, includeSelf);
+    }
+
+    /**
+     * Returns a string representation of this version, in the same form as
+     * DirectedGraph#toString().
+     * @return a String representation of this graph.
+     */
+    @Override
+    public String toString() {
+        return GraphFormat.describe(this);
+    }
+
+    /**
+     * Returns if graph contains node.
+     * @param node the node in question
+     * @return a boolean, true if node is in the graph.  False otherwise.
+     */
+    @Override
+    public boolean containsNode(Node<NodeType> node) {
+        return outgoing(node) != null;
+    }
+
+    /**
+     * Returns the size of this graph.
+     * @return an int; the number of nodes in this graph
+     */
+    @Override
+    public int size() {
+        return nodeSize;
+    }
+
+    /**
+     * Returns the number of non-reflexive edges in this graph.
+     * @return an int; the number of non-reflexive edges in this graph
+     */
+    @Override
+    public int getEdgeCount() {
+        return edgeSize;
+    }
+
+    /**
+     * Returns if graph is empty.
+     * @return a boolean; true if graph has no nodes, false otherwise
+     */
+    @Override
+    public boolean isEmpty() {
+        return nodeSize == 0;
+    }
+
+    /*
+     * Returns the bucket that node belongs in
+     */
+    private static int bucket(Node<?> node) {
+        int hash = node.hashCode();
+        return (hash ^ (hash >>> 16)) & (BUCKETS - 1);
+    }
+
+    // Returns the outgoing edges of node, or null if it is not in this version
+    private Set<Edge<NodeType, EdgeType>> outgoing(Node<NodeType> node) {
+        return children.get(bucket(node)).get(node);
+    }
+
+    // Returns the incoming edges of node, or null if it is not in this version
+    private Set<Edge<NodeType, EdgeType>> incoming(Node<NodeType> node) {
+        return parents.get(bucket(node)).get(node);
+    }
+
+    // Returns true if edge goes from a node to itself
+    private static boolean isReflexive(Edge<?, ?> edge) {
+        return edge.getStart().equals(edge.getEnd());
+    }
+
+    // Returns a new set of the edges of edges and edge
+    private static <NodeType, EdgeType> Set<Edge<NodeType, EdgeType>> plus(
+            Set<Edge<NodeType, EdgeType>> edges, Edge<NodeType, EdgeType> edge) {
+        Set<Edge<NodeType, EdgeType>> copy = new HashSet<>(edges);
+        copy.add(edge);
+        return copy;
+    }
+
+    // Returns a new set of the edges of edges other than edge
+    private static <NodeType, EdgeType> Set<Edge<NodeType, EdgeType>> minus(
+            Set<Edge<NodeType, EdgeType>> edges, Edge<NodeType, EdgeType> edge) {
+        Set<Edge<NodeType, EdgeType>> copy = new HashSet<>(edges);
+        copy.remove(edge);
+        return copy;
+    }
+
+    /*
+     * The changes to this version that make up the next one.  Bucket maps are copied the first
+     * time a node in them is changed; everything else is shared with this version.
+     */
+    private class Change {
+        private final List<Map<Node<NodeType>, Set<Edge<NodeType, EdgeType>>>> newChildren = new ArrayList<>(children);
+        private final List<Map<Node<NodeType>, Set<Edge<NodeType, EdgeType>>>> newParents = new ArrayList<>(parents);
+        private final boolean[] copiedChildren = new boolean[BUCKETS];
+        private final boolean[] copiedParents = new boolean[BUCKETS];
+
+        // Returns the outgoing edges of node as changed so far
+        Set<Edge<NodeType, EdgeType>> childrenOf(Node<NodeType> node) {
+            return newChildren.get(bucket(node)).get(node);
+        }
+
+        // Returns the incoming edges of node as changed so far
+        Set<Edge<NodeType, EdgeType>> parentsOf(Node<NodeType> node) {
+            return newParents.get(bucket(node)).get(node);
+        }
+
+        // Makes edges the outgoing edges of node, or removes node from the children if null
+        void setChildren(Node<NodeType> node, Set<Edge<NodeType, EdgeType>> edges) {
+            set(newChildren, copiedChildren, node, edges);
+        }
+
+        // Makes edges the incoming edges of node, or removes node from the parents if null
+        void setParents(Node<NodeType> node, Set<Edge<NodeType, EdgeType>> edges) {
+            set(newParents, copiedParents, node, edges);
+        }
+
+        // Returns the version made by these changes, with the given counts
+        GraphVersion<NodeType, EdgeType> publish(int newNodeSize, int newEdgeSize) {
+            return new GraphVersion<>(version + 1, Collections.unmodifiableList(newChildren),
+                    Collections.unmodifiableList(newParents), newNodeSize, newEdgeSize);
+        }
+
+        private void set(List<Map<Node<NodeType>, Set<Edge<NodeType, EdgeType>>>> buckets, boolean[] copied,
+                         Node<NodeType> node, Set<Edge<NodeType, EdgeType>> edges) {
+            int index = bucket(node);
+            if (!copied[index]) { // First change to this bucket, so stop sharing it
+                buckets.set(index, new HashMap<>(buckets.get(index)));
+                copied[index] = true;
+            }
+            if (edges == null) {
+                buckets.get(index).remove(node);
+            } else {
+                buckets.get(index).put(node, edges);
+            }
+        }
+    }
+
+    /*
+        Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert (children != null && parents != null) : "Tables cannot be null";
+        assert (children.size() == BUCKETS && parents.size() == BUCKETS) : "Wrong number of buckets";
+        if (needsCheckRep) { // Only check expensive checks if needed
+            int nodes = 0;
+            int nonReflexive = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                for (Map.Entry<Node<NodeType>, Set<Edge<NodeType, EdgeType>>> entry : children.get(i).entrySet()) {
+                    assert (bucket(entry.getKey()) == i) : "Node in the wrong bucket";
+                    assert (parents.get(i).containsKey(entry.getKey())) : "Node missing from parents";
+                    nodes++;
+                    for (Edge<NodeType, EdgeType> e : entry.getValue()) {
+                        assert (incoming(e.getEnd()).contains(e)) : "Edge missing from parents";
+                        if (!isReflexive(e)) {
+                            nonReflexive++;
+                        }
+                    }
+                }
+            }
+            assert (nodes == nodeSize) : "Node count is wrong";
+            assert (nonReflexive == edgeSize) : "Edge count is wrong";
+        }
+    }
+}
@@ -0,0 +1,452 @@
+package graph;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * This class represents the concept of a frozen directed graph, a read-only snapshot of
+ * another graph packed into compressed sparse row (CSR) form.  Every node is given an int id,
+ * and the outgoing edges of node id i are stored at edge indices offsets[i] to offsets[i+1] - 1
+ * in a target array and a parallel label array.  The incoming edges of each node are packed
+ * the same way, as runs of source ids and forward edge indices.  Since it cannot change, any
+ * attempt to add or remove nodes or edges throws an UnsupportedOperationException.
+ * An ImmutableGraph has type parameters, NodeType the type of data stored in the node (ex: String)
+ * and EdgeType the type of data stored in the edges (ex: Double).
+ */
+
+public class ImmutableGraph<NodeType, EdgeType> implements Graph<NodeType, EdgeType> {
+
+    private final List<Node<NodeType>> nodes; // id -> node
+    private final Map<Node<NodeType>, Integer> ids; // node -> id
+    private final int[] offsets; // node id -> first edge index, offsets[size()] = total edges
+    private final int[] targets; // edge index -> id of the end node
+    private final Object[] labels; // edge index -> label of the edge
+    private final int[] parentOffsets; // node id -> first parent index, like offsets
+    private final int[] sources; // parent index -> id of the start node
+    private final int[] parentEdges; // parent index -> edge index of the same edge
+    private final int edgeSize; // number of non-reflexive edges
+
+    // Abstraction Function:
+    //   An ImmutableGraph g represents the directed graph whose nodes are g.nodes and where,
+    //   for every node id i, there is an edge labelled g.labels[k] from g.nodes.get(i) to
+    //   g.nodes.get(g.targets[k]) for each k such that (g.offsets[i] <= k < g.offsets[i+1]).
+    //   The parent arrays hold the same edges again, grouped by end node: for every node id j
+    //   and p such that (g.parentOffsets[j] <= p < g.parentOffsets[j+1]), edge g.parentEdges[p]
+    //   goes from g.nodes.get(g.sources[p]) to g.nodes.get(j).
+    //   If a graph has no nodes (thus, no edges), the graph represents an empty non-null graph.
+
+    // Representation invariant for every ImmutableGraph g:
+    // g.nodes != null && g.ids != null && g.offsets != null && g.targets != null && g.labels != null &&
+    // g.nodes.size() == g.ids.size() && g.offsets.length == g.nodes.size() + 1 &&
+    // g.offsets[0] == 0 && g.offsets[g.nodes.size()] == g.targets.length == g.labels.length &&
+    // forall i such that (0 <= i < g.nodes.size()), g.ids.get(g.nodes.get(i)) == i &&
+    //      g.offsets[i] <= g.offsets[i+1] &&
+    // forall k such that (0 <= k < g.targets.length), 0 <= g.targets[k] < g.nodes.size() &&
+    //      g.labels[k] != null &&
+    // g.parentOffsets is laid out like g.offsets, and forall p, g.targets[g.parentEdges[p]] is the
+    //      node whose run holds p and g.parentEdges[p] lies in the run of node g.sources[p]
+    // In other words,
+    //   * every array and table always points to some usable object
+    //   * the id table and the node list are inverses of each other
+    //   * the edges of each node form one contiguous, in-bounds run of the edge arrays
+    //   * every edge ends at a node in the graph and has a non-null label
+    //   * the parent arrays index exactly the same edges as the child arrays
+
+    // Change this to run expensive methods in checkRep() if set to true, otherwise does not run.
+    private final boolean needsCheckRep = false;
+
+    /**
+     * Constructs an ImmutableGraph holding the same nodes and edges as graph.
+     * @param graph the graph to take a snapshot of
+     * @spec.requires graph != null
+     * @spec.effects Constructs a new ImmutableGraph with the nodes and edges currently in graph.
+     * Later changes to graph are not seen by this ImmutableGraph.
+     */
+    public ImmutableGraph(Graph<NodeType, EdgeType> graph) {
+        Set<Node<NodeType>> graphNodes = graph.listNodes();
+        List<Node<NodeType>> idTable = new ArrayList<>(graphNodes.size());
+        Map<Node<NodeType>, Integer> idLookup = new HashMap<>();
+        for (Node<NodeType> node : graphNodes) { // Give every node the next free id
+            idLookup.put(node, idTable.size());
+            idTable.add(node);
+        }
+        int totalEdges = 0;
+        List<Set<Edge<NodeType, EdgeType>>> children = new ArrayList<>(idTable.size());
+        for (Node<NodeType> node : idTable) {
+            Set<Edge<NodeType, EdgeType>> nodeChildren = graph.listChildren(node, true);
+            children.add(nodeChildren);
+            totalEdges += nodeChildren.size();
+        }
+        offsets = new int[idTable.size() + 1];
+        targets = new int[totalEdges];
+        labels = new Object[totalEdges];
+        int edgeIndex = 0;
+        for (int id = 0; id < idTable.size(); id++) { // Pack each node's edges as one run
+            offsets[id] = edgeIndex;
+            for (Edge<NodeType, EdgeType> child : children.get(id)) {
+                targets[edgeIndex] = idLookup.get(child.getEnd());
+                labels[edgeIndex] = child.getLabel();
+                edgeIndex++;
+            }
+        }
+        offsets[idTable.size()] = edgeIndex;
+        // Counting sort of the same edges by end node gives the parent runs
+        parentOffsets = new int[idTable.size() + 1];
+        for (int edge = 0; edge < totalEdges; edge++) {
+            parentOffsets[targets[edge] + 1]++;
+        }
+        for (int id = 0; id < idTable.size(); id++) {
+            parentOffsets[id + 1] += parentOffsets[id];
+        }
+        sources = new int[totalEdges];
+        parentEdges = new int[totalEdges];
+        int[] nextParent = Arrays.copyOf(parentOffsets, idTable.size());
+        for (int id = 0; id < idTable.size(); id++) {
+            for (int edge = offsets[id]; edge < offsets[id + 1]; edge++) {
+                int parentIndex = nextParent[targets[edge]]++;
+                sources[parentIndex] = id;
+                parentEdges[parentIndex] = edge;
+            }
+        }
+        nodes = Collections.unmodifiableList(idTable);
+        ids = idLookup;
+        edgeSize = graph.getEdgeCount();
+        checkRep();
+    }
+
+    /**
+     * Unsupported, since an ImmutableGraph cannot change.
+     * @param node that would be added to the graph
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addNode(Node<NodeType> node) {
+        throw new UnsupportedOperationException("ImmutableGraph cannot be modified");
+    }
+
+    /**
+     * Unsupported, since an ImmutableGraph cannot change.
+     * @param edge that would be added to the graph
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addEdge(Edge<NodeType, EdgeType> edge) {
+        throw new UnsupportedOperationException("ImmutableGraph cannot be modified");
+    }
+
+    /**
+     * Unsupported, since an ImmutableGraph cannot change.
+     * @param node that would be removed from the graph
+     * @throws UnsupportedOperationException always
+     * @return never returns normally
+     */
+    @Override
+    public Node<NodeType> removeNode(Node<NodeType> node) {
+        throw new UnsupportedOperationException("ImmutableGraph cannot be modified");
+    }
+
+    /**
+     * Unsupported, since an ImmutableGraph cannot change.
+     * @param edge that would be removed from the graph
+     * @throws UnsupportedOperationException always
+     * @return never returns normally
+     */
+    @Override
+    public Edge<NodeType, EdgeType> removeEdge(Edge<NodeType, EdgeType> edge) {
+        throw new UnsupportedOperationException("ImmutableGraph cannot be modified");
+    }
+
+    /**
+     * Returns an unordered unmodifiable set of nodes associated with this graph
+     * @return an unmodifiable set of nodes of this graph
+     */
+    @Override
+    public Set<Node<NodeType>> listNodes() {
+        return Collections.unmodifiableSet(ids.keySet());
+    }
+
+    /**
+     * Returns an unsorted unmodifiable set of children edges of this node.  The edges
+     * are created as the set is iterated over, from the packed edge arrays.
+     * @param parentNode that is in this graph
+     * @param includeSelf boolean to include parent as a child, true if considering reflexive edges
+     * @spec.requires node is in graph, boolean is not null
+     * @return an unmodifiable set of edges in this graph, of this parent node
+     */
+    @Override
+    public Set<Edge<NodeType, EdgeType>> listChildren(Node<NodeType> parentNode, boolean includeSelf) {
+        return new EdgeRunView(ids.get(parentNode), includeSelf, false);
+    }
+
+    /**
+     * Calls action once for every child edge of this node, straight from the packed edge arrays.
+     * @param parentNode that is in this graph
+     * @param includeSelf boolean to include parent as a child, true if considering reflexive edges
+     * @param action what to do with each child edge
+     * @spec.requires node is in graph, action is not null
+     */
+    @Override
+    public void forEachChild(Node<NodeType> parentNode, boolean includeSelf,
+                             Consumer<? super Edge<NodeType, EdgeType>> action) {
+        int parent = ids.get(parentNode);
+        for (int edge = offsets[parent]; edge < offsets[parent + 1]; edge++) {
+            if (includeSelf || targets[edge] != parent) { // considering reflexive
+                action.accept(new Edge<>(nodes.get(parent), nodes.get(targets[edge]), labelAt(edge)));
+            }
+        }
+    }
+
+    /**
+     * Returns an unsorted unmodifiable set of parent edges of this node, that is the
+     * edges that end at this node.  The edges are created as the set is iterated over.
+     * @param childNode that is in this graph
+     * @param includeSelf boolean to include child as a parent, true if considering reflexive edges
+     * @spec.requires node is in graph, boolean is not null
+     * @return an unmodifiable set of edges in this graph, of this child node
+     */
+    @Override
+    public Set<Edge<NodeType, EdgeType>> listParents(Node<NodeType> childNode, boolean includeSelf) {
+        return new EdgeRunView(ids.get(childNode), includeSelf, true);
+    }
+
+    /**
+     * Returns if graph contains node.
+     * @param node the node in question
+     * @return a boolean, true if node is in the graph.  False otherwise.
+     */
+    @Override
+    public boolean containsNode(Node<NodeType> node) {
+        return ids.containsKey(node);
+    }
+
+    /**
+     * Returns the size of this graph.
+     * @return an int; the number of nodes in this graph
+     */
+    @Override
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Returns the number of non-reflexive edges in this graph.
+     * @return an int; the number of non-reflexive edges in this graph
+     */
+    @Override
+    public int getEdgeCount() {
+        return edgeSize;
+    }
+
+    /**
+     * Returns if graph is empty.
+     * @return a boolean; true if graph has no nodes, false otherwise
+     */
+    @Override
+    public boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    /**
+     * Returns the id of a node, which indexes the packed edge arrays of this graph.
+     * @param node the node in question
+     * @return an int; the id of node, in [0, size()), or -1 if node is not in this graph
+     */
+    public int indexOf(Node<NodeType> node) {
+        Integer id = ids.get(node);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the node with the given id.
+     * @param id the id of the node
+     * @spec.requires 0 &lt;= id &lt; size()
+     * @return the node of this graph with that id
+     */
+    public Node<NodeType> nodeAt(int id) {
+        return nodes.get(id);
+    }
+
+    /**
+     * Returns the index of the first outgoing edge of a node.  The outgoing edges of node id
+     * are exactly the edge indices from childrenBegin(id) up to, but not including, childrenEnd(id).
+     * @param id the id of the parent node
+     * @spec.requires 0 &lt;= id &lt; size()
+     * @return an int; the edge index of the first outgoing edge of node id
+     */
+    public int childrenBegin(int id) {
+        return offsets[id];
+    }
+
+    /**
+     * Returns one past the index of the last outgoing edge of a node.
+     * @param id the id of the parent node
+     * @spec.requires 0 &lt;= id &lt; size()
+     * @return an int; one past the edge index of the last outgoing edge of node id
+     */
+    public int childrenEnd(int id) {
+        return offsets[id + 1];
+    }
+
+    /**
+     * Returns the id of the node an edge leads to.
+     * @param edgeIndex the index of the edge
+     * @spec.requires edgeIndex is a valid edge index of this graph
+     * @return an int; the id of the end node of the edge
+     */
+    public int targetAt(int edgeIndex) {
+        return targets[edgeIndex];
+    }
+
+    /**
+     * Returns the index of the first incoming edge of a node.  The incoming edges of node id
+     * are exactly the parent indices from parentsBegin(id) up to, but not including, parentsEnd(id).
+     * @param id the id of the child node
+     * @spec.requires 0 &lt;= id &lt; size()
+     * @return an int; the parent index of the first incoming edge of node id
+     */
+    public int parentsBegin(int id) {
+        return parentOffsets[id];
+    }
+
+    /**
+     * Returns one past the index of the last incoming edge of a node.
+     * @param id the id of the child node
+     * @spec.requires 0 &lt;= id &lt; size()
+     * @return an int; one past the parent index of the last incoming edge of node id
+     */
+    public int parentsEnd(int id) {
+        return parentOffsets[id + 1];
+    }
+
+    /**
+     * Returns the id of the node an incoming edge comes from.
+     * @param parentIndex the parent index of the edge
+     * @spec.requires parentIndex is a valid parent index of this graph
+     * @return an int; the id of the start node of the edge
+     */
+    public int sourceAt(int parentIndex) {
+        return sources[parentIndex];
+    }
+
+    /**
+     * Returns the edge index of an incoming edge, for use with labelAt and targetAt.
+     * @param parentIndex the parent index of the edge
+     * @spec.requires parentIndex is a valid parent index of this graph
+     * @return an int; the edge index of the same edge
+     */
+    public int parentEdgeAt(int parentIndex) {
+        return parentEdges[parentIndex];
+    }
+
+    /**
+     * Returns the label of an edge.
+     * @param edgeIndex the index of the edge
+     * @spec.requires edgeIndex is a valid edge index of this graph
+     * @return the label of the edge
+     */
+    @SuppressWarnings("unchecked") // labels only ever holds EdgeType values, see constructor
+    public EdgeType labelAt(int edgeIndex) {
+        return (EdgeType) labels[edgeIndex];
+    }
+
+    /**
+     * Returns a string representation of this graph, in the same form as
+     * DirectedGraph#toString(), so a graph and its snapshot print the same.
+     * @return a String representation of this graph.
+     */
+    @Override
+    public String toString() {
+        return GraphFormat.describe(this);
+    }
+
+    /*
+     * A read-only set of the outgoing or incoming edges of one node, backed by the packed arrays.
+     */
+    private class EdgeRunView extends AbstractSet<Edge<NodeType, EdgeType>> {
+        private final int node;
+        private final boolean includeSelf;
+        private final int[] runOffsets; // offsets or parentOffsets
+        private final int[] others; // targets or sources, the node at the other end
+
+        private EdgeRunView(int node, boolean includeSelf, boolean incoming) {
+            this.node = node;
+            this.includeSelf = includeSelf;
+            this.runOffsets = incoming ? parentOffsets : offsets;
+            this.others = incoming ? sources : targets;
+        }
+
+        @Override
+        public Iterator<Edge<NodeType, EdgeType>> iterator() {
+            return new Iterator<Edge<NodeType, EdgeType>>() {
+                private int index = skipSelf(runOffsets[node]);
+
+                @Override
+                public boolean hasNext() {
+                    return index < runOffsets[node + 1];
+                }
+
+                @Override
+                public Edge<NodeType, EdgeType> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Edge<NodeType, EdgeType> edge;
+                    if (others == targets) { // index is an edge index
+                        edge = new Edge<>(nodes.get(node), nodes.get(targets[index]), labelAt(index));
+                    } else { // index is a parent index
+                        edge = new Edge<>(nodes.get(sources[index]), nodes.get(node),
+                                labelAt(parentEdges[index]));
+                    }
+                    index = skipSelf(index + 1);
+                    return edge;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            int count = 0;
+            for (int index = skipSelf(runOffsets[node]); index < runOffsets[node + 1]; index = skipSelf(index + 1)) {
+                count++;
+            }
+            return count;
+        }
+
+        // Returns the first index at or after index that this view should include
+        private int skipSelf(int index) {
+            while (!includeSelf && index < runOffsets[node + 1] && others[index] == node) {
+                index++;
+            }
+            return index;
+        }
+    }
+
+    /*
+        Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert (nodes != null && ids != null) : "Node tables cannot be null";
+        assert (offsets != null && targets != null && labels != null) : "Edge arrays cannot be null";
+        assert (offsets.length == nodes.size() + 1) : "Every node needs an offset";
+        assert (parentOffsets.length == offsets.length) : "Every node needs a parent offset";
+        if (needsCheckRep) { // Only check expensive checks if needed
+            assert (offsets[0] == 0 && offsets[nodes.size()] == targets.length) : "Offsets out of range";
+            assert (targets.length == labels.length) : "Every edge needs a label";
+            for (int id = 0; id < nodes.size(); id++) {
+                assert (ids.get(nodes.get(id)) == id) : "Id table does not match node list";
+                assert (offsets[id] <= offsets[id + 1]) : "Edge runs cannot overlap";
+            }
+            for (int edge = 0; edge < targets.length; edge++) {
+                assert (targets[edge] >= 0 && targets[edge] < nodes.size()) : "Edge ends outside graph";
+                assert (labels[edge] != null) : "Graph cannot have a null label";
+            }
+            for (int id = 0; id < nodes.size(); id++) {
+                for (int parent = parentOffsets[id]; parent < parentOffsets[id + 1]; parent++) {
+                    assert (targets[parentEdges[parent]] == id) : "Parent index holds wrong edge";
+                    assert (offsets[sources[parent]] <= parentEdges[parent]
+                            && parentEdges[parent] < offsets[sources[parent] + 1]) : "Parent index wrong source";
+                }
+            }
+        }
+    }
+}
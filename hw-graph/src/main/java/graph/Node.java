@@ -7,14 +7,16 @@ package graph;
 
 public class Node<NodeType> {
     private final NodeType data;
+    private final transient int hash; // data.hashCode(), worked out once
 
     // Abstraction Function:
     //   A Node n is immutable and solely associated with the value of its data, which is non-null.
 
     // Representation invariant for every Node n:
-    // n.data != null
+    // n.data != null && n.hash == n.data.hashCode()
     // In other words,
     //   * n.data is always non-null
+    //   * n.hash caches the hash of n.data, which cannot change since the node is immutable
 
     /**
      * Constructs a new Node.
@@ -24,6 +26,7 @@ public class Node<NodeType> {
      */
     public Node(NodeType data) {
         this.data = data;
+        this.hash = data.hashCode();
         checkRep();
     }
 
@@ -52,7 +55,7 @@ public class Node<NodeType> {
      */
     @Override
     public int hashCode() {
-        return data.hashCode();
+        return hash;
     }
 
     /**
@@ -71,7 +74,7 @@ public class Node<NodeType> {
             return false;
         }
         Node<?> n = (Node<?>) obj;
-        return data.equals(n.data);
+        return hash == n.hash && data.equals(n.data); // Different hashes can't be equal, cheap to rule out
     }
 
     /*
@@ -79,5 +82,6 @@ public class Node<NodeType> {
      */
     private void checkRep() {
         assert (data != null) : "A node's data cannot be null";
+        assert (hash == data.hashCode()) : "Cached hash must match the data";
     }
 }
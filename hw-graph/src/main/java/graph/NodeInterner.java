@@ -0,0 +1,73 @@
+package graph;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class hands out one canonical Node for each distinct piece of node data, so that a
+ * graph built with it holds a single Node object per node, shared by all of its edges.  Since
+ * map lookups check for the same object before calling equals, looking up a canonical Node in
+ * a graph built from the same interner never compares node data at all.
+ * It is safe for many threads to intern at once, ex: the workers of a parallel graph build.
+ * There is a type parameter NodeType representing the type of data stored in the nodes.
+ */
+
+public class NodeInterner<NodeType> {
+    private final ConcurrentHashMap<NodeType, Node<NodeType>> nodes; // data -> its canonical Node
+
+    // Abstraction Function:
+    //   A NodeInterner i represents the set of canonical Nodes i.nodes.values(), one for each
+    //   piece of data that has been interned.
+
+    // Representation invariant for every NodeInterner i:
+    // i.nodes != null &&
+    // forall entries (d, n) of i.nodes, n.getData() == d
+    // In other words,
+    //   * the table always points to some usable object
+    //   * every canonical Node holds the very data object it was interned under
+
+    /**
+     * Constructs a NodeInterner.
+     * @spec.effects Constructs a new NodeInterner with no canonical Nodes.
+     */
+    public NodeInterner() {
+        nodes = new ConcurrentHashMap<>();
+        checkRep();
+    }
+
+    /**
+     * Returns the canonical Node holding data equal to data, making it if there is none yet.
+     * @param data the data of the node wanted
+     * @spec.requires data != null
+     * @return the one Node this interner gives out for data
+     */
+    public Node<NodeType> intern(NodeType data) {
+        Node<NodeType> node = nodes.get(data); // Usually there already, so skip the locking
+        return (node != null) ? node : nodes.computeIfAbsent(data, Node::new);
+    }
+
+    /**
+     * Returns the canonical Node equal to node, making node the canonical one if there is none yet.
+     * @param node the node wanted
+     * @spec.requires node != null
+     * @return the one Node this interner gives out for node's data
+     */
+    public Node<NodeType> intern(Node<NodeType> node) {
+        Node<NodeType> canonical = nodes.putIfAbsent(node.getData(), node);
+        return (canonical != null) ? canonical : node;
+    }
+
+    /**
+     * Returns the number of canonical Nodes given out.
+     * @return an int; the number of distinct pieces of data interned so far
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /*
+        Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert (nodes != null) : "Table cannot be null";
+    }
+}
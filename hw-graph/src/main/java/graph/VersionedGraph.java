@@ -0,0 +1,241 @@
+package graph;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * This class represents the concept of a directed graph that is changed by writers while
+ * readers keep querying it.  The graph is a series of GraphVersions: each change publishes a
+ * new version made from the last one by copy-on-write, and current() hands out the latest.
+ * A reader that takes a version once and runs its whole query on it sees one consistent graph
+ * and never waits for a writer.  Writers take turns with each other.
+ * The Graph methods of this class each read the latest version at the time of the call, so a
+ * series of them may see different versions; pin a version with current() when that matters.
+ * A VersionedGraph has type parameters, NodeType the type of data stored in the node (ex: String)
+ * and EdgeType the type of data stored in the edges (ex: Double).
+ */
+
+public class VersionedGraph<NodeType, EdgeType> implements Graph<NodeType, EdgeType> {
+
+    private volatile GraphVersion<NodeType, EdgeType> current; // latest published version
+
+    // Abstraction Function:
+    //   A VersionedGraph g represents the directed graph g.current, and has published every
+    //   version numbered from 0 up to g.current.getVersion().
+
+    // Representation invariant for every VersionedGraph g:
+    // g.current != null
+    // In other words,
+    //   * there is always a latest version
+    // current only ever changes to a version made from it, while holding this object's lock.
+
+    /**
+     * Constructs a VersionedGraph.
+     * @spec.effects Constructs a new, empty VersionedGraph at version 0.
+     */
+    public VersionedGraph() {
+        current = GraphVersion.empty();
+        checkRep();
+    }
+
+    /**
+     * Returns the latest version of this graph, which will never change.
+     * @return the version published by the last change to this graph
+     */
+    public GraphVersion<NodeType, EdgeType> current() {
+        return current;
+    }
+
+    /**
+     * Returns the number of the latest version of this graph.
+     * @return a long; the number of changes made to this graph so far
+     */
+    public long getVersion() {
+        return current.getVersion();
+    }
+
+    /**
+     * Adds a node to the graph, publishing a new version.
+     * @param node that is added to the graph
+     * @spec.requires node != null
+     * @spec.effects Adds a node to the graph, if not in the graph.  Otherwise, does not add.
+     */
+    @Override
+    public synchronized void addNode(Node<NodeType> node) {
+        current = current.withNode(node);
+        checkRep();
+    }
+
+    /**
+     * Adds a directed edge to the graph, publishing a new version.
+     * @param edge that is to be added to the graph
+     * @spec.requires edge != null
+     * @spec.effects Adds the directed edge to the graph, if both its nodes are in the graph and
+     * the edge is not.  Otherwise, does not.
+     */
+    @Override
+    public synchronized void addEdge(Edge<NodeType, EdgeType> edge) {
+        current = current.withEdge(edge);
+        checkRep();
+    }
+
+    /**
+     * Removes a node from the graph, along with every edge into or out of it, publishing a
+     * new version.
+     * @param node that is removed from the graph
+     * @spec.requires node != null
+     * @spec.effects Removes a node from the graph, if in the graph.  Otherwise, does not remove.
+     * @return the node that was removed, or null if it was not in the graph
+     */
+    @Override
+    public synchronized Node<NodeType> removeNode(Node<NodeType> node) {
+        GraphVersion<NodeType, EdgeType> next = current.withoutNode(node);
+        if (next == current) {
+            return null; // No node was removed
+        }
+        current = next;
+        checkRep();
+        return node;
+    }
+
+    /**
+     * Removes a directed edge from the graph, publishing a new version.
+     * @param edge that is to be removed from the graph
+     * @spec.requires edge != null
+     * @spec.effects Removes the directed edge from the graph, if in the graph.
+     * Otherwise, does not.  Both nodes connected by this edge still remain after removal.
+     * @return the edge that was removed, or null if it was not in the graph
+     */
+    @Override
+    public synchronized Edge<NodeType, EdgeType> removeEdge(Edge<NodeType, EdgeType> edge) {
+        GraphVersion<NodeType, EdgeType> next = current.withoutEdge(edge);
+        if (next == current) {
+            return null; // No edge was removed
+        }
+        current = next;
+        checkRep();
+        return edge;
+    }
+
+    /**
+     * Changes the label of a directed edge, publishing one new version in which the edge has
+     * its new label, so no reader ever sees the graph without it.
+     * @param edge that is to be relabeled
+     * @param label the new label of the edge
+     * @spec.requires edge != null
+     * @spec.effects Replaces edge with the edge between the same nodes labeled label, if edge is
+     * in the graph and labeled otherwise.  If that edge is already in the graph, the two become one.
+     * @return the edge with its new label, or null if edge was not in the graph
+     */
+    public synchronized Edge<NodeType, EdgeType> relabelEdge(Edge<NodeType, EdgeType> edge, EdgeType label) {
+        GraphVersion<NodeType, EdgeType> next = current.withLabel(edge, label);
+        if (next == current) { // Either not in the graph, or already labeled label
+            boolean present = current.containsNode(edge.getStart())
+                    && current.listChildren(edge.getStart(), true).contains(edge);
+            return present ? edge : null;
+        }
+        current = next;
+        checkRep();
+        return new Edge<>(edge.getStart(), edge.getEnd(), label);
+    }
+
+    /**
+     * Returns an unordered unmodifiable set of the nodes of the latest version
+     * @return an unmodifiable set of nodes of this graph
+     */
+    @Override
+    public Set<Node<NodeType>> listNodes() {
+        return current.listNodes();
+    }
+
+    /**
+     * Returns an unsorted unmodifiable set of children edges of this node, in the latest version
+     * @param parentNode that is in this graph
+     * @param includeSelf boolean to include parent as a child, true if considering reflexive edges
+     * @spec.requires node is in graph, boolean is not null
+     * @return an unmodifiable set of edges in this graph, of this parent node
+     */
+    @Override
+    public Set<Edge<NodeType, EdgeType>> listChildren(Node<NodeType> parentNode, boolean includeSelf) {
+        return current.listChildren(parentNode, includeSelf);
+    }
+
+    /**
+     * Calls action once for every child edge of this node in the latest version.
+     * @param parentNode that is in this graph
+     * @param includeSelf boolean to include parent as a child, true if considering reflexive edges
+     * @param action what to do with each child edge
+     * @spec.requires node is in graph, action is not null
+     */
+    @Override
+    public void forEachChild(Node<NodeType> parentNode, boolean includeSelf,
+                             Consumer<? super Edge<NodeType, EdgeType>> action) {
+        current.forEachChild(parentNode, includeSelf, action);
+    }
+
+    /**
+     * Returns an unsorted unmodifiable set of parent edges of this node, in the latest version
+     * @param childNode that is in this graph
+     * @param includeSelf boolean to include child as a parent, true if considering reflexive edges
+     * @spec.requires node is in graph, boolean is not null
+     * @return an unmodifiable set of edges in this graph, of this child node
+     */
+    @Override
+    public Set<Edge<NodeType, EdgeType>> listParents(Node<NodeType> childNode, boolean includeSelf) {
+        return current.listParents(childNode, includeSelf);
+    }
+
+    /**
+     * Returns a string representation of the latest version, in the same form as
+     * DirectedGraph#toString().
+     * @return a String representation of this graph.
+     */
+    @Override
+    public String toString() {
+        return current.toString();
+    }
+
+    /**
+     * Returns if the latest version contains node.
+     * @param node the node in question
+     * @return a boolean, true if node is in the graph.  False otherwise.
+     */
+    @Override
+    public boolean containsNode(Node<NodeType> node) {
+        return current.containsNode(node);
+    }
+
+    /**
+     * Returns the size of the latest version.
+     * @return an int; the number of nodes in this graph
+     */
+    @Override
+    public int size() {
+        return current.size();
+    }
+
+    /**
+     * Returns the number of non-reflexive edges in the latest version.
+     * @return an int; the number of non-reflexive edges in this graph
+     */
+    @Override
+    public int getEdgeCount() {
+        return current.getEdgeCount();
+    }
+
+    /**
+     * Returns if the latest version is empty.
+     * @return a boolean; true if graph has no nodes, false otherwise
+     */
+    @Override
+    public boolean isEmpty() {
+        return current.isEmpty();
+    }
+
+    /*
+        Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert (current != null) : "There must be a latest version";
+    }
+}
@@ -0,0 +1,247 @@
+package graph;
+
+import java.util.*;
+
+/**
+ * This class represents the concept of a frozen directed graph with double edge weights, packed
+ * for searches that must not box.  Every node is given an int id from 0 to size() - 1, and a
+ * table maps between ids and the data of the nodes (ex: Points).  The outgoing edges of node id
+ * i are the edge indices firstEdge(i) to endEdge(i) - 1, each with an int target id and a
+ * double weight held in plain arrays, so walking a node's edges reads no objects at all.
+ * Reflexive edges are kept, as in ImmutableGraph.  A WeightedIntGraph cannot change.
+ * A WeightedIntGraph has a type parameter NodeType, the type of data stored in the node (ex: Point).
+ */
+
+public class WeightedIntGraph<NodeType> {
+
+    private final Object[] data; // id -> data of the node
+    private final Map<NodeType, Integer> ids; // data of the node -> id
+    private final int[] offsets; // node id -> first edge index, offsets[size()] = total edges
+    private final int[] targets; // edge index -> id of the end node
+    private final double[] weights; // edge index -> weight of the edge
+    private final int edgeSize; // number of non-reflexive edges
+
+    // Abstraction Function:
+    //   A WeightedIntGraph g represents the directed graph whose nodes are the Nodes holding
+    //   g.data[0] to g.data[g.data.length - 1] and where, for every node id i, there is an edge
+    //   of weight g.weights[k] from the node holding g.data[i] to the node holding
+    //   g.data[g.targets[k]] for each k such that (g.offsets[i] <= k < g.offsets[i+1]).
+    //   If a graph has no nodes (thus, no edges), the graph represents an empty non-null graph.
+
+    // Representation invariant for every WeightedIntGraph g:
+    // g.data != null && g.ids != null && g.offsets != null && g.targets != null && g.weights != null &&
+    // g.data.length == g.ids.size() && g.offsets.length == g.data.length + 1 &&
+    // g.offsets[0] == 0 && g.offsets[g.data.length] == g.targets.length == g.weights.length &&
+    // forall i such that (0 <= i < g.data.length), g.data[i] != null && g.ids.get(g.data[i]) == i &&
+    //      g.offsets[i] <= g.offsets[i+1] &&
+    // forall k such that (0 <= k < g.targets.length), 0 <= g.targets[k] < g.data.length
+    // In other words,
+    //   * every array and table always points to some usable object
+    //   * the id table and the data array are inverses of each other
+    //   * the edges of each node form one contiguous, in-bounds run of the edge arrays
+
+    // Change this to run expensive methods in checkRep() if set to true, otherwise does not run.
+    private final boolean needsCheckRep = false;
+
+    /**
+     * Constructs a WeightedIntGraph holding the same nodes and edges as graph.
+     * @param graph the graph to pack, with edge labels as weights
+     * @spec.requires graph != null, and no label in graph is null
+     * @spec.effects Constructs a new WeightedIntGraph with the nodes and edges currently in graph.
+     * Later changes to graph are not seen by this WeightedIntGraph.
+     */
+    public WeightedIntGraph(Graph<NodeType, Double> graph) {
+        Set<Node<NodeType>> graphNodes = graph.listNodes();
+        data = new Object[graphNodes.size()];
+        ids = new HashMap<>(graphNodes.size() * 2);
+        List<Node<NodeType>> nodes = new ArrayList<>(graphNodes.size());
+        for (Node<NodeType> node : graphNodes) { // Give every node the next free id
+            ids.put(node.getData(), nodes.size());
+            data[nodes.size()] = node.getData();
+            nodes.add(node);
+        }
+        int totalEdges = 0;
+        for (Node<NodeType> node : nodes) {
+            totalEdges += graph.listChildren(node, true).size();
+        }
+        offsets = new int[nodes.size() + 1];
+        targets = new int[totalEdges];
+        weights = new double[totalEdges];
+        int edgeIndex = 0;
+        for (int id = 0; id < nodes.size(); id++) { // Pack each node's edges as one run
+            offsets[id] = edgeIndex;
+            for (Edge<NodeType, Double> child : graph.listChildren(nodes.get(id), true)) {
+                targets[edgeIndex] = ids.get(child.getEnd().getData());
+                weights[edgeIndex] = child.getLabel();
+                edgeIndex++;
+            }
+        }
+        offsets[nodes.size()] = edgeIndex;
+        edgeSize = graph.getEdgeCount();
+        checkRep();
+    }
+
+    /*
+     * Constructs a WeightedIntGraph from its parts, which are not copied
+     */
+    private WeightedIntGraph(Object[] data, Map<NodeType, Integer> ids, int[] offsets, int[] targets,
+                             double[] weights, int edgeSize) {
+        this.data = data;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.edgeSize = edgeSize;
+        checkRep();
+    }
+
+    /**
+     * Returns a copy of this graph in which one edge has a new weight.  Only the weights are
+     * copied; the ids and edge runs are shared, so every id and edge index stays the same.
+     * An edge weighted Double.POSITIVE_INFINITY is closed: no search can go along it.
+     * @param edge the index of the edge to reweigh
+     * @param weight the new weight of the edge
+     * @spec.requires 0 <= edge < endEdge(size() - 1), weight is not negative
+     * @return a new WeightedIntGraph like this one, but with edge weighted weight
+     */
+    public WeightedIntGraph<NodeType> withWeight(int edge, double weight) {
+        double[] newWeights = weights.clone();
+        newWeights[edge] = weight;
+        return new WeightedIntGraph<>(data, ids, offsets, targets, newWeights, edgeSize);
+    }
+
+    /**
+     * Returns the index of an edge with a given weight between two nodes.
+     * @param source the id of the node the edge starts at
+     * @param target the id of the node the edge ends at
+     * @param weight the weight of the edge
+     * @spec.requires 0 <= source < size()
+     * @return an int; the index of the first such edge, or -1 if there is none
+     */
+    public int findEdge(int source, int target, double weight) {
+        for (int edge = offsets[source]; edge < offsets[source + 1]; edge++) {
+            if (targets[edge] == target && weights[edge] == weight) {
+                return edge;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the id of the node holding nodeData.
+     * @param nodeData the data of the node in question
+     * @return an int; the id of the node, or -1 if no node in this graph holds nodeData
+     */
+    public int idOf(NodeType nodeData) {
+        Integer id = ids.get(nodeData);
+        return (id == null) ? -1 : id;
+    }
+
+    /**
+     * Returns the data of the node with an id.
+     * @param id the id of the node in question
+     * @spec.requires 0 <= id < size()
+     * @return the data of node id
+     */
+    @SuppressWarnings("unchecked") // Only NodeType data is ever stored in data
+    public NodeType dataOf(int id) {
+        return (NodeType) data[id];
+    }
+
+    /**
+     * Returns the index of the first outgoing edge of a node.
+     * @param id the id of the node in question
+     * @spec.requires 0 <= id < size()
+     * @return an int; the edge index where the run of edges of node id starts
+     */
+    public int firstEdge(int id) {
+        return offsets[id];
+    }
+
+    /**
+     * Returns the index just past the last outgoing edge of a node.
+     * @param id the id of the node in question
+     * @spec.requires 0 <= id < size()
+     * @return an int; the edge index where the run of edges of node id ends, not included
+     */
+    public int endEdge(int id) {
+        return offsets[id + 1];
+    }
+
+    /**
+     * Returns the id of the node an edge starts at, by a binary search of the edge runs.
+     * @param edge the index of the edge in question
+     * @spec.requires 0 <= edge < endEdge(size() - 1)
+     * @return an int; the id of the start node of the edge
+     */
+    public int source(int edge) {
+        int low = 0;
+        int high = data.length - 1;
+        while (low < high) { // Find the last node whose run starts at or before edge
+            int mid = (low + high + 1) >>> 1;
+            if (offsets[mid] <= edge) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the id of the node an edge ends at.
+     * @param edge the index of the edge in question
+     * @spec.requires 0 <= edge < endEdge(size() - 1)
+     * @return an int; the id of the end node of the edge
+     */
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * Returns the weight of an edge.
+     * @param edge the index of the edge in question
+     * @spec.requires 0 <= edge < endEdge(size() - 1)
+     * @return a double; the weight of the edge
+     */
+    public double weight(int edge) {
+        return weights[edge];
+    }
+
+    /**
+     * Returns the size of this graph.
+     * @return an int; the number of nodes in this graph
+     */
+    public int size() {
+        return data.length;
+    }
+
+    /**
+     * Returns the number of non-reflexive edges in this graph.
+     * @return an int; the number of non-reflexive edges in this graph
+     */
+    public int getEdgeCount() {
+        return edgeSize;
+    }
+
+    /*
+        Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert (data != null && ids != null && offsets != null && targets != null && weights != null)
+                : "Arrays cannot be null";
+        assert (offsets.length == data.length + 1) : "One offset per node, plus the end";
+        if (needsCheckRep) { // Only check expensive checks if needed
+            assert (ids.size() == data.length) : "Id table and data array differ in size";
+            assert (offsets[0] == 0 && offsets[data.length] == targets.length) : "Offsets out of range";
+            assert (targets.length == weights.length) : "Edge arrays differ in length";
+            for (int id = 0; id < data.length; id++) {
+                assert (ids.get(dataOf(id)) == id) : "Id table does not match data array";
+                assert (offsets[id] <= offsets[id + 1]) : "Offsets must not decrease";
+            }
+            for (int target : targets) {
+                assert (0 <= target && target < data.length) : "Edge ends outside the graph";
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package graph.junitTests;
+
+import graph.ConcurrentDirectedGraph;
+import graph.DirectedGraph;
+import graph.Edge;
+import graph.Node;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrentDirectedGraphTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final int THREADS = 8;
+    private static final int NODES = 50;
+
+    private Node<String> zero = new Node<>("0");
+    private Node<String> one = new Node<>("1");
+    private Edge<String, String> zero_one = new Edge<>(zero, one, "a");
+    private Edge<String, String> one_zero = new Edge<>(one, zero, "a");
+    private Edge<String, String> one_one = new Edge<>(one, one, "a");
+
+    @Test // Single-threaded use behaves as DirectedGraph does
+    public void testSequential() {
+        ConcurrentDirectedGraph<String, String> graph = new ConcurrentDirectedGraph<>();
+        graph.addEdge(zero_one); // Nodes not in graph yet, so not added
+        assertEquals(0, graph.getEdgeCount());
+        graph.addNode(zero);
+        graph.addNode(one);
+        graph.addEdge(zero_one);
+        graph.addEdge(one_zero);
+        graph.addEdge(one_one);
+        assertEquals(2, graph.getEdgeCount());
+        assertEquals(Set.of(zero_one), graph.listChildren(zero, true));
+        assertEquals(Set.of(one_zero), graph.listChildren(one, false));
+        assertEquals(Set.of(zero_one, one_one), graph.listParents(one, true));
+        assertEquals(zero_one, graph.removeEdge(zero_one));
+        assertNull(graph.removeEdge(zero_one));
+        assertEquals(one, graph.removeNode(one));
+        assertNull(graph.removeNode(one));
+        assertEquals(0, graph.getEdgeCount());
+        assertTrue(graph.listChildren(zero, true).isEmpty());
+        assertTrue(graph.listChildren(one, true).isEmpty()); // Removed, so empty
+        assertEquals(1, graph.size());
+    }
+
+    @Test // Same toString as a DirectedGraph with the same nodes and edges
+    public void testToString() {
+        ConcurrentDirectedGraph<String, String> graph = new ConcurrentDirectedGraph<>();
+        DirectedGraph<String, String> expected = new DirectedGraph<>();
+        for (Node<String> node : List.of(one, zero)) {
+            graph.addNode(node);
+            expected.addNode(node);
+        }
+        for (Edge<String, String> edge : List.of(one_one, zero_one, one_zero)) {
+            graph.addEdge(edge);
+            expected.addEdge(edge);
+        }
+        assertEquals(expected.toString(), graph.toString());
+    }
+
+    @Test // Threads adding disjoint edges at once all get in, and the count matches
+    public void testConcurrentAdds() throws Exception {
+        ConcurrentDirectedGraph<String, String> graph = new ConcurrentDirectedGraph<>();
+        List<Node<String>> nodes = nodes(graph);
+        runAll(thread -> {
+            for (Node<String> start : nodes) {
+                for (Node<String> end : nodes) {
+                    graph.addEdge(new Edge<>(start, end, "t" + thread));
+                }
+            }
+        });
+        assertEquals(THREADS * NODES * (NODES - 1), graph.getEdgeCount());
+        for (Node<String> node : nodes) {
+            assertEquals(THREADS * NODES, graph.listChildren(node, true).size());
+            assertEquals(THREADS * NODES, graph.listParents(node, true).size());
+        }
+        assertConsistent(graph);
+    }
+
+    @Test // Adds, removes and reads of the same edges at once leave the graph consistent
+    public void testMixedStress() throws Exception {
+        ConcurrentDirectedGraph<String, String> graph = new ConcurrentDirectedGraph<>();
+        List<Node<String>> nodes = nodes(graph);
+        runAll(thread -> {
+            Random random = new Random(331 + thread);
+            for (int i = 0; i < 20000; i++) {
+                Node<String> start = nodes.get(random.nextInt(NODES));
+                Node<String> end = nodes.get(random.nextInt(NODES));
+                Edge<String, String> edge = new Edge<>(start, end, "e" + random.nextInt(3));
+                switch (random.nextInt(4)) {
+                    case 0:
+                        graph.removeEdge(edge);
+                        break;
+                    case 1: // Readers never see a ConcurrentModificationException
+                        for (Edge<String, String> child : graph.listChildren(start, false)) {
+                            assertEquals(start, child.getStart());
+                        }
+                        break;
+                    default:
+                        graph.addEdge(edge);
+                }
+            }
+        });
+        assertConsistent(graph);
+    }
+
+    @Test // Nodes removed while edges to them are being added leave no dangling edges
+    public void testConcurrentNodeRemoval() throws Exception {
+        ConcurrentDirectedGraph<String, String> graph = new ConcurrentDirectedGraph<>();
+        List<Node<String>> nodes = nodes(graph);
+        runAll(thread -> {
+            Random random = new Random(331 + thread);
+            for (int i = 0; i < 5000; i++) {
+                Node<String> node = nodes.get(random.nextInt(NODES));
+                if (thread == 0 && i % 10 == 0) { // One thread removes and puts back nodes
+                    graph.removeNode(node);
+                    graph.addNode(node);
+                } else {
+                    graph.addEdge(new Edge<>(nodes.get(random.nextInt(NODES)), node, "e"));
+                    graph.addEdge(new Edge<>(node, nodes.get(random.nextInt(NODES)), "e"));
+                }
+            }
+        });
+        assertConsistent(graph);
+        for (Node<String> node : nodes) { // Removing every node removes every edge
+            assertEquals(node, graph.removeNode(node));
+        }
+        assertEquals(0, graph.getEdgeCount());
+        assertTrue(graph.isEmpty());
+    }
+
+    // Returns NODES new nodes, added to graph
+    private List<Node<String>> nodes(ConcurrentDirectedGraph<String, String> graph) {
+        List<Node<String>> nodes = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            nodes.add(new Node<>("n" + i));
+            graph.addNode(nodes.get(i));
+        }
+        return nodes;
+    }
+
+    // Runs task on THREADS threads at once, passing each its number, and rethrows any failure
+    private void runAll(ThreadTask task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int number = thread;
+                tasks.add(() -> {
+                    task.run(number);
+                    return null;
+                });
+            }
+            for (Future<Void> result : pool.invokeAll(tasks)) {
+                result.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Checks that children and parents hold the same edges, between nodes of the graph,
+    // and that the edge count matches
+    private void assertConsistent(ConcurrentDirectedGraph<String, String> graph) {
+        Set<Edge<String, String>> children = new HashSet<>();
+        Set<Edge<String, String>> parents = new HashSet<>();
+        for (Node<String> node : graph.listNodes()) {
+            children.addAll(graph.listChildren(node, true));
+            parents.addAll(graph.listParents(node, true));
+        }
+        assertEquals(children, parents);
+        int nonReflexive = 0;
+        for (Edge<String, String> edge : children) {
+            assertTrue(graph.containsNode(edge.getStart()));
+            assertTrue(graph.containsNode(edge.getEnd()));
+            if (!edge.getStart().equals(edge.getEnd())) {
+                nonReflexive++;
+            }
+        }
+        assertEquals(nonReflexive, graph.getEdgeCount());
+        assertFalse(graph.getEdgeCount() < 0);
+    }
+
+    private interface ThreadTask {
+        void run(int thread);
+    }
+}
@@ -1,16 +1,22 @@
 package graph.junitTests;
 
+import graph.ConcurrentDirectedGraph;
 import graph.DirectedGraph;
 import graph.Edge;
 import graph.Graph;
+import graph.ImmutableGraph;
 import graph.Node;
+import graph.VersionedGraph;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.Timeout;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.Assert.assertEquals;
 
@@ -155,4 +161,141 @@ public class DirectedGraphTest {
         directedGraph.addEdge(noEdge);
         assertEquals(beforeGraph, directedGraph.toString());
     }
+
+    /**
+     * Tests that listParents finds the edges ending at a node, with and without reflexive edges.
+     */
+    @Test
+    public void testListParents() {
+        Edge<String, String> zero_zero_0 = new Edge<String, String>(zero, zero, "0");
+        directedGraph.addEdge(neg_zero_1);
+        directedGraph.addEdge(neg_zero_0);
+        directedGraph.addEdge(zero_zero_0);
+        Set<Edge<String, String>> expected = new HashSet<>();
+        expected.add(neg_zero_1);
+        expected.add(neg_zero_0);
+        assertEquals(expected, directedGraph.listParents(zero, false));
+        expected.add(zero_zero_0);
+        assertEquals(expected, directedGraph.listParents(zero, true));
+        assertEquals(0, directedGraph.listParents(negOne, true).size());
+    }
+
+    /**
+     * Tests that removing a node removes the edges into and out of it, and only those.
+     */
+    @Test
+    public void testRemoveNodeRemovesTouchingEdges() {
+        directedGraph.addEdge(neg_one_1);
+        directedGraph.addEdge(neg_zero_0);
+        directedGraph.addEdge(zero_neg_0);
+        directedGraph.addEdge(zero_neg_1);
+        directedGraph.addEdge(new Edge<String, String>(zero, zero, "0"));
+        directedGraph.removeNode(zero);
+        assertEquals(1, directedGraph.getEdgeCount()); // Only -1 to 1 is left
+        assertEquals(0, directedGraph.listParents(negOne, true).size());
+        assertEquals(1, directedGraph.listChildren(negOne, true).size());
+        assertEquals(1, directedGraph.listParents(one, true).size());
+    }
+
+    /**
+     * Tests that merging pieces of a graph gives the same graph as adding everything to one,
+     * including overlapping nodes and edges and reflexive edges.
+     */
+    @Test
+    public void testMerge() {
+        Edge<String, String> zero_zero_0 = new Edge<String, String>(zero, zero, "0");
+        DirectedGraph<String, String> firstPart = new DirectedGraph<>();
+        firstPart.addNode(negOne);
+        firstPart.addNode(one);
+        firstPart.addNode(zero);
+        firstPart.addEdge(neg_one_1);
+        firstPart.addEdge(neg_zero_0);
+        DirectedGraph<String, String> secondPart = new DirectedGraph<>();
+        secondPart.addNode(zero);
+        secondPart.addNode(negOne);
+        secondPart.addNode(two);
+        secondPart.addEdge(neg_zero_0); // In both parts
+        secondPart.addEdge(zero_neg_1);
+        secondPart.addEdge(zero_zero_0);
+        directedGraph.addNode(two);
+        for (Edge<String, String> edge : List.of(neg_one_1, neg_zero_0, zero_neg_1, zero_zero_0)) {
+            directedGraph.addEdge(edge);
+        }
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            DirectedGraph<String, String> merged = DirectedGraph.merge(List.of(firstPart, secondPart), pool);
+            assertEquals(directedGraph.toString(), merged.toString());
+            assertEquals(3, merged.getEdgeCount());
+            assertEquals(directedGraph.listParents(zero, true), merged.listParents(zero, true));
+            firstPart.removeNode(one); // The merged graph does not share sets with its parts
+            assertEquals(directedGraph.toString(), merged.toString());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Tests that toString lists nodes and children in alphabetical order, whatever order
+     * they were added in.
+     */
+    @Test
+    public void testToStringSorted() {
+        directedGraph.addNode(two);
+        directedGraph.addEdge(new Edge<String, String>(negOne, two, "b"));
+        directedGraph.addEdge(new Edge<String, String>(negOne, one, "z"));
+        directedGraph.addEdge(new Edge<String, String>(negOne, one, "a"));
+        assertEquals("graph contains: -1 0 1 2\n"
+                + "the children of -1 are: 1(a) 1(z) 2(b)\n"
+                + "the children of 0 are:\n"
+                + "the children of 1 are:\n"
+                + "the children of 2 are:\n", directedGraph.toString());
+    }
+
+    /**
+     * Tests that forEachChild visits exactly the edges listChildren returns, each once, with
+     * and without reflexive edges, including edges to the same child with different labels,
+     * on every kind of graph.
+     */
+    @Test
+    public void testForEachChild() {
+        Edge<String, String> neg_neg_0 = new Edge<String, String>(negOne, negOne, "0");
+        directedGraph.addNode(two);
+        for (Edge<String, String> edge : List.of(neg_one_1, neg_one_0, neg_zero_1, neg_zero_0, zero_neg_0,
+                neg_neg_0)) {
+            directedGraph.addEdge(edge);
+        }
+        ConcurrentDirectedGraph<String, String> concurrent = new ConcurrentDirectedGraph<>();
+        VersionedGraph<String, String> versioned = new VersionedGraph<>();
+        for (Graph<String, String> graph : List.of(concurrent, versioned)) {
+            for (Node<String> node : directedGraph.listNodes()) {
+                graph.addNode(node);
+            }
+            for (Node<String> node : directedGraph.listNodes()) {
+                for (Edge<String, String> edge : directedGraph.listChildren(node, true)) {
+                    graph.addEdge(edge);
+                }
+            }
+        }
+        List<Graph<String, String>> graphs = List.of(directedGraph, new ImmutableGraph<>(directedGraph),
+                concurrent, versioned, versioned.current());
+        for (Graph<String, String> graph : graphs) {
+            for (Node<String> node : directedGraph.listNodes()) {
+                for (boolean includeSelf : new boolean[] {true, false}) {
+                    List<Edge<String, String>> visited = new ArrayList<>();
+                    graph.forEachChild(node, includeSelf, visited::add);
+                    assertEquals(graph.listChildren(node, includeSelf).size(), visited.size());
+                    assertEquals(graph.listChildren(node, includeSelf), new HashSet<>(visited));
+                }
+            }
+        }
+        List<Edge<String, String>> visited = new ArrayList<>();
+        directedGraph.forEachChild(negOne, false, visited::add);
+        assertEquals(Set.of(neg_one_1, neg_one_0, neg_zero_1, neg_zero_0), new HashSet<>(visited));
+        visited.clear();
+        directedGraph.forEachChild(negOne, true, visited::add);
+        assertEquals(5, visited.size()); // Now with -1 to itself
+        visited.clear();
+        directedGraph.forEachChild(two, true, visited::add);
+        assertEquals(0, visited.size());
+    }
 }
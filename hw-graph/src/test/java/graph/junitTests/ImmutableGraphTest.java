@@ -0,0 +1,139 @@
+package graph.junitTests;
+
+import graph.DirectedGraph;
+import graph.Edge;
+import graph.ImmutableGraph;
+import graph.Node;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ImmutableGraphTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    // Some simple base Edges and Nodes
+    private Node<String> negOne = new Node<String>("-1");
+    private Node<String> zero = new Node<String>("0");
+    private Node<String> one = new Node<String>("1");
+    private Node<String> two = new Node<String>("2");
+    private Edge<String, String> neg_one_1 = new Edge<String, String>(negOne, one, "1");
+    private Edge<String, String> neg_one_0 = new Edge<String, String>(negOne, one, "0");
+    private Edge<String, String> neg_zero_0 = new Edge<String, String>(negOne, zero, "0");
+    private Edge<String, String> neg_neg_0 = new Edge<String, String>(negOne, negOne, "0");
+
+    // Graph that has nodes and edges listed above, and its frozen snapshot
+    private DirectedGraph<String, String> directedGraph = new DirectedGraph<>();
+    private ImmutableGraph<String, String> frozenGraph;
+
+    /**
+     * Tests and methods will use this set up graph that has nodes 0, 1, -1, 2 and
+     * edges from -1 to 1, -1 to 0 and -1 to itself
+     */
+    @Before
+    public void populateGraph() {
+        directedGraph.addNode(negOne);
+        directedGraph.addNode(zero);
+        directedGraph.addNode(one);
+        directedGraph.addNode(two);
+        directedGraph.addEdge(neg_one_1);
+        directedGraph.addEdge(neg_one_0);
+        directedGraph.addEdge(neg_zero_0);
+        directedGraph.addEdge(neg_neg_0);
+        frozenGraph = directedGraph.freeze();
+    }
+
+    /**
+     * Tests that freezing keeps the same nodes, size and edge count.
+     */
+    @Test
+    public void testFreezeSameNodes() {
+        assertEquals(directedGraph.listNodes(), frozenGraph.listNodes());
+        assertEquals(directedGraph.size(), frozenGraph.size());
+        assertEquals(directedGraph.getEdgeCount(), frozenGraph.getEdgeCount());
+        assertTrue(frozenGraph.containsNode(new Node<String>("2")));
+        assertFalse(frozenGraph.containsNode(new Node<String>("3")));
+    }
+
+    /**
+     * Tests that freezing keeps the same children, with and without reflexive edges.
+     */
+    @Test
+    public void testFreezeSameChildren() {
+        for (Node<String> node : directedGraph.listNodes()) {
+            assertEquals(directedGraph.listChildren(node, true), frozenGraph.listChildren(node, true));
+            assertEquals(directedGraph.listChildren(node, false), frozenGraph.listChildren(node, false));
+        }
+        assertEquals(3, frozenGraph.listChildren(negOne, false).size());
+        assertEquals(4, frozenGraph.listChildren(negOne, true).size());
+    }
+
+    /**
+     * Tests that the packed edge arrays describe the same edges as listChildren.
+     */
+    @Test
+    public void testPackedEdges() {
+        int id = frozenGraph.indexOf(negOne);
+        assertEquals(negOne, frozenGraph.nodeAt(id));
+        Set<Edge<String, String>> packed = new HashSet<>();
+        for (int edge = frozenGraph.childrenBegin(id); edge < frozenGraph.childrenEnd(id); edge++) {
+            Node<String> end = frozenGraph.nodeAt(frozenGraph.targetAt(edge));
+            packed.add(new Edge<String, String>(negOne, end, frozenGraph.labelAt(edge)));
+        }
+        assertEquals(directedGraph.listChildren(negOne, true), packed);
+        assertEquals(-1, frozenGraph.indexOf(new Node<String>("3")));
+    }
+
+    /**
+     * Tests that the snapshot does not change when the original graph does.
+     */
+    @Test
+    public void testFreezeIsSnapshot() {
+        String beforeGraph = frozenGraph.toString();
+        directedGraph.removeEdge(neg_one_1);
+        directedGraph.addEdge(new Edge<String, String>(two, zero, "2"));
+        assertEquals(beforeGraph, frozenGraph.toString());
+        assertEquals(3, frozenGraph.getEdgeCount());
+    }
+
+    /**
+     * Tests that the snapshot cannot be modified.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAddNodeUnsupported() {
+        frozenGraph.addNode(new Node<String>("3"));
+    }
+
+    /**
+     * Tests that the snapshot cannot be modified.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testRemoveEdgeUnsupported() {
+        frozenGraph.removeEdge(neg_one_1);
+    }
+
+    /**
+     * Tests that freezing keeps the same parents, with and without reflexive edges.
+     */
+    @Test
+    public void testFreezeSameParents() {
+        for (Node<String> node : directedGraph.listNodes()) {
+            assertEquals(directedGraph.listParents(node, true), frozenGraph.listParents(node, true));
+            assertEquals(directedGraph.listParents(node, false), frozenGraph.listParents(node, false));
+        }
+        int id = frozenGraph.indexOf(one);
+        assertEquals(2, frozenGraph.parentsEnd(id) - frozenGraph.parentsBegin(id));
+        for (int parent = frozenGraph.parentsBegin(id); parent < frozenGraph.parentsEnd(id); parent++) {
+            assertEquals(negOne, frozenGraph.nodeAt(frozenGraph.sourceAt(parent)));
+            assertEquals(id, frozenGraph.targetAt(frozenGraph.parentEdgeAt(parent)));
+        }
+    }
+}
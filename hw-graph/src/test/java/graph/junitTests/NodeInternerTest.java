@@ -0,0 +1,70 @@
+package graph.junitTests;
+
+import graph.Node;
+import graph.NodeInterner;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class NodeInternerTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    @Test // Equal data gives the same Node, different data different Nodes
+    public void testInternData() {
+        NodeInterner<String> interner = new NodeInterner<>();
+        Node<String> a = interner.intern("a");
+        assertSame(a, interner.intern(new String("a")));
+        assertEquals(new Node<>("a"), a);
+        assertEquals("b", interner.intern("b").getData());
+        assertEquals(2, interner.size());
+    }
+
+    @Test // The first Node interned becomes the canonical one
+    public void testInternNode() {
+        NodeInterner<String> interner = new NodeInterner<>();
+        Node<String> first = new Node<>("a");
+        assertSame(first, interner.intern(first));
+        assertSame(first, interner.intern(new Node<>("a")));
+        assertSame(first, interner.intern("a"));
+    }
+
+    @Test // Threads interning the same data at once all get the same Node
+    public void testConcurrentIntern() throws Exception {
+        NodeInterner<Integer> interner = new NodeInterner<>();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<List<Node<Integer>>>> tasks = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                tasks.add(() -> {
+                    List<Node<Integer>> nodes = new ArrayList<>();
+                    for (int i = 0; i < 1000; i++) {
+                        nodes.add(interner.intern(i));
+                    }
+                    return nodes;
+                });
+            }
+            List<Future<List<Node<Integer>>>> results = pool.invokeAll(tasks);
+            List<Node<Integer>> expected = results.get(0).get();
+            for (Future<List<Node<Integer>>> result : results) {
+                List<Node<Integer>> nodes = result.get();
+                for (int i = 0; i < 1000; i++) {
+                    assertSame(expected.get(i), nodes.get(i));
+                }
+            }
+            assertEquals(1000, interner.size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package graph.junitTests;
+
+import graph.DirectedGraph;
+import graph.Edge;
+import graph.GraphVersion;
+import graph.Node;
+import graph.VersionedGraph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class VersionedGraphTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private Node<String> zero = new Node<>("0");
+    private Node<String> one = new Node<>("1");
+    private Node<String> two = new Node<>("2");
+    private Edge<String, String> zero_one = new Edge<>(zero, one, "a");
+    private Edge<String, String> one_two = new Edge<>(one, two, "b");
+    private Edge<String, String> two_two = new Edge<>(two, two, "c");
+
+    @Test // Every change publishes the next version, and no-op changes publish nothing
+    public void testVersionNumbers() {
+        VersionedGraph<String, String> graph = new VersionedGraph<>();
+        assertEquals(0, graph.getVersion());
+        graph.addNode(zero);
+        graph.addNode(one);
+        assertEquals(2, graph.getVersion());
+        graph.addNode(one); // Already there
+        graph.addEdge(one_two); // two not in graph
+        assertEquals(2, graph.getVersion());
+        graph.addEdge(zero_one);
+        assertEquals(3, graph.getVersion());
+        assertNull(graph.removeEdge(one_two));
+        assertNull(graph.removeNode(two));
+        assertEquals(3, graph.getVersion());
+    }
+
+    @Test // A version held by a reader does not change as the graph does
+    public void testPinnedVersionUnchanged() {
+        VersionedGraph<String, String> graph = new VersionedGraph<>();
+        graph.addNode(zero);
+        graph.addNode(one);
+        graph.addNode(two);
+        graph.addEdge(zero_one);
+        GraphVersion<String, String> pinned = graph.current();
+        String before = pinned.toString();
+        graph.addEdge(one_two);
+        graph.addEdge(two_two);
+        assertEquals(one, graph.removeNode(one));
+        assertEquals(before, pinned.toString());
+        assertEquals(3, pinned.size());
+        assertEquals(Set.of(zero_one), pinned.listChildren(zero, true));
+        assertTrue(pinned.listChildren(one, true).isEmpty());
+        assertEquals(1, pinned.getEdgeCount());
+        assertEquals(2, graph.size()); // Latest version lost one and its edges
+        assertEquals(0, graph.getEdgeCount());
+        assertTrue(graph.listChildren(zero, true).isEmpty());
+        assertEquals(Set.of(two_two), graph.listParents(two, true));
+        assertFalse(graph.containsNode(one));
+        assertTrue(pinned.containsNode(one));
+    }
+
+    @Test // Relabeling publishes one version, and merges with an edge already labeled so
+    public void testRelabelEdge() {
+        VersionedGraph<String, String> graph = new VersionedGraph<>();
+        graph.addNode(zero);
+        graph.addNode(one);
+        graph.addEdge(zero_one);
+        graph.addEdge(new Edge<>(zero, one, "b"));
+        GraphVersion<String, String> pinned = graph.current();
+        assertEquals(new Edge<>(zero, one, "z"), graph.relabelEdge(zero_one, "z"));
+        assertEquals(pinned.getVersion() + 1, graph.getVersion());
+        assertEquals(Set.of(new Edge<>(zero, one, "z"), new Edge<>(zero, one, "b")),
+                graph.listChildren(zero, true));
+        assertEquals(graph.listChildren(zero, true), graph.listParents(one, true));
+        assertTrue(pinned.listChildren(zero, true).contains(zero_one));
+        assertEquals(new Edge<>(zero, one, "b"), graph.relabelEdge(new Edge<>(zero, one, "z"), "b"));
+        assertEquals(Set.of(new Edge<>(zero, one, "b")), graph.listParents(one, true));
+        assertEquals(1, graph.getEdgeCount());
+        long version = graph.getVersion();
+        assertNull(graph.relabelEdge(zero_one, "c")); // Not in the graph
+        assertEquals(new Edge<>(zero, one, "b"), graph.relabelEdge(new Edge<>(zero, one, "b"), "b"));
+        assertEquals(version, graph.getVersion());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testVersionIsReadOnly() {
+        VersionedGraph<String, String> graph = new VersionedGraph<>();
+        graph.current().addNode(zero);
+    }
+
+    @Test // Random changes leave the same graph as a DirectedGraph given the same changes
+    public void testMatchesDirectedGraph() {
+        VersionedGraph<String, String> graph = new VersionedGraph<>();
+        DirectedGraph<String, String> expected = new DirectedGraph<>();
+        Random random = new Random(331);
+        for (int i = 0; i < 5000; i++) {
+            Node<String> start = new Node<>("n" + random.nextInt(30));
+            Node<String> end = new Node<>("n" + random.nextInt(30));
+            Edge<String, String> edge = new Edge<>(start, end, "e" + random.nextInt(2));
+            switch (random.nextInt(10)) {
+                case 0:
+                    assertEquals(expected.removeNode(start), graph.removeNode(start));
+                    break;
+                case 1:
+                case 2:
+                    assertEquals(expected.removeEdge(edge), graph.removeEdge(edge));
+                    break;
+                case 3:
+                    graph.addNode(start);
+                    expected.addNode(start);
+                    break;
+                default:
+                    graph.addEdge(edge);
+                    expected.addEdge(edge);
+            }
+        }
+        assertEquals(expected.toString(), graph.toString());
+        assertEquals(expected.size(), graph.size());
+        assertEquals(expected.getEdgeCount(), graph.getEdgeCount());
+        assertEquals(expected.listNodes(), graph.listNodes());
+        for (Node<String> node : expected.listNodes()) {
+            assertEquals(expected.listParents(node, false), graph.listParents(node, false));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package graph.junitTests;
+
+import graph.DirectedGraph;
+import graph.Edge;
+import graph.Node;
+import graph.WeightedIntGraph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+public class WeightedIntGraphTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private Node<String> a = new Node<>("a");
+    private Node<String> b = new Node<>("b");
+    private Node<String> c = new Node<>("c");
+
+    // Returns a graph with a reflexive edge, two edges between one pair and an edge-less node
+    private DirectedGraph<String, Double> graph() {
+        DirectedGraph<String, Double> graph = new DirectedGraph<>();
+        graph.addNode(a);
+        graph.addNode(b);
+        graph.addNode(c);
+        graph.addEdge(new Edge<>(a, b, 1.0));
+        graph.addEdge(new Edge<>(a, b, 2.5));
+        graph.addEdge(new Edge<>(b, b, 4.0));
+        graph.addEdge(new Edge<>(b, a, 0.5));
+        return graph;
+    }
+
+    @Test // Ids and node data map to each other, and unknown data has no id
+    public void testIdTable() {
+        WeightedIntGraph<String> packed = new WeightedIntGraph<>(graph());
+        assertEquals(3, packed.size());
+        for (String name : new String[] {"a", "b", "c"}) {
+            assertEquals(name, packed.dataOf(packed.idOf(name)));
+        }
+        assertEquals(-1, packed.idOf("z"));
+    }
+
+    @Test // Every edge is packed once, reflexive edges included, with its weight
+    public void testEdges() {
+        DirectedGraph<String, Double> graph = graph();
+        WeightedIntGraph<String> packed = new WeightedIntGraph<>(graph);
+        assertEquals(graph.getEdgeCount(), packed.getEdgeCount());
+        for (Node<String> node : graph.listNodes()) {
+            int id = packed.idOf(node.getData());
+            Set<Edge<String, Double>> edges = new HashSet<>();
+            for (int edge = packed.firstEdge(id); edge < packed.endEdge(id); edge++) {
+                edges.add(new Edge<>(node, new Node<>(packed.dataOf(packed.target(edge))), packed.weight(edge)));
+                assertEquals(id, packed.source(edge)); // Found again from the edge alone
+            }
+            assertEquals(graph.listChildren(node, true), edges);
+        }
+    }
+
+    @Test // A reweighed copy keeps every id and edge index, and leaves the original alone
+    public void testWithWeight() {
+        WeightedIntGraph<String> packed = new WeightedIntGraph<>(graph());
+        int edge = packed.findEdge(packed.idOf("a"), packed.idOf("b"), 2.5);
+        assertEquals(packed.idOf("b"), packed.target(edge));
+        assertEquals(-1, packed.findEdge(packed.idOf("a"), packed.idOf("b"), 3.0));
+        WeightedIntGraph<String> reweighed = packed.withWeight(edge, Double.POSITIVE_INFINITY);
+        assertEquals(Double.POSITIVE_INFINITY, reweighed.weight(edge), 0.0);
+        assertEquals(2.5, packed.weight(edge), 0.0);
+        assertEquals(edge, reweighed.findEdge(reweighed.idOf("a"), reweighed.idOf("b"), Double.POSITIVE_INFINITY));
+        for (int id = 0; id < packed.size(); id++) {
+            assertEquals(packed.dataOf(id), reweighed.dataOf(id));
+            for (int other = packed.firstEdge(id); other < packed.endEdge(id); other++) {
+                assertEquals(packed.target(other), reweighed.target(other));
+                if (other != edge) {
+                    assertEquals(packed.weight(other), reweighed.weight(other), 0.0);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package marvel;
+
+import graph.Edge;
+import graph.Graph;
+import graph.Node;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * This class represents the marvel universe graph of heroes, where every two heroes that
+ * appear in the same book are joined by an edge in each direction labelled with the book,
+ * but stores it as the much smaller bipartite graph of heroes and the books they appear in.
+ * The hero-to-hero edges are never stored; listChildren and listParents create them as they
+ * are iterated over, going from a hero to each of its books and on to each hero in that book.
+ * So a MarvelBipartiteGraph answers every query the same as the DirectedGraph built by
+ * MarvelPaths.setupUniverse from the same data, with memory in proportion to the number of
+ * (hero, book) pairs rather than to the number of hero pairs.  Since it cannot change, any
+ * attempt to add or remove nodes or edges throws an UnsupportedOperationException.
+ */
+public class MarvelBipartiteGraph implements Graph<String, String> {
+
+    private final Map<Node<String>, List<String>> books; // hero -> titles of its books
+    private final Map<String, List<Node<String>>> heroes; // title -> heroes in the book
+    private final int edgeSize; // number of non-reflexive hero-to-hero edges
+
+    // Abstraction Function:
+    //   A MarvelBipartiteGraph g represents the directed graph whose nodes are the keys of
+    //   g.books and which, for every title t in g.heroes and every two heroes h1 and h2 in
+    //   g.heroes.get(t), has an edge labelled t from h1 to h2 (a reflexive edge if h1 == h2).
+    //   If a graph has no nodes (thus, no edges), the graph represents an empty non-null graph.
+
+    // Representation invariant for every MarvelBipartiteGraph g:
+    // g.books != null && g.heroes != null && no key, value or list element is null &&
+    // forall heroes h and titles t, g.books.get(h).contains(t) iff g.heroes.get(t).contains(h) &&
+    // no list in g.books or g.heroes has duplicates &&
+    // g.edgeSize == sum over titles t of n * (n - 1), where n = g.heroes.get(t).size()
+    // In other words,
+    //   * the two tables always point to some usable object and hold no nulls
+    //   * the two tables describe the same (hero, book) pairs, once each
+    //   * the edge count is the number of ordered pairs of different heroes sharing a book
+
+    // Change this to run expensive methods in checkRep() if set to true, otherwise does not run.
+    private final boolean needsCheckRep = false;
+
+    /**
+     * Constructs a MarvelBipartiteGraph from books and the heroes appearing in each.
+     * @param comicsAndHeroes a map from the title of each book to the names of its heroes,
+     *                        as returned by MarvelParser.parseData
+     * @spec.requires comicsAndHeroes != null and holds no nulls
+     * @spec.effects Constructs a new MarvelBipartiteGraph of the heroes in comicsAndHeroes.
+     */
+    public MarvelBipartiteGraph(Map<String, Set<String>> comicsAndHeroes) {
+        books = new HashMap<>();
+        heroes = new HashMap<>(comicsAndHeroes.size() * 2);
+        Map<String, Node<String>> heroNodes = new HashMap<>(); // one shared Node per hero
+        long pairs = 0;
+        for (Map.Entry<String, Set<String>> titleEntry : comicsAndHeroes.entrySet()) {
+            String title = titleEntry.getKey();
+            List<Node<String>> bookHeroes = new ArrayList<>(titleEntry.getValue().size());
+            for (String name : titleEntry.getValue()) {
+                Node<String> hero = heroNodes.computeIfAbsent(name, Node::new);
+                bookHeroes.add(hero);
+                books.computeIfAbsent(hero, key -> new ArrayList<>()).add(title);
+            }
+            heroes.put(title, bookHeroes);
+            pairs += (long) bookHeroes.size() * (bookHeroes.size() - 1);
+        }
+        for (List<String> heroBooks : books.values()) {
+            ((ArrayList<String>) heroBooks).trimToSize();
+        }
+        edgeSize = (int) pairs;
+        checkRep();
+    }
+
+    /**
+     * Unsupported, since a MarvelBipartiteGraph cannot change.
+     * @param node ignored
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addNode(Node<String> node) {
+        throw new UnsupportedOperationException("MarvelBipartiteGraph cannot be modified");
+    }
+
+    /**
+     * Unsupported, since a MarvelBipartiteGraph cannot change.
+     * @param edge ignored
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addEdge(Edge<String, String> edge) {
+        throw new UnsupportedOperationException("MarvelBipartiteGraph cannot be modified");
+    }
+
+    /**
+     * Unsupported, since a MarvelBipartiteGraph cannot change.
+     * @param node ignored
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public Node<String> removeNode(Node<String> node) {
+        throw new UnsupportedOperationException("MarvelBipartiteGraph cannot be modified");
+    }
+
+    /**
+     * Unsupported, since a MarvelBipartiteGraph cannot change.
+     * @param edge ignored
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public Edge<String, String> removeEdge(Edge<String, String> edge) {
+        throw new UnsupportedOperationException("MarvelBipartiteGraph cannot be modified");
+    }
+
+    /**
+     * Returns an unordered unmodifiable set of the heroes of this graph
+     * @return an unmodifiable set of nodes of this graph
+     */
+    @Override
+    public Set<Node<String>> listNodes() {
+        return Collections.unmodifiableSet(books.keySet());
+    }
+
+    /**
+     * Returns an unsorted unmodifiable set of children edges of this hero, one for each book
+     * of the hero and each hero in that book.  The edges are created as the set is iterated over.
+     * @param parentNode that is in this graph
+     * @param includeSelf boolean to include parent as a child, true if considering reflexive edges
+     * @spec.requires node is in graph, boolean is not null
+     * @return an unmodifiable set of edges in this graph, of this parent node
+     */
+    @Override
+    public Set<Edge<String, String>> listChildren(Node<String> parentNode, boolean includeSelf) {
+        return new ExpandedEdgeView(parentNode, includeSelf, false);
+    }
+
+    /**
+     * Calls action once for every child edge of this hero, going through its books.
+     * @param parentNode that is in this graph
+     * @param includeSelf boolean to include parent as a child, true if considering reflexive edges
+     * @param action what to do with each child edge
+     * @spec.requires node is in graph, action is not null
+     */
+    @Override
+    public void forEachChild(Node<String> parentNode, boolean includeSelf,
+                             Consumer<? super Edge<String, String>> action) {
+        for (String title : books.get(parentNode)) {
+            for (Node<String> hero : heroes.get(title)) {
+                if (includeSelf || !hero.equals(parentNode)) { // considering reflexive
+                    action.accept(new Edge<>(parentNode, hero, title));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns an unsorted unmodifiable set of parent edges of this hero, that is the edges
+     * that end at this hero.  Since every edge has a twin going the other way, these are
+     * the children edges turned around.  The edges are created as the set is iterated over.
+     * @param childNode that is in this graph
+     * @param includeSelf boolean to include child as a parent, true if considering reflexive edges
+     * @spec.requires node is in graph, boolean is not null
+     * @return an unmodifiable set of edges in this graph, of this child node
+     */
+    @Override
+    public Set<Edge<String, String>> listParents(Node<String> childNode, boolean includeSelf) {
+        return new ExpandedEdgeView(childNode, includeSelf, true);
+    }
+
+    /**
+     * Returns if graph contains node.
+     * @param node the node in question
+     * @return a boolean, true if node is a hero in the graph.  False otherwise.
+     */
+    @Override
+    public boolean containsNode(Node<String> node) {
+        return books.containsKey(node);
+    }
+
+    /**
+     * Returns the size of this graph.
+     * @return an int; the number of heroes in this graph
+     */
+    @Override
+    public int size() {
+        return books.size();
+    }
+
+    /**
+     * Returns the number of non-reflexive edges in this graph.
+     * @return an int; the number of non-reflexive edges in this graph
+     */
+    @Override
+    public int getEdgeCount() {
+        return edgeSize;
+    }
+
+    /**
+     * Returns if graph is empty.
+     * @return a boolean; true if graph has no nodes, false otherwise
+     */
+    @Override
+    public boolean isEmpty() {
+        return books.isEmpty();
+    }
+
+    /**
+     * Returns the number of books in this graph.
+     * @return an int; the number of books with at least one hero
+     */
+    public int bookCount() {
+        return heroes.size();
+    }
+
+    /*
+     * A read-only set of the outgoing or incoming edges of one hero, made by going through
+     * the hero's books to the heroes in each.
+     */
+    private class ExpandedEdgeView extends AbstractSet<Edge<String, String>> {
+        private final Node<String> hero;
+        private final boolean includeSelf;
+        private final boolean incoming;
+
+        private ExpandedEdgeView(Node<String> hero, boolean includeSelf, boolean incoming) {
+            this.hero = hero;
+            this.includeSelf = includeSelf;
+            this.incoming = incoming;
+        }
+
+        @Override
+        public Iterator<Edge<String, String>> iterator() {
+            return new Iterator<Edge<String, String>>() {
+                private final List<String> titles = books.get(hero);
+                private int titleIndex = -1; // index in titles of the book being gone through
+                private List<Node<String>> others = Collections.emptyList(); // its heroes
+                private int otherIndex = 0; // index in others of the next hero to visit
+
+                {
+                    advance();
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return otherIndex < others.size();
+                }
+
+                @Override
+                public Edge<String, String> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Node<String> other = others.get(otherIndex);
+                    String title = titles.get(titleIndex);
+                    otherIndex++;
+                    advance();
+                    return incoming ? new Edge<>(other, hero, title) : new Edge<>(hero, other, title);
+                }
+
+                // Moves otherIndex to the next hero to visit, going on to later books as needed
+                private void advance() {
+                    while (true) {
+                        while (otherIndex < others.size()) {
+                            if (includeSelf || !others.get(otherIndex).equals(hero)) {
+                                return;
+                            }
+                            otherIndex++;
+                        }
+                        if (titleIndex + 1 >= titles.size()) { // No books left
+                            return;
+                        }
+                        titleIndex++;
+                        others = heroes.get(titles.get(titleIndex));
+                        otherIndex = 0;
+                    }
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            int count = 0;
+            for (String title : books.get(hero)) {
+                count += heroes.get(title).size() - (includeSelf ? 0 : 1); // hero is in every book
+            }
+            return count;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Edge<?, ?>)) {
+                return false;
+            }
+            Edge<?, ?> edge = (Edge<?, ?>) o;
+            Object mine = incoming ? edge.getEnd() : edge.getStart();
+            Object other = incoming ? edge.getStart() : edge.getEnd();
+            if (!hero.equals(mine) || (!includeSelf && hero.equals(other))) {
+                return false;
+            }
+            List<Node<String>> bookHeroes = heroes.get(edge.getLabel());
+            return bookHeroes != null && bookHeroes.contains(other) && bookHeroes.contains(hero);
+        }
+    }
+
+    /*
+        Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert (books != null && heroes != null) : "Tables cannot be null";
+        if (needsCheckRep) { // Only check expensive checks if needed
+            long pairs = 0;
+            for (Map.Entry<String, List<Node<String>>> titleEntry : heroes.entrySet()) {
+                List<Node<String>> bookHeroes = titleEntry.getValue();
+                assert (new HashSet<>(bookHeroes).size() == bookHeroes.size()) : "Hero listed twice in a book";
+                for (Node<String> hero : bookHeroes) {
+                    assert (books.get(hero).contains(titleEntry.getKey())) : "Tables do not match";
+                }
+                pairs += (long) bookHeroes.size() * (bookHeroes.size() - 1);
+            }
+            assert (pairs == edgeSize) : "Edge count is wrong";
+        }
+    }
+}
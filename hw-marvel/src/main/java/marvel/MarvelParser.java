@@ -15,10 +15,12 @@ import com.opencsv.bean.CsvToBean;
 import com.opencsv.bean.CsvToBeanBuilder;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.util.*;
+import java.util.function.BiConsumer;
 
 /**
  * Parser utility to load the Marvel Comics dataset.
@@ -31,30 +33,46 @@ public class MarvelParser {
      *
      * @param filename the file that will be read
      * @spec.requires filename is a valid file in the resources/data folder.
+     * @return a map from the title of each comic book to the names of the characters in it
      */
-    // TODO: Replace 'void' with the type you want the parser to produce
     public static Map<String, Set<String>> parseData(String filename) {
-        // You can use this code as an example for getting a file from the resources folder
-        // in a project like this. If you access TSV files elsewhere in your code, you'll need
-        // to use similar code. If you use this code elsewhere, don't forget:
-        //   - Replace 'MarvelParser' in `MarvelParser.class' with the name of the class you write this in
-        //   - If the class is in src/main, it'll get resources from src/main/resources
-        //   - If the class is in src/test, it'll get resources from src/test/resources
-        //   - The "/" at the beginning of the path is important
-        // Note: Most students won't re-write this code anywhere, this explanation is just for completeness.
-        InputStream stream = MarvelParser.class.getResourceAsStream("/data/" + filename);
-        if(stream == null) {
-            // stream is null if the file doesn't exist.
-            // You'll probably want to handle this case so you don't try to call
-            // getPath and have a null pointer exception.
-            // Technically, you'd be allowed to just have the NPE because of
-            // the @spec.requires, but it's good to program defensively. :)
-            throw new IllegalArgumentException("provided an invalid file name");
+        // Comic titles with all heroes in common with the title
+        Map<String, Set<String>> comicsAndHeroes = new HashMap<>();
+        forEachPair(filename, (name, title) -> {
+            // Associate a hero to a title, making a new book slot if title is not known yet
+            comicsAndHeroes.computeIfAbsent(title, key -> new HashSet<>()).add(name);
+        });
+        return comicsAndHeroes;
+    }
+
+    /**
+     * Streams the Marvel Universe dataset, calling pairs with the character name and comic book
+     * of each line in file order.  Names and titles that repeat are passed as the same String.
+     *
+     * @param filename the file that will be read
+     * @param pairs what to do with each (character name, comic book) pair
+     * @spec.requires filename is a valid file in the resources/data folder, pairs is not null.
+     * @throws IllegalArgumentException if the file does not exist, cannot be read, or is malformed
+     */
+    public static void forEachPair(String filename, BiConsumer<String, String> pairs) {
+        try (Reader reader = openData(filename)) {
+            new MarvelTsvReader(reader).read(pairs);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("could not read " + filename, e);
         }
-        Reader reader = new BufferedReader(new InputStreamReader(stream));
+    }
 
-        // TODO: Complete this method
-        // Hint: You might want to create a new bean class to use with the OpenCSV Parser
+    /**
+     * Reads the Marvel Universe dataset the way parseData used to, binding each line to a
+     * MarvelHeroModel bean with OpenCSV.  Gives the same map as parseData, more slowly; kept
+     * to compare parseData against.
+     *
+     * @param filename the file that will be read
+     * @spec.requires filename is a valid file in the resources/data folder.
+     * @return a map from the title of each comic book to the names of the characters in it
+     */
+    public static Map<String, Set<String>> parseDataWithBeans(String filename) {
+        Reader reader = openData(filename);
 
         CsvToBean<MarvelHeroModel> csvToBean = new CsvToBeanBuilder<MarvelHeroModel>(reader)
                 .withType(MarvelHeroModel.class)
@@ -76,4 +94,24 @@ public class MarvelParser {
         }
         return comicsAndHeroes;
     }
-}
\ No newline at end of file
+
+    /*
+     * Opens a file in the resources/data folder for reading
+     */
+    private static Reader openData(String filename) {
+        // You can use this code as an example for getting a file from the resources folder
+        // in a project like this. If you access TSV files elsewhere in your code, you'll need
+        // to use similar code. If you use this code elsewhere, don't forget:
+        //   - Replace 'MarvelParser' in `MarvelParser.class' with the name of the class you write this in
+        //   - If the class is in src/main, it'll get resources from src/main/resources
+        //   - If the class is in src/test, it'll get resources from src/test/resources
+        //   - The "/" at the beginning of the path is important
+        // Note: Most students won't re-write this code anywhere, this explanation is just for completeness.
+        InputStream stream = MarvelParser.class.getResourceAsStream("/data/" + filename);
+        if(stream == null) {
+            // stream is null if the file doesn't exist.
+            throw new IllegalArgumentException("provided an invalid file name");
+        }
+        return new BufferedReader(new InputStreamReader(stream));
+    }
+}
@@ -2,16 +2,40 @@ package marvel;
 
 import graph.DirectedGraph;
 import graph.Edge;
+import graph.Graph;
 import graph.Node;
+import graph.NodeInterner;
 
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 /*
  *  This app allows a user to model (a graph of) the marvel universe
  */
 public class MarvelPaths {
     private static final String fileName = "marvel.tsv"; // The data file on marvel heroes
+    // Where --snapshot keeps the built graph between runs, unless given another file
+    private static final String snapshotFile = "build/marvel.snapshot";
+
+    /*
+     * How findPath searches; every mode finds the same path
+     */
+    public enum SearchMode {
+        // Breadth-first search from the start until the destination is reached
+        BREADTH_FIRST,
+        // Breadth-first search from both ends until they meet in the middle, then a
+        // breadth-first search from the start over only the nodes on shortest paths
+        BIDIRECTIONAL
+    }
 
     /*
      *  Where the AF would go, but this isn't an ADT bc we are using as a client program
@@ -19,11 +43,50 @@ public class MarvelPaths {
      */
 
     // Commands to communicate from client to the marvel universe
+    // With the arguments --snapshot [file], loads the graph from a binary snapshot instead of
+    // parsing marvel.tsv, first building the snapshot if there is no usable one yet
     public static void main(String[] args) {
         PrintWriter output = new PrintWriter(System.out, true);
         Scanner userInput = new Scanner(System.in);
+        Graph<String, String> marvelUniverse;
+        if (args.length > 0 && args[0].equals("--snapshot")) {
+            marvelUniverse = loadSnapshot(Paths.get(args.length > 1 ? args[1] : snapshotFile));
+        } else {
+            marvelUniverse = setupBipartiteUniverse(fileName);
+        }
         introPrompt(output); // Tells user how to use program
-        interact(output, userInput); // User interacts with program
+        interact(output, userInput, marvelUniverse); // User interacts with program
+    }
+
+    /*
+     *  Loads the marvel graph from the snapshot, or, if it is missing, unreadable or was built
+     *  from a marvel.tsv that has changed since, builds the graph from marvel.tsv and saves it
+     *  as the snapshot for next time
+     *  @param snapshot, the snapshot file to use
+     *  @return the graph of the marvel universe
+     */
+    private static Graph<String, String> loadSnapshot(Path snapshot) {
+        long fingerprint;
+        try {
+            fingerprint = MarvelSnapshot.fingerprint(fileName);
+        } catch (IOException e) { // Cannot tell if a snapshot is current, so do without one
+            System.err.println("Could not read " + fileName + ": " + e.getMessage());
+            return setupUniverse(fileName);
+        }
+        if (Files.exists(snapshot)) {
+            try {
+                return MarvelSnapshot.read(snapshot, fingerprint);
+            } catch (IOException e) { // Stale or damaged, so build a new one
+                System.err.println("Could not load snapshot, rebuilding it: " + e.getMessage());
+            }
+        }
+        DirectedGraph<String, String> universe = setupUniverse(fileName);
+        try {
+            MarvelSnapshot.write(universe, snapshot, fingerprint);
+        } catch (IOException e) { // Still usable this run without the snapshot
+            System.err.println("Could not save snapshot: " + e.getMessage());
+        }
+        return universe;
     }
 
     /*
@@ -48,9 +111,9 @@ public class MarvelPaths {
      * Interacts with the user through console to find a path between two characters
      * @param output where the results are printed to
      * @param userInput where the user responds through
+     * @param marvelUniverse the graph to find paths in
      */
-    private static void interact(PrintWriter output, Scanner userInput) {
-        DirectedGraph<String, String> marvelUniverse = setupUniverse(fileName);
+    private static void interact(PrintWriter output, Scanner userInput, Graph<String, String> marvelUniverse) {
         // Obtain user input
         output.println("Who's the first character leading the path?");
         String startChar = userInput.nextLine();
@@ -74,7 +137,7 @@ public class MarvelPaths {
             boolean respondedNo = response.equalsIgnoreCase("N");
             if (respondedYes) {
                 keepRunning = false;
-                interact(output, userInput);
+                interact(output, userInput, marvelUniverse);
             } else if (respondedNo) {
                 output.println("Well, have a good day.  I'll get going then.  See ya next time.");
                 output.println("You can call me again when you need me.");
@@ -109,35 +172,113 @@ public class MarvelPaths {
      */
     public static DirectedGraph<String, String> setupUniverse(String fileName) {
         DirectedGraph<String, String> universe = new DirectedGraph<>();
+        NodeInterner<String> heroNodes = new NodeInterner<>(); // One Node per hero for all edges
         // data is in the form: comic books and heroes associated
         Map<String, Set<String>> data = MarvelParser.parseData(fileName);
         // Titles of comics and heroes associated with them
+        for (Map.Entry<String, Set<String>> titleEntry : data.entrySet()) { // For each title
+            addComic(universe, heroNodes, titleEntry.getKey(), titleEntry.getValue());
+        }
+        return universe;
+    }
 
-        Iterator<Map.Entry<String, Set<String>>> titleItr = data.entrySet().iterator();
-        while (titleItr.hasNext()) { // For each title
-            Map.Entry<String, Set<String>> titleEntry = titleItr.next();
-            Set<String> commonHeroesList = titleEntry.getValue();
-            Iterator<String> commonHeroesItr = commonHeroesList.iterator();
-            while (commonHeroesItr.hasNext()) {
-                Node<String> startHero = new Node<String>(commonHeroesItr.next());
-                universe.addNode(startHero);
-                for (String commonHero : commonHeroesList) { // For every hero in common with title
-                    String label = titleEntry.getKey(); // Label of edge is title of comic
-                    Node<String> endHero = new Node<String>(commonHero);
-                    universe.addNode(endHero);
-                    Edge<String, String> toEdge = new Edge<String, String>(startHero, endHero, label);
-                    Edge<String, String> fromEdge = new Edge<String, String>(endHero, startHero, label);
-                    universe.addEdge(toEdge);
-                    universe.addEdge(fromEdge);
+    /*
+     *  Sets up the same graph as setupUniverse(fileName), with the comics split between
+     *  threads workers of a ForkJoinPool.  Each worker adds its comics to a graph of its own,
+     *  and the pieces are then merged in parallel by DirectedGraph.merge.
+     *  @param fileName, String name of the file to set up graph data from
+     *  @param threads, the number of worker threads to use
+     *  @spec.requires fileName is a valid file within Marvel's data folder, threads > 0
+     *  @return a DirectedGraph; a graph of the marvel universe specified from the file
+     */
+    public static DirectedGraph<String, String> setupUniverse(String fileName, int threads) {
+        Map<String, Set<String>> data = MarvelParser.parseData(fileName);
+        List<Map.Entry<String, Set<String>>> comics = new ArrayList<>(data.entrySet());
+        long totalEdges = 0; // A comic with n heroes makes n * n edges, so split by that
+        for (Map.Entry<String, Set<String>> comic : comics) {
+            totalEdges += (long) comic.getValue().size() * comic.getValue().size();
+        }
+        NodeInterner<String> heroNodes = new NodeInterner<>(); // Shared, so pieces share Nodes too
+        List<Callable<DirectedGraph<String, String>>> pieces = new ArrayList<>();
+        int from = 0;
+        long edgesSoFar = 0;
+        for (int piece = 1; piece <= threads; piece++) { // Contiguous runs of about equal work
+            int to = from;
+            while (to < comics.size() && (piece == threads || edgesSoFar < totalEdges * piece / threads)) {
+                Set<String> heroes = comics.get(to).getValue();
+                edgesSoFar += (long) heroes.size() * heroes.size();
+                to++;
+            }
+            List<Map.Entry<String, Set<String>>> run = comics.subList(from, to);
+            pieces.add(() -> {
+                DirectedGraph<String, String> universe = new DirectedGraph<>();
+                for (Map.Entry<String, Set<String>> titleEntry : run) {
+                    addComic(universe, heroNodes, titleEntry.getKey(), titleEntry.getValue());
                 }
+                return universe;
+            });
+            from = to;
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            List<DirectedGraph<String, String>> built = new ArrayList<>();
+            for (Future<DirectedGraph<String, String>> piece : pool.invokeAll(pieces)) {
+                built.add(piece.get());
+            }
+            return built.size() == 1 ? built.get(0) : DirectedGraph.merge(built, pool);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while setting up the universe", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /*
+     *  Adds the heroes of one comic to universe, with an edge labelled title in both
+     *  directions between every two of them (and from each to itself)
+     *  @param universe, the graph to add to
+     *  @param heroNodes, where to get the one Node of each hero from
+     *  @param title, the title of the comic
+     *  @param commonHeroesList, the heroes that appear in the comic
+     */
+    private static void addComic(DirectedGraph<String, String> universe, NodeInterner<String> heroNodes,
+                                 String title, Set<String> commonHeroesList) {
+        List<Node<String>> commonHeroes = new ArrayList<>(commonHeroesList.size());
+        for (String commonHero : commonHeroesList) { // Look each hero up once, not once per pair
+            Node<String> hero = heroNodes.intern(commonHero);
+            universe.addNode(hero);
+            commonHeroes.add(hero);
+        }
+        for (Node<String> startHero : commonHeroes) {
+            for (Node<String> endHero : commonHeroes) { // For every hero in common with title
+                String label = title; // Label of edge is title of comic
+                Edge<String, String> toEdge = new Edge<String, String>(startHero, endHero, label);
+                Edge<String, String> fromEdge = new Edge<String, String>(endHero, startHero, label);
+                universe.addEdge(toEdge);
+                universe.addEdge(fromEdge);
             }
         }
-        return universe;
+    }
+
+    /*
+     *  Sets up graph with data on heroes and comics from specified file name, stored as
+     *  heroes linked to their books, and returns the set up graph.  It has the same nodes and
+     *  edges as setupUniverse(fileName), but makes the edges between heroes only when asked.
+     *  @param fileName, String name of the file to set up graph data from
+     *  @spec.requires fileName is a valid file within Marvel's data folder
+     *  @return a MarvelBipartiteGraph; a graph of the marvel universe specified from the file
+     */
+    public static MarvelBipartiteGraph setupBipartiteUniverse(String fileName) {
+        return new MarvelBipartiteGraph(MarvelParser.parseData(fileName));
     }
 
     /*
      *  Given the names of two characters, searches and returns a path through the graph
-     *  connecting them.  Returns the lexicographically least path; null if no or invalid path,
+     *  connecting them, with a bidirectional search.  Returns the lexicographically least
+     *  shortest path; null if no or invalid path,
      *  and prints output if specified to a printer; null for printer means no printing.
      *  If printed, one expects below behavior:
      *  Cases:
@@ -159,14 +300,31 @@ public class MarvelPaths {
      *      CHAR 2 to CHAR 3 via BOOK 2
      *      ...
      *      CHAR N-1 to CHAR N via BOOK N-1
+     *  @param universe, the graph of the marvel universe to search, ex: a DirectedGraph or its freeze()
      *  @param startChar, the String starting character/hero of the path
      *  @param endChar, the String ending character/hero of the path
      *  @param output, the PrintWriter where output is printed
      *  @spec.requires startChar, endChar, and output are not null, output is valid destination
      *  @spec.requires if using PrintWriter of System.out, remember to enter true to flush
      */
-    public static List<Edge<String, String>> findPath(DirectedGraph<String, String> universe, String startChar,
+    public static List<Edge<String, String>> findPath(Graph<String, String> universe, String startChar,
                                       String endChar, PrintWriter output) {
+        return findPath(universe, startChar, endChar, output, SearchMode.BIDIRECTIONAL);
+    }
+
+    /*
+     *  Same as findPath above, searching the way mode says.  Every mode returns and prints
+     *  the same path.
+     *  @param universe, the graph of the marvel universe to search, ex: a DirectedGraph or its freeze()
+     *  @param startChar, the String starting character/hero of the path
+     *  @param endChar, the String ending character/hero of the path
+     *  @param output, the PrintWriter where output is printed
+     *  @param mode, how to search for the path
+     *  @spec.requires startChar, endChar, output and mode are not null, output is valid destination
+     *  @spec.requires if using PrintWriter of System.out, remember to enter true to flush
+     */
+    public static List<Edge<String, String>> findPath(Graph<String, String> universe, String startChar,
+                                      String endChar, PrintWriter output, SearchMode mode) {
         Node<String> start = new Node<String>(startChar);
         Node<String> dest = new Node<String>(endChar);
         // Case(s) where characters aren't in the graph
@@ -182,47 +340,189 @@ public class MarvelPaths {
         }
 
         String pathFormat = "path from " + startChar + " to " + endChar + ":";
-        Queue<Node<String>> nodesToVisit = new LinkedList<>();
-        Map<Node<String>, List<Edge<String, String>>> nodePaths = new HashMap<>();
-        nodesToVisit.add(start);
-        nodePaths.put(start, new ArrayList<>());
         if (output != null)
             output.println(pathFormat); // Prints to tell client path is searchable
+        List<Edge<String, String>> destPath = null;
+        if (mode == SearchMode.BREADTH_FIRST) {
+            destPath = breadthFirst(universe, start, dest, null);
+        } else { // Find which nodes lie on shortest paths first, then only visit those
+            Map<Node<String>, Integer> levels = shortestPathLevels(universe, start, dest);
+            if (levels != null) {
+                destPath = breadthFirst(universe, start, dest, levels);
+            }
+        }
+        if (destPath == null) { // Never got to destination, so no path
+            if (output != null)
+                output.println("no path found");
+            return null;
+        }
+        for (Edge<String, String> edge : destPath) { // Print path for client
+            String currChar = edge.getStart().toString();
+            String nextChar = edge.getEnd().toString();
+            String book = edge.getLabel().toString();
+            if (output != null)
+                output.println(currChar + " to " + nextChar + " via " + book);
+        }
+        return destPath;
+    }
+
+    /*
+     *  Breadth-first search from start, visiting each node's edges in EdgeComp order, that
+     *  returns the path to dest through the first node to reach each node on the way.
+     *  If levels is not null, a node is only reached from nodes one level below it in levels,
+     *  so that only the nodes in levels are visited.  Since every node on a shortest path is
+     *  first reached from a node that is also on a shortest path, and those nodes are visited
+     *  in the same order either way, the returned path does not depend on levels as long as
+     *  levels holds exactly the nodes on shortest paths from start to dest.
+     *  @param universe, the graph to search
+     *  @param start, the node to search from
+     *  @param dest, the node to search for
+     *  @param levels, the distance from start of each node that may be visited, or null to
+     *                 visit any node
+     *  @return the lexicographically least shortest path from start to dest; null if none
+     */
+    private static List<Edge<String, String>> breadthFirst(Graph<String, String> universe, Node<String> start,
+                                                           Node<String> dest, Map<Node<String>, Integer> levels) {
+        Queue<Node<String>> nodesToVisit = new ArrayDeque<>();
+        // The edge each reached node was first reached by, which is null for start
+        Map<Node<String>, Edge<String, String>> parentEdges = new HashMap<>();
+        nodesToVisit.add(start);
+        parentEdges.put(start, null);
+        // Reused for every node, so expanding a node does not build a new set or list
+        EdgeComp edgeComp = new EdgeComp();
+        List<Edge<String, String>> sortedEdges = new ArrayList<>();
+        Consumer<Edge<String, String>> collectEdge = sortedEdges::add;
 
         // Start/Keep searching through applicable nodes
         while (!nodesToVisit.isEmpty()) { // Nodes still to be checked
             Node<String> currNode = nodesToVisit.remove();
             if (currNode.equals(dest)) { // Reached destination node
-                List<Edge<String, String>> destPath = nodePaths.get(currNode);
-                for (Edge<String, String> edge : destPath) { // Print path for client
-                    String currChar = edge.getStart().toString();
-                    String nextChar = edge.getEnd().toString();
-                    String book = edge.getLabel().toString();
-                    if (output != null)
-                        output.println(currChar + " to " + nextChar + " via " + book);
+                LinkedList<Edge<String, String>> destPath = new LinkedList<>();
+                for (Edge<String, String> edge = parentEdges.get(dest); edge != null;
+                     edge = parentEdges.get(edge.getStart())) {
+                    destPath.addFirst(edge); // Follow the edges back to start
                 }
-                return destPath;
+                return new ArrayList<>(destPath);
             } // Continue searching through edges of this node
-            Set<Edge<String, String>> sortedEdges = new TreeSet<>(new EdgeComp());
-            sortedEdges.addAll(universe.listChildren(currNode, false)); // no reflexive
+            int nextLevel = (levels == null) ? 0 : levels.get(currNode) + 1;
+            sortedEdges.clear();
+            universe.forEachChild(currNode, false, collectEdge); // no reflexive
+            sortedEdges.sort(edgeComp); // stable, so equal edges stay in the order visited
+            Edge<String, String> prevEdge = null;
             for (Edge<String, String> currEdge : sortedEdges) {
+                if (prevEdge != null && edgeComp.compare(prevEdge, currEdge) == 0) {
+                    continue; // Only the first of edges that compare equal counts, as in a sorted set
+                }
+                prevEdge = currEdge;
                 Node<String> nextNode = currEdge.getEnd();
-                if (!nodePaths.containsKey(nextNode)) { // nextNode has not been visited
-                    List<Edge<String, String>> currPath = nodePaths.get(currNode);
-                    List<Edge<String, String>> nextPath = new ArrayList<>(currPath);
-                    nextPath.add(currEdge); // nextPath to include current path and current edge
-                    nodePaths.put(nextNode, nextPath); // Update path to include next node
+                if (levels != null && !Integer.valueOf(nextLevel).equals(levels.get(nextNode))) {
+                    continue; // Not on a shortest path one step further on
+                }
+                if (!parentEdges.containsKey(nextNode)) { // nextNode has not been visited
+                    parentEdges.put(nextNode, currEdge); // Remember how nextNode was reached
                     nodesToVisit.add(nextNode); // Add a new node for searching
                 }
             }
         }
-
-        // Never got to destination, so no path
-        if (output != null)
-            output.println("no path found");
         return null;
     }
 
+    /*
+     *  Breadth-first searches from start along edges and from dest against edges, a whole
+     *  level at a time from whichever side has the smaller frontier, until the two searches
+     *  meet.  Then collects every node that lies on a shortest path from start to dest.
+     *  @param universe, the graph to search
+     *  @param start, the node to search from
+     *  @param dest, the node to search for
+     *  @return a map from each node on a shortest path from start to dest to its distance
+     *          from start; null if there is no path
+     */
+    private static Map<Node<String>, Integer> shortestPathLevels(Graph<String, String> universe,
+                                                                 Node<String> start, Node<String> dest) {
+        Map<Node<String>, Integer> fromStart = new HashMap<>(); // distances found from start
+        Map<Node<String>, Integer> toDest = new HashMap<>(); // distances found to dest
+        fromStart.put(start, 0);
+        toDest.put(dest, 0);
+        List<Node<String>> startFrontier = new ArrayList<>();
+        List<Node<String>> destFrontier = new ArrayList<>();
+        startFrontier.add(start);
+        destFrontier.add(dest);
+        List<Node<String>> meetings = new ArrayList<>(); // nodes found by both searches
+        int length = start.equals(dest) ? 0 : Integer.MAX_VALUE; // of the shortest path found
+        if (length == 0) {
+            meetings.add(start);
+        }
+
+        while (meetings.isEmpty() && !startFrontier.isEmpty() && !destFrontier.isEmpty()) {
+            boolean forward = startFrontier.size() <= destFrontier.size();
+            List<Node<String>> frontier = forward ? startFrontier : destFrontier;
+            Map<Node<String>, Integer> found = forward ? fromStart : toDest;
+            Map<Node<String>, Integer> other = forward ? toDest : fromStart;
+            List<Node<String>> nextFrontier = new ArrayList<>();
+            for (Node<String> node : frontier) { // Expand the whole level before checking
+                int nextDistance = found.get(node) + 1;
+                Set<Edge<String, String>> edges = forward ? universe.listChildren(node, false)
+                        : universe.listParents(node, false);
+                for (Edge<String, String> edge : edges) {
+                    Node<String> next = forward ? edge.getEnd() : edge.getStart();
+                    if (!found.containsKey(next)) { // First time this search finds next
+                        found.put(next, nextDistance);
+                        nextFrontier.add(next);
+                        Integer otherDistance = other.get(next);
+                        if (otherDistance != null) { // The searches meet at next
+                            meetings.add(next);
+                            length = Math.min(length, nextDistance + otherDistance);
+                        }
+                    }
+                }
+            }
+            if (forward) {
+                startFrontier = nextFrontier;
+            } else {
+                destFrontier = nextFrontier;
+            }
+        }
+        if (meetings.isEmpty()) { // One side ran out of nodes first, so no path
+            return null;
+        }
+
+        // Every shortest path goes through a meeting node on a shortest path.  The nodes before
+        // it are all known to the search from start and the nodes after it to the search from dest
+        Map<Node<String>, Integer> levels = new HashMap<>();
+        Deque<Node<String>> backward = new ArrayDeque<>();
+        Deque<Node<String>> onward = new ArrayDeque<>();
+        for (Node<String> meeting : meetings) {
+            if (fromStart.get(meeting) + toDest.get(meeting) == length) {
+                levels.put(meeting, fromStart.get(meeting));
+                backward.add(meeting);
+                onward.add(meeting);
+            }
+        }
+        while (!backward.isEmpty()) { // Walk back towards start
+            Node<String> node = backward.remove();
+            int level = levels.get(node);
+            for (Edge<String, String> edge : universe.listParents(node, false)) {
+                Node<String> prev = edge.getStart();
+                if (Integer.valueOf(level - 1).equals(fromStart.get(prev)) && !levels.containsKey(prev)) {
+                    levels.put(prev, level - 1);
+                    backward.add(prev);
+                }
+            }
+        }
+        while (!onward.isEmpty()) { // Walk on towards dest
+            Node<String> node = onward.remove();
+            int level = levels.get(node);
+            for (Edge<String, String> edge : universe.listChildren(node, false)) {
+                Node<String> next = edge.getEnd();
+                if (Integer.valueOf(length - level - 1).equals(toDest.get(next)) && !levels.containsKey(next)) {
+                    levels.put(next, level + 1);
+                    onward.add(next);
+                }
+            }
+        }
+        return levels;
+    }
+
     /*
         Computes how to compare between two edges
      */
@@ -231,9 +531,50 @@ public class MarvelPaths {
             // Since toString() represents each edge/node distinctly, we can compare via toString()
             // We have to rearrange the toString() such that it evaluates
             // startNode -> endNode -> label
-            String e1 = edge1.getStart().toString() + edge1.getEnd().toString() + edge1.getLabel();
-            String e2 = edge2.getStart().toString() + edge2.getEnd().toString() + edge2.getLabel();
-            return e1.compareTo(e2);
+            // The three parts are compared as if joined into one string, without joining them
+            String start1 = edge1.getStart().toString();
+            String end1 = edge1.getEnd().toString();
+            String label1 = edge1.getLabel();
+            String start2 = edge2.getStart().toString();
+            String end2 = edge2.getEnd().toString();
+            String label2 = edge2.getLabel();
+            if (start1.equals(start2)) { // Usual case, the children of one node
+                if (end1.equals(end2)) {
+                    return label1.compareTo(label2);
+                }
+                int shorter = Math.min(end1.length(), end2.length());
+                if (!end1.regionMatches(0, end2, 0, shorter)) { // Ends differ before either one runs out
+                    return end1.compareTo(end2);
+                }
+            }
+            return compareJoined(start1, end1, label1, start2, end2, label2);
+        }
+
+        // Compares first1 + second1 + third1 to first2 + second2 + third2, one char at a time
+        private static int compareJoined(String first1, String second1, String third1,
+                                         String first2, String second2, String third2) {
+            int length1 = first1.length() + second1.length() + third1.length();
+            int length2 = first2.length() + second2.length() + third2.length();
+            for (int i = 0; i < Math.min(length1, length2); i++) {
+                char c1 = joinedCharAt(first1, second1, third1, i);
+                char c2 = joinedCharAt(first2, second2, third2, i);
+                if (c1 != c2) {
+                    return c1 - c2;
+                }
+            }
+            return length1 - length2;
+        }
+
+        // Returns the char at index i of first + second + third
+        private static char joinedCharAt(String first, String second, String third, int i) {
+            if (i < first.length()) {
+                return first.charAt(i);
+            }
+            i -= first.length();
+            if (i < second.length()) {
+                return second.charAt(i);
+            }
+            return third.charAt(i - second.length());
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,274 @@
+package marvel;
+
+import graph.DirectedGraph;
+import graph.Edge;
+import graph.Graph;
+import graph.Node;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Reads and writes a built marvel graph as a binary snapshot file, so that later runs can load
+ * the graph without parsing the TSV data again.  The file holds, all as big-endian ints:
+ *   a header of MAGIC, VERSION, the fingerprint of the data file it was built from (a long),
+ *   and the number of strings, nodes and edges,
+ *   the string table: for each string, its UTF-8 byte length then its bytes,
+ *   the node table: for each node, the index of its name in the string table,
+ *   the edge offsets: for each node, the index of its first edge, then the edge count,
+ *   the edge targets: for each edge, the index of its end node in the node table,
+ *   the edge labels: for each edge, the index of its label in the string table.
+ * The edges of node i are the ones from offsets[i] to offsets[i + 1] - 1, reflexive edges
+ * included.  Every name and book title is stored once, however many edges use it.
+ * A snapshot read with the fingerprint of a data file is refused unless it was written with
+ * the same one, so a snapshot is never used once the data file it came from has changed.
+ */
+public class MarvelSnapshot {
+    /**
+     * The first int of every snapshot file, "MVSN" in ASCII.
+     */
+    public static final int MAGIC = 0x4D56534E;
+
+    /**
+     * The layout version written by this class; files with any other version are refused.
+     */
+    public static final int VERSION = 2;
+
+    /**
+     * The fingerprint written by write(graph, file), for a snapshot not tied to a data file.
+     */
+    public static final long NO_FINGERPRINT = -1;
+
+    // MAGIC, VERSION, the fingerprint, then the string, node and edge counts
+    private static final int HEADER_BYTES = 5 * Integer.BYTES + Long.BYTES;
+
+    private MarvelSnapshot() {
+    }
+
+    /*
+     *  Where the AF would go, but this isn't an ADT bc it only holds static methods
+     *  Where the rep invariant would go
+     */
+
+    /**
+     * Returns the fingerprint of a file in the resources/data folder: its length in the high
+     * 32 bits and the CRC-32 of its bytes in the low 32 bits, so any edit to the file changes it.
+     * @param filename the name of the data file, as given to MarvelParser.parseData
+     * @spec.requires filename is not null
+     * @return a long; the fingerprint of the data file
+     * @throws IOException if there is no such data file, or it cannot be read
+     */
+    public static long fingerprint(String filename) throws IOException {
+        try (InputStream stream = MarvelSnapshot.class.getResourceAsStream("/data/" + filename)) {
+            if (stream == null) {
+                throw new IOException("no data file " + filename);
+            }
+            CRC32 checksum = new CRC32();
+            byte[] chunk = new byte[1 << 16];
+            long length = 0;
+            for (int read = stream.read(chunk); read != -1; read = stream.read(chunk)) {
+                checksum.update(chunk, 0, read);
+                length += read;
+            }
+            return (length << 32) | checksum.getValue();
+        }
+    }
+
+    /**
+     * Writes graph to file in the snapshot format, not tied to any data file, replacing file
+     * if it exists.
+     * @param graph the graph to save
+     * @param file where to save it
+     * @spec.requires graph and file are not null
+     * @throws IOException if file cannot be written
+     */
+    public static void write(Graph<String, String> graph, Path file) throws IOException {
+        write(graph, file, NO_FINGERPRINT);
+    }
+
+    /**
+     * Writes graph to file in the snapshot format, replacing file if it exists.
+     * @param graph the graph to save
+     * @param file where to save it
+     * @param sourceFingerprint the fingerprint of the data file graph was built from
+     * @spec.requires graph and file are not null
+     * @throws IOException if file cannot be written
+     */
+    public static void write(Graph<String, String> graph, Path file, long sourceFingerprint) throws IOException {
+        Map<String, Integer> stringIds = new HashMap<>(); // interned string table
+        List<String> strings = new ArrayList<>();
+        Map<Node<String>, Integer> nodeIds = new HashMap<>();
+        List<Node<String>> nodes = new ArrayList<>(graph.listNodes());
+        for (Node<String> node : nodes) {
+            nodeIds.put(node, nodeIds.size());
+            intern(node.getData(), stringIds, strings);
+        }
+        int edgeCount = 0;
+        for (Node<String> node : nodes) {
+            edgeCount += graph.listChildren(node, true).size();
+        }
+        int[] offsets = new int[nodes.size() + 1];
+        int[] targets = new int[edgeCount];
+        int[] labels = new int[edgeCount];
+        int edgeIndex = 0;
+        for (int id = 0; id < nodes.size(); id++) { // Each node's edges as one run
+            offsets[id] = edgeIndex;
+            for (Edge<String, String> edge : graph.listChildren(nodes.get(id), true)) {
+                targets[edgeIndex] = nodeIds.get(edge.getEnd());
+                labels[edgeIndex] = intern(edge.getLabel(), stringIds, strings);
+                edgeIndex++;
+            }
+        }
+        offsets[nodes.size()] = edgeIndex;
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (OutputStream stream = Files.newOutputStream(file);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(sourceFingerprint);
+            out.writeInt(strings.size());
+            out.writeInt(nodes.size());
+            out.writeInt(edgeCount);
+            for (String string : strings) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            for (Node<String> node : nodes) {
+                out.writeInt(stringIds.get(node.getData()));
+            }
+            for (int offset : offsets) {
+                out.writeInt(offset);
+            }
+            for (int target : targets) {
+                out.writeInt(target);
+            }
+            for (int label : labels) {
+                out.writeInt(label);
+            }
+        }
+    }
+
+    /**
+     * Loads the graph saved in file by write, through a read-only memory mapping of the file,
+     * whatever data file it was built from.
+     * @param file the snapshot to load
+     * @spec.requires file is not null
+     * @return a new DirectedGraph with the same nodes and edges as the graph that was saved
+     * @throws IOException if file cannot be read, or is not a snapshot of this VERSION
+     */
+    public static DirectedGraph<String, String> read(Path file) throws IOException {
+        return read(file, NO_FINGERPRINT, false);
+    }
+
+    /**
+     * Loads the graph saved in file by write, through a read-only memory mapping of the file,
+     * if it was built from the data file with sourceFingerprint.
+     * @param file the snapshot to load
+     * @param sourceFingerprint the fingerprint of the data file the graph must be built from
+     * @spec.requires file is not null
+     * @return a new DirectedGraph with the same nodes and edges as the graph that was saved
+     * @throws IOException if file cannot be read, is not a snapshot of this VERSION, or was
+     *         written with another fingerprint
+     */
+    public static DirectedGraph<String, String> read(Path file, long sourceFingerprint) throws IOException {
+        return read(file, sourceFingerprint, true);
+    }
+
+    /*
+     * Loads the graph saved in file, first checking its fingerprint against sourceFingerprint
+     * if checkFingerprint
+     */
+    private static DirectedGraph<String, String> read(Path file, long sourceFingerprint,
+                                                      boolean checkFingerprint) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+                throw new IOException(file + " is not a marvel snapshot");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException(file + " has snapshot version " + version + ", expected " + VERSION);
+            }
+            long fingerprint = buffer.getLong();
+            if (checkFingerprint && fingerprint != sourceFingerprint) {
+                throw new IOException(file + " was built from another version of the data file");
+            }
+            int stringCount = buffer.getInt();
+            int nodeCount = buffer.getInt();
+            int edgeCount = buffer.getInt();
+            if (stringCount < 0 || nodeCount < 0 || edgeCount < 0
+                    || stringCount > buffer.remaining() / Integer.BYTES) { // Each string takes an int at least
+                throw new IOException(file + " has a corrupt header");
+            }
+            String[] strings = new String[stringCount];
+            for (int i = 0; i < stringCount; i++) {
+                int length = buffer.getInt();
+                strings[i] = new String(bytes(buffer, length), StandardCharsets.UTF_8);
+            }
+            if (buffer.remaining() != ((long) nodeCount * 2 + 1 + (long) edgeCount * 2) * Integer.BYTES) {
+                throw new IOException(file + " is truncated or corrupt");
+            }
+            IntBuffer ints = buffer.asIntBuffer(); // The rest of the file is int arrays
+            List<Node<String>> nodes = new ArrayList<>(nodeCount);
+            DirectedGraph<String, String> graph = new DirectedGraph<>();
+            for (int id = 0; id < nodeCount; id++) {
+                Node<String> node = new Node<>(strings[ints.get()]);
+                nodes.add(node);
+                graph.addNode(node);
+            }
+            int offsetsStart = ints.position();
+            int targetsStart = offsetsStart + nodeCount + 1;
+            int labelsStart = targetsStart + edgeCount;
+            for (int id = 0; id < nodeCount; id++) {
+                Node<String> start = nodes.get(id);
+                for (int edge = ints.get(offsetsStart + id); edge < ints.get(offsetsStart + id + 1); edge++) {
+                    graph.addEdge(new Edge<>(start, nodes.get(ints.get(targetsStart + edge)),
+                            strings[ints.get(labelsStart + edge)]));
+                }
+            }
+            return graph;
+        } catch (IndexOutOfBoundsException | BufferUnderflowException | NegativeArraySizeException e) {
+            throw new IOException(file + " is truncated or corrupt", e);
+        }
+    }
+
+    /*
+     * Returns the next length bytes of buffer
+     */
+    private static byte[] bytes(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /*
+     * Returns the index of string in strings, adding it to the end if it is not there yet
+     */
+    private static int intern(String string, Map<String, Integer> stringIds, List<String> strings) {
+        Integer id = stringIds.get(string);
+        if (id == null) {
+            id = strings.size();
+            stringIds.put(string, id);
+            strings.add(string);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,331 @@
+package marvel;
+
+import com.opencsv.CSVParser;
+import com.opencsv.CSVParserBuilder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * A streaming reader of the Marvel tab-separated data, which has a header line naming a hero
+ * column and a book column, then one (hero, book) pair per line.  Lines are split straight out
+ * of a reused char buffer, and each field is looked up in a table of the strings seen so far
+ * before any String is made, so a name or title repeated on many lines is one shared String
+ * and costs no allocation after its first appearance.
+ * Lines holding a quote or backslash are handed to an OpenCSV CSVParser set up the same way
+ * as MarvelParser's bean binding, so quoted fields, escapes and quoted line breaks are read
+ * exactly as before.
+ */
+public class MarvelTsvReader {
+    private static final char SEPARATOR = '\t';
+
+    private final Reader in;
+    private final Interner interner = new Interner();
+    private char[] buffer = new char[1 << 16];
+    private int bufferStart = 0; // start of the unread chars in buffer
+    private int bufferEnd = 0; // end of the chars read into buffer
+    private boolean endOfInput = false;
+    private int lineStart; // buffer range of the line nextLine found
+    private int lineEnd;
+    private int lineNumber = 0;
+    private CSVParser quotedParser; // made on the first line that needs it
+
+    /*
+     *  Where the AF would go, but this isn't an ADT bc it is a one-pass reader
+     *  Where the rep invariant would go
+     */
+
+    /**
+     * Creates a reader of the Marvel data in in.
+     * @param in where to read the data from
+     * @spec.requires in is not null
+     */
+    public MarvelTsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Reads all of the data, calling pairs once for every (hero, book) line in file order.
+     * Fields are not trimmed, as in MarvelParser's bean binding.
+     * @param pairs what to do with the hero name and book title of each line
+     * @spec.requires pairs is not null, this reader has not been read from before
+     * @throws IOException if the data cannot be read
+     * @throws IllegalArgumentException if the header has no hero or book column, or a line
+     *                                  does not have as many fields as the header
+     */
+    public void read(BiConsumer<String, String> pairs) throws IOException {
+        String[] header = nextFields();
+        if (header == null) { // Empty file, so no pairs
+            return;
+        }
+        int heroColumn = -1;
+        int bookColumn = -1;
+        for (int column = 0; column < header.length; column++) { // Bound by name, as beans are
+            if (header[column].trim().equalsIgnoreCase("hero")) {
+                heroColumn = column;
+            } else if (header[column].trim().equalsIgnoreCase("book")) {
+                bookColumn = column;
+            }
+        }
+        if (heroColumn == -1 || bookColumn == -1) {
+            throw new IllegalArgumentException("Header needs hero and book columns: " + Arrays.toString(header));
+        }
+        int columns = header.length;
+        if (columns == 2) { // The usual layout, read without making any field arrays
+            while (nextLine()) {
+                if (needsQuotedParser()) {
+                    String[] fields = parseQuoted();
+                    checkColumns(fields.length, columns);
+                    pairs.accept(fields[heroColumn], fields[bookColumn]);
+                    continue;
+                }
+                int tab = indexOf(SEPARATOR, lineStart, lineEnd);
+                if (tab == -1 || indexOf(SEPARATOR, tab + 1, lineEnd) != -1) {
+                    checkColumns(tab == -1 ? 1 : 3, columns);
+                }
+                String first = interner.intern(buffer, lineStart, tab);
+                String second = interner.intern(buffer, tab + 1, lineEnd);
+                pairs.accept(heroColumn == 0 ? first : second, heroColumn == 0 ? second : first);
+            }
+        } else {
+            for (String[] fields = nextFields(); fields != null; fields = nextFields()) {
+                checkColumns(fields.length, columns);
+                pairs.accept(fields[heroColumn], fields[bookColumn]);
+            }
+        }
+    }
+
+    /*
+     * Returns the fields of the next line, or null at the end of the input
+     */
+    private String[] nextFields() throws IOException {
+        if (!nextLine()) {
+            return null;
+        }
+        if (needsQuotedParser()) {
+            return parseQuoted();
+        }
+        int count = 1;
+        for (int i = lineStart; i < lineEnd; i++) {
+            if (buffer[i] == SEPARATOR) {
+                count++;
+            }
+        }
+        String[] fields = new String[count];
+        int fieldStart = lineStart;
+        for (int field = 0; field < count; field++) {
+            int fieldEnd = indexOf(SEPARATOR, fieldStart, lineEnd);
+            fieldEnd = (fieldEnd == -1) ? lineEnd : fieldEnd;
+            fields[field] = interner.intern(buffer, fieldStart, fieldEnd);
+            fieldStart = fieldEnd + 1;
+        }
+        return fields;
+    }
+
+    /*
+     * Returns true if the current line holds a quote or an escape, which only CSVParser reads right
+     */
+    private boolean needsQuotedParser() {
+        for (int i = lineStart; i < lineEnd; i++) {
+            if (buffer[i] == CSVParser.DEFAULT_QUOTE_CHARACTER || buffer[i] == CSVParser.DEFAULT_ESCAPE_CHARACTER) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Parses the current line with CSVParser, going on to later lines while a quoted field is
+     * still open, and returns the fields with each one interned
+     */
+    private String[] parseQuoted() throws IOException {
+        if (quotedParser == null) {
+            quotedParser = new CSVParserBuilder()
+                    .withSeparator(SEPARATOR)
+                    .withIgnoreLeadingWhiteSpace(true)
+                    .build();
+        }
+        String[] fields = quotedParser.parseLineMulti(new String(buffer, lineStart, lineEnd - lineStart));
+        while (quotedParser.isPending()) {
+            if (!nextLine()) { // Input ended inside a quoted field
+                throw new IllegalArgumentException("Unterminated quoted field at line " + lineNumber);
+            }
+            String[] more = quotedParser.parseLineMulti(new String(buffer, lineStart, lineEnd - lineStart));
+            String[] joined = Arrays.copyOf(fields, fields.length + more.length);
+            System.arraycopy(more, 0, joined, fields.length, more.length);
+            fields = joined;
+        }
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = interner.intern(fields[i]);
+        }
+        return fields;
+    }
+
+    /*
+     * Throws if a line has a different number of fields from the header
+     */
+    private void checkColumns(int fields, int columns) {
+        if (fields != columns) {
+            throw new IllegalArgumentException("Line " + lineNumber + " has " + fields
+                    + " fields, but the header has " + columns);
+        }
+    }
+
+    /*
+     * Moves lineStart and lineEnd to the next line in buffer, reading more input as needed.
+     * Lines end at "\n", "\r" or "\r\n", as for BufferedReader.readLine.
+     * Returns false at the end of the input.
+     */
+    private boolean nextLine() throws IOException {
+        int scan = bufferStart;
+        while (true) {
+            for (; scan < bufferEnd; scan++) {
+                char c = buffer[scan];
+                if (c == '\n' || c == '\r') {
+                    if (c == '\r' && scan + 1 == bufferEnd && !endOfInput) {
+                        break; // Need the next char to tell "\r" from "\r\n"
+                    }
+                    lineStart = bufferStart;
+                    lineEnd = scan;
+                    bufferStart = scan + 1;
+                    if (c == '\r' && bufferStart < bufferEnd && buffer[bufferStart] == '\n') {
+                        bufferStart++;
+                    }
+                    lineNumber++;
+                    return true;
+                }
+            }
+            if (endOfInput) { // Last line, with no line break after it
+                if (bufferStart == bufferEnd) {
+                    return false;
+                }
+                lineStart = bufferStart;
+                lineEnd = bufferEnd;
+                bufferStart = bufferEnd;
+                lineNumber++;
+                return true;
+            }
+            scan -= fill();
+        }
+    }
+
+    /*
+     * Moves the unread chars to the front of buffer, growing it if it is full, and reads more
+     * input after them.  Returns how far the unread chars moved back.
+     */
+    private int fill() throws IOException {
+        int shift = bufferStart;
+        int unread = bufferEnd - bufferStart;
+        if (unread == buffer.length) { // One line fills the buffer
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        } else {
+            System.arraycopy(buffer, bufferStart, buffer, 0, unread);
+        }
+        bufferStart = 0;
+        bufferEnd = unread;
+        int read = in.read(buffer, bufferEnd, buffer.length - bufferEnd);
+        if (read == -1) {
+            endOfInput = true;
+        } else {
+            bufferEnd += read;
+        }
+        return shift;
+    }
+
+    /*
+     * Returns the index of c in buffer from start up to end, or -1 if it is not there
+     */
+    private int indexOf(char c, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buffer[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * A set of Strings that can be searched by a range of chars, so that a String is only
+     * made the first time its chars are seen.  Open addressing with linear probing.
+     */
+    private static class Interner {
+        private String[] table = new String[1 << 12];
+        private int[] hashes = new int[table.length];
+        private int count = 0;
+
+        // Returns the String with the chars of chars from start up to end
+        String intern(char[] chars, int start, int end) {
+            int hash = 0;
+            for (int i = start; i < end; i++) { // Same as String.hashCode
+                hash = 31 * hash + chars[i];
+            }
+            int mask = table.length - 1;
+            for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+                String found = table[slot];
+                if (found == null) {
+                    return add(slot, hash, new String(chars, start, end - start));
+                }
+                if (hashes[slot] == hash && matches(found, chars, start, end)) {
+                    return found;
+                }
+            }
+        }
+
+        // Returns the String equal to string that was seen first
+        String intern(String string) {
+            int hash = string.hashCode();
+            int mask = table.length - 1;
+            for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+                String found = table[slot];
+                if (found == null) {
+                    return add(slot, hash, string);
+                }
+                if (hashes[slot] == hash && found.equals(string)) {
+                    return found;
+                }
+            }
+        }
+
+        private String add(int slot, int hash, String string) {
+            table[slot] = string;
+            hashes[slot] = hash;
+            count++;
+            if (count * 2 > table.length) { // Keep the table at most half full
+                String[] oldTable = table;
+                int[] oldHashes = hashes;
+                table = new String[oldTable.length * 2];
+                hashes = new int[table.length];
+                int mask = table.length - 1;
+                for (int i = 0; i < oldTable.length; i++) {
+                    if (oldTable[i] != null) {
+                        int newSlot = spread(oldHashes[i]) & mask;
+                        while (table[newSlot] != null) {
+                            newSlot = (newSlot + 1) & mask;
+                        }
+                        table[newSlot] = oldTable[i];
+                        hashes[newSlot] = oldHashes[i];
+                    }
+                }
+            }
+            return string;
+        }
+
+        private static boolean matches(String string, char[] chars, int start, int end) {
+            if (string.length() != end - start) {
+                return false;
+            }
+            for (int i = 0; i < string.length(); i++) {
+                if (string.charAt(i) != chars[start + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
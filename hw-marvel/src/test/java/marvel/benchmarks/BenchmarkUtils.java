@@ -0,0 +1,93 @@
+package marvel.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Small helpers shared by the Marvel benchmarks: heap measurement, timing and
+ * reproducible random query pairs.  Benchmarks are plain programs rather than tests;
+ * run one with: gradlew :hw-marvel:runBenchmark -Pbenchmark=ClassName
+ */
+public final class BenchmarkUtils {
+
+    /**
+     * Seed used for every random choice, so runs can be compared with each other.
+     */
+    public static final long SEED = 331;
+
+    private BenchmarkUtils() {
+    }
+
+    /**
+     * Returns the heap currently in use, after asking the garbage collector to settle.
+     * @return the number of bytes of heap in use
+     */
+    public static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) { // A few rounds, since one gc() call is only a hint
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+
+    /**
+     * Returns the number of bytes allocated so far by the current thread, or -1 if the
+     * JVM cannot report it.
+     * @return the bytes allocated by this thread so far
+     */
+    public static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(
+                    Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    /**
+     * Picks count random (start, end) pairs out of names.
+     * @param names the names to choose from
+     * @param count the number of pairs
+     * @return a list of count two-element arrays {start, end}
+     */
+    public static List<String[]> randomPairs(List<String> names, int count) {
+        List<String> sorted = new ArrayList<>(names);
+        Collections.sort(sorted); // Same pairs no matter what order names came in
+        Random random = new Random(SEED);
+        List<String[]> pairs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            pairs.add(new String[] {sorted.get(random.nextInt(sorted.size())),
+                    sorted.get(random.nextInt(sorted.size()))});
+        }
+        return pairs;
+    }
+
+    /**
+     * Formats a byte count in megabytes.
+     * @param bytes the number of bytes
+     * @return the count as a string in MB
+     */
+    public static String megabytes(long bytes) {
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
+    /**
+     * Formats a duration in milliseconds.
+     * @param nanos the duration in nanoseconds
+     * @return the duration as a string in ms
+     */
+    public static String millis(long nanos) {
+        return String.format("%.2f ms", nanos / 1e6);
+    }
+}
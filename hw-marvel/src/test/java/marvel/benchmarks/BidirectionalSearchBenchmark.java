@@ -0,0 +1,51 @@
+package marvel.benchmarks;
+
+import graph.DirectedGraph;
+import graph.Edge;
+import graph.Node;
+import marvel.MarvelPaths;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Runs MarvelPaths.findPath over random hero pairs of the marvel.tsv graph in both search
+ * modes, checks that they return the same paths, and reports the time and bytes allocated
+ * per query for each.
+ */
+public class BidirectionalSearchBenchmark {
+    private static final String fileName = "marvel.tsv";
+    private static final int queries = 20;
+
+    public static void main(String[] args) {
+        DirectedGraph<String, String> universe = MarvelPaths.setupUniverse(fileName);
+        List<String> heroes = new ArrayList<>();
+        for (Node<String> hero : universe.listNodes()) {
+            heroes.add(hero.getData());
+        }
+        List<String[]> pairs = BenchmarkUtils.randomPairs(heroes, queries);
+        for (String[] pair : pairs) { // Both modes must give the same answers
+            List<Edge<String, String>> expected = MarvelPaths.findPath(universe, pair[0], pair[1], null,
+                    MarvelPaths.SearchMode.BREADTH_FIRST);
+            List<Edge<String, String>> actual = MarvelPaths.findPath(universe, pair[0], pair[1], null,
+                    MarvelPaths.SearchMode.BIDIRECTIONAL);
+            if (!Objects.equals(expected, actual)) {
+                throw new IllegalStateException("Modes disagree from " + pair[0] + " to " + pair[1]);
+            }
+        }
+        for (int round = 0; round < 2; round++) { // First round warms up the JIT
+            System.out.println("round " + round + ":");
+            for (MarvelPaths.SearchMode mode : MarvelPaths.SearchMode.values()) {
+                long bytes = BenchmarkUtils.allocatedBytes();
+                long start = System.nanoTime();
+                for (String[] pair : pairs) {
+                    MarvelPaths.findPath(universe, pair[0], pair[1], null, mode);
+                }
+                System.out.println(String.format("  %-13s %s and %s allocated per query", mode,
+                        BenchmarkUtils.millis((System.nanoTime() - start) / queries),
+                        BenchmarkUtils.megabytes((BenchmarkUtils.allocatedBytes() - bytes) / queries)));
+            }
+        }
+    }
+}
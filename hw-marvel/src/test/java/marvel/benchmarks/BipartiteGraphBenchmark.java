@@ -0,0 +1,75 @@
+package marvel.benchmarks;
+
+import graph.DirectedGraph;
+import graph.Edge;
+import graph.Graph;
+import graph.Node;
+import marvel.MarvelBipartiteGraph;
+import marvel.MarvelPaths;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Compares the marvel.tsv graph loaded as the hero-to-hero DirectedGraph from
+ * MarvelPaths.setupUniverse against the hero-to-book MarvelBipartiteGraph: load time, heap
+ * footprint, and findPath latency over random hero pairs.  First checks that both graphs give
+ * every hero the same children and that findPath returns the same paths on both.
+ */
+public class BipartiteGraphBenchmark {
+    private static final String fileName = "marvel.tsv";
+    private static final int queries = 20;
+
+    public static void main(String[] args) {
+        long baseHeap = BenchmarkUtils.usedHeap();
+        long start = System.nanoTime();
+        MarvelBipartiteGraph bipartite = MarvelPaths.setupBipartiteUniverse(fileName);
+        long bipartiteLoad = System.nanoTime() - start;
+        long bipartiteHeap = BenchmarkUtils.usedHeap() - baseHeap;
+        start = System.nanoTime();
+        DirectedGraph<String, String> clique = MarvelPaths.setupUniverse(fileName);
+        long cliqueLoad = System.nanoTime() - start;
+        long cliqueHeap = BenchmarkUtils.usedHeap() - baseHeap - bipartiteHeap;
+        System.out.println("nodes: " + bipartite.size() + ", books: " + bipartite.bookCount()
+                + ", edges: " + bipartite.getEdgeCount() + " (clique graph: " + clique.getEdgeCount() + ")");
+        System.out.println("DirectedGraph:        loaded in " + BenchmarkUtils.millis(cliqueLoad)
+                + ", " + BenchmarkUtils.megabytes(cliqueHeap) + " of heap");
+        System.out.println("MarvelBipartiteGraph: loaded in " + BenchmarkUtils.millis(bipartiteLoad)
+                + ", " + BenchmarkUtils.megabytes(bipartiteHeap) + " of heap");
+
+        for (Node<String> hero : clique.listNodes()) { // Same edges out of every hero
+            if (!clique.listChildren(hero, true).equals(new HashSet<>(bipartite.listChildren(hero, true)))) {
+                throw new IllegalStateException("Graphs disagree on the children of " + hero);
+            }
+        }
+        List<String> heroes = new ArrayList<>();
+        for (Node<String> hero : clique.listNodes()) {
+            heroes.add(hero.getData());
+        }
+        List<String[]> pairs = BenchmarkUtils.randomPairs(heroes, queries);
+        for (String[] pair : pairs) { // Same paths found on both
+            List<Edge<String, String>> expected = MarvelPaths.findPath(clique, pair[0], pair[1], null);
+            if (!Objects.equals(expected, MarvelPaths.findPath(bipartite, pair[0], pair[1], null))) {
+                throw new IllegalStateException("Paths disagree from " + pair[0] + " to " + pair[1]);
+            }
+        }
+        for (int round = 0; round < 2; round++) { // First round warms up the JIT
+            System.out.println("round " + round + ":");
+            System.out.println("  DirectedGraph findPath:        " + timeSearches(clique, pairs));
+            System.out.println("  MarvelBipartiteGraph findPath: " + timeSearches(bipartite, pairs));
+        }
+    }
+
+    /*
+     * Runs findPath over every pair and returns the average latency
+     */
+    private static String timeSearches(Graph<String, String> graph, List<String[]> pairs) {
+        long start = System.nanoTime();
+        for (String[] pair : pairs) {
+            MarvelPaths.findPath(graph, pair[0], pair[1], null);
+        }
+        return BenchmarkUtils.millis((System.nanoTime() - start) / pairs.size()) + " per query";
+    }
+}
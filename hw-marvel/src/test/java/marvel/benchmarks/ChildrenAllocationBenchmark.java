@@ -0,0 +1,84 @@
+package marvel.benchmarks;
+
+import graph.DirectedGraph;
+import graph.Edge;
+import graph.Node;
+import marvel.MarvelPaths;
+
+import java.util.*;
+
+/**
+ * Measures time and bytes allocated by a full breadth-first traversal of the marvel.tsv graph,
+ * expanding each node's children three ways: copying them into a new HashSet (what
+ * listChildren used to do), reading the zero-copy listChildren view, and forEachChild.
+ * Also reports the allocation of MarvelPaths.findPath per query.
+ */
+public class ChildrenAllocationBenchmark {
+    private static final String fileName = "marvel.tsv";
+    private static final int traversals = 5;
+    private static final int queries = 20;
+
+    public static void main(String[] args) {
+        DirectedGraph<String, String> universe = MarvelPaths.setupUniverse(fileName);
+        List<String> heroes = new ArrayList<>();
+        for (Node<String> hero : universe.listNodes()) {
+            heroes.add(hero.getData());
+        }
+        List<String[]> pairs = BenchmarkUtils.randomPairs(heroes, Math.max(traversals, queries));
+        for (int round = 0; round < 2; round++) { // First round warms up the JIT
+            System.out.println("round " + round + ":");
+            for (String mode : new String[] {"copy", "view", "forEachChild"}) {
+                long bytes = BenchmarkUtils.allocatedBytes();
+                long start = System.nanoTime();
+                for (String[] pair : pairs.subList(0, traversals)) {
+                    traverse(universe, new Node<String>(pair[0]), mode);
+                }
+                long time = (System.nanoTime() - start) / traversals;
+                bytes = (BenchmarkUtils.allocatedBytes() - bytes) / traversals;
+                System.out.println(String.format("  %-12s %s and %s allocated per traversal (%.0f MB/s)",
+                        mode, BenchmarkUtils.millis(time), BenchmarkUtils.megabytes(bytes),
+                        bytes / (1024.0 * 1024.0) / (time / 1e9)));
+            }
+            long bytes = BenchmarkUtils.allocatedBytes();
+            long start = System.nanoTime();
+            for (String[] pair : pairs.subList(0, queries)) {
+                MarvelPaths.findPath(universe, pair[0], pair[1], null);
+            }
+            System.out.println("  findPath     " + BenchmarkUtils.millis((System.nanoTime() - start) / queries)
+                    + " and " + BenchmarkUtils.megabytes((BenchmarkUtils.allocatedBytes() - bytes) / queries)
+                    + " allocated per query");
+        }
+    }
+
+    /*
+     * Visits every node reachable from start, expanding children the given way, and returns
+     * the number of nodes reached
+     */
+    private static int traverse(DirectedGraph<String, String> graph, Node<String> start, String mode) {
+        Set<Node<String>> seen = new HashSet<>();
+        ArrayDeque<Node<String>> queue = new ArrayDeque<>();
+        seen.add(start);
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            Node<String> current = queue.remove();
+            if (mode.equals("forEachChild")) {
+                graph.forEachChild(current, false, edge -> {
+                    if (seen.add(edge.getEnd())) {
+                        queue.add(edge.getEnd());
+                    }
+                });
+            } else {
+                Set<Edge<String, String>> children = graph.listChildren(current, false);
+                if (mode.equals("copy")) { // What listChildren used to return
+                    children = Collections.unmodifiableSet(new HashSet<>(children));
+                }
+                for (Edge<String, String> edge : children) {
+                    if (seen.add(edge.getEnd())) {
+                        queue.add(edge.getEnd());
+                    }
+                }
+            }
+        }
+        return seen.size();
+    }
+}
@@ -0,0 +1,88 @@
+package marvel.benchmarks;
+
+import graph.DirectedGraph;
+import graph.Graph;
+import graph.ImmutableGraph;
+import graph.Node;
+import marvel.MarvelPaths;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the map-of-sets DirectedGraph against its frozen CSR ImmutableGraph on marvel.tsv:
+ * heap footprint of each layout, and latency of MarvelPaths.findPath over random hero pairs.
+ */
+public class GraphLayoutBenchmark {
+    private static final String fileName = "marvel.tsv";
+    private static final int queries = 20;
+
+    public static void main(String[] args) {
+        long baseHeap = BenchmarkUtils.usedHeap();
+        DirectedGraph<String, String> universe = MarvelPaths.setupUniverse(fileName);
+        long mapHeap = BenchmarkUtils.usedHeap() - baseHeap;
+        ImmutableGraph<String, String> frozen = universe.freeze();
+        long frozenHeap = BenchmarkUtils.usedHeap() - baseHeap - mapHeap;
+        // The frozen graph shares Node and label objects with the original, so its own
+        // cost is the id table and edge arrays that it adds on top of them.
+        System.out.println("nodes: " + universe.size() + ", edges: " + universe.getEdgeCount());
+        System.out.println("DirectedGraph heap (nodes, labels, maps, sets, edges): "
+                + BenchmarkUtils.megabytes(mapHeap));
+        System.out.println("ImmutableGraph heap added on top (id table, offsets, targets, labels): "
+                + BenchmarkUtils.megabytes(frozenHeap));
+
+        List<String> heroes = new ArrayList<>();
+        for (Node<String> hero : universe.listNodes()) {
+            heroes.add(hero.getData());
+        }
+        List<String[]> pairs = BenchmarkUtils.randomPairs(heroes, queries);
+        for (int round = 0; round < 2; round++) { // First round warms up the JIT
+            System.out.println("round " + round + ":");
+            System.out.println("  DirectedGraph findPath:  " + timeSearches(universe, pairs));
+            System.out.println("  ImmutableGraph findPath: " + timeSearches(frozen, pairs));
+            System.out.println("  ImmutableGraph int BFS:  " + timeIdSearches(frozen, pairs));
+        }
+    }
+
+    /*
+     * Runs findPath over every pair and returns the average latency
+     */
+    private static String timeSearches(Graph<String, String> graph, List<String[]> pairs) {
+        long start = System.nanoTime();
+        for (String[] pair : pairs) {
+            MarvelPaths.findPath(graph, pair[0], pair[1], null);
+        }
+        return BenchmarkUtils.millis((System.nanoTime() - start) / pairs.size()) + " per query";
+    }
+
+    /*
+     * Runs a plain BFS over node ids and edge indices for every pair and returns the
+     * average latency; this is the traversal cost of the layout itself, without the
+     * edge ordering that findPath needs for its lexicographic answer
+     */
+    private static String timeIdSearches(ImmutableGraph<String, String> graph, List<String[]> pairs) {
+        int[] queue = new int[graph.size()];
+        int[] seen = new int[graph.size()];
+        int stamp = 0;
+        long start = System.nanoTime();
+        for (String[] pair : pairs) {
+            stamp++;
+            int dest = graph.indexOf(new Node<String>(pair[1]));
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = graph.indexOf(new Node<String>(pair[0]));
+            seen[queue[0]] = stamp;
+            while (head < tail && seen[dest] != stamp) {
+                int current = queue[head++];
+                for (int edge = graph.childrenBegin(current); edge < graph.childrenEnd(current); edge++) {
+                    int next = graph.targetAt(edge);
+                    if (seen[next] != stamp) {
+                        seen[next] = stamp;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+        return BenchmarkUtils.millis((System.nanoTime() - start) / pairs.size()) + " per query";
+    }
+}
@@ -0,0 +1,47 @@
+package marvel.benchmarks;
+
+import graph.DirectedGraph;
+import marvel.MarvelPaths;
+
+/**
+ * Times building the marvel.tsv graph with the sequential MarvelPaths.setupUniverse against
+ * the ForkJoinPool build at 1, 2, 4 and 8 threads, and checks that every build has the same
+ * edge count and toString as the sequential one.  Speedups are limited by the number of
+ * processors available, which is printed first.
+ */
+public class ParallelBuildBenchmark {
+    private static final String fileName = "marvel.tsv";
+    private static final int[] threadCounts = {1, 2, 4, 8};
+    private static final int rounds = 3; // the first round also warms up the JIT
+
+    public static void main(String[] args) {
+        System.out.println("available processors: " + Runtime.getRuntime().availableProcessors());
+        DirectedGraph<String, String> sequential = MarvelPaths.setupUniverse(fileName);
+        String expected = sequential.toString();
+        int expectedEdges = sequential.getEdgeCount();
+        sequential = null;
+        for (int threads : threadCounts) { // Every build must give the same graph
+            DirectedGraph<String, String> parallel = MarvelPaths.setupUniverse(fileName, threads);
+            if (parallel.getEdgeCount() != expectedEdges || !parallel.toString().equals(expected)) {
+                throw new IllegalStateException("Build with " + threads + " threads differs");
+            }
+        }
+        expected = null;
+        for (int round = 0; round < rounds; round++) {
+            System.out.println("round " + round + ":");
+            BenchmarkUtils.usedHeap(); // Start each build from a settled heap
+            long start = System.nanoTime();
+            MarvelPaths.setupUniverse(fileName);
+            long baseline = System.nanoTime() - start;
+            System.out.println("  sequential: " + BenchmarkUtils.millis(baseline));
+            for (int threads : threadCounts) {
+                BenchmarkUtils.usedHeap();
+                start = System.nanoTime();
+                MarvelPaths.setupUniverse(fileName, threads);
+                long time = System.nanoTime() - start;
+                System.out.println(String.format("  %d thread(s): %s, %.2fx", threads,
+                        BenchmarkUtils.millis(time), (double) baseline / time));
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package marvel.benchmarks;
+
+import marvel.MarvelParser;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Times MarvelParser.parseData, which streams the data through MarvelTsvReader, against
+ * MarvelParser.parseDataWithBeans, the OpenCSV bean binding it replaced, on marvel.tsv.
+ * Reports the time and bytes allocated per parse, after checking that every data file
+ * parses to the same map both ways.
+ */
+public class ParserBenchmark {
+    private static final String[] fileNames = {"marvel.tsv", "mediumSizeSuperheroes.tsv", "staffSuperheroes.tsv"};
+    private static final int rounds = 5; // the first rounds also warm up the JIT
+
+    public static void main(String[] args) {
+        for (String fileName : fileNames) { // Both ways must give the same answers
+            Map<String, Set<String>> expected = MarvelParser.parseDataWithBeans(fileName);
+            if (!expected.equals(MarvelParser.parseData(fileName))) {
+                throw new IllegalStateException("Parsers disagree on " + fileName);
+            }
+        }
+        for (int round = 0; round < rounds; round++) {
+            System.out.println("round " + round + ":");
+            long bytes = BenchmarkUtils.allocatedBytes();
+            long start = System.nanoTime();
+            MarvelParser.parseDataWithBeans(fileNames[0]);
+            System.out.println("  OpenCSV beans:   " + BenchmarkUtils.millis(System.nanoTime() - start) + ", "
+                    + BenchmarkUtils.megabytes(BenchmarkUtils.allocatedBytes() - bytes) + " allocated");
+            bytes = BenchmarkUtils.allocatedBytes();
+            start = System.nanoTime();
+            MarvelParser.parseData(fileNames[0]);
+            System.out.println("  MarvelTsvReader: " + BenchmarkUtils.millis(System.nanoTime() - start) + ", "
+                    + BenchmarkUtils.megabytes(BenchmarkUtils.allocatedBytes() - bytes) + " allocated");
+        }
+    }
+}
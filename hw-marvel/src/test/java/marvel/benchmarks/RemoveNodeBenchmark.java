@@ -0,0 +1,78 @@
+package marvel.benchmarks;
+
+import graph.DirectedGraph;
+import graph.Edge;
+import graph.Node;
+import marvel.MarvelPaths;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Removes 10% of the nodes of the marvel.tsv graph with DirectedGraph.removeNode, which only
+ * visits the removed node's own edges through the incoming-edge index.  For comparison, a
+ * sample of the same removals is also done the old way, by scanning every edge in the graph
+ * for ones that end at the removed node.
+ */
+public class RemoveNodeBenchmark {
+    private static final String fileName = "marvel.tsv";
+    private static final double fraction = 0.10;
+    private static final int scanSample = 20; // full scans are slow, so only time a few
+
+    public static void main(String[] args) {
+        DirectedGraph<String, String> universe = MarvelPaths.setupUniverse(fileName);
+        List<Node<String>> victims = pickVictims(universe);
+        System.out.println("nodes: " + universe.size() + ", edges: " + universe.getEdgeCount()
+                + ", removing: " + victims.size());
+
+        long start = System.nanoTime();
+        for (Node<String> victim : victims) {
+            universe.removeNode(victim);
+        }
+        long indexed = System.nanoTime() - start;
+        System.out.println("indexed removeNode: " + BenchmarkUtils.millis(indexed) + " total, "
+                + BenchmarkUtils.millis(indexed / victims.size()) + " per node; "
+                + universe.size() + " nodes and " + universe.getEdgeCount() + " edges left");
+
+        DirectedGraph<String, String> scanned = MarvelPaths.setupUniverse(fileName);
+        start = System.nanoTime();
+        for (Node<String> victim : victims.subList(0, scanSample)) {
+            removeByScanning(scanned, victim);
+        }
+        long scanning = System.nanoTime() - start;
+        System.out.println("full-scan removal: " + BenchmarkUtils.millis(scanning / scanSample)
+                + " per node, so about " + BenchmarkUtils.millis(scanning / scanSample * victims.size())
+                + " for all " + victims.size());
+    }
+
+    /*
+     * Returns a reproducible random 10% of the nodes of graph
+     */
+    private static List<Node<String>> pickVictims(DirectedGraph<String, String> graph) {
+        List<Node<String>> nodes = new ArrayList<>(graph.listNodes());
+        nodes.sort((node1, node2) -> node1.getData().compareTo(node2.getData()));
+        Collections.shuffle(nodes, new Random(BenchmarkUtils.SEED));
+        return nodes.subList(0, (int) (nodes.size() * fraction));
+    }
+
+    /*
+     * Removes node the way removeNode did before the incoming-edge index: visit every
+     * edge of every node to find the ones leading into node
+     */
+    private static void removeByScanning(DirectedGraph<String, String> graph, Node<String> node) {
+        List<Edge<String, String>> incoming = new ArrayList<>();
+        for (Node<String> other : graph.listNodes()) {
+            for (Edge<String, String> edge : graph.listChildren(other, true)) {
+                if (edge.getEnd().equals(node)) {
+                    incoming.add(edge);
+                }
+            }
+        }
+        for (Edge<String, String> edge : incoming) {
+            graph.removeEdge(edge);
+        }
+        graph.removeNode(node);
+    }
+}
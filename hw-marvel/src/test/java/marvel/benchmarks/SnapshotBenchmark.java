@@ -0,0 +1,82 @@
+package marvel.benchmarks;
+
+import graph.DirectedGraph;
+import graph.Graph;
+import graph.Node;
+import marvel.MarvelPaths;
+import marvel.MarvelSnapshot;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Compares cold starts of the marvel.tsv graph: parsing the TSV and building the graph with
+ * MarvelPaths.setupUniverse, against loading a binary MarvelSnapshot of it.  Each load runs in
+ * a new JVM, so class loading and an unwarmed JIT are counted as they are for MarvelPaths, and
+ * each snapshot load includes checking the fingerprint of marvel.tsv, as MarvelPaths does.
+ * First checks that the loaded snapshot has the same nodes and edges as the built graph.
+ */
+public class SnapshotBenchmark {
+    private static final String fileName = "marvel.tsv";
+    private static final int runs = 3;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 2) { // Started by the benchmark below, to time one load
+            long start = System.nanoTime();
+            Graph<String, String> graph = args[0].equals("tsv") ? MarvelPaths.setupUniverse(fileName)
+                    : MarvelSnapshot.read(new File(args[1]).toPath(), MarvelSnapshot.fingerprint(fileName));
+            System.out.println(BenchmarkUtils.millis(System.nanoTime() - start) + " for "
+                    + graph.size() + " nodes and " + graph.getEdgeCount() + " edges");
+            return;
+        }
+        Path snapshot = Files.createTempFile("marvel", ".snapshot");
+        try {
+            DirectedGraph<String, String> built = MarvelPaths.setupUniverse(fileName);
+            long start = System.nanoTime();
+            MarvelSnapshot.write(built, snapshot, MarvelSnapshot.fingerprint(fileName));
+            System.out.println("snapshot written in " + BenchmarkUtils.millis(System.nanoTime() - start)
+                    + ", " + BenchmarkUtils.megabytes(Files.size(snapshot)) + " on disk");
+            DirectedGraph<String, String> loaded = MarvelSnapshot.read(snapshot,
+                    MarvelSnapshot.fingerprint(fileName));
+            if (!built.listNodes().equals(loaded.listNodes()) || built.getEdgeCount() != loaded.getEdgeCount()) {
+                throw new IllegalStateException("Snapshot has different nodes or edges");
+            }
+            for (Node<String> node : built.listNodes()) {
+                if (!built.listChildren(node, true).equals(loaded.listChildren(node, true))) {
+                    throw new IllegalStateException("Snapshot has different children of " + node);
+                }
+            }
+            built = null;
+            loaded = null;
+            for (int run = 0; run < runs; run++) {
+                System.out.println("run " + run + ":");
+                System.out.println("  parse marvel.tsv: " + coldStart("tsv", snapshot));
+                System.out.println("  load snapshot:    " + coldStart("snapshot", snapshot));
+            }
+        } finally {
+            Files.delete(snapshot);
+        }
+    }
+
+    /*
+     * Loads the graph the given way in a new JVM and returns its report, with the whole
+     * process time added
+     */
+    private static String coldStart(String mode, Path snapshot) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(
+                System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+                "-cp", System.getProperty("java.class.path"), SnapshotBenchmark.class.getName(),
+                mode, snapshot.toString()).redirectErrorStream(true).start();
+        String report;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            report = reader.readLine();
+        }
+        process.waitFor();
+        return report + ", " + BenchmarkUtils.millis(System.nanoTime() - start) + " process total";
+    }
+}
@@ -0,0 +1,191 @@
+package marvel.junitTests;
+
+import graph.DirectedGraph;
+import graph.Edge;
+import graph.Graph;
+import graph.Node;
+import marvel.MarvelPaths;
+import org.junit.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * To test that findPath returns and prints the same path searching from both ends as
+ * searching from the start alone
+ */
+public class TestBidirectionalSearch {
+    private final String[] dataFiles = {"staffSuperheroes.tsv", "mediumSizeSuperheroes.tsv"}; // script data
+
+    /*
+     * Returns what findPath prints searching universe from start to end the way mode says
+     */
+    private String printedPath(Graph<String, String> universe, String start, String end,
+                               MarvelPaths.SearchMode mode) {
+        StringWriter printed = new StringWriter();
+        MarvelPaths.findPath(universe, start, end, new PrintWriter(printed, true), mode);
+        return printed.toString();
+    }
+
+    /*
+     * Asserts that both modes return and print the same from start to end, and returns the path
+     */
+    private List<Edge<String, String>> assertSamePath(Graph<String, String> universe, String start,
+                                                      String end) {
+        List<Edge<String, String>> path = MarvelPaths.findPath(universe, start, end, null,
+                MarvelPaths.SearchMode.BREADTH_FIRST);
+        assertEquals(path, MarvelPaths.findPath(universe, start, end, null, MarvelPaths.SearchMode.BIDIRECTIONAL));
+        assertEquals(printedPath(universe, start, end, MarvelPaths.SearchMode.BREADTH_FIRST),
+                printedPath(universe, start, end, MarvelPaths.SearchMode.BIDIRECTIONAL));
+        return path;
+    }
+
+    /*
+     * Returns a graph of the named nodes, with no edges
+     */
+    private DirectedGraph<String, String> graphOf(String... names) {
+        DirectedGraph<String, String> graph = new DirectedGraph<>();
+        for (String name : names) {
+            graph.addNode(new Node<>(name));
+        }
+        return graph;
+    }
+
+    /*
+     * Adds an edge labelled label from start to end, and if both, from end to start too
+     */
+    private void connect(DirectedGraph<String, String> graph, String start, String end, String label,
+                         boolean both) {
+        graph.addEdge(new Edge<>(new Node<>(start), new Node<>(end), label));
+        if (both) {
+            graph.addEdge(new Edge<>(new Node<>(end), new Node<>(start), label));
+        }
+    }
+
+    /*
+     * Test that both modes find the same path between every two heroes of the script data sets
+     */
+    @Test
+    public void testScriptDataSets() {
+        for (String dataFile : dataFiles) {
+            DirectedGraph<String, String> universe = MarvelPaths.setupUniverse(dataFile);
+            List<String> heroes = new ArrayList<>();
+            for (Node<String> hero : universe.listNodes()) {
+                heroes.add(hero.getData());
+            }
+            for (String start : heroes) {
+                for (String end : heroes) {
+                    assertSamePath(universe, start, end);
+                }
+            }
+        }
+    }
+
+    /*
+     * Test that among tied shortest paths both modes pick the least by hero then book, even
+     * when the search from the end reaches the other heroes first
+     */
+    @Test
+    public void testTiedPaths() {
+        DirectedGraph<String, String> universe = graphOf("A", "B", "C", "D", "E", "F", "G", "H");
+        connect(universe, "A", "C", "book2", true);
+        connect(universe, "A", "B", "book3", true);
+        connect(universe, "A", "B", "book1", true); // Same heroes, lesser book
+        connect(universe, "B", "D", "book9", true);
+        connect(universe, "C", "D", "book0", true);
+        for (String extra : new String[] {"E", "F", "G", "H"}) { // A's side has the larger frontier
+            connect(universe, "A", extra, "bookX", true);
+        }
+        List<Edge<String, String>> path = assertSamePath(universe, "A", "D");
+        assertEquals(2, path.size());
+        assertEquals(new Edge<>(new Node<>("A"), new Node<>("B"), "book1"), path.get(0));
+        assertEquals(new Edge<>(new Node<>("B"), new Node<>("D"), "book9"), path.get(1));
+        assertSamePath(universe, "D", "A");
+    }
+
+    /*
+     * Test that both modes follow edges only one way on a graph whose edges are not all
+     * paired, searching the parents of a node from the end
+     */
+    @Test
+    public void testOneWayEdges() {
+        DirectedGraph<String, String> universe = graphOf("A", "B", "C", "D");
+        connect(universe, "A", "B", "b1", false);
+        connect(universe, "B", "C", "b2", false);
+        connect(universe, "D", "C", "b3", false);
+        connect(universe, "A", "D", "b4", false);
+        assertEquals(2, assertSamePath(universe, "A", "C").size());
+        assertNull(assertSamePath(universe, "C", "A"));
+        assertNull(assertSamePath(universe, "B", "D"));
+    }
+
+    /*
+     * Test that both modes find no path between heroes that were never in a book together,
+     * directly or not, and print so
+     */
+    @Test
+    public void testNoPath() {
+        DirectedGraph<String, String> universe = graphOf("A", "B", "C", "D", "E");
+        connect(universe, "A", "B", "book1", true);
+        connect(universe, "C", "D", "book2", true);
+        assertNull(assertSamePath(universe, "A", "D"));
+        assertNull(assertSamePath(universe, "E", "A"));
+        assertTrue(printedPath(universe, "A", "D", MarvelPaths.SearchMode.BIDIRECTIONAL)
+                .endsWith("no path found" + System.lineSeparator()));
+    }
+
+    /*
+     * Test that both modes find the empty path from a hero to itself, with or without an
+     * edge from the hero to itself
+     */
+    @Test
+    public void testSelfPath() {
+        DirectedGraph<String, String> universe = graphOf("A", "B", "C");
+        connect(universe, "A", "B", "book1", true);
+        connect(universe, "A", "A", "book1", false);
+        assertEquals(0, assertSamePath(universe, "A", "A").size());
+        assertEquals(0, assertSamePath(universe, "C", "C").size());
+    }
+
+    /*
+     * Test that both modes print the same for unknown heroes
+     */
+    @Test
+    public void testUnknownHero() {
+        DirectedGraph<String, String> universe = graphOf("A");
+        assertNull(assertSamePath(universe, "A", "Z"));
+        assertNull(assertSamePath(universe, "Y", "Z"));
+    }
+
+    /*
+     * Test that both modes find the same paths on random graphs with one-way edges, repeated
+     * books and many tied paths
+     */
+    @Test
+    public void testRandomGraphs() {
+        Random random = new Random(331);
+        for (int round = 0; round < 20; round++) {
+            int size = 5 + random.nextInt(20);
+            DirectedGraph<String, String> universe = new DirectedGraph<>();
+            for (int i = 0; i < size; i++) {
+                universe.addNode(new Node<>("hero" + i));
+            }
+            for (int i = 0; i < size * 2; i++) {
+                connect(universe, "hero" + random.nextInt(size), "hero" + random.nextInt(size),
+                        "book" + random.nextInt(4), random.nextBoolean());
+            }
+            for (int start = 0; start < size; start++) {
+                for (int end = 0; end < size; end++) {
+                    assertSamePath(universe, "hero" + start, "hero" + end);
+                }
+            }
+        }
+    }
+}
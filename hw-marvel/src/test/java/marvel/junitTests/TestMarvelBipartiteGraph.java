@@ -0,0 +1,172 @@
+package marvel.junitTests;
+
+import graph.DirectedGraph;
+import graph.Edge;
+import graph.Graph;
+import graph.Node;
+import marvel.MarvelBipartiteGraph;
+import marvel.MarvelParser;
+import marvel.MarvelPaths;
+import org.junit.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * To test that a MarvelBipartiteGraph has the same nodes and edges as the graph built by
+ * MarvelPaths.setupUniverse, and that findPath finds and prints the same paths on both
+ */
+public class TestMarvelBipartiteGraph {
+    private final String[] dataFiles = {"staffSuperheroes.tsv", "mediumSizeSuperheroes.tsv"}; // script data
+
+    /*
+     * Returns the graph setupUniverse would build from comicsAndHeroes: every two heroes of a
+     * book joined both ways by an edge labelled with the book, and each hero to itself
+     */
+    private DirectedGraph<String, String> cliqueOf(Map<String, Set<String>> comicsAndHeroes) {
+        DirectedGraph<String, String> clique = new DirectedGraph<>();
+        for (Map.Entry<String, Set<String>> comic : comicsAndHeroes.entrySet()) {
+            for (String hero : comic.getValue()) {
+                clique.addNode(new Node<>(hero));
+            }
+            for (String start : comic.getValue()) {
+                for (String end : comic.getValue()) {
+                    clique.addEdge(new Edge<>(new Node<>(start), new Node<>(end), comic.getKey()));
+                }
+            }
+        }
+        return clique;
+    }
+
+    /*
+     * Returns what findPath prints searching universe from start to end the way mode says
+     */
+    private String printedPath(Graph<String, String> universe, String start, String end,
+                               MarvelPaths.SearchMode mode) {
+        StringWriter printed = new StringWriter();
+        MarvelPaths.findPath(universe, start, end, new PrintWriter(printed, true), mode);
+        return printed.toString();
+    }
+
+    /*
+     * Asserts that findPath returns and prints the same from start to end on both graphs, in
+     * every search mode
+     */
+    private void assertSamePath(Graph<String, String> clique, MarvelBipartiteGraph bipartite,
+                                String start, String end) {
+        for (MarvelPaths.SearchMode mode : MarvelPaths.SearchMode.values()) {
+            assertEquals(MarvelPaths.findPath(clique, start, end, null, mode),
+                    MarvelPaths.findPath(bipartite, start, end, null, mode));
+            assertEquals(printedPath(clique, start, end, mode), printedPath(bipartite, start, end, mode));
+        }
+    }
+
+    /*
+     * Test that the script data sets give the same nodes, edges, edge counts and paths
+     * between every two heroes as the clique graph built from the same file
+     */
+    @Test
+    public void testScriptDataSets() {
+        for (String dataFile : dataFiles) {
+            DirectedGraph<String, String> clique = MarvelPaths.setupUniverse(dataFile);
+            MarvelBipartiteGraph bipartite = MarvelPaths.setupBipartiteUniverse(dataFile);
+            assertEquals(clique.listNodes(), bipartite.listNodes());
+            assertEquals(clique.size(), bipartite.size());
+            assertEquals(clique.getEdgeCount(), bipartite.getEdgeCount());
+            for (Node<String> hero : clique.listNodes()) {
+                assertEquals(clique.listChildren(hero, true), new HashSet<>(bipartite.listChildren(hero, true)));
+                assertEquals(clique.listChildren(hero, false), new HashSet<>(bipartite.listChildren(hero, false)));
+                assertEquals(clique.listParents(hero, true), new HashSet<>(bipartite.listParents(hero, true)));
+            }
+            for (Node<String> start : clique.listNodes()) {
+                for (Node<String> end : clique.listNodes()) {
+                    assertSamePath(clique, bipartite, start.getData(), end.getData());
+                }
+            }
+            assertEquals(MarvelParser.parseData(dataFile).size(), bipartite.bookCount());
+        }
+    }
+
+    /*
+     * Test that where shortest paths tie, both pick the lexicographically least hero and book
+     */
+    @Test
+    public void testTiedChoices() {
+        Map<String, Set<String>> comics = new HashMap<>();
+        comics.put("B2", Set.of("A", "X")); // A to X by two books, B1 coming first
+        comics.put("B1", Set.of("A", "X"));
+        comics.put("B3", Set.of("X", "Z"));
+        comics.put("B0", Set.of("A", "W")); // A to Z through W or X, W coming first
+        comics.put("B4", Set.of("W", "Z"));
+        DirectedGraph<String, String> clique = cliqueOf(comics);
+        MarvelBipartiteGraph bipartite = new MarvelBipartiteGraph(comics);
+        assertSamePath(clique, bipartite, "A", "Z");
+        assertSamePath(clique, bipartite, "Z", "A");
+        assertSamePath(clique, bipartite, "A", "X");
+        assertEquals(List.of(new Edge<>(new Node<>("A"), new Node<>("X"), "B1")),
+                MarvelPaths.findPath(bipartite, "A", "X", null));
+        assertEquals(List.of(new Edge<>(new Node<>("A"), new Node<>("W"), "B0"),
+                new Edge<>(new Node<>("W"), new Node<>("Z"), "B4")),
+                MarvelPaths.findPath(bipartite, "A", "Z", null));
+    }
+
+    /*
+     * Test that a path from a hero to itself is empty on both
+     */
+    @Test
+    public void testSelfPath() {
+        Map<String, Set<String>> comics = Map.of("B1", Set.of("A", "X"));
+        MarvelBipartiteGraph bipartite = new MarvelBipartiteGraph(comics);
+        assertSamePath(cliqueOf(comics), bipartite, "A", "A");
+        assertTrue(MarvelPaths.findPath(bipartite, "A", "A", null).isEmpty());
+        assertEquals("path from A to A:" + System.lineSeparator(),
+                printedPath(bipartite, "A", "A", MarvelPaths.SearchMode.BIDIRECTIONAL));
+    }
+
+    /*
+     * Test that an unknown hero, at either end, has no path on both
+     */
+    @Test
+    public void testUnknownCharacter() {
+        Map<String, Set<String>> comics = Map.of("B1", Set.of("A", "X"));
+        DirectedGraph<String, String> clique = cliqueOf(comics);
+        MarvelBipartiteGraph bipartite = new MarvelBipartiteGraph(comics);
+        assertSamePath(clique, bipartite, "A", "Q");
+        assertSamePath(clique, bipartite, "Q", "A");
+        assertSamePath(clique, bipartite, "Q", "Q");
+        assertNull(MarvelPaths.findPath(bipartite, "Q", "A", null));
+        assertEquals("unknown character Q" + System.lineSeparator(),
+                printedPath(bipartite, "Q", "A", MarvelPaths.SearchMode.BIDIRECTIONAL));
+    }
+
+    /*
+     * Test that heroes that never meet, even through others, have no path on both
+     */
+    @Test
+    public void testNoPath() {
+        Map<String, Set<String>> comics = Map.of("B1", Set.of("A", "X"), "B2", Set.of("Y", "Z"));
+        DirectedGraph<String, String> clique = cliqueOf(comics);
+        MarvelBipartiteGraph bipartite = new MarvelBipartiteGraph(comics);
+        assertSamePath(clique, bipartite, "A", "Z");
+        assertNull(MarvelPaths.findPath(bipartite, "A", "Z", null));
+        assertEquals("path from A to Z:" + System.lineSeparator() + "no path found" + System.lineSeparator(),
+                printedPath(bipartite, "A", "Z", MarvelPaths.SearchMode.BIDIRECTIONAL));
+    }
+
+    /*
+     * Test that the graph cannot be changed
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadOnly() {
+        new MarvelBipartiteGraph(Map.of("B1", Set.of("A"))).addNode(new Node<>("B"));
+    }
+}
@@ -0,0 +1,225 @@
+package marvel.junitTests;
+
+import graph.DirectedGraph;
+import graph.Edge;
+import graph.Node;
+import marvel.MarvelPaths;
+import marvel.MarvelSnapshot;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * To test that a MarvelSnapshot loads the graph it saved, and refuses files that are not
+ * snapshots of this version, were built from another data file, or are damaged
+ */
+public class TestMarvelSnapshot {
+    private final String dataFile = "staffSuperheroes.tsv"; // small data file
+    private Path snapshot;
+
+    @Before
+    public void setUp() throws IOException {
+        snapshot = Files.createTempFile("marvel", ".snapshot");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(snapshot);
+    }
+
+    /*
+     * Writes a snapshot of the graph of dataFile, then overwrites the int at byte offset with value
+     */
+    private void writeWithInt(int offset, int value) throws IOException {
+        MarvelSnapshot.write(MarvelPaths.setupUniverse(dataFile), snapshot);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        ByteBuffer.wrap(bytes).putInt(offset, value);
+        Files.write(snapshot, bytes);
+    }
+
+    /*
+     * Test that a graph written and read back has the same nodes, edges and string form
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        DirectedGraph<String, String> built = MarvelPaths.setupUniverse(dataFile);
+        MarvelSnapshot.write(built, snapshot);
+        DirectedGraph<String, String> loaded = MarvelSnapshot.read(snapshot);
+        assertEquals(built.listNodes(), loaded.listNodes());
+        assertEquals(built.getEdgeCount(), loaded.getEdgeCount());
+        for (Node<String> node : built.listNodes()) {
+            assertEquals(built.listChildren(node, true), loaded.listChildren(node, true));
+        }
+        assertEquals(built.toString(), loaded.toString());
+    }
+
+    /*
+     * Test that an empty graph round trips too
+     */
+    @Test
+    public void testEmptyGraph() throws IOException {
+        MarvelSnapshot.write(new DirectedGraph<>(), snapshot);
+        assertEquals(0, MarvelSnapshot.read(snapshot).size());
+    }
+
+    /*
+     * Test that a graph of one node, with one edge to itself, round trips in a snapshot just
+     * past its 28 byte header
+     */
+    @Test
+    public void testTinyGraph() throws IOException {
+        DirectedGraph<String, String> tiny = new DirectedGraph<>();
+        Node<String> a = new Node<>("a");
+        tiny.addNode(a);
+        tiny.addEdge(new Edge<>(a, a, "b"));
+        MarvelSnapshot.write(tiny, snapshot);
+        assertTrue(Files.size(snapshot) < 64);
+        DirectedGraph<String, String> loaded = MarvelSnapshot.read(snapshot);
+        assertEquals(tiny.listNodes(), loaded.listNodes());
+        assertEquals(tiny.listChildren(a, true), loaded.listChildren(a, true));
+        assertEquals(tiny.toString(), loaded.toString());
+    }
+
+    /*
+     * Test that a snapshot is read with the fingerprint it was written with, and the
+     * fingerprint is the same each time for the same data file
+     */
+    @Test
+    public void testFingerprint() throws IOException {
+        long fingerprint = MarvelSnapshot.fingerprint(dataFile);
+        assertEquals(fingerprint, MarvelSnapshot.fingerprint(dataFile));
+        MarvelSnapshot.write(MarvelPaths.setupUniverse(dataFile), snapshot, fingerprint);
+        assertEquals(MarvelPaths.setupUniverse(dataFile).toString(),
+                MarvelSnapshot.read(snapshot, fingerprint).toString());
+    }
+
+    /*
+     * Test that a snapshot built from another version of the data file is refused
+     */
+    @Test(expected = IOException.class)
+    public void testStaleFingerprint() throws IOException {
+        long fingerprint = MarvelSnapshot.fingerprint(dataFile);
+        MarvelSnapshot.write(MarvelPaths.setupUniverse(dataFile), snapshot, fingerprint);
+        MarvelSnapshot.read(snapshot, fingerprint + 1);
+    }
+
+    /*
+     * Test that a snapshot not tied to a data file is refused when one is asked for
+     */
+    @Test(expected = IOException.class)
+    public void testNoFingerprint() throws IOException {
+        MarvelSnapshot.write(MarvelPaths.setupUniverse(dataFile), snapshot);
+        MarvelSnapshot.read(snapshot, MarvelSnapshot.fingerprint(dataFile));
+    }
+
+    /*
+     * Test that the fingerprint of a data file that does not exist cannot be taken
+     */
+    @Test(expected = IOException.class)
+    public void testFingerprintUnknownFile() throws IOException {
+        MarvelSnapshot.fingerprint("noSuchFile.tsv");
+    }
+
+    /*
+     * Test that a file with the wrong magic number is refused
+     */
+    @Test(expected = IOException.class)
+    public void testWrongMagic() throws IOException {
+        writeWithInt(0, MarvelSnapshot.MAGIC + 1);
+        MarvelSnapshot.read(snapshot);
+    }
+
+    /*
+     * Test that a file of another layout version is refused
+     */
+    @Test(expected = IOException.class)
+    public void testWrongVersion() throws IOException {
+        writeWithInt(4, MarvelSnapshot.VERSION + 1);
+        MarvelSnapshot.read(snapshot);
+    }
+
+    /*
+     * Test that a file cut short in its edges is refused
+     */
+    @Test(expected = IOException.class)
+    public void testTruncated() throws IOException {
+        MarvelSnapshot.write(MarvelPaths.setupUniverse(dataFile), snapshot);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        Files.write(snapshot, Arrays.copyOf(bytes, bytes.length - Integer.BYTES));
+        MarvelSnapshot.read(snapshot);
+    }
+
+    /*
+     * Test that a file cut short in its header is refused
+     */
+    @Test(expected = IOException.class)
+    public void testTruncatedHeader() throws IOException {
+        MarvelSnapshot.write(MarvelPaths.setupUniverse(dataFile), snapshot);
+        Files.write(snapshot, Arrays.copyOf(Files.readAllBytes(snapshot), 12));
+        MarvelSnapshot.read(snapshot);
+    }
+
+    /*
+     * Test that an empty graph's snapshot cut down to just its header is refused
+     */
+    @Test(expected = IOException.class)
+    public void testHeaderOnly() throws IOException {
+        MarvelSnapshot.write(new DirectedGraph<>(), snapshot);
+        Files.write(snapshot, Arrays.copyOf(Files.readAllBytes(snapshot), 5 * Integer.BYTES + Long.BYTES));
+        MarvelSnapshot.read(snapshot);
+    }
+
+    /*
+     * Test that a negative string count is refused
+     */
+    @Test(expected = IOException.class)
+    public void testNegativeStringCount() throws IOException {
+        writeWithInt(16, -1);
+        MarvelSnapshot.read(snapshot);
+    }
+
+    /*
+     * Test that a string count too large for the file is refused
+     */
+    @Test(expected = IOException.class)
+    public void testHugeStringCount() throws IOException {
+        writeWithInt(16, Integer.MAX_VALUE);
+        MarvelSnapshot.read(snapshot);
+    }
+
+    /*
+     * Test that a negative node count is refused
+     */
+    @Test(expected = IOException.class)
+    public void testNegativeNodeCount() throws IOException {
+        writeWithInt(20, -1);
+        MarvelSnapshot.read(snapshot);
+    }
+
+    /*
+     * Test that a negative edge count is refused
+     */
+    @Test(expected = IOException.class)
+    public void testNegativeEdgeCount() throws IOException {
+        writeWithInt(24, -2);
+        MarvelSnapshot.read(snapshot);
+    }
+
+    /*
+     * Test that an edge count that does not match the edges in the file is refused
+     */
+    @Test(expected = IOException.class)
+    public void testWrongEdgeCount() throws IOException {
+        writeWithInt(24, 1);
+        MarvelSnapshot.read(snapshot);
+    }
+}
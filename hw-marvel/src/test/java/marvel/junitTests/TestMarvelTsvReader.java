@@ -0,0 +1,102 @@
+package marvel.junitTests;
+
+import marvel.MarvelParser;
+import marvel.MarvelTsvReader;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+/*
+ * To test that MarvelTsvReader, through MarvelParser.parseData, reads the data files the same
+ * way as the OpenCSV bean binding of MarvelParser.parseDataWithBeans
+ */
+public class TestMarvelTsvReader {
+    // Quoted tabs, doubled quotes, backslash escapes, CRLF line endings, a quoted line break
+    // and the book column before the hero column
+    private final String quotingFile = "quotingCases.tsv";
+
+    /*
+     * Returns the (hero, book) pairs the reader finds in data, in order
+     */
+    private List<String> pairsOf(String data) throws IOException {
+        List<String> pairs = new ArrayList<>();
+        new MarvelTsvReader(new StringReader(data)).read((hero, book) -> pairs.add(hero + "|" + book));
+        return pairs;
+    }
+
+    /*
+     * Test that the quoting cases are read the same as by the bean binding
+     */
+    @Test
+    public void testQuotingMatchesBeans() {
+        Map<String, Set<String>> parsed = MarvelParser.parseData(quotingFile);
+        assertEquals(MarvelParser.parseDataWithBeans(quotingFile), parsed);
+        assertEquals(Set.of("Plain Hero", "Quoted Hero", "Last Hero"), parsed.get("Plain Book"));
+        assertEquals(Set.of("Tab Hero"), parsed.get("Book\twith a tab"));
+        assertEquals(Set.of("Doubled Hero"), parsed.get("Book \"Quoted\" Title"));
+        assertEquals(Set.of("Escaped Hero"), parsed.get("Book with \"escaped\" quotes"));
+        assertEquals(Set.of("Backslash Hero"), parsed.get("Book with \\ a backslash"));
+        assertEquals(Set.of("Multi Hero"), parsed.get("A Book Over\nTwo Lines")); // As the bean binding joins lines
+        assertEquals(6, parsed.size());
+    }
+
+    /*
+     * Test that the script data sets are read the same as by the bean binding
+     */
+    @Test
+    public void testDataSetsMatchBeans() {
+        for (String dataFile : new String[] {"staffSuperheroes.tsv", "mediumSizeSuperheroes.tsv"}) {
+            assertEquals(MarvelParser.parseDataWithBeans(dataFile), MarvelParser.parseData(dataFile));
+        }
+    }
+
+    /*
+     * Test that pairs come in file order, with swapped columns, extra columns and CRLF endings
+     */
+    @Test
+    public void testColumns() throws IOException {
+        assertEquals(List.of("a|x", "b|y"), pairsOf("hero\tbook\na\tx\nb\ty\n"));
+        assertEquals(List.of("a|x", "b|y"), pairsOf("book\thero\r\nx\ta\r\ny\tb\r\n"));
+        assertEquals(List.of("a|x"), pairsOf("id\tbook\tHero\n1\tx\ta\n"));
+        assertEquals(List.of(), pairsOf(""));
+    }
+
+    /*
+     * Test that a line with too few fields is refused
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooFewFields() throws IOException {
+        pairsOf("hero\tbook\na\tx\nno tab here\n");
+    }
+
+    /*
+     * Test that a line with too many fields is refused
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyFields() throws IOException {
+        pairsOf("hero\tbook\na\tx\ty\n");
+    }
+
+    /*
+     * Test that a quoted line with too many fields is refused
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testQuotedTooManyFields() throws IOException {
+        pairsOf("hero\tbook\n\"a\"\t\"x\"\t\"y\"\n");
+    }
+
+    /*
+     * Test that a header without a hero column is refused
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoHeroColumn() throws IOException {
+        pairsOf("name\tbook\na\tx\n");
+    }
+}
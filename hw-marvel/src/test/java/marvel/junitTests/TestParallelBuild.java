@@ -0,0 +1,51 @@
+package marvel.junitTests;
+
+import graph.DirectedGraph;
+import marvel.MarvelParser;
+import marvel.MarvelPaths;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/*
+ * To test that MarvelPaths.setupUniverse split between threads builds the same graph as the
+ * sequential build
+ */
+public class TestParallelBuild {
+    private final String[] dataFiles = {"staffSuperheroes.tsv", "mediumSizeSuperheroes.tsv"}; // script data
+
+    /*
+     * Asserts that building dataFile with threads workers gives the same graph as sequential
+     */
+    private void assertSameBuild(DirectedGraph<String, String> sequential, String dataFile, int threads) {
+        DirectedGraph<String, String> parallel = MarvelPaths.setupUniverse(dataFile, threads);
+        assertEquals(sequential.size(), parallel.size());
+        assertEquals(sequential.getEdgeCount(), parallel.getEdgeCount());
+        assertEquals(sequential.toString(), parallel.toString());
+    }
+
+    /*
+     * Test that 1, 2, 4 and 8 threads build the same graph as the sequential build
+     */
+    @Test
+    public void testThreadCounts() {
+        for (String dataFile : dataFiles) {
+            DirectedGraph<String, String> sequential = MarvelPaths.setupUniverse(dataFile);
+            for (int threads : new int[] {1, 2, 4, 8}) {
+                assertSameBuild(sequential, dataFile, threads);
+            }
+        }
+    }
+
+    /*
+     * Test that more threads than comics, so that some get no comics at all, still build the
+     * same graph as the sequential build
+     */
+    @Test
+    public void testMoreThreadsThanComics() {
+        for (String dataFile : dataFiles) {
+            int comics = MarvelParser.parseData(dataFile).size();
+            assertSameBuild(MarvelPaths.setupUniverse(dataFile), dataFile, comics + 3);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package pathfinder;
+
+import graph.DirectedGraph;
+import graph.Graph;
+import graph.Node;
+import pathfinder.datastructures.IndexedMinHeap;
+import pathfinder.datastructures.Path;
+
+import java.util.*;
+
+/*
+ * A* search: Dijkstra's algorithm ordered by the cost so far plus a Heuristic guess of the
+ * cost left to the destination, so that nodes towards the destination are settled first.
+ * With a consistent heuristic it finds paths as cheap as GenericDijkstra's while settling
+ * fewer nodes; with a heuristic that is always 0 it settles the same nodes as GenericDijkstra.
+ */
+public class AStar<PathType> {
+    private Graph<PathType, Double> graph = new DirectedGraph<>();
+    private Heuristic<PathType> heuristic = (node, goal) -> 0.0;
+    private int settledCount = 0;
+
+    /*
+     *  Where the AF would go, but this isn't an ADT bc we are using as a program
+     *  Where the rep invariant would go
+     */
+
+    /*
+     * Sets the graph being used to find data from, ex: a DirectedGraph or its freeze()
+     * @param newGraph
+     */
+    public void setCampusGraph(Graph<PathType, Double> newGraph) {
+        graph = newGraph;
+    }
+
+    /*
+     * Sets the guess of the cost left to the destination, 0 everywhere by default
+     * @spec.requires newHeuristic be consistent for the graph, see Heuristic
+     * @param newHeuristic the heuristic to search with from now on
+     */
+    public void setHeuristic(Heuristic<PathType> newHeuristic) {
+        heuristic = newHeuristic;
+    }
+
+    /*
+     * @return the number of nodes settled (taken off the queue for the first time) by the
+     *         last call to findShortestPath
+     */
+    public int getSettledCount() {
+        return settledCount;
+    }
+
+    /*
+     * @spec.requires nodes given to be valid in graph and non null
+     * @param startNode the node where the path starts
+     * @param endNode the node where the path ends
+     * @return the lowest-cost path from startNode to endNode, or null if there is none
+     */
+    public Path<Node<PathType>> findShortestPath(Node<PathType> startNode, Node<PathType> endNode) {
+        if (startNode == null || endNode == null) {
+            throw new IllegalArgumentException();
+        }
+        int capacity = graph.size();
+        Map<Node<PathType>, Integer> ids = new HashMap<>(); // Numbers given out so far
+        List<Node<PathType>> nodes = new ArrayList<>(); // and the node of each number
+        double[] dist = new double[capacity]; // cost so far, not counting the guess
+        int[] prev = new int[capacity];
+        double[] prevCost = new double[capacity];
+        boolean[] finished = new boolean[capacity];
+        IndexedMinHeap active = new IndexedMinHeap(capacity); // keyed by dist + guess
+        settledCount = 0;
+
+        ids.put(startNode, 0);
+        nodes.add(startNode);
+        prev[0] = -1;
+        active.offer(0, heuristic.estimate(startNode, endNode));
+        while (!active.isEmpty()) { // While still have paths to find
+            int minId = active.poll();
+            Node<PathType> minDest = nodes.get(minId);
+            finished[minId] = true;
+            settledCount++;
+            if (minDest.equals(endNode)) { // Reached min path dest
+                return GenericDijkstra.buildPath(nodes, prev, prevCost, minId);
+            }
+            graph.forEachChild(minDest, false, edge -> { // Visited in place without copying them
+                Integer childId = ids.get(edge.getEnd());
+                if (childId == null) { // First time reaching child, so give it a number
+                    childId = nodes.size();
+                    ids.put(edge.getEnd(), childId);
+                    nodes.add(edge.getEnd());
+                    dist[childId] = Double.POSITIVE_INFINITY;
+                }
+                double childCost = dist[minId] + edge.getLabel();
+                if (!finished[childId] && childCost < dist[childId]) { // Found a cheaper way to child
+                    dist[childId] = childCost;
+                    prev[childId] = minId;
+                    prevCost[childId] = edge.getLabel();
+                    active.offer(childId, childCost + heuristic.estimate(edge.getEnd(), endNode));
+                }
+            });
+        }
+        return null; // no path exists
+    }
+}
@@ -0,0 +1,109 @@
+package pathfinder;
+
+/**
+ * This class represents the counters of a RouteCache at one moment: how many lookups were
+ * answered from it (hits) or not (misses), and how many routes left it because it was full
+ * (evictions), because they were too old (expirations) or because the campus paths changed
+ * (invalidations).  A CacheStats cannot change.
+ */
+public class CacheStats {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+    private final long invalidations;
+    private final int size;
+    private final int maxSize;
+
+    /*
+     * Where the AF would go: the counters of a RouteCache holding size of at most maxSize routes
+     * Where the rep invariant would go: no field is negative, and size <= maxSize
+     */
+
+    /**
+     * Constructs a CacheStats.
+     * @param hits lookups answered from the cache
+     * @param misses lookups not answered from the cache
+     * @param evictions routes dropped to make room
+     * @param expirations routes dropped for being too old
+     * @param invalidations routes dropped because the campus paths changed
+     * @param size routes held
+     * @param maxSize most routes that can be held
+     * @spec.requires no argument is negative, and size <= maxSize
+     */
+    public CacheStats(long hits, long misses, long evictions, long expirations, long invalidations,
+                      int size, int maxSize) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.invalidations = invalidations;
+        this.size = size;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the number of lookups answered from the cache.
+     * @return a long; the number of hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups not answered from the cache.
+     * @return a long; the number of misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of routes dropped to make room for others.
+     * @return a long; the number of evictions
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the number of routes dropped for being older than the time to live.
+     * @return a long; the number of expirations
+     */
+    public long getExpirations() {
+        return expirations;
+    }
+
+    /**
+     * Returns the number of routes dropped because the campus paths changed.
+     * @return a long; the number of invalidations
+     */
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * Returns the number of routes held.
+     * @return an int; the size of the cache
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the most routes the cache can hold.
+     * @return an int; the size limit of the cache
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the share of lookups answered from the cache.
+     * @return a double from 0 to 1; hits over all lookups, or 0 if there were none
+     */
+    public double hitRate() {
+        long lookups = hits + misses;
+        return (lookups == 0) ? 0 : (double) hits / lookups;
+    }
+}
@@ -11,9 +11,13 @@
 
 package pathfinder;
 
-import graph.DirectedGraph;
 import graph.Edge;
+import graph.GraphVersion;
 import graph.Node;
+import graph.NodeInterner;
+import graph.VersionedGraph;
+import graph.WeightedIntGraph;
+import pathfinder.datastructures.KdTree;
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
 import pathfinder.parser.CampusBuilding;
@@ -21,6 +25,7 @@ import pathfinder.parser.CampusPath;
 import pathfinder.parser.CampusPathsParser;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * This class represents an abstract map of the UW College Campus Map.  There are buildings
@@ -31,21 +36,80 @@ import java.util.*;
 public class CampusMap implements ModelAPI {
     // mapping locations to buildings, location to paths, and names of buildings
     private Map<Point, CampusBuilding> campusMap = new HashMap<>();
-    private DirectedGraph<Point, Double> locGraph = new DirectedGraph<>();
+    // every change publishes a new version, so each query can search one version throughout
+    private final VersionedGraph<Point, Double> locGraph = new VersionedGraph<>();
+    // one Node per location, shared by locGraph and every query, so lookups match by identity
+    private final NodeInterner<Point> locNodes = new NodeInterner<>();
     private Map<String, Node<CampusBuilding>> nameMap = new HashMap<>();
+    // straight-line guess of the distance left, fitted to locGraph, for A* searches.  It is
+    // lowered before any path that needs it is published, so it fits every version from then on
+    private volatile EuclideanHeuristic heuristic = new EuclideanHeuristic(0);
+    // routes from every building worked out ahead of time by precomputeRoutes, or null.  Only
+    // used while its version is the latest, since any change to the paths may change routes
+    private volatile RouteTable routes = null;
+    // shortcuts over locGraph for searches from anywhere to anywhere, worked out ahead of time
+    // by buildContractionHierarchy, or null.  Only used while its version is the latest
+    private volatile ContractionHierarchy hierarchy = null;
+    // walking distances to and from a few landmarks, worked out ahead of time by buildLandmarks,
+    // or null.  Only used while its version is the latest, as new paths may undercut them
+    private volatile LandmarkHeuristic<Point> landmarks = null;
+    // every location of locGraph by where it is, to snap any point to the graph.  Rebuilt
+    // after locations are added, and only published once locGraph holds all of them
+    private volatile KdTree<Node<Point>> locIndex = new KdTree<>(Collections.emptyMap());
+    // every building by where it is, for finding buildings near a point
+    private volatile KdTree<CampusBuilding> buildingIndex = new KdTree<>(Collections.emptyMap());
+    // routes already answered, for the building pairs asked about most; see RouteCache
+    private final RouteCache routeCache;
+
+    // How many routes the cache holds, and for how long, unless told otherwise
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+    public static final long DEFAULT_CACHE_TTL_MILLIS = 10 * 60 * 1000;
+
+    /**
+     * The search algorithms findShortestPath can use.  All find paths of the same, lowest
+     * distance; when several such paths exist they may pick different ones.
+     */
+    public enum Engine {
+        // Dijkstra's algorithm, settling nodes in order of distance from the start
+        DIJKSTRA,
+        // A* with the straight-line distance to the destination as its guess, which settles
+        // fewer nodes by searching towards the destination first
+        A_STAR,
+        // A* with a guess from the walking distances to and from a few landmarks, which follows
+        // the paths rather than straight lines and so settles fewer nodes still.  Needs
+        // buildLandmarks, and guesses with the straight-line distance instead while the
+        // landmarks are out of date
+        A_STAR_LANDMARKS,
+        // A search up the contraction hierarchy from both ends at once, which settles only a
+        // small part of the graph.  Needs buildContractionHierarchy, and searches with
+        // Dijkstra's algorithm instead while the hierarchy is out of date
+        CONTRACTION_HIERARCHY
+    }
 
     /* Abstraction Function:
-     *   A CampusMap m represents a map of campus.  There is a DirectedGraph locGraph
-     *   which represents nodes of all locations that can be travelled upon on campus
-     *   and their respective locations that can be reached from that node.
+     *   A CampusMap m represents a map of campus.  There is a VersionedGraph locGraph
+     *   whose latest version represents nodes of all locations that can be travelled upon
+     *   on campus and their respective locations that can be reached from that node.
      *   There is a campusMap which maps a campus's location to its respective campus
      *   building information.  Lastly, there is a nameMap which maps a short name of
-     *   the campus building to its campus building node.  All in all, the CampusMap m
-     *   represents a mapping of campus information on its locations and its buildings.
+     *   the campus building to its campus building node.  The heuristic is the straight-line
+     *   guess of walking distance between locations used by A* searches.  The routes, if not
+     *   null, are the shortest routes from every building on version routes.getGraphVersion()
+     *   of locGraph.  The hierarchy, if not null, gives the same distances as
+     *   version hierarchy.getGraphVersion() of locGraph, and the landmarks, if not null, never
+     *   guess more than the distance on version landmarks.getGraphVersion().  The locIndex
+     *   and buildingIndex find the locations and buildings nearest to a point.  The
+     *   routeCache holds routes recently answered, each for the version of locGraph it was
+     *   found on.  All in all, the CampusMap m represents a mapping of campus information
+     *   on its locations and its buildings.
      */
 
     // Representation invariant for every CampusMap m:
-    // m.campusMap != null && m.locGraph != null && m.nameMap != null
+    // m.campusMap != null && m.locGraph != null && m.nameMap != null && m.heuristic != null &&
+    // m.routeCache != null && m.locIndex != null && m.buildingIndex != null &&
+    // m.locIndex holds exactly the nodes of the latest version of m.locGraph &&
+    // m.buildingIndex holds exactly the locations of m.campusMap &&
+    // m.locNodes != null && every node of m.locGraph is the one m.locNodes gives out for its data
     // forall i such that (0 <= i < m.locGraph.size()), m.locGraph.get(i) != null) &&
     // forall i such that (0 <= i < m.locGraph.size() - 1), m.locGraph.get(i) != m.locGraph.get(i+1)) &&
     // forall j such that (0 <= j < m.locGraph.get(i).size()), m.locGraph.get(i).get(j) != null) &&
@@ -58,11 +122,32 @@ public class CampusMap implements ModelAPI {
     //   * no element in locGraph, campusMap, and nameMap is null
     //   * there are no duplicate nodes in the locGraph, campusMap, and nameMap (by definition)
     //   * no outgoing edge in the locGraph for any node is null
-    //   * there are no duplicate outgoing edges in the locGraph for any node (DirectedGraph rep)
+    //   * there are no duplicate outgoing edges in the locGraph for any node (GraphVersion rep)
+    //   * the heuristic never guesses more than the distance in any version of locGraph
+    //     published since it was set
 
     // Change this to run expensive methods in checkRep() if set to true, otherwise does not run.
     private final boolean needsCheckRep = false;
 
+    /**
+     * Constructs a CampusMap with a route cache of the default size and time to live.
+     * @spec.effects Constructs a new, empty CampusMap.
+     */
+    public CampusMap() {
+        this(DEFAULT_CACHE_SIZE, DEFAULT_CACHE_TTL_MILLIS);
+    }
+
+    /**
+     * Constructs a CampusMap with a route cache of the given size and time to live.
+     * @param cacheSize the most routes to cache, or 0 to cache none
+     * @param cacheTtlMillis how long a cached route may be given out for, in milliseconds
+     * @spec.requires cacheSize >= 0, cacheTtlMillis > 0
+     * @spec.effects Constructs a new, empty CampusMap.
+     */
+    public CampusMap(int cacheSize, long cacheTtlMillis) {
+        routeCache = new RouteCache(cacheSize, cacheTtlMillis);
+    }
+
     /*
      *  Stores data on campus buildings and paths from specified file name
      *  @param buildingsFile the file to get buildings from
@@ -70,25 +155,26 @@ public class CampusMap implements ModelAPI {
      *  @spec.requires buildingsFile and pathsFile be under data folder and valid
      *  @return a DirectedGraph of location paths
      */
-    public void initializeData(String buildingsFile, String pathsFile) {
+    public synchronized void initializeData(String buildingsFile, String pathsFile) {
         List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings(buildingsFile);
         List<CampusPath> paths = CampusPathsParser.parseCampusPaths(pathsFile);
         for (CampusBuilding building : buildings) { // Add each building as a node
             Point buildingLoc = new Point(building.getX(), building.getY());
             campusMap.put(buildingLoc, building); // Save location map
             nameMap.put(building.getShortName(), new Node<CampusBuilding>(building)); // Save name map
-            locGraph.addNode(new Node<Point>(buildingLoc)); // Save building location
+            locGraph.addNode(locNodes.intern(buildingLoc)); // Save building location
         }
         for (CampusPath path : paths) { // Add paths of locations
-            Point pathStart = new Point(path.getX1(), path.getY1());
-            locGraph.addNode(new Node<Point>(pathStart)); // Save starting path loc
-            Point pathEnd = new Point(path.getX2(), path.getY2());
-            locGraph.addNode(new Node<Point>(pathEnd)); // Save ending path loc
-            Node<Point> startLoc = new Node<>(pathStart);
-            Node<Point> endLoc = new Node<>(pathEnd);
+            Node<Point> startLoc = locNodes.intern(new Point(path.getX1(), path.getY1()));
+            locGraph.addNode(startLoc); // Save starting path loc
+            Node<Point> endLoc = locNodes.intern(new Point(path.getX2(), path.getY2()));
+            locGraph.addNode(endLoc); // Save ending path loc
             locGraph.addEdge(new Edge<Point, Double>
                     (startLoc, endLoc, path.getDistance()));
         }
+        heuristic = EuclideanHeuristic.forGraph(locGraph); // Fit once the paths are known
+        locIndex = indexLocations();
+        buildingIndex = new KdTree<>(campusMap);
         checkRep();
     }
 
@@ -119,30 +205,494 @@ public class CampusMap implements ModelAPI {
 
     @Override
     public Path<Node<Point>> findShortestPath(String startShortName, String endShortName) {
+        return findShortestPath(startShortName, endShortName, Engine.DIJKSTRA);
+    }
+
+    /**
+     * Finds the shortest path, by distance, between the two provided buildings, searching
+     * with the given engine.
+     *
+     * @param startShortName The short name of the building at the beginning of this path.
+     * @param endShortName   The short name of the building at the end of this path.
+     * @param engine         The search algorithm to use.
+     * @return A path between {@code startBuilding} and {@code endBuilding}, or {@literal null}
+     * if none exists.
+     * @throws IllegalArgumentException if {@code startBuilding} or {@code endBuilding} are
+     *                                  {@literal null}, or not valid short names of buildings in
+     *                                  this campus map, or if {@code engine} is {@literal null}.
+     */
+    public Path<Node<Point>> findShortestPath(String startShortName, String endShortName, Engine engine) {
+        return findRoute(startShortName, endShortName, engine).getPath();
+    }
+
+    /**
+     * Finds the shortest path, by distance, between the two provided buildings, searching
+     * with the given engine on the latest version of the campus paths.  The whole search sees
+     * that one version, even if paths are added or removed while it runs.  Routes asked for
+     * recently are given out again from the route cache while that version is still the latest.
+     *
+     * @param startShortName The short name of the building at the beginning of this path.
+     * @param endShortName   The short name of the building at the end of this path.
+     * @param engine         The search algorithm to use.
+     * @return The path found, or {@literal null} in its place if none exists, along with the
+     * version of the campus paths that was searched.
+     * @throws IllegalArgumentException if {@code startBuilding} or {@code endBuilding} are
+     *                                  {@literal null}, or not valid short names of buildings in
+     *                                  this campus map, or if {@code engine} is {@literal null}.
+     */
+    public Route findRoute(String startShortName, String endShortName, Engine engine) {
         boolean notValidName = (startShortName == null || endShortName == null ||
-                !shortNameExists(startShortName) || !shortNameExists(endShortName));
+                !shortNameExists(startShortName) || !shortNameExists(endShortName) || engine == null);
         if (notValidName) {
             throw new IllegalArgumentException();
         } else { // Is valid, can try to find shortest path
-            CampusBuilding startBuilding = nameMap.get(startShortName).getData();
-            CampusBuilding endBuilding = nameMap.get(endShortName).getData();
-            Node<Point> start = new Node<>(new Point
-                    (startBuilding.getX(), startBuilding.getY()));
-            Node<Point> dest = new Node<>(new Point
-                    (endBuilding.getX(), endBuilding.getY()));
-            GenericDijkstra<Point> superAlgo = new GenericDijkstra<>();
-            superAlgo.setCampusGraph(locGraph);
-            return superAlgo.findShortestPath(start, dest);
+            Node<Point> start = locationOf(startShortName);
+            Node<Point> dest = locationOf(endShortName);
+            GraphVersion<Point, Double> graph = locGraph.current(); // Pin before the heuristic
+            Route route = routeCache.get(startShortName, endShortName, engine, graph.getVersion());
+            if (route == null) { // Not asked for lately
+                route = searchRoute(graph, start, dest, engine);
+                if (route.getGraphVersion() == locGraph.getVersion()) { // Not outdated while searching
+                    routeCache.put(startShortName, endShortName, engine, route);
+                }
+            }
+            return route;
+        }
+    }
+
+    /**
+     * Finds the shortest paths, by distance, between many pairs of buildings at once, with
+     * Dijkstra's algorithm on the latest version of the campus paths.  Pairs are grouped by
+     * start building, and each start is searched from once for all of its ends, stopping when
+     * the last one is reached.  Pairs answered by the route cache or by routes worked out by
+     * precomputeRoutes are not searched for.  Every route is found on the same version.
+     *
+     * @param pairs The pairs of short names to route between, each as {start, end}.
+     * @return The route of each pair, in the same order as pairs, each with the path of
+     * findRoute(start, end, Engine.DIJKSTRA) or a path of the same distance.
+     * @throws IllegalArgumentException if {@code pairs} is {@literal null}, or any pair is
+     *                                  not two valid short names of buildings in this map.
+     */
+    public List<Route> findRoutes(List<String[]> pairs) {
+        if (pairs == null) {
+            throw new IllegalArgumentException();
+        }
+        for (String[] pair : pairs) { // Check them all before searching at all
+            boolean notValidPair = (pair == null || pair.length != 2 || pair[0] == null || pair[1] == null
+                    || !shortNameExists(pair[0]) || !shortNameExists(pair[1]));
+            if (notValidPair) {
+                throw new IllegalArgumentException();
+            }
+        }
+        GraphVersion<Point, Double> graph = locGraph.current(); // One version for the batch
+        Route[] found = new Route[pairs.size()];
+        Map<String, List<Integer>> searchesByStart = new LinkedHashMap<>(); // start -> indices of pairs
+        for (int i = 0; i < pairs.size(); i++) {
+            String[] pair = pairs.get(i);
+            found[i] = routeCache.get(pair[0], pair[1], Engine.DIJKSTRA, graph.getVersion());
+            if (found[i] == null) { // Not asked for lately
+                searchesByStart.computeIfAbsent(pair[0], start -> new ArrayList<>()).add(i);
+            }
+        }
+        RouteTable table = routes;
+        boolean tableIsCurrent = table != null && table.getGraphVersion() == graph.getVersion();
+        for (Map.Entry<String, List<Integer>> group : searchesByStart.entrySet()) {
+            Node<Point> start = locationOf(group.getKey());
+            Map<Node<Point>, Path<Node<Point>>> paths = null;
+            if (!tableIsCurrent) { // One search for all of this start's ends
+                List<Node<Point>> ends = new ArrayList<>();
+                for (int i : group.getValue()) {
+                    ends.add(locationOf(pairs.get(i)[1]));
+                }
+                GenericDijkstra<Point> superAlgo = new GenericDijkstra<>();
+                superAlgo.setCampusGraph(graph);
+                paths = superAlgo.findShortestPaths(start, ends);
+            }
+            for (int i : group.getValue()) {
+                Node<Point> dest = locationOf(pairs.get(i)[1]);
+                Path<Node<Point>> path = tableIsCurrent
+                        ? table.find(start.getData(), dest.getData()) : paths.get(dest);
+                found[i] = new Route(path, graph.getVersion());
+                if (graph.getVersion() == locGraph.getVersion()) { // Not outdated while searching
+                    routeCache.put(group.getKey(), pairs.get(i)[1], Engine.DIJKSTRA, found[i]);
+                }
+            }
+        }
+        return Arrays.asList(found);
+    }
+
+    @Override
+    public ShortestPathMap shortestPathsFrom(String startShortName) {
+        if (startShortName == null || !shortNameExists(startShortName)) {
+            throw new IllegalArgumentException();
+        }
+        GraphVersion<Point, Double> graph = locGraph.current();
+        GenericDijkstra<Point> superAlgo = new GenericDijkstra<>();
+        superAlgo.setCampusGraph(graph);
+        ShortestPathTree<Point> tree = superAlgo.shortestPathsFrom(locationOf(startShortName));
+        Map<String, Node<Point>> reachable = new HashMap<>();
+        for (String name : nameMap.keySet()) { // Only the buildings the search got to
+            Node<Point> location = locationOf(name);
+            if (tree.isReached(location)) {
+                reachable.put(name, location);
+            }
+        }
+        return new ShortestPathMap(startShortName, tree, reachable, graph.getVersion());
+    }
+
+    @Override
+    public List<Path<Node<Point>>> findKShortestPaths(String startShortName, String endShortName, int k) {
+        boolean notValidName = (startShortName == null || endShortName == null ||
+                !shortNameExists(startShortName) || !shortNameExists(endShortName) || k <= 0);
+        if (notValidName) {
+            throw new IllegalArgumentException();
+        }
+        GenericDijkstra<Point> superAlgo = new GenericDijkstra<>();
+        superAlgo.setCampusGraph(locGraph.current()); // All k found on one version
+        return superAlgo.findKShortestPaths(locationOf(startShortName), locationOf(endShortName), k);
+    }
+
+    /**
+     * Finds the shortest path, by distance, between the locations on the map closest to two
+     * points, ex: where a user clicked, on the latest version of the campus paths.
+     *
+     * @param start A point near where the path should begin.
+     * @param end   A point near where the path should end.
+     * @return A path from the location closest to {@code start} to the location closest to
+     * {@code end}, or {@literal null} if none exists or the map has no locations.
+     * @throws IllegalArgumentException if {@code start} or {@code end} are {@literal null}.
+     */
+    public Path<Node<Point>> findShortestPath(Point start, Point end) {
+        return findRoute(start, end).getPath();
+    }
+
+    /**
+     * Finds the shortest path, by distance, between the locations on the map closest to two
+     * points, ex: where a user clicked, on the latest version of the campus paths.  Searches
+     * the contraction hierarchy if it is up to date, and with Dijkstra's algorithm otherwise.
+     * The whole search sees that one version, even if paths are added or
+     * removed while it runs.
+     *
+     * @param start A point near where the path should begin.
+     * @param end   A point near where the path should end.
+     * @return The path from the location closest to {@code start} to the location closest to
+     * {@code end}, or {@literal null} in its place if none exists or the map has no locations,
+     * along with the version of the campus paths that was searched.
+     * @throws IllegalArgumentException if {@code start} or {@code end} are {@literal null}.
+     */
+    public Route findRoute(Point start, Point end) {
+        if (start == null || end == null) {
+            throw new IllegalArgumentException();
+        }
+        KdTree<Node<Point>> index = locIndex; // Before pinning, so the version holds its nodes
+        GraphVersion<Point, Double> graph = locGraph.current();
+        Node<Point> startLoc = index.nearest(start);
+        Node<Point> endLoc = index.nearest(end);
+        if (startLoc == null) {
+            return new Route(null, graph.getVersion()); // Nowhere to snap to
+        }
+        RouteTable table = routes;
+        if (table != null && table.getGraphVersion() == graph.getVersion()
+                && table.hasStart(startLoc.getData())) { // Snapped to a building, worked out already
+            return new Route(table.find(startLoc.getData(), endLoc.getData()), graph.getVersion());
+        }
+        ContractionHierarchy shortcuts = hierarchy;
+        if (shortcuts != null && shortcuts.getGraphVersion() == graph.getVersion()) {
+            return new Route(shortcuts.find(startLoc.getData(), endLoc.getData()), graph.getVersion());
+        }
+        GenericDijkstra<Point> superAlgo = new GenericDijkstra<>();
+        superAlgo.setCampusGraph(graph);
+        return new Route(superAlgo.findShortestPath(startLoc, endLoc), graph.getVersion());
+    }
+
+    /**
+     * Finds the location on the map, a building or a point along some path, closest to a point.
+     * @param point where to look around
+     * @spec.requires point != null
+     * @return the closest location on the map, or null if the map has no locations
+     */
+    public Point nearestLocation(Point point) {
+        Node<Point> location = locIndex.nearest(point);
+        return (location == null) ? null : location.getData();
+    }
+
+    /**
+     * Finds the building closest to a point.
+     * @param point where to look around
+     * @spec.requires point != null
+     * @return the short name of the closest building, or null if the map has no buildings
+     */
+    public String nearestBuilding(Point point) {
+        CampusBuilding building = buildingIndex.nearest(point);
+        return (building == null) ? null : building.getShortName();
+    }
+
+    /**
+     * Finds every building within some distance of a point.
+     * @param point where to look around
+     * @param radius the greatest straight-line distance from point to include
+     * @spec.requires point != null
+     * @return the short names of the buildings no further than radius from point, in no set order
+     */
+    public List<String> buildingsWithin(Point point, double radius) {
+        List<String> names = new ArrayList<>();
+        for (CampusBuilding building : buildingIndex.withinRadius(point, radius)) {
+            names.add(building.getShortName());
         }
+        return names;
+    }
+
+    /*
+     * Returns a new index of every location in the latest version of locGraph
+     */
+    private KdTree<Node<Point>> indexLocations() {
+        Map<Point, Node<Point>> locations = new HashMap<>();
+        for (Node<Point> location : locGraph.current().listNodes()) {
+            locations.put(location.getData(), location);
+        }
+        return new KdTree<>(locations);
+    }
+
+    /*
+     * Returns the location node of the building with a short name, which must exist
+     */
+    private Node<Point> locationOf(String shortName) {
+        CampusBuilding building = nameMap.get(shortName).getData();
+        return locNodes.intern(new Point(building.getX(), building.getY()));
+    }
+
+    /*
+     * Returns the shortest route from start to dest on graph, looked up if the routes were
+     * worked out for graph, or searched for with engine otherwise
+     */
+    private Route searchRoute(GraphVersion<Point, Double> graph, Node<Point> start, Node<Point> dest,
+                              Engine engine) {
+        RouteTable table = routes;
+        if (table != null && table.getGraphVersion() == graph.getVersion()) { // Worked out already
+            return new Route(table.find(start.getData(), dest.getData()), graph.getVersion());
+        }
+        ContractionHierarchy shortcuts = hierarchy;
+        if (engine == Engine.CONTRACTION_HIERARCHY && shortcuts != null
+                && shortcuts.getGraphVersion() == graph.getVersion()) {
+            return new Route(shortcuts.find(start.getData(), dest.getData()), graph.getVersion());
+        }
+        if (engine == Engine.A_STAR || engine == Engine.A_STAR_LANDMARKS) {
+            AStar<Point> aStar = new AStar<>();
+            aStar.setCampusGraph(graph);
+            LandmarkHeuristic<Point> tables = landmarks;
+            boolean useLandmarks = engine == Engine.A_STAR_LANDMARKS && tables != null
+                    && tables.getGraphVersion() == graph.getVersion();
+            aStar.setHeuristic(useLandmarks ? tables : heuristic);
+            return new Route(aStar.findShortestPath(start, dest), graph.getVersion());
+        }
+        GenericDijkstra<Point> superAlgo = new GenericDijkstra<>();
+        superAlgo.setCampusGraph(graph);
+        return new Route(superAlgo.findShortestPath(start, dest), graph.getVersion());
+    }
+
+    /**
+     * Adds a path between two locations, publishing a new version of the campus paths.
+     * Searches already running keep the version they started on.
+     * @param path the path to add, from (x1, y1) to (x2, y2)
+     * @spec.requires path != null with a distance that is not negative
+     * @spec.effects Adds path, and any of its locations not yet on the map, if not on the map.
+     */
+    public synchronized void addPath(CampusPath path) {
+        Node<Point> startLoc = locNodes.intern(new Point(path.getX1(), path.getY1()));
+        Node<Point> endLoc = locNodes.intern(new Point(path.getX2(), path.getY2()));
+        Edge<Point, Double> edge = new Edge<>(startLoc, endLoc, path.getDistance());
+        heuristic = heuristic.admitting(edge); // Before any version holds the edge
+        boolean newLocation = !locGraph.containsNode(startLoc) || !locGraph.containsNode(endLoc);
+        long before = locGraph.getVersion();
+        locGraph.addNode(startLoc);
+        locGraph.addNode(endLoc);
+        locGraph.addEdge(edge);
+        if (newLocation) {
+            locIndex = indexLocations(); // After locGraph has them, so snapping finds only known nodes
+            routes = null; // The trees have no room for new locations
+        } else if (locGraph.getVersion() != before) { // Opens a path again, if it was closed
+            repairRoutes(before, startLoc.getData(), endLoc.getData(), Double.POSITIVE_INFINITY,
+                    path.getDistance());
+        }
+        hierarchy = null; // Out of date now
+        landmarks = null;
+        routeCache.clear();
+        checkRep();
+    }
+
+    /**
+     * Removes a path between two locations, publishing a new version of the campus paths.
+     * Searches already running keep the version they started on.  The locations stay on the map.
+     * @param path the path to remove, from (x1, y1) to (x2, y2) with the same distance
+     * @spec.requires path != null
+     * @return true if path was on the map and was removed, false otherwise
+     */
+    public synchronized boolean removePath(CampusPath path) {
+        Node<Point> startLoc = new Node<>(new Point(path.getX1(), path.getY1())); // Not interned, as
+        Node<Point> endLoc = new Node<>(new Point(path.getX2(), path.getY2())); // it may not be on the map
+        long before = locGraph.getVersion();
+        boolean removed = locGraph.removeEdge(new Edge<>(startLoc, endLoc, path.getDistance())) != null;
+        if (removed) { // Closes the path in any precomputed routes, ready to open again
+            repairRoutes(before, startLoc.getData(), endLoc.getData(), path.getDistance(),
+                    Double.POSITIVE_INFINITY);
+            hierarchy = null; // Out of date now
+            landmarks = null;
+            routeCache.clear();
+        }
+        checkRep();
+        return removed;
+    }
+
+    /**
+     * Changes the distance of a path between two locations, such as for crowding or a detour,
+     * publishing a new version of the campus paths in which the path has its new distance.
+     * Searches already running keep the version they started on.  Precomputed routes are
+     * repaired where the change reaches them, rather than worked out again.
+     * @param path the path to change, from (x1, y1) to (x2, y2) with its present distance
+     * @param distance the new distance of the path
+     * @spec.requires path != null, distance is not negative
+     * @return true if path was on the map and now has distance, false otherwise
+     */
+    public synchronized boolean updatePath(CampusPath path, double distance) {
+        Node<Point> startLoc = new Node<>(new Point(path.getX1(), path.getY1())); // Not interned, as
+        Node<Point> endLoc = new Node<>(new Point(path.getX2(), path.getY2())); // it may not be on the map
+        Edge<Point, Double> edge = new Edge<>(startLoc, endLoc, path.getDistance());
+        GraphVersion<Point, Double> before = locGraph.current();
+        if (!before.containsNode(startLoc) || !before.listChildren(startLoc, true).contains(edge)) {
+            return false;
+        }
+        if (distance == path.getDistance()) {
+            return true; // Nothing to change
+        }
+        Edge<Point, Double> updated = new Edge<>(startLoc, endLoc, distance);
+        boolean merged = before.listChildren(startLoc, true).contains(updated); // Already there
+        heuristic = heuristic.admitting(updated); // Before any version holds the edge
+        locGraph.relabelEdge(edge, distance);
+        repairRoutes(before.getVersion(), startLoc.getData(), endLoc.getData(), path.getDistance(),
+                merged ? Double.POSITIVE_INFINITY : distance);
+        hierarchy = null; // Out of date now
+        landmarks = null;
+        routeCache.clear();
+        checkRep();
+        return true;
+    }
+
+    /*
+     * Brings the precomputed routes up to the latest version after one path from start to end
+     * went from oldWeight to newWeight, infinite when closed, if they were up to date on version
+     * before it; drops them if they were not, or if the change cannot be repaired in place
+     */
+    private void repairRoutes(long before, Point start, Point end, double oldWeight, double newWeight) {
+        RouteTable table = routes;
+        routes = (table != null && table.getGraphVersion() == before)
+                ? table.withWeight(start, end, oldWeight, newWeight, locGraph.getVersion()) : null;
+    }
+
+    /**
+     * Works out the shortest routes from every building to everywhere on the latest version of
+     * the campus paths, one search per building split between threads workers, so that
+     * findRoute and findShortestPath can look routes up instead of searching.  The routes are
+     * repaired as paths change distance, close or open again, but dropped when a path brings
+     * a new location, when searching takes over again; call this again then to bring them up
+     * to date.
+     * @param threads the number of worker threads to use
+     * @spec.requires initializeData has been called, threads > 0
+     * @spec.effects Replaces any routes worked out before.
+     */
+    public synchronized void precomputeRoutes(int threads) {
+        GraphVersion<Point, Double> graph = locGraph.current();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            routes = RouteTable.build(new WeightedIntGraph<>(graph), campusMap.keySet(),
+                    graph.getVersion(), pool);
+        } finally {
+            pool.shutdown();
+        }
+        checkRep();
+    }
+
+    /**
+     * Returns if routes worked out by precomputeRoutes are being used.
+     * @return a boolean; true if queries on the latest version of the paths are looked up
+     */
+    public boolean hasPrecomputedRoutes() {
+        RouteTable table = routes;
+        return table != null && table.getGraphVersion() == locGraph.getVersion();
+    }
+
+    /**
+     * Contracts the latest version of the campus paths into a hierarchy of shortcuts, so that
+     * findRoute with Engine.CONTRACTION_HIERARCHY, and findRoute between any two points, only
+     * search a small part of the graph.  The hierarchy is used until the paths next change,
+     * when searching the whole graph takes over again; call this again then to bring it up
+     * to date.
+     * @spec.requires initializeData has been called
+     * @spec.effects Replaces any hierarchy built before.
+     */
+    public synchronized void buildContractionHierarchy() {
+        GraphVersion<Point, Double> graph = locGraph.current();
+        hierarchy = ContractionHierarchy.build(new WeightedIntGraph<>(graph), graph.getVersion());
+        checkRep();
+    }
+
+    /**
+     * Returns if a hierarchy built by buildContractionHierarchy is being used.
+     * @return a boolean; true if searches on the latest version of the paths can use it
+     */
+    public boolean hasContractionHierarchy() {
+        ContractionHierarchy shortcuts = hierarchy;
+        return shortcuts != null && shortcuts.getGraphVersion() == locGraph.getVersion();
+    }
+
+    /**
+     * Chooses landmarks spread around the latest version of the campus paths and works out the
+     * walking distances to and from each, so that findRoute with Engine.A_STAR_LANDMARKS can
+     * guess distances left from them.  They are used until the paths next change, when the
+     * straight-line guess takes over again; call this again then to bring them up to date.
+     * @param count the number of landmarks to choose
+     * @spec.requires initializeData has been called, count > 0
+     * @spec.effects Replaces any landmarks chosen before.
+     */
+    public synchronized void buildLandmarks(int count) {
+        GraphVersion<Point, Double> graph = locGraph.current();
+        landmarks = LandmarkHeuristic.forGraph(new WeightedIntGraph<>(graph), count, graph.getVersion());
+        checkRep();
+    }
+
+    /**
+     * Returns if landmarks chosen by buildLandmarks are being used.
+     * @return a boolean; true if A* searches on the latest version of the paths can use them
+     */
+    public boolean hasLandmarks() {
+        LandmarkHeuristic<Point> tables = landmarks;
+        return tables != null && tables.getGraphVersion() == locGraph.getVersion();
+    }
+
+    /**
+     * Returns the hit, miss and eviction counters of the route cache.
+     * @return a snapshot of the counters of the route cache
+     */
+    public CacheStats getCacheStats() {
+        return routeCache.stats();
+    }
+
+    /**
+     * Returns the number of the latest version of the campus paths.
+     * @return a long; it goes up every time a change to the paths is published
+     */
+    public long getGraphVersion() {
+        return locGraph.getVersion();
     }
 
     /*
     Throws an exception if the representation invariant is violated.
  */
     private void checkRep() {
-        assert (locGraph != null && campusMap != null && nameMap != null); // fields are not null
+        assert (locGraph != null && campusMap != null && nameMap != null && heuristic != null
+                && routeCache != null && locNodes != null && locIndex != null
+                && buildingIndex != null); // fields are not null
         if (needsCheckRep) { // Only check expensive checks if needed
-            // DirectedGraph checkRep is checked implicitly if enabled in DirectedGraph.java
+            // GraphVersion checkRep is checked implicitly if enabled in GraphVersion.java
             // Checks campusMap mapping valid location to valid building
             Iterator<Map.Entry<Point, CampusBuilding>> buildingMapItr = campusMap.entrySet().iterator();
             while (buildingMapItr.hasNext()) {
@@ -0,0 +1,534 @@
+package pathfinder;
+
+import graph.Node;
+import graph.WeightedIntGraph;
+import pathfinder.datastructures.IndexedMinHeap;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class represents a contraction hierarchy over one version of the campus graph: an index
+ * worked out ahead of time that answers point-to-point shortest path queries while settling
+ * only a small part of the graph.  Every node is given a rank, and nodes are contracted from
+ * the lowest rank up; contracting a node adds a shortcut edge between each pair of its
+ * remaining neighbours whose shortest path runs through it, so that distances between the
+ * remaining nodes stay the same without it.  A query then runs Dijkstra's algorithm forwards
+ * from the start and backwards from the end, each only ever going up in rank, and the shortest
+ * path is the cheapest place the two searches meet.  Shortcuts are unpacked back into the
+ * original edges, so found paths are made of the same segments a search of the graph finds.
+ */
+public class ContractionHierarchy {
+    // Nodes a witness search may settle before giving up and adding the shortcut anyway, which
+    // is always safe, only larger
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+
+    private final WeightedIntGraph<Point> graph;
+    private final int[] upOffsets; // node id -> first arc to a higher rank, upOffsets[n] = upCount
+    private final int[] downOffsets; // node id -> first arc from a higher rank, after the up arcs
+    private final int[] arcFrom; // arc index -> id of its start node
+    private final int[] arcTo; // arc index -> id of its end node
+    private final double[] arcWeight; // arc index -> its cost
+    private final int[] arcMiddle; // arc index -> node id a shortcut skips, -1 for an original edge
+    private final int shortcutCount;
+    private final long graphVersion;
+    private final ThreadLocal<Search> searches; // each thread's query arrays, kept between queries
+
+    /*
+     * Where the AF would go: the shortest path from s to e is the cheapest path that follows up
+     *      arcs (upOffsets[v] to upOffsets[v+1] - 1, from v) out of s, then down arcs
+     *      (downOffsets[v] to downOffsets[v+1] - 1, into v) to e, with every shortcut arc a
+     *      replaced by the arcs arcFrom[a] -> arcMiddle[a] -> arcTo[a], until only original
+     *      edges of graph remain, on version graphVersion of the campus graph
+     * Where the rep invariant would go: every up arc goes from a lower to a higher rank and
+     *      every down arc from a higher to a lower rank, and for every shortcut a, both arcs it
+     *      replaces exist, and their weights add up to arcWeight[a]
+     */
+
+    /*
+     * Constructs a ContractionHierarchy from its parts, which are not copied
+     */
+    private ContractionHierarchy(WeightedIntGraph<Point> graph, int[] upOffsets, int[] downOffsets,
+                                 int[] arcFrom, int[] arcTo, double[] arcWeight, int[] arcMiddle,
+                                 int shortcutCount, long graphVersion) {
+        this.graph = graph;
+        this.upOffsets = upOffsets;
+        this.downOffsets = downOffsets;
+        this.arcFrom = arcFrom;
+        this.arcTo = arcTo;
+        this.arcWeight = arcWeight;
+        this.arcMiddle = arcMiddle;
+        this.shortcutCount = shortcutCount;
+        this.graphVersion = graphVersion;
+        this.searches = ThreadLocal.withInitial(() -> new Search(graph.size()));
+    }
+
+    /**
+     * Contracts every node of graph, in order of how few shortcuts contracting it adds.
+     * @param graph the graph to index
+     * @param graphVersion the version of the campus graph that graph was packed from
+     * @spec.requires graph != null, and no edge of graph has a negative weight
+     * @return a ContractionHierarchy over graph
+     */
+    public static ContractionHierarchy build(WeightedIntGraph<Point> graph, long graphVersion) {
+        return new Contractor(graph).contractAll(graphVersion);
+    }
+
+    /**
+     * Returns the version of the campus graph this hierarchy was built on.
+     * @return a long; the version of the graph that was indexed
+     */
+    public long getGraphVersion() {
+        return graphVersion;
+    }
+
+    /**
+     * Returns the number of shortcut edges contraction added.
+     * @return an int; the arcs of the hierarchy that are not edges of the graph
+     */
+    public int getShortcutCount() {
+        return shortcutCount;
+    }
+
+    /**
+     * Returns the number of arcs in the hierarchy, edges of the graph and shortcuts together.
+     * @return an int; the number of arcs searched through by queries
+     */
+    public int getArcCount() {
+        return arcFrom.length;
+    }
+
+    /**
+     * Returns the number of bytes held by the arcs and offsets of the hierarchy, not counting
+     * the graph.
+     * @return a long; the size of the index arrays in bytes
+     */
+    public long indexBytes() {
+        return (long) (upOffsets.length + downOffsets.length) * Integer.BYTES
+                + (long) arcFrom.length * (3 * Integer.BYTES + Double.BYTES);
+    }
+
+    /**
+     * Returns the shortest path from start to end.
+     * @param start where the path starts
+     * @param end where the path ends
+     * @spec.requires start != null, end != null
+     * @return the lowest-cost path from start to end, or null if end is not reachable from
+     *         start, or either is not in the graph
+     */
+    public Path<Node<Point>> find(Point start, Point end) {
+        int startId = graph.idOf(start);
+        int endId = graph.idOf(end);
+        if (startId == -1 || endId == -1) {
+            return null;
+        }
+        if (startId == endId) {
+            return new Path<>(new Node<>(start)); // Path to itself
+        }
+        Search search = searches.get();
+        try {
+            int meet = search.run(startId, endId);
+            if (meet == -1) {
+                return null;
+            }
+            List<Integer> arcs = new ArrayList<>(); // Arcs from the start up to meet, then down to end
+            for (int id = meet; id != startId; id = arcFrom[search.forwardArc[id]]) {
+                arcs.add(search.forwardArc[id]);
+            }
+            Collections.reverse(arcs);
+            for (int id = meet; id != endId; id = arcTo[search.backwardArc[id]]) {
+                arcs.add(search.backwardArc[id]);
+            }
+            Path<Node<Point>> path = new Path<>(new Node<>(start));
+            for (int arc : arcs) {
+                path = unpack(arc, path);
+            }
+            return path;
+        } finally { // Even if unpacking throws, so the thread's next query starts clean
+            search.reset();
+        }
+    }
+
+    /*
+     * Returns path extended by the original edges arc stands for
+     */
+    private Path<Node<Point>> unpack(int arc, Path<Node<Point>> path) {
+        int middle = arcMiddle[arc];
+        if (middle == -1) { // An edge of the graph
+            return path.extend(new Node<>(graph.dataOf(arcTo[arc])), arcWeight[arc]);
+        }
+        path = unpack(findArc(middle, arcFrom[arc], middle), path); // Down into middle
+        return unpack(findArc(middle, middle, arcTo[arc]), path); // then up out of it
+    }
+
+    /*
+     * Returns the arc from -> to among the arcs kept at node, which was contracted before both
+     */
+    private int findArc(int node, int from, int to) {
+        boolean up = (from == node);
+        int first = up ? upOffsets[node] : downOffsets[node];
+        int last = up ? upOffsets[node + 1] : downOffsets[node + 1];
+        for (int arc = first; arc < last; arc++) {
+            if (arcFrom[arc] == from && arcTo[arc] == to) {
+                return arc;
+            }
+        }
+        throw new IllegalStateException("Shortcut skips a missing arc");
+    }
+
+    /*
+     * The arrays of one thread's bidirectional queries.  Only the entries a query touched are
+     * reset after it, so a query costs what it settles rather than the size of the graph
+     */
+    private class Search {
+        private final double[] forwardDist;
+        private final double[] backwardDist;
+        private final int[] forwardArc; // node id -> up arc the forward search reached it by
+        private final int[] backwardArc; // node id -> down arc the backward search left it by
+        private final IndexedMinHeap forward;
+        private final IndexedMinHeap backward;
+        private final List<Integer> touched = new ArrayList<>();
+
+        private Search(int size) {
+            forwardDist = new double[size];
+            backwardDist = new double[size];
+            forwardArc = new int[size];
+            backwardArc = new int[size];
+            forward = new IndexedMinHeap(size);
+            backward = new IndexedMinHeap(size);
+            Arrays.fill(forwardDist, Double.POSITIVE_INFINITY);
+            Arrays.fill(backwardDist, Double.POSITIVE_INFINITY);
+        }
+
+        /*
+         * Searches up from startId and up backwards from endId, and returns the node the
+         * shortest path goes through at its highest rank, or -1 if there is no path
+         */
+        private int run(int startId, int endId) {
+            double best = Double.POSITIVE_INFINITY;
+            int meet = -1;
+            reach(forwardDist, startId, 0.0);
+            reach(backwardDist, endId, 0.0);
+            forward.offer(startId, 0.0);
+            backward.offer(endId, 0.0);
+            boolean forwards = true;
+            while (canImprove(forward, best) || canImprove(backward, best)) {
+                if (!canImprove(forwards ? forward : backward, best)) {
+                    forwards = !forwards; // Only the other side can still find a cheaper meeting
+                }
+                if (forwards) {
+                    int id = forward.poll();
+                    double cost = forwardDist[id] + backwardDist[id];
+                    if (cost < best) {
+                        best = cost;
+                        meet = id;
+                    }
+                    for (int arc = upOffsets[id]; arc < upOffsets[id + 1]; arc++) {
+                        double childCost = forwardDist[id] + arcWeight[arc];
+                        if (childCost < forwardDist[arcTo[arc]]) {
+                            reach(forwardDist, arcTo[arc], childCost);
+                            forwardArc[arcTo[arc]] = arc;
+                            forward.offer(arcTo[arc], childCost);
+                        }
+                    }
+                } else {
+                    int id = backward.poll();
+                    double cost = forwardDist[id] + backwardDist[id];
+                    if (cost < best) {
+                        best = cost;
+                        meet = id;
+                    }
+                    for (int arc = downOffsets[id]; arc < downOffsets[id + 1]; arc++) {
+                        double parentCost = backwardDist[id] + arcWeight[arc];
+                        if (parentCost < backwardDist[arcFrom[arc]]) {
+                            reach(backwardDist, arcFrom[arc], parentCost);
+                            backwardArc[arcFrom[arc]] = arc;
+                            backward.offer(arcFrom[arc], parentCost);
+                        }
+                    }
+                }
+                forwards = !forwards;
+            }
+            return meet;
+        }
+
+        /*
+         * Returns if heap still holds a node closer than best, so the search may still improve it
+         */
+        private boolean canImprove(IndexedMinHeap heap, double best) {
+            return !heap.isEmpty() && heap.peekKey() < best;
+        }
+
+        /*
+         * Sets dist[id] to cost, noting id so reset can undo it
+         */
+        private void reach(double[] dist, int id, double cost) {
+            if (forwardDist[id] == Double.POSITIVE_INFINITY && backwardDist[id] == Double.POSITIVE_INFINITY) {
+                touched.add(id);
+            }
+            dist[id] = cost;
+        }
+
+        /*
+         * Makes the arrays ready for the next query
+         */
+        private void reset() {
+            for (int id : touched) {
+                forwardDist[id] = Double.POSITIVE_INFINITY;
+                backwardDist[id] = Double.POSITIVE_INFINITY;
+            }
+            touched.clear();
+            forward.clear();
+            backward.clear();
+        }
+    }
+
+    /*
+     * An edge or shortcut while the graph is being contracted, kept in the outgoing list of
+     * from and the incoming list of to, so that lowering its weight changes both
+     */
+    private static class Arc {
+        private final int from;
+        private final int to;
+        private double weight;
+        private int middle; // node id it skips, or -1 for an edge of the graph
+
+        private Arc(int from, int to, double weight, int middle) {
+            this.from = from;
+            this.to = to;
+            this.weight = weight;
+            this.middle = middle;
+        }
+    }
+
+    /*
+     * Contracts the nodes of a graph one at a time, always taking the one that looks cheapest
+     * to contract next: the fewest shortcuts added for arcs taken away, plus the number of its
+     * neighbours already contracted, to spread contraction evenly over the graph
+     */
+    private static class Contractor {
+        private final WeightedIntGraph<Point> graph;
+        private final List<List<Arc>> outArcs = new ArrayList<>(); // node id -> arcs leaving it
+        private final List<List<Arc>> inArcs = new ArrayList<>(); // node id -> arcs entering it
+        private final boolean[] contracted;
+        private final int[] contractedNeighbours;
+        private final int[] rank;
+        private int shortcutCount = 0;
+        // Witness search arrays, reset after every search
+        private final double[] witnessDist;
+        private final IndexedMinHeap witnessHeap;
+        private final List<Integer> witnessTouched = new ArrayList<>();
+
+        private Contractor(WeightedIntGraph<Point> graph) {
+            this.graph = graph;
+            int size = graph.size();
+            for (int id = 0; id < size; id++) {
+                outArcs.add(new ArrayList<>());
+                inArcs.add(new ArrayList<>());
+            }
+            contracted = new boolean[size];
+            contractedNeighbours = new int[size];
+            rank = new int[size];
+            witnessDist = new double[size];
+            Arrays.fill(witnessDist, Double.POSITIVE_INFINITY);
+            witnessHeap = new IndexedMinHeap(size);
+            for (int id = 0; id < size; id++) {
+                for (int edge = graph.firstEdge(id); edge < graph.endEdge(id); edge++) {
+                    if (graph.target(edge) != id) { // Reflexive edges never shorten a path
+                        addArc(id, graph.target(edge), graph.weight(edge), -1);
+                    }
+                }
+            }
+        }
+
+        /*
+         * Contracts every node and packs the arcs left into a ContractionHierarchy
+         */
+        private ContractionHierarchy contractAll(long graphVersion) {
+            int size = graph.size();
+            IndexedMinHeap order = new IndexedMinHeap(size);
+            for (int id = 0; id < size; id++) {
+                order.offer(id, priority(id));
+            }
+            int next = 0;
+            while (!order.isEmpty()) {
+                int id = order.poll();
+                double updated = priority(id); // Neighbours contracted since may have changed it
+                if (!order.isEmpty() && updated > order.peekKey()) {
+                    order.offer(id, updated); // Not the cheapest after all, so try again later
+                    continue;
+                }
+                contract(id);
+                rank[id] = next++;
+            }
+            return pack(graphVersion);
+        }
+
+        /*
+         * Returns how cheap contracting id looks now; lower is contracted sooner
+         */
+        private double priority(int id) {
+            int removed = 0;
+            for (Arc arc : outArcs.get(id)) {
+                removed += contracted[arc.to] ? 0 : 1;
+            }
+            for (Arc arc : inArcs.get(id)) {
+                removed += contracted[arc.from] ? 0 : 1;
+            }
+            return shortcuts(id, false) - removed + contractedNeighbours[id];
+        }
+
+        /*
+         * Takes id out of the remaining graph, adding the shortcuts it needs
+         */
+        private void contract(int id) {
+            shortcuts(id, true);
+            contracted[id] = true;
+            for (Arc arc : outArcs.get(id)) {
+                contractedNeighbours[arc.to]++;
+            }
+            for (Arc arc : inArcs.get(id)) {
+                contractedNeighbours[arc.from]++;
+            }
+        }
+
+        /*
+         * Returns the number of shortcuts contracting id needs: one from u to w for every
+         * remaining u -> id -> w with no path from u to w around id that costs no more.  Adds
+         * them too if add.
+         */
+        private int shortcuts(int id, boolean add) {
+            int count = 0;
+            for (Arc in : inArcs.get(id)) {
+                if (contracted[in.from]) {
+                    continue;
+                }
+                double maxCost = 0;
+                for (Arc out : outArcs.get(id)) {
+                    if (!contracted[out.to] && out.to != in.from) {
+                        maxCost = Math.max(maxCost, in.weight + out.weight);
+                    }
+                }
+                witnessSearch(in.from, id, maxCost);
+                for (Arc out : outArcs.get(id)) {
+                    if (!contracted[out.to] && out.to != in.from
+                            && witnessDist[out.to] > in.weight + out.weight) { // No witness
+                        count++;
+                        if (add) {
+                            addArc(in.from, out.to, in.weight + out.weight, id);
+                        }
+                    }
+                }
+                resetWitness();
+            }
+            return count;
+        }
+
+        /*
+         * Finds the costs of paths from source among the remaining nodes other than skipped,
+         * up to maxCost, in witnessDist.  Gives up after a few hundred nodes, which can only
+         * leave costs too high, never too low.
+         */
+        private void witnessSearch(int source, int skipped, double maxCost) {
+            witnessDist[source] = 0.0;
+            witnessTouched.add(source);
+            witnessHeap.offer(source, 0.0);
+            int settled = 0;
+            while (!witnessHeap.isEmpty() && witnessHeap.peekKey() <= maxCost
+                    && settled < WITNESS_SETTLE_LIMIT) {
+                int id = witnessHeap.poll();
+                settled++;
+                for (Arc arc : outArcs.get(id)) {
+                    if (contracted[arc.to] || arc.to == skipped) {
+                        continue;
+                    }
+                    double cost = witnessDist[id] + arc.weight;
+                    if (cost < witnessDist[arc.to]) {
+                        if (witnessDist[arc.to] == Double.POSITIVE_INFINITY) {
+                            witnessTouched.add(arc.to);
+                        }
+                        witnessDist[arc.to] = cost;
+                        witnessHeap.offer(arc.to, cost);
+                    }
+                }
+            }
+        }
+
+        /*
+         * Makes the witness arrays ready for the next search
+         */
+        private void resetWitness() {
+            for (int id : witnessTouched) {
+                witnessDist[id] = Double.POSITIVE_INFINITY;
+            }
+            witnessTouched.clear();
+            witnessHeap.clear();
+        }
+
+        /*
+         * Adds an arc from -> to, or lowers the weight of the one already there if this is cheaper
+         */
+        private void addArc(int from, int to, double weight, int middle) {
+            for (Arc arc : outArcs.get(from)) {
+                if (arc.to == to) {
+                    if (weight < arc.weight) {
+                        arc.weight = weight;
+                        shortcutCount += (arc.middle == -1 && middle != -1) ? 1 : 0;
+                        arc.middle = middle;
+                    }
+                    return;
+                }
+            }
+            Arc arc = new Arc(from, to, weight, middle);
+            outArcs.get(from).add(arc);
+            inArcs.get(to).add(arc);
+            shortcutCount += (middle == -1) ? 0 : 1;
+        }
+
+        /*
+         * Packs every arc into the arrays of a ContractionHierarchy: each node's arcs up to a
+         * higher rank, then each node's arcs down from a higher rank
+         */
+        private ContractionHierarchy pack(long graphVersion) {
+            int size = graph.size();
+            List<Arc> arcs = new ArrayList<>();
+            int[] upOffsets = new int[size + 1];
+            for (int id = 0; id < size; id++) {
+                upOffsets[id] = arcs.size();
+                for (Arc arc : outArcs.get(id)) {
+                    if (rank[arc.to] > rank[id]) {
+                        arcs.add(arc);
+                    }
+                }
+            }
+            upOffsets[size] = arcs.size();
+            int[] downOffsets = new int[size + 1];
+            for (int id = 0; id < size; id++) {
+                downOffsets[id] = arcs.size();
+                for (Arc arc : inArcs.get(id)) {
+                    if (rank[arc.from] > rank[id]) {
+                        arcs.add(arc);
+                    }
+                }
+            }
+            downOffsets[size] = arcs.size();
+            int[] arcFrom = new int[arcs.size()];
+            int[] arcTo = new int[arcs.size()];
+            double[] arcWeight = new double[arcs.size()];
+            int[] arcMiddle = new int[arcs.size()];
+            for (int i = 0; i < arcs.size(); i++) {
+                Arc arc = arcs.get(i);
+                arcFrom[i] = arc.from;
+                arcTo[i] = arc.to;
+                arcWeight[i] = arc.weight;
+                arcMiddle[i] = arc.middle;
+            }
+            return new ContractionHierarchy(graph, upOffsets, downOffsets, arcFrom, arcTo, arcWeight,
+                    arcMiddle, shortcutCount, graphVersion);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package pathfinder;
+
+import graph.Edge;
+import graph.Graph;
+import graph.Node;
+import pathfinder.datastructures.Point;
+
+/*
+ * Guesses the cost between two Points as the straight-line distance between them, times a
+ * scale.  This is admissible and consistent for a graph when no edge costs less than scale
+ * times the straight-line length between its ends, by the triangle inequality.
+ */
+public class EuclideanHeuristic implements Heuristic<Point> {
+    private final double scale; // cost per unit of straight-line distance
+
+    /*
+     * Where the AF would go: estimate(a, b) = scale * |a - b|
+     * Where the rep invariant would go: scale is finite and at least 0
+     */
+
+    /*
+     * @param scale the cost per unit of straight-line distance
+     * @throws IllegalArgumentException if scale is negative, infinite or NaN
+     */
+    public EuclideanHeuristic(double scale) {
+        if (!Double.isFinite(scale) || scale < 0) {
+            throw new IllegalArgumentException("scale must be finite and not negative");
+        }
+        this.scale = scale;
+    }
+
+    /*
+     * Returns the heuristic with the largest scale that is still admissible for graph: the
+     * lowest ratio of edge cost to straight-line edge length over all edges of graph.
+     * @spec.requires graph non null with no negative edge costs
+     * @param graph the graph the heuristic will be used on
+     * @return the tightest admissible EuclideanHeuristic for graph, scale 0 if graph has no
+     *         edges of positive length
+     */
+    public static EuclideanHeuristic forGraph(Graph<Point, Double> graph) {
+        double minScale = Double.POSITIVE_INFINITY;
+        for (Node<Point> node : graph.listNodes()) {
+            for (Edge<Point, Double> edge : graph.listChildren(node, false)) {
+                double length = distance(edge.getStart().getData(), edge.getEnd().getData());
+                if (length > 0) { // Zero-length edges put no limit on the scale
+                    minScale = Math.min(minScale, edge.getLabel() / length);
+                }
+            }
+        }
+        return new EuclideanHeuristic(Double.isInfinite(minScale) ? 0 : minScale);
+    }
+
+    /*
+     * Returns a heuristic that is still admissible after edge is added to the graph this one
+     * was fitted to: this one, or a lower scale if edge costs less than this one guesses.
+     * @spec.requires edge non null with a cost that is not negative
+     * @param edge the edge being added
+     * @return an EuclideanHeuristic admissible for the graph with edge added
+     */
+    public EuclideanHeuristic admitting(Edge<Point, Double> edge) {
+        double length = distance(edge.getStart().getData(), edge.getEnd().getData());
+        if (length == 0 || edge.getLabel() >= scale * length) {
+            return this;
+        }
+        return new EuclideanHeuristic(edge.getLabel() / length);
+    }
+
+    /*
+     * @return the cost per unit of straight-line distance
+     */
+    public double getScale() {
+        return scale;
+    }
+
+    @Override
+    public double estimate(Node<Point> node, Node<Point> goal) {
+        return scale * distance(node.getData(), goal.getData());
+    }
+
+    /*
+     * Returns the straight-line distance between the points a and b
+     */
+    private static double distance(Point a, Point b) {
+        return Math.hypot(a.getX() - b.getX(), a.getY() - b.getY());
+    }
+}
@@ -13,7 +13,10 @@ package pathfinder;
 
 import graph.DirectedGraph;
 import graph.Edge;
+import graph.Graph;
 import graph.Node;
+import graph.WeightedIntGraph;
+import pathfinder.datastructures.IndexedMinHeap;
 import pathfinder.datastructures.Path;
 
 import java.util.*;
@@ -22,7 +25,26 @@ import java.util.*;
  * This class is a creation just to test the algorithm generically of the Dijkstra algo
  */
 public class GenericDijkstra<PathType> {
-    private DirectedGraph<PathType, Double> graph = new DirectedGraph<>();
+    private Graph<PathType, Double> graph = new DirectedGraph<>();
+    private SearchMode mode = SearchMode.PARENT_POINTERS;
+    private int settledCount = 0;
+    // Scratch arrays for searches on a WeightedIntGraph, kept between calls on graphs of one size
+    private double[] intDist = new double[0];
+    private int[] intPrev = new int[0];
+    private int[] intPrevEdge = new int[0];
+    private boolean[] intFinished = new boolean[0];
+    private IndexedMinHeap intActive = new IndexedMinHeap(0);
+
+    /*
+     * How findShortestPath keeps track of the paths it has found so far
+     */
+    public enum SearchMode {
+        // Queue whole Paths, extending (copying) a path for every edge relaxed
+        COPY_PATHS,
+        // Keep a distance and a parent per node in arrays with an indexed heap,
+        // and build the one Path that is returned at the end
+        PARENT_POINTERS
+    }
 
     /*
      *  Where the AF would go, but this isn't an ADT bc we are using as a program
@@ -30,58 +52,381 @@ public class GenericDijkstra<PathType> {
      */
 
     /*
-     * Sets the DirectedGraph being used to find data from
+     * Sets the graph being used to find data from, ex: a DirectedGraph or its freeze()
      * @param newGraph
      */
-    public void setCampusGraph(DirectedGraph<PathType, Double> newGraph) {
+    public void setCampusGraph(Graph<PathType, Double> newGraph) {
         graph = newGraph;
     }
 
+    /*
+     * Sets how findShortestPath searches; both modes give the same paths
+     * @param newMode the search mode to use from now on, PARENT_POINTERS by default
+     */
+    public void setSearchMode(SearchMode newMode) {
+        mode = newMode;
+    }
+
+    /*
+     * @return the number of nodes settled (taken off the queue for the first time) by the
+     *         last call to findShortestPath
+     */
+    public int getSettledCount() {
+        return settledCount;
+    }
+
     /*
      * @spec.requires nodes given to be valid in graph and non null
      * @param startNode the node where the path starts
      * @param endNode the node where the path ends
-     * @return
+     * @return the lowest-cost path from startNode to endNode, or null if there is none
      */
     public Path<Node<PathType>> findShortestPath(Node<PathType> startNode, Node<PathType> endNode) {
         boolean notValidName = (startNode == null || endNode == null);
         if (notValidName) {
             throw new IllegalArgumentException();
-        } else { // Is valid, can try to find shortest path
-            Node<PathType> start = startNode;
-            Node<PathType> dest = endNode;
-            PriorityQueue<Path<Node<PathType>>> nodeActivePaths =
-                    new PriorityQueue<>(new PathComp());
-            Set<Node<PathType>> finishedMinNodes = new HashSet<>();
-
-            nodeActivePaths.add(new Path<Node<PathType>>(start)); // Path to itself, start
-
-            while (!nodeActivePaths.isEmpty()) { // While still have paths to find
-                // minPath is the lowest-cost path in active and,
-                // if minDest isn't already 'finished,' is the
-                // minimum-cost path to the node minDest -- from spec algorithm
-                Path<Node<PathType>> minPath = nodeActivePaths.remove();
-                Node<PathType> minDest = minPath.getEnd();
-                if (minDest.equals(dest)) { // Reached min path dest
-                    return minPath;
+        }
+        settledCount = 0;
+        if (mode == SearchMode.COPY_PATHS) { // Is valid, can try to find shortest path
+            return findByCopyingPaths(startNode, endNode);
+        } else { // Otherwise use parent pointers
+            return findByParentPointers(startNode, endNode);
+        }
+    }
+
+    /*
+     * Finds the shortest path on a WeightedIntGraph instead of the graph set by setCampusGraph.
+     * Nodes are ids, edge weights are read from primitive arrays and the search state is kept
+     * in arrays reused between calls, so no weight or id is boxed while searching.  Gives the
+     * same paths as the PARENT_POINTERS mode on the graph intGraph was packed from.
+     * @spec.requires nodes given to be non null
+     * @param intGraph the graph to search
+     * @param startNode the node where the path starts
+     * @param endNode the node where the path ends
+     * @return the lowest-cost path from startNode to endNode, or null if there is none or if
+     *         either node is not in intGraph
+     */
+    public Path<Node<PathType>> findShortestPath(WeightedIntGraph<PathType> intGraph,
+                                                 Node<PathType> startNode, Node<PathType> endNode) {
+        if (startNode == null || endNode == null) {
+            throw new IllegalArgumentException();
+        }
+        settledCount = 0;
+        int startId = intGraph.idOf(startNode.getData());
+        int endId = intGraph.idOf(endNode.getData());
+        if (startId == -1 || endId == -1) {
+            return null; // Not in the graph, so no path
+        }
+        searchInts(intGraph, startId, endId);
+        return intFinished[endId] ? buildIntPath(intGraph, startId, endId) : null;
+    }
+
+    /*
+     * Finds the shortest paths from startNode to every node of intGraph at once, as a tree: for
+     * each node id, the index of the last edge on its shortest path from startNode.  Following
+     * these edges back, with WeightedIntGraph#source, leads to startNode.
+     * @spec.requires startNode is non null and in intGraph
+     * @param intGraph the graph to search
+     * @param startNode the node where every path starts
+     * @return a new array, indexed by node id, of the edge index reaching each node on its
+     *         shortest path from startNode, or -1 for startNode and for nodes it cannot reach
+     */
+    public int[] shortestPathTree(WeightedIntGraph<PathType> intGraph, Node<PathType> startNode) {
+        int startId = intGraph.idOf(startNode.getData());
+        if (startId == -1) {
+            throw new IllegalArgumentException("start is not in the graph");
+        }
+        settledCount = 0;
+        searchInts(intGraph, startId, -1);
+        int[] tree = new int[intGraph.size()];
+        for (int id = 0; id < tree.length; id++) {
+            tree[id] = (intFinished[id] && id != startId) ? intPrevEdge[id] : -1;
+        }
+        return tree;
+    }
+
+    /*
+     * Dijkstra's algorithm on intGraph from startId, stopping once endId is settled, or once
+     * every reachable node is if endId is -1.  Leaves the distances, parents and settled nodes
+     * in the scratch arrays.
+     */
+    private void searchInts(WeightedIntGraph<PathType> intGraph, int startId, int endId) {
+        int capacity = intGraph.size();
+        if (intDist.length != capacity) { // New size of graph, so new scratch arrays
+            intDist = new double[capacity];
+            intPrev = new int[capacity];
+            intPrevEdge = new int[capacity];
+            intFinished = new boolean[capacity];
+            intActive = new IndexedMinHeap(capacity);
+        }
+        Arrays.fill(intDist, Double.POSITIVE_INFINITY);
+        Arrays.fill(intFinished, false);
+        intActive.clear();
+
+        intDist[startId] = 0;
+        intPrev[startId] = -1;
+        intActive.offer(startId, 0.0); // Path to itself, start
+        while (!intActive.isEmpty()) { // While still have paths to find
+            double minCost = intActive.peekKey();
+            int minId = intActive.poll();
+            intFinished[minId] = true;
+            settledCount++;
+            if (minId == endId) { // Reached min path dest
+                return;
+            }
+            for (int edge = intGraph.firstEdge(minId); edge < intGraph.endEdge(minId); edge++) {
+                int childId = intGraph.target(edge);
+                double childCost = minCost + intGraph.weight(edge);
+                if (!intFinished[childId] && childCost < intDist[childId]) { // Found a cheaper way to child
+                    intDist[childId] = childCost;
+                    intPrev[childId] = minId;
+                    intPrevEdge[childId] = edge;
+                    intActive.offer(childId, childCost);
                 }
-                if (finishedMinNodes.contains(minDest)) { // min dest is in finished
-                    continue;
+            }
+        }
+    }
+
+    /*
+     * Returns the path from startId to endId on intGraph, following intPrev
+     */
+    private Path<Node<PathType>> buildIntPath(WeightedIntGraph<PathType> intGraph, int startId, int endId) {
+        int length = 0;
+        for (int id = endId; id != startId; id = intPrev[id]) {
+            length++;
+        }
+        int[] ids = new int[length + 1]; // Ids along the path, start first
+        ids[0] = startId;
+        for (int i = length, id = endId; i > 0; i--, id = intPrev[id]) {
+            ids[i] = id;
+        }
+        Path<Node<PathType>> path = new Path<>(new Node<>(intGraph.dataOf(startId)));
+        for (int i = 1; i < ids.length; i++) { // Extend from the start onwards
+            path = path.extend(new Node<>(intGraph.dataOf(ids[i])), intGraph.weight(intPrevEdge[ids[i]]));
+        }
+        return path;
+    }
+
+    /*
+     * Dijkstra's algorithm over a priority queue of whole paths
+     */
+    private Path<Node<PathType>> findByCopyingPaths(Node<PathType> startNode, Node<PathType> endNode) {
+        Node<PathType> start = startNode;
+        Node<PathType> dest = endNode;
+        PriorityQueue<Path<Node<PathType>>> nodeActivePaths =
+                new PriorityQueue<>(new PathComp());
+        Set<Node<PathType>> finishedMinNodes = new HashSet<>();
+
+        nodeActivePaths.add(new Path<Node<PathType>>(start)); // Path to itself, start
+
+        while (!nodeActivePaths.isEmpty()) { // While still have paths to find
+            // minPath is the lowest-cost path in active and,
+            // if minDest isn't already 'finished,' is the
+            // minimum-cost path to the node minDest -- from spec algorithm
+            Path<Node<PathType>> minPath = nodeActivePaths.remove();
+            Node<PathType> minDest = minPath.getEnd();
+            if (finishedMinNodes.contains(minDest)) { // min dest is in finished
+                continue;
+            }
+            settledCount++;
+            if (minDest.equals(dest)) { // Reached min path dest
+                return minPath;
+            }
+            // For all children edges of minDest, visited in place without copying them
+            graph.forEachChild(minDest, false, edge -> {
+                Node<PathType> child = edge.getEnd();
+                if (!finishedMinNodes.contains(child)) { // If child not in finished min nodes
+                    Path<Node<PathType>> newPath = // minPath + this child's edge
+                            minPath.extend(child, edge.getLabel());
+                    nodeActivePaths.add(newPath);
                 }
-                // For all children edges of minDest
-                for (Edge<PathType, Double> edge : graph.listChildren(minDest, false)) {
-                    Node<PathType> child = edge.getEnd();
-                    if (!finishedMinNodes.contains(child)) { // If child not in finished min nodes
-                        Path<Node<PathType>> newPath = // minPath + this child's edge
-                                minPath.extend(child, edge.getLabel());
-                        nodeActivePaths.add(newPath);
+            });
+            finishedMinNodes.add(minDest);
+        }
+        // loop terminated
+        return null; // no path exists
+    }
+
+    /*
+     * Dijkstra's algorithm that numbers nodes as it reaches them, keeps the best known distance,
+     * parent and last edge cost of each number in arrays, and follows the parents back from
+     * endNode to build its path once.  Only strictly shorter paths replace a node's parent.
+     */
+    private Path<Node<PathType>> findByParentPointers(Node<PathType> startNode, Node<PathType> endNode) {
+        ShortestPathTree<PathType> tree = new ShortestPathTree<>(startNode, graph.size());
+        settledCount += tree.settle(graph, Collections.singleton(endNode));
+        return tree.pathTo(endNode);
+    }
+
+    /*
+     * Finds the shortest paths from one start to many ends with a single search, using the
+     * PARENT_POINTERS mode whatever the mode is set to.  The search stops once every end is
+     * settled, and each path is the same one findShortestPath in that mode gives for its end.
+     * @spec.requires startNode and endNodes are not null and hold no null
+     * @param startNode the node where the paths start
+     * @param endNodes the nodes where the paths end
+     * @return a map from each of endNodes to the lowest-cost path to it from startNode, or to
+     *         null if there is none
+     */
+    public Map<Node<PathType>, Path<Node<PathType>>> findShortestPaths(Node<PathType> startNode,
+                                                                      Collection<Node<PathType>> endNodes) {
+        if (startNode == null || endNodes == null) {
+            throw new IllegalArgumentException();
+        }
+        settledCount = 0;
+        ShortestPathTree<PathType> tree = new ShortestPathTree<>(startNode, graph.size());
+        settledCount += tree.settle(graph, new HashSet<>(endNodes));
+        Map<Node<PathType>, Path<Node<PathType>>> paths = new HashMap<>();
+        for (Node<PathType> endNode : endNodes) {
+            paths.put(endNode, tree.pathTo(endNode));
+        }
+        return paths;
+    }
+
+    /*
+     * Finds the shortest paths from one start to every node it can reach with a single search,
+     * using the PARENT_POINTERS mode whatever the mode is set to.  No Path is built until one is
+     * asked of the tree returned.
+     * @spec.requires startNode is not null
+     * @param startNode the node where the paths start
+     * @return the tree of shortest paths from startNode, with every reachable node settled
+     */
+    public ShortestPathTree<PathType> shortestPathsFrom(Node<PathType> startNode) {
+        if (startNode == null) {
+            throw new IllegalArgumentException();
+        }
+        settledCount = 0;
+        ShortestPathTree<PathType> tree = new ShortestPathTree<>(startNode, graph.size());
+        settledCount += tree.settle(graph, null);
+        return tree;
+    }
+
+    /*
+     * Finds up to k lowest-cost loopless paths from startNode to endNode, cheapest first, with
+     * Yen's algorithm: each next path leaves some earlier path at a spur node, and runs the
+     * cheapest way from there to endNode that neither goes back through the earlier path's
+     * nodes before the spur nor leaves the spur by an edge another path with the same start
+     * already took.  With Lawler's refinement, a path only spurs from where it left the path it
+     * came from onwards, as every spur before that was already tried for that path, so each
+     * spur search is done once.  Uses the PARENT_POINTERS mode whatever the mode is set to.
+     * @spec.requires startNode and endNode are not null, k > 0
+     * @param startNode the node where the paths start
+     * @param endNode the node where the paths end
+     * @param k the most paths to find
+     * @return the k lowest-cost distinct paths from startNode to endNode with no node twice,
+     *         cheapest first, or all of them if there are fewer; empty if there is no path
+     */
+    public List<Path<Node<PathType>>> findKShortestPaths(Node<PathType> startNode, Node<PathType> endNode,
+                                                         int k) {
+        if (startNode == null || endNode == null || k <= 0) {
+            throw new IllegalArgumentException();
+        }
+        settledCount = 0;
+        List<Path<Node<PathType>>> found = new ArrayList<>();
+        List<List<Node<PathType>>> foundNodes = new ArrayList<>(); // the nodes of each path found
+        List<Integer> deviations = new ArrayList<>(); // where each path left the one it came from
+        Path<Node<PathType>> first = findByParentPointers(startNode, endNode);
+        if (first == null) {
+            return found; // no path exists
+        }
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>();
+        Set<List<Node<PathType>>> seen = new HashSet<>(); // nodes of every path found or queued
+        Candidate next = new Candidate(first, 0);
+        seen.add(nodesOf(first));
+        while (next != null) {
+            found.add(next.path);
+            foundNodes.add(nodesOf(next.path));
+            deviations.add(next.deviation);
+            if (found.size() == k) {
+                break;
+            }
+            List<Node<PathType>> nodes = foundNodes.get(foundNodes.size() - 1);
+            List<Path<Node<PathType>>.Segment> segments = new ArrayList<>();
+            next.path.forEach(segments::add);
+            Path<Node<PathType>> root = new Path<>(startNode); // nodes[0..spur], grown one at a time
+            for (int i = 0; i < next.deviation; i++) {
+                root = root.extend(segments.get(i).getEnd(), segments.get(i).getCost());
+            }
+            Set<Node<PathType>> avoid = new HashSet<>(nodes.subList(0, next.deviation));
+            for (int spur = next.deviation; spur < segments.size(); spur++) {
+                Set<Node<PathType>> avoidFromSpur = new HashSet<>();
+                for (List<Node<PathType>> other : foundNodes) { // Paths along the same root
+                    if (other.size() > spur + 1 && other.subList(0, spur + 1).equals(nodes.subList(0, spur + 1))) {
+                        avoidFromSpur.add(other.get(spur + 1));
                     }
                 }
-                finishedMinNodes.add(minDest);
+                ShortestPathTree<PathType> tree = new ShortestPathTree<>(nodes.get(spur), graph.size());
+                settledCount += tree.settle(graph, Collections.singleton(endNode), avoid, avoidFromSpur);
+                Path<Node<PathType>> spurPath = tree.pathTo(endNode);
+                if (spurPath != null) {
+                    Path<Node<PathType>> candidate = root;
+                    for (Path<Node<PathType>>.Segment segment : spurPath) {
+                        candidate = candidate.extend(segment.getEnd(), segment.getCost());
+                    }
+                    if (seen.add(nodesOf(candidate))) {
+                        candidates.add(new Candidate(candidate, spur));
+                    }
+                }
+                avoid.add(nodes.get(spur)); // The root grows past this spur
+                root = root.extend(segments.get(spur).getEnd(), segments.get(spur).getCost());
             }
-            // loop terminated
-            return null; // no path exists
+            next = candidates.poll();
+        }
+        return found;
+    }
+
+    /*
+     * Returns the nodes along path, start first
+     */
+    private List<Node<PathType>> nodesOf(Path<Node<PathType>> path) {
+        List<Node<PathType>> nodes = new ArrayList<>();
+        nodes.add(path.getStart());
+        for (Path<Node<PathType>>.Segment segment : path) {
+            nodes.add(segment.getEnd());
+        }
+        return nodes;
+    }
+
+    /*
+     * A path Yen's algorithm may take next, and the index of the node where it left the path
+     * it was found from, ordered by cost and then by fewest segments
+     */
+    private class Candidate implements Comparable<Candidate> {
+        private final Path<Node<PathType>> path;
+        private final int deviation;
+        private final int length;
+
+        private Candidate(Path<Node<PathType>> path, int deviation) {
+            this.path = path;
+            this.deviation = deviation;
+            int segments = 0;
+            for (Path<Node<PathType>>.Segment ignored : path) {
+                segments++;
+            }
+            this.length = segments;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            int byCost = Double.compare(path.getCost(), other.path.getCost());
+            return (byCost != 0) ? byCost : Integer.compare(length, other.length);
+        }
+    }
+
+    /*
+     * Returns the path from the node numbered 0 to the node numbered endId, following prev
+     */
+    static <T> Path<Node<T>> buildPath(List<Node<T>> nodes, int[] prev, double[] prevCost, int endId) {
+        List<Integer> reversed = new ArrayList<>();
+        for (int id = endId; id != -1; id = prev[id]) {
+            reversed.add(id);
+        }
+        Path<Node<T>> path = new Path<>(nodes.get(0));
+        for (int i = reversed.size() - 2; i >= 0; i--) { // Extend from the start onwards
+            int id = reversed.get(i);
+            path = path.extend(nodes.get(id), prevCost[id]);
         }
+        return path;
     }
 
     // Comparator to work with at least Doubles
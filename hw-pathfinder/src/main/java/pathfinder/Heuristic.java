@@ -0,0 +1,20 @@
+package pathfinder;
+
+import graph.Node;
+
+/*
+ * A Heuristic guesses the cost of the cheapest path from a node to a goal node, for AStar
+ * to search towards the goal first.  AStar only finds lowest-cost paths if the guess never
+ * overestimates the real cost (admissible) and, for every edge u to v, the guess at u is at
+ * most the edge cost plus the guess at v (consistent).
+ */
+public interface Heuristic<PathType> {
+
+    /*
+     * @spec.requires node and goal non null
+     * @param node the node the path would start from
+     * @param goal the node the path would end at
+     * @return a guess, at least 0, of the lowest cost of any path from node to goal
+     */
+    double estimate(Node<PathType> node, Node<PathType> goal);
+}
@@ -0,0 +1,199 @@
+package pathfinder;
+
+import graph.Node;
+import graph.WeightedIntGraph;
+import pathfinder.datastructures.IndexedMinHeap;
+
+import java.util.Arrays;
+
+/*
+ * Guesses the cost between two nodes from the costs of the shortest paths to and from a few
+ * landmark nodes, worked out ahead of time (ALT: A*, landmarks and the triangle inequality).
+ * For a landmark L, a path from v to t costs at least d(L, t) - d(L, v), as going from L to v
+ * and then on to t costs no less than d(L, t), and likewise at least d(v, L) - d(t, L).  The
+ * guess is the largest of these over all landmarks, so it follows the paths actually walked
+ * rather than straight lines.  Landmarks are chosen farthest-point first: each one is the node
+ * furthest, there and back, from every landmark chosen before it, so they end up spread around
+ * the edges of the graph, where their bounds are tightest.  It is admissible and consistent
+ * for the graph it was built from, which must not change while it is used.
+ * There is a type parameter PathType representing the type of data stored in the nodes.
+ */
+public class LandmarkHeuristic<PathType> implements Heuristic<PathType> {
+    private final WeightedIntGraph<PathType> graph;
+    private final int[] landmarks; // landmark index -> its node id
+    private final double[][] fromLandmark; // landmark index -> node id -> cost from the landmark
+    private final double[][] toLandmark; // landmark index -> node id -> cost to the landmark
+    private final long graphVersion;
+
+    /*
+     * Where the AF would go: estimate(v, t) = max(0, max over landmarks l of
+     *      fromLandmark[l][t] - fromLandmark[l][v] and toLandmark[l][v] - toLandmark[l][t]),
+     *      leaving out every term with a node that cannot be reached, on version graphVersion
+     * Where the rep invariant would go: every landmark is a distinct node of graph, and
+     *      fromLandmark and toLandmark hold the shortest path costs in graph, infinite if none
+     */
+
+    /*
+     * Constructs a LandmarkHeuristic from its parts, which are not copied
+     */
+    private LandmarkHeuristic(WeightedIntGraph<PathType> graph, int[] landmarks, double[][] fromLandmark,
+                              double[][] toLandmark, long graphVersion) {
+        this.graph = graph;
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+        this.graphVersion = graphVersion;
+    }
+
+    /*
+     * Chooses landmarkCount landmarks of graph farthest-point first, and works out the costs
+     * to and from each of them, two searches per landmark.
+     * @spec.requires graph non null with no negative edge costs, landmarkCount >= 0
+     * @param graph the graph the heuristic will be used on
+     * @param landmarkCount how many landmarks to choose, or every node if graph has fewer
+     * @param graphVersion the version of the campus graph that graph was packed from
+     * @return a LandmarkHeuristic for graph
+     */
+    public static <PathType> LandmarkHeuristic<PathType> forGraph(WeightedIntGraph<PathType> graph,
+                                                                  int landmarkCount, long graphVersion) {
+        int size = graph.size();
+        int[] forwardOffsets = new int[size + 1]; // The edges of graph, and of graph reversed
+        int packedEdges = (size == 0) ? 0 : graph.endEdge(size - 1);
+        int[] forwardTargets = new int[packedEdges];
+        double[] forwardWeights = new double[packedEdges];
+        int[] backwardOffsets = new int[size + 1];
+        int edges = 0;
+        for (int id = 0; id < size; id++) {
+            forwardOffsets[id] = edges;
+            for (int edge = graph.firstEdge(id); edge < graph.endEdge(id); edge++) {
+                if (graph.target(edge) != id) { // Reflexive edges never shorten a path
+                    forwardTargets[edges] = graph.target(edge);
+                    forwardWeights[edges] = graph.weight(edge);
+                    backwardOffsets[graph.target(edge) + 1]++;
+                    edges++;
+                }
+            }
+        }
+        forwardOffsets[size] = edges;
+        for (int id = 0; id < size; id++) {
+            backwardOffsets[id + 1] += backwardOffsets[id];
+        }
+        int[] backwardTargets = new int[edges];
+        double[] backwardWeights = new double[edges];
+        int[] filled = Arrays.copyOf(backwardOffsets, size);
+        for (int id = 0; id < size; id++) {
+            for (int edge = forwardOffsets[id]; edge < forwardOffsets[id + 1]; edge++) {
+                int slot = filled[forwardTargets[edge]]++;
+                backwardTargets[slot] = id;
+                backwardWeights[slot] = forwardWeights[edge];
+            }
+        }
+
+        int count = Math.min(landmarkCount, size);
+        int[] landmarks = new int[count];
+        double[][] fromLandmark = new double[count][];
+        double[][] toLandmark = new double[count][];
+        double[] closest = new double[size]; // node id -> cost there and back to the closest landmark
+        Arrays.fill(closest, Double.POSITIVE_INFINITY);
+        if (count > 0) { // Start as far as can be from node 0, so no landmark sits in the middle
+            landmarks[0] = farthest(distances(forwardOffsets, forwardTargets, forwardWeights, 0), 0);
+        }
+        for (int i = 0; i < count; i++) {
+            fromLandmark[i] = distances(forwardOffsets, forwardTargets, forwardWeights, landmarks[i]);
+            toLandmark[i] = distances(backwardOffsets, backwardTargets, backwardWeights, landmarks[i]);
+            for (int id = 0; id < size; id++) {
+                closest[id] = Math.min(closest[id], fromLandmark[i][id] + toLandmark[i][id]);
+            }
+            if (i + 1 < count) {
+                landmarks[i + 1] = farthest(closest, landmarks[i]);
+            }
+        }
+        return new LandmarkHeuristic<>(graph, landmarks, fromLandmark, toLandmark, graphVersion);
+    }
+
+    /*
+     * @return the version of the campus graph this heuristic was built for
+     */
+    public long getGraphVersion() {
+        return graphVersion;
+    }
+
+    /*
+     * @return the number of landmarks chosen
+     */
+    public int getLandmarkCount() {
+        return landmarks.length;
+    }
+
+    /*
+     * @return the number of bytes held by the cost tables, not counting the graph
+     */
+    public long tableBytes() {
+        return 2L * landmarks.length * graph.size() * Double.BYTES;
+    }
+
+    /*
+     * @spec.requires node and goal non null, and the graph unchanged since this was built
+     * @return the largest lower bound the landmarks give on the cost from node to goal, or
+     *         0 if either is not in the graph
+     */
+    @Override
+    public double estimate(Node<PathType> node, Node<PathType> goal) {
+        int from = graph.idOf(node.getData());
+        int to = graph.idOf(goal.getData());
+        if (from == -1 || to == -1) {
+            return 0.0;
+        }
+        double best = 0.0;
+        for (int i = 0; i < landmarks.length; i++) {
+            double[] fromL = fromLandmark[i];
+            double[] toL = toLandmark[i];
+            if (fromL[from] != Double.POSITIVE_INFINITY && fromL[to] != Double.POSITIVE_INFINITY) {
+                best = Math.max(best, fromL[to] - fromL[from]);
+            }
+            if (toL[from] != Double.POSITIVE_INFINITY && toL[to] != Double.POSITIVE_INFINITY) {
+                best = Math.max(best, toL[from] - toL[to]);
+            }
+        }
+        return best;
+    }
+
+    /*
+     * Returns the node id with the highest cost, counting a cost that cannot be reached as
+     * highest of all, or fallback if every cost is 0
+     */
+    private static int farthest(double[] costs, int fallback) {
+        int farthest = fallback;
+        for (int id = 0; id < costs.length; id++) {
+            if (costs[id] > costs[farthest]) {
+                farthest = id;
+            }
+        }
+        return farthest;
+    }
+
+    /*
+     * Returns the cost of the shortest path from source to every node id over the edges
+     * offsets, targets and weights hold, infinite for nodes it cannot reach
+     */
+    private static double[] distances(int[] offsets, int[] targets, double[] weights, int source) {
+        double[] dist = new double[offsets.length - 1];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        boolean[] finished = new boolean[dist.length];
+        IndexedMinHeap active = new IndexedMinHeap(dist.length);
+        dist[source] = 0.0;
+        active.offer(source, 0.0);
+        while (!active.isEmpty()) {
+            int id = active.poll();
+            finished[id] = true;
+            for (int edge = offsets[id]; edge < offsets[id + 1]; edge++) {
+                double cost = dist[id] + weights[edge];
+                if (!finished[targets[edge]] && cost < dist[targets[edge]]) {
+                    dist[targets[edge]] = cost;
+                    active.offer(targets[edge], cost);
+                }
+            }
+        }
+        return dist;
+    }
+}
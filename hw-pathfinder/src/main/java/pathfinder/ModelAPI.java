@@ -16,6 +16,7 @@ import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
 import pathfinder.parser.CampusBuilding;
 
+import java.util.List;
 import java.util.Map;
 
 /*
@@ -73,4 +74,34 @@ public interface ModelAPI {
     // You'll need to change this return type to use the generic Path once you've
     // updated the Path ADT to be generic.
 
+    /**
+     * Finds the shortest paths, by distance, from one building to every building, with a single
+     * search rather than one findShortestPath call per building.  Paths are only built when
+     * asked for, so callers that only need distances should use the costs of the map returned.
+     *
+     * @param startShortName The short name of the building at the beginning of the paths.
+     * @return A map from the short name of every building reachable from {@code startBuilding},
+     * itself included, to the shortest path to it.
+     * @throws IllegalArgumentException if {@code startBuilding} is {@literal null}, or not a
+     *                                  valid short name of a building in this campus map.
+     */
+    public ShortestPathMap shortestPathsFrom(String startShortName);
+
+    /**
+     * Finds the shortest few different paths, by distance, between the two provided buildings,
+     * such as to offer alternate routes.  No path visits any location twice, and no two paths
+     * visit the same locations in the same order.
+     *
+     * @param startShortName The short name of the building at the beginning of these paths.
+     * @param endShortName   The short name of the building at the end of these paths.
+     * @param k              The most paths to find.
+     * @return The {@code k} shortest such paths between {@code startBuilding} and
+     * {@code endBuilding}, shortest first, or all of them if there are fewer; empty if there
+     * is no path.
+     * @throws IllegalArgumentException if {@code startBuilding} or {@code endBuilding} are
+     *                                  {@literal null}, or not valid short names of buildings in
+     *                                  this campus map, or if {@code k} is not positive.
+     */
+    public List<Path<Node<Point>>> findKShortestPaths(String startShortName, String endShortName, int k);
+
 }
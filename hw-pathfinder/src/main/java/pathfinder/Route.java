@@ -0,0 +1,47 @@
+package pathfinder;
+
+import graph.Node;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+/**
+ * This class represents the answer to one route query on a CampusMap: the shortest path found,
+ * and the number of the version of the campus graph it was found on.  Two routes with the same
+ * graph version were found on exactly the same set of campus paths.
+ */
+public class Route {
+    private final Path<Node<Point>> path;
+    private final long graphVersion;
+
+    /*
+     * Where the AF would go: the path found on version graphVersion of the campus graph
+     * Where the rep invariant would go: graphVersion >= 0
+     */
+
+    /**
+     * Constructs a Route.
+     * @param path the shortest path found, or null if there is none
+     * @param graphVersion the version of the campus graph that was searched
+     * @spec.requires graphVersion >= 0
+     */
+    public Route(Path<Node<Point>> path, long graphVersion) {
+        this.path = path;
+        this.graphVersion = graphVersion;
+    }
+
+    /**
+     * Returns the shortest path found.
+     * @return the path, or null if the two buildings were not connected in that version
+     */
+    public Path<Node<Point>> getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the version of the campus graph that answered this query.
+     * @return a long; larger for versions made by later changes to the campus paths
+     */
+    public long getGraphVersion() {
+        return graphVersion;
+    }
+}
@@ -0,0 +1,191 @@
+package pathfinder;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * This class represents a bounded cache of answered route queries, keyed by the short names of
+ * the two buildings and the search engine used.  When full, the least recently used route is
+ * evicted to make room, and routes older than the time to live are never given out.  Every
+ * route is tagged with the version of the campus paths it was found on, and is only given out
+ * while that version is still the latest, so a change to the paths can never be answered from
+ * the cache; clear() also drops everything at once.  Hits, misses, evictions, expirations and
+ * invalidations are counted, and can be read through stats().
+ * It is safe for many threads to use a RouteCache at once.
+ */
+public class RouteCache {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock; // current time in nanoseconds
+    private final LinkedHashMap<Key, Entry> entries; // in order of use, least recent first
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /*
+     * Where the AF would go: the routes entries.get(k).route for each key k, each answering k on
+     *      version entries.get(k).route.getGraphVersion() of the campus paths, least recently
+     *      used first
+     * Where the rep invariant would go: entries.size() <= maxSize, maxSize >= 0, ttlNanos > 0,
+     *      and entries is only used while holding its lock
+     */
+
+    /**
+     * Constructs a RouteCache that tells time with System.nanoTime().
+     * @param maxSize the most routes to hold at once, or 0 to hold none
+     * @param ttlMillis how long a route may be given out for after it was found, in milliseconds
+     * @spec.requires maxSize >= 0, ttlMillis > 0
+     * @spec.effects Constructs a new, empty RouteCache with all counters at 0.
+     */
+    public RouteCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, System::nanoTime);
+    }
+
+    /**
+     * Constructs a RouteCache that tells time with clock.
+     * @param maxSize the most routes to hold at once, or 0 to hold none
+     * @param ttlMillis how long a route may be given out for after it was found, in milliseconds
+     * @param clock gives the current time in nanoseconds
+     * @spec.requires maxSize >= 0, ttlMillis > 0, clock != null
+     * @spec.effects Constructs a new, empty RouteCache with all counters at 0.
+     */
+    public RouteCache(int maxSize, long ttlMillis, LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true); // access order, for LRU
+    }
+
+    /**
+     * Returns the cached route between two buildings, if it is still good.
+     * @param startShortName the short name of the building the route starts at
+     * @param endShortName the short name of the building the route ends at
+     * @param engine the search engine the route was found with
+     * @param graphVersion the latest version of the campus paths
+     * @spec.requires no argument is null
+     * @spec.effects Counts a hit or a miss.  Drops the cached route if it has expired or was
+     * found on an older version of the paths, and makes it the most recently used otherwise.
+     * @return the cached route, or null if there is no good one
+     */
+    public Route get(String startShortName, String endShortName, CampusMap.Engine engine, long graphVersion) {
+        Key key = new Key(startShortName, endShortName, engine);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.route.getGraphVersion() != graphVersion) { // Paths changed
+                entries.remove(key);
+                invalidations.increment();
+                entry = null;
+            } else if (entry != null && clock.getAsLong() - entry.foundAt >= ttlNanos) { // Too old
+                entries.remove(key);
+                expirations.increment();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.route;
+        }
+    }
+
+    /**
+     * Caches the route between two buildings.
+     * @param startShortName the short name of the building the route starts at
+     * @param endShortName the short name of the building the route ends at
+     * @param engine the search engine the route was found with
+     * @param route the route found
+     * @spec.requires no argument is null
+     * @spec.effects Holds route as the most recently used, replacing any route cached for the
+     * same buildings and engine, and evicts the least recently used routes while over size.
+     */
+    public void put(String startShortName, String endShortName, CampusMap.Engine engine, Route route) {
+        if (maxSize == 0) {
+            return; // Caching is off
+        }
+        Entry entry = new Entry(route, clock.getAsLong());
+        synchronized (entries) {
+            entries.put(new Key(startShortName, endShortName, engine), entry);
+            Iterator<Entry> oldest = entries.values().iterator();
+            while (entries.size() > maxSize) { // Least recently used come first
+                oldest.next();
+                oldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Drops every cached route, ex: when the campus paths change.
+     * @spec.effects Empties this cache, counting each route dropped as an invalidation.
+     */
+    public void clear() {
+        synchronized (entries) {
+            invalidations.add(entries.size());
+            entries.clear();
+        }
+    }
+
+    /**
+     * Returns the counters of this cache.
+     * @return a snapshot of the counters and size of this cache
+     */
+    public CacheStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(),
+                invalidations.sum(), size, maxSize);
+    }
+
+    /*
+     * The buildings and engine of one route query
+     */
+    private static final class Key {
+        private final String start;
+        private final String end;
+        private final CampusMap.Engine engine;
+        private final int hash;
+
+        private Key(String start, String end, CampusMap.Engine engine) {
+            this.start = start;
+            this.end = end;
+            this.engine = engine;
+            this.hash = (start.hashCode() * 31 + end.hashCode()) * 31 + engine.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return hash == other.hash && start.equals(other.start) && end.equals(other.end)
+                    && engine == other.engine;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /*
+     * A cached route and the time it was found at
+     */
+    private static final class Entry {
+        private final Route route;
+        private final long foundAt;
+
+        private Entry(Route route, long foundAt) {
+            this.route = route;
+            this.foundAt = foundAt;
+        }
+    }
+}
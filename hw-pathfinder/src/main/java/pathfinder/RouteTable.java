@@ -0,0 +1,320 @@
+package pathfinder;
+
+import graph.Node;
+import graph.WeightedIntGraph;
+import pathfinder.datastructures.IndexedMinHeap;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * This class represents the shortest routes from each of a set of starting locations, such as
+ * the campus buildings, to every location of one version of the campus graph, worked out ahead
+ * of time.  For each start it keeps a shortest path tree as a single int array: for every node
+ * id of a WeightedIntGraph, the index of the last edge on the shortest path to it.  Finding a
+ * route is then a walk back up a tree, with no search at all.
+ * When the weight of one path changes, or a path closes or opens again, withWeight repairs
+ * the trees instead of working them out again: a tree only changes where the shortest paths
+ * went along that edge, or where the edge now makes them shorter, and only those parts are
+ * searched again (after Ramalingam and Reps' dynamic shortest paths).
+ */
+public class RouteTable {
+    private final WeightedIntGraph<Point> graph;
+    private final Map<Point, Integer> starts; // start location -> index of its tree
+    private final int[][] trees; // tree index -> node id -> edge reaching it, -1 if none
+    private final double[][] costs; // tree index -> node id -> cost from the start, infinite if none
+    private final int[] inOffsets; // node id -> first slot of its incoming edges in inEdges
+    private final int[] inEdges; // slot -> index of an edge of graph, grouped by the node it ends at
+    private final long graphVersion;
+
+    /*
+     * Where the AF would go: for every start s, the shortest route from s to a location e is
+     *      the path that follows trees[starts.get(s)] back from e to s, and costs
+     *      costs[starts.get(s)][id of e]
+     * Where the rep invariant would go: every tree has graph.size() entries, each -1 or an
+     *      edge of graph ending at that entry's node, and no edge of a tree is closed
+     */
+
+    /*
+     * Constructs a RouteTable from its parts, which are not copied
+     */
+    private RouteTable(WeightedIntGraph<Point> graph, Map<Point, Integer> starts, int[][] trees,
+                       double[][] costs, int[] inOffsets, int[] inEdges, long graphVersion) {
+        this.graph = graph;
+        this.starts = starts;
+        this.trees = trees;
+        this.costs = costs;
+        this.inOffsets = inOffsets;
+        this.inEdges = inEdges;
+        this.graphVersion = graphVersion;
+    }
+
+    /**
+     * Works out the shortest path tree of every start on graph, one single-source search per
+     * start, split between the workers of pool.
+     * @param graph the graph to search
+     * @param startLocations the locations routes may start from
+     * @param graphVersion the version of the campus graph that graph was packed from
+     * @param pool where to run the searches
+     * @spec.requires no argument is null, and every start location is in graph
+     * @return a RouteTable of the routes from every start location
+     * @throws IllegalStateException if the searches are interrupted
+     */
+    public static RouteTable build(WeightedIntGraph<Point> graph, Collection<Point> startLocations,
+                                   long graphVersion, ForkJoinPool pool) {
+        List<Point> distinct = new ArrayList<>(new LinkedHashSet<>(startLocations));
+        int runs = Math.min(distinct.size(), pool.getParallelism() * 4); // a few runs per worker, for balance
+        List<Callable<Object[]>> tasks = new ArrayList<>();
+        for (int run = 0; run < runs; run++) {
+            List<Point> runStarts = distinct.subList(distinct.size() * run / runs,
+                    distinct.size() * (run + 1) / runs);
+            tasks.add(() -> { // One GenericDijkstra per task, reusing its arrays between starts
+                GenericDijkstra<Point> dijkstra = new GenericDijkstra<>();
+                int[][] runTrees = new int[runStarts.size()][];
+                double[][] runCosts = new double[runStarts.size()][];
+                for (int i = 0; i < runStarts.size(); i++) {
+                    runTrees[i] = dijkstra.shortestPathTree(graph, new Node<>(runStarts.get(i)));
+                    runCosts[i] = costsOf(graph, runTrees[i], graph.idOf(runStarts.get(i)));
+                }
+                return new Object[] {runTrees, runCosts};
+            });
+        }
+        int[][] trees = new int[distinct.size()][];
+        double[][] costs = new double[distinct.size()][];
+        try {
+            int next = 0;
+            for (Future<Object[]> result : pool.invokeAll(tasks)) { // Runs come back in order
+                int[][] runTrees = (int[][]) result.get()[0];
+                double[][] runCosts = (double[][]) result.get()[1];
+                for (int i = 0; i < runTrees.length; i++) {
+                    trees[next] = runTrees[i];
+                    costs[next++] = runCosts[i];
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while building routes", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        Map<Point, Integer> starts = new HashMap<>();
+        for (int i = 0; i < distinct.size(); i++) {
+            starts.put(distinct.get(i), i);
+        }
+        int[] inOffsets = new int[graph.size() + 1]; // Group the edges by the node they end at
+        int edgeSlots = (graph.size() == 0) ? 0 : graph.endEdge(graph.size() - 1);
+        for (int edge = 0; edge < edgeSlots; edge++) {
+            inOffsets[graph.target(edge) + 1]++;
+        }
+        for (int id = 0; id < graph.size(); id++) {
+            inOffsets[id + 1] += inOffsets[id];
+        }
+        int[] inEdges = new int[edgeSlots];
+        int[] filled = Arrays.copyOf(inOffsets, graph.size());
+        for (int edge = 0; edge < edgeSlots; edge++) {
+            inEdges[filled[graph.target(edge)]++] = edge;
+        }
+        return new RouteTable(graph, starts, trees, costs, inOffsets, inEdges, graphVersion);
+    }
+
+    /**
+     * Returns the routes after one path changes weight, closes or opens again, by repairing
+     * only the trees that change, and only where they change.  A path that got longer, or
+     * closed, only matters to a tree that goes along it: the locations reached through it are
+     * cut off, given the cheapest way back in from the rest of the tree, and searched again
+     * among themselves.  A path that got shorter, or opened, only matters to a tree it makes
+     * shorter at its end, and the search spreads from there as far as it keeps improving.
+     * Trees that do not change are shared with this table, which is left as it was.
+     * @param start where the path starts
+     * @param end where the path ends
+     * @param oldWeight the weight of the path in the graph of this table, infinite if it was closed
+     * @param newWeight the weight of the path now, infinite if it is closed now
+     * @param newVersion the version of the campus graph with the path changed
+     * @spec.requires no argument is null, and neither weight is negative
+     * @return a RouteTable of the same starts for the changed graph, or null if the graph of
+     *         this table has no path from start to end weighing oldWeight to change
+     */
+    public RouteTable withWeight(Point start, Point end, double oldWeight, double newWeight, long newVersion) {
+        int source = graph.idOf(start);
+        int target = graph.idOf(end);
+        int edge = (source == -1 || target == -1) ? -1 : graph.findEdge(source, target, oldWeight);
+        if (edge == -1) {
+            return null;
+        }
+        WeightedIntGraph<Point> next = graph.withWeight(edge, newWeight);
+        int[][] newTrees = trees.clone(); // Unchanged trees are shared
+        double[][] newCosts = costs.clone();
+        IndexedMinHeap active = new IndexedMinHeap(graph.size()); // Scratch shared by every repair
+        boolean[] cut = new boolean[graph.size()];
+        int[] cutIds = new int[graph.size()];
+        for (int i = 0; i < trees.length; i++) {
+            int[] tree = trees[i];
+            double[] cost = costs[i];
+            if (newWeight < oldWeight) { // Shorter: only if it improves the cost of its end
+                if (cost[source] + newWeight < cost[target]) {
+                    newTrees[i] = tree = tree.clone();
+                    newCosts[i] = cost = cost.clone();
+                    cost[target] = cost[source] + newWeight;
+                    tree[target] = edge;
+                    active.offer(target, cost[target]);
+                    spread(next, tree, cost, active);
+                }
+            } else if (newWeight > oldWeight && tree[target] == edge) { // Longer: only if on the tree
+                newTrees[i] = tree = tree.clone();
+                newCosts[i] = cost = cost.clone();
+                int cutCount = 0;
+                cut[target] = true;
+                cutIds[cutCount++] = target;
+                for (int k = 0; k < cutCount; k++) { // Everything reached through the edge
+                    int id = cutIds[k];
+                    for (int out = next.firstEdge(id); out < next.endEdge(id); out++) {
+                        int child = next.target(out);
+                        if (tree[child] == out && !cut[child]) {
+                            cut[child] = true;
+                            cutIds[cutCount++] = child;
+                        }
+                    }
+                }
+                for (int k = 0; k < cutCount; k++) {
+                    cost[cutIds[k]] = Double.POSITIVE_INFINITY;
+                    tree[cutIds[k]] = -1;
+                }
+                for (int k = 0; k < cutCount; k++) { // The cheapest way back in from the rest
+                    int id = cutIds[k];
+                    for (int slot = inOffsets[id]; slot < inOffsets[id + 1]; slot++) {
+                        int in = inEdges[slot];
+                        int from = next.source(in);
+                        if (!cut[from] && cost[from] + next.weight(in) < cost[id]) {
+                            cost[id] = cost[from] + next.weight(in);
+                            tree[id] = in;
+                        }
+                    }
+                    if (cost[id] != Double.POSITIVE_INFINITY) {
+                        active.offer(id, cost[id]);
+                    }
+                }
+                spread(next, tree, cost, active);
+                for (int k = 0; k < cutCount; k++) {
+                    cut[cutIds[k]] = false;
+                }
+            }
+        }
+        return new RouteTable(next, starts, newTrees, newCosts, inOffsets, inEdges, newVersion);
+    }
+
+    /**
+     * Returns the version of the campus graph these routes were worked out on.
+     * @return a long; the version of the graph that was searched
+     */
+    public long getGraphVersion() {
+        return graphVersion;
+    }
+
+    /**
+     * Returns if routes from a location were worked out.
+     * @param start the location in question
+     * @return a boolean; true if start is one of the start locations of this table
+     */
+    public boolean hasStart(Point start) {
+        return starts.containsKey(start);
+    }
+
+    /**
+     * Returns the number of bytes held by the route trees and their costs, not counting the graph.
+     * @return a long; the size of the tree and cost arrays in bytes
+     */
+    public long treeBytes() {
+        long bytes = 0;
+        for (int i = 0; i < trees.length; i++) {
+            bytes += (long) trees[i].length * Integer.BYTES + (long) costs[i].length * Double.BYTES;
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the shortest path from start to end, from the tree of start.
+     * @param start where the path starts
+     * @param end where the path ends
+     * @spec.requires hasStart(start), end != null
+     * @return the lowest-cost path from start to end, or null if end is not reachable from
+     *         start or not in the graph
+     */
+    public Path<Node<Point>> find(Point start, Point end) {
+        int[] tree = trees[starts.get(start)];
+        int endId = graph.idOf(end);
+        if (endId == -1) {
+            return null;
+        }
+        int startId = graph.idOf(start);
+        if (endId == startId) {
+            return new Path<>(new Node<>(start)); // Path to itself
+        }
+        if (tree[endId] == -1) {
+            return null; // not reachable
+        }
+        List<Integer> edges = new ArrayList<>(); // Edges from end back to start
+        for (int id = endId; id != startId; id = graph.source(tree[id])) {
+            edges.add(tree[id]);
+        }
+        Path<Node<Point>> path = new Path<>(new Node<>(start));
+        for (int i = edges.size() - 1; i >= 0; i--) { // Extend from the start onwards
+            int edge = edges.get(i);
+            path = path.extend(new Node<>(graph.dataOf(graph.target(edge))), graph.weight(edge));
+        }
+        return path;
+    }
+
+    /*
+     * Dijkstra's algorithm on graph from the nodes in active, lowering the cost and tree edge of
+     * every node it finds a cheaper way to, until active is empty
+     */
+    private static void spread(WeightedIntGraph<Point> graph, int[] tree, double[] cost, IndexedMinHeap active) {
+        while (!active.isEmpty()) {
+            int id = active.poll();
+            for (int edge = graph.firstEdge(id); edge < graph.endEdge(id); edge++) {
+                int child = graph.target(edge);
+                double through = cost[id] + graph.weight(edge);
+                if (through < cost[child]) {
+                    cost[child] = through;
+                    tree[child] = edge;
+                    active.offer(child, through);
+                }
+            }
+        }
+    }
+
+    /*
+     * Returns the cost from startId to every node id along tree, infinite for nodes it does not
+     * reach, added up in the same order as the search that made the tree
+     */
+    private static double[] costsOf(WeightedIntGraph<Point> graph, int[] tree, int startId) {
+        double[] cost = new double[tree.length];
+        Arrays.fill(cost, Double.NaN); // Not worked out yet
+        cost[startId] = 0.0;
+        int[] pending = new int[tree.length];
+        for (int id = 0; id < tree.length; id++) {
+            int count = 0;
+            int at = id;
+            while (Double.isNaN(cost[at]) && tree[at] != -1) { // Back up to a node with a cost
+                pending[count++] = at;
+                at = graph.source(tree[at]);
+            }
+            if (Double.isNaN(cost[at])) {
+                cost[at] = Double.POSITIVE_INFINITY; // Not reached at all
+            }
+            while (count > 0) {
+                int next = pending[--count];
+                cost[next] = cost[graph.source(tree[next])] + graph.weight(tree[next]);
+            }
+        }
+        return cost;
+    }
+}
@@ -0,0 +1,177 @@
+package pathfinder;
+
+import graph.Node;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class represents the shortest paths from one campus building to every building it can
+ * reach, as an unmodifiable map from the short name of each reachable building to its path.
+ * All of it comes from one search.  A Path is only built the first time it is asked for,
+ * through get or an entry's getValue, and is then kept; callers that only need distances can
+ * read them with costTo or costs and never build a Path at all.
+ */
+public class ShortestPathMap extends AbstractMap<String, Path<Node<Point>>> {
+    private final String startShortName;
+    private final ShortestPathTree<Point> tree;
+    private final Map<String, Node<Point>> locations; // reachable short name -> its location
+    private final long graphVersion;
+    private final Map<String, Path<Node<Point>>> built = new ConcurrentHashMap<>(); // paths asked for so far
+    private Set<Map.Entry<String, Path<Node<Point>>>> entries = null; // made when first asked for
+
+    /*
+     * Where the AF would go: the map from each short name n in locations to
+     *      tree.pathTo(locations.get(n)), found on version graphVersion of the campus graph
+     * Where the rep invariant would go: every location in locations is reached in tree, and
+     *      built.get(n) equals tree.pathTo(locations.get(n)) for every n in built
+     */
+
+    /*
+     * Constructs a ShortestPathMap over a finished search; locations holds only buildings the
+     * search reached and is not copied
+     */
+    ShortestPathMap(String startShortName, ShortestPathTree<Point> tree, Map<String, Node<Point>> locations,
+                    long graphVersion) {
+        this.startShortName = startShortName;
+        this.tree = tree;
+        this.locations = locations;
+        this.graphVersion = graphVersion;
+    }
+
+    /**
+     * Returns the building all of these paths start at.
+     * @return the short name of the start building
+     */
+    public String getStart() {
+        return startShortName;
+    }
+
+    /**
+     * Returns the version of the campus graph these paths were found on.
+     * @return a long; the version of the graph that was searched
+     */
+    public long getGraphVersion() {
+        return graphVersion;
+    }
+
+    /**
+     * Returns the distance of the shortest path to a building, without building the path.
+     * @param endShortName the short name of the building in question
+     * @return a double; the cost of the shortest path from the start building to it, or
+     *         Double.POSITIVE_INFINITY if it is not a building reachable from the start
+     */
+    public double costTo(String endShortName) {
+        Node<Point> location = locations.get(endShortName);
+        return (location == null) ? Double.POSITIVE_INFINITY : tree.costTo(location);
+    }
+
+    /**
+     * Returns the distance of the shortest path to every reachable building, without building
+     * any path.
+     * @return a new map from the short name of each reachable building to the cost of its path
+     */
+    public Map<String, Double> costs() {
+        Map<String, Double> costs = new HashMap<>();
+        for (Map.Entry<String, Node<Point>> location : locations.entrySet()) {
+            costs.put(location.getKey(), tree.costTo(location.getValue()));
+        }
+        return costs;
+    }
+
+    @Override
+    public Path<Node<Point>> get(Object endShortName) {
+        Node<Point> location = locations.get(endShortName);
+        if (location == null) {
+            return null; // not a building reachable from the start
+        }
+        return built.computeIfAbsent((String) endShortName, name -> tree.pathTo(location));
+    }
+
+    @Override
+    public boolean containsKey(Object endShortName) {
+        return locations.containsKey(endShortName);
+    }
+
+    @Override
+    public int size() {
+        return locations.size();
+    }
+
+    @Override
+    public Set<Map.Entry<String, Path<Node<Point>>>> entrySet() {
+        if (entries == null) {
+            entries = new AbstractSet<Map.Entry<String, Path<Node<Point>>>>() {
+                @Override
+                public Iterator<Map.Entry<String, Path<Node<Point>>>> iterator() {
+                    Iterator<String> names = locations.keySet().iterator();
+                    return new Iterator<Map.Entry<String, Path<Node<Point>>>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return names.hasNext();
+                        }
+
+                        @Override
+                        public Map.Entry<String, Path<Node<Point>>> next() {
+                            return new LazyEntry(names.next());
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return locations.size();
+                }
+            };
+        }
+        return entries;
+    }
+
+    /*
+     * An entry whose path is only built when getValue is first called
+     */
+    private class LazyEntry implements Map.Entry<String, Path<Node<Point>>> {
+        private final String name;
+
+        private LazyEntry(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getKey() {
+            return name;
+        }
+
+        @Override
+        public Path<Node<Point>> getValue() {
+            return get(name);
+        }
+
+        @Override
+        public Path<Node<Point>> setValue(Path<Node<Point>> value) {
+            throw new UnsupportedOperationException("Shortest paths may not be changed.");
+        }
+
+        @Override
+        public boolean equals(Object obj) { // As Map.Entry specifies
+            if (!(obj instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>) obj;
+            return name.equals(other.getKey()) && Objects.equals(getValue(), other.getValue());
+        }
+
+        @Override
+        public int hashCode() { // As Map.Entry specifies
+            return name.hashCode() ^ Objects.hashCode(getValue());
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package pathfinder;
+
+import graph.Graph;
+import graph.Node;
+import pathfinder.datastructures.IndexedMinHeap;
+import pathfinder.datastructures.Path;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class represents the shortest paths found by one run of Dijkstra's algorithm from a
+ * start node: for every node the search settled, its distance from the start and the node
+ * before it on its shortest path.  Distances are read straight from the tree, and a Path is
+ * only built when one is asked for, by following the parents back to the start.
+ * There is a type parameter PathType representing the type of data stored in the nodes.
+ */
+public class ShortestPathTree<PathType> {
+    private final Node<PathType> start;
+    private final Map<Node<PathType>, Integer> ids = new HashMap<>(); // Numbers given out so far
+    private final List<Node<PathType>> nodes = new ArrayList<>(); // and the node of each number
+    private final double[] dist;
+    private final int[] prev;
+    private final double[] prevCost;
+    private final boolean[] finished;
+
+    /*
+     * Where the AF would go: for every settled node n = nodes.get(i), its shortest path from
+     *      start costs dist[i], and ends with an edge of cost prevCost[i] from nodes.get(prev[i])
+     * Where the rep invariant would go: nodes.get(0) == start, prev[0] == -1, ids and nodes are
+     *      inverses of each other, and the parents of every settled node are settled
+     */
+
+    /*
+     * Constructs a tree that has only reached start, with room for capacity nodes
+     */
+    ShortestPathTree(Node<PathType> start, int capacity) {
+        this.start = start;
+        dist = new double[capacity];
+        prev = new int[capacity];
+        prevCost = new double[capacity];
+        finished = new boolean[capacity];
+    }
+
+    /*
+     * Settles nodes of graph in order of distance from the start until every one of targets is
+     * settled, or until no more can be reached.  A null targets settles every reachable node.
+     * Only strictly shorter paths replace a node's parent.  Returns the number of nodes settled.
+     */
+    int settle(Graph<PathType, Double> graph, Set<Node<PathType>> targets) {
+        return settle(graph, targets, Collections.emptySet(), Collections.emptySet());
+    }
+
+    /*
+     * Settles nodes as settle(graph, targets) does, but as if the nodes of avoid were not in
+     * graph, and the edges from the start to the nodes of avoidFromStart were not either.
+     * Returns the number of nodes settled.
+     */
+    int settle(Graph<PathType, Double> graph, Set<Node<PathType>> targets, Set<Node<PathType>> avoid,
+               Set<Node<PathType>> avoidFromStart) {
+        IndexedMinHeap active = new IndexedMinHeap(dist.length);
+        int targetsLeft = (targets == null) ? -1 : targets.size();
+        int settled = 0;
+        ids.put(start, 0);
+        nodes.add(start);
+        prev[0] = -1;
+        active.offer(0, 0.0); // Path to itself, start
+        while (!active.isEmpty()) { // While still have paths to find
+            double minCost = active.peekKey();
+            int minId = active.poll();
+            Node<PathType> minDest = nodes.get(minId);
+            dist[minId] = minCost;
+            finished[minId] = true;
+            settled++;
+            if (targets != null && targets.contains(minDest) && --targetsLeft == 0) { // Reached the last dest
+                return settled;
+            }
+            graph.forEachChild(minDest, false, edge -> { // Visited in place without copying them
+                if (avoid.contains(edge.getEnd()) || (minId == 0 && avoidFromStart.contains(edge.getEnd()))) {
+                    return; // Taken out of the graph for this search
+                }
+                Integer childId = ids.get(edge.getEnd());
+                if (childId == null) { // First time reaching child, so give it a number
+                    childId = nodes.size();
+                    ids.put(edge.getEnd(), childId);
+                    nodes.add(edge.getEnd());
+                    dist[childId] = Double.POSITIVE_INFINITY;
+                }
+                double childCost = minCost + edge.getLabel();
+                if (!finished[childId] && childCost < dist[childId]) { // Found a cheaper way to child
+                    dist[childId] = childCost;
+                    prev[childId] = minId;
+                    prevCost[childId] = edge.getLabel();
+                    active.offer(childId, childCost);
+                }
+            });
+        }
+        return settled;
+    }
+
+    /**
+     * Returns the node every path of this tree starts at.
+     * @return the start node of the search
+     */
+    public Node<PathType> getStart() {
+        return start;
+    }
+
+    /**
+     * Returns if the shortest path to a node is known.
+     * @param end the node in question
+     * @return a boolean; true if the search settled end
+     */
+    public boolean isReached(Node<PathType> end) {
+        Integer id = ids.get(end);
+        return id != null && finished[id];
+    }
+
+    /**
+     * Returns the cost of the shortest path to a node, without building the path.
+     * @param end the node in question
+     * @return a double; the cost of the shortest path from the start to end, or
+     *         Double.POSITIVE_INFINITY if end was not reached
+     */
+    public double costTo(Node<PathType> end) {
+        Integer id = ids.get(end);
+        return (id != null && finished[id]) ? dist[id] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the shortest path to a node, built from the parents in this tree.
+     * @param end the node the path ends at
+     * @return the lowest-cost path from the start to end, or null if end was not reached
+     */
+    public Path<Node<PathType>> pathTo(Node<PathType> end) {
+        Integer id = ids.get(end);
+        if (id == null || !finished[id]) {
+            return null; // no path exists
+        }
+        return GenericDijkstra.buildPath(nodes, prev, prevCost, id);
+    }
+}
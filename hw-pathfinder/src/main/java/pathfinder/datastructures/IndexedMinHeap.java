@@ -0,0 +1,202 @@
+package pathfinder.datastructures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * This represents a mutable min-priority queue of int ids in [0, capacity), each with a
+ * double priority. Ids and priorities are stored in primitive arrays, so no boxing happens,
+ * and the position of every id in the heap is tracked so that the priority of an id already
+ * in the queue can be lowered in place (decrease-key) instead of adding a second entry.
+ */
+public class IndexedMinHeap {
+
+    // AF(this) =
+    //      the ids in the queue => heap[0], ..., heap[size - 1]
+    //      the priority of an id in the queue => keys[id]
+    //      the id with the lowest priority => heap[0]
+
+    // Rep Invariant:
+    //      heap != null && positions != null && keys != null &&
+    //      heap.length == positions.length == keys.length &&
+    //      0 <= size <= heap.length &&
+    //      forall i such that (0 <= i < size), positions[heap[i]] == i &&
+    //      forall i such that (0 < i < size), keys[heap[(i - 1) / 2]] <= keys[heap[i]] &&
+    //      forall ids not in the queue, positions[id] == -1
+
+    /**
+     * The ids in the queue, laid out as a binary heap ordered by priority.
+     */
+    private final int[] heap;
+
+    /**
+     * The index in heap of each id, or -1 if the id is not in the queue.
+     */
+    private final int[] positions;
+
+    /**
+     * The priority of each id in the queue.
+     */
+    private final double[] keys;
+
+    /**
+     * The number of ids in the queue.
+     */
+    private int size;
+
+    /**
+     * Creates a new, empty queue that can hold the ids 0 to capacity - 1.
+     *
+     * @param capacity One more than the largest id the queue will hold.
+     * @throws IllegalArgumentException if capacity is negative.
+     */
+    public IndexedMinHeap(int capacity) {
+        if(capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative.");
+        }
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        this.keys = new double[capacity];
+        Arrays.fill(positions, -1);
+        this.size = 0;
+        checkRep();
+    }
+
+    /**
+     * @return {@literal true} if and only if the queue holds no ids.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return The number of ids in the queue.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param id The id to look for.
+     * @return {@literal true} if and only if {@code id} is in the queue.
+     */
+    public boolean contains(int id) {
+        return positions[id] != -1;
+    }
+
+    /**
+     * Adds {@code id} to the queue with priority {@code key}, or, if {@code id} is already in the
+     * queue with a higher priority, lowers its priority to {@code key}. If {@code id} is already
+     * in the queue with a priority at most {@code key}, the queue is unchanged.
+     *
+     * @param id  The id to add or update, in [0, capacity).
+     * @param key The new priority of {@code id}.
+     * @return {@literal true} if and only if the queue was changed.
+     */
+    public boolean offer(int id, double key) {
+        if(positions[id] == -1) {
+            heap[size] = id;
+            positions[id] = size;
+            size++;
+        } else if(keys[id] <= key) {
+            return false;
+        }
+        keys[id] = key;
+        siftUp(positions[id]);
+        checkRep();
+        return true;
+    }
+
+    /**
+     * @return The lowest priority of any id in the queue.
+     * @throws NoSuchElementException if the queue is empty.
+     */
+    public double peekKey() {
+        if(size == 0) {
+            throw new NoSuchElementException("Heap is empty.");
+        }
+        return keys[heap[0]];
+    }
+
+    /**
+     * Removes and returns the id with the lowest priority. If several ids share the lowest
+     * priority, any one of them may be returned.
+     *
+     * @return The id that had the lowest priority.
+     * @throws NoSuchElementException if the queue is empty.
+     */
+    public int poll() {
+        if(size == 0) {
+            throw new NoSuchElementException("Heap is empty.");
+        }
+        int min = heap[0];
+        size--;
+        positions[min] = -1;
+        if(size > 0) {
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            siftDown(0);
+        }
+        checkRep();
+        return min;
+    }
+
+    /**
+     * Removes every id from the queue.
+     */
+    public void clear() {
+        for(int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+        checkRep();
+    }
+
+    /**
+     * Moves the id at heap index i up until its parent has a priority at most its own.
+     */
+    private void siftUp(int i) {
+        int id = heap[i];
+        while(i > 0) {
+            int parent = (i - 1) / 2;
+            if(keys[heap[parent]] <= keys[id]) {
+                break;
+            }
+            heap[i] = heap[parent];
+            positions[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = id;
+        positions[id] = i;
+    }
+
+    /**
+     * Moves the id at heap index i down until both its children have priorities at least its own.
+     */
+    private void siftDown(int i) {
+        int id = heap[i];
+        while(2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if(child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) {
+                child++;
+            }
+            if(keys[id] <= keys[heap[child]]) {
+                break;
+            }
+            heap[i] = heap[child];
+            positions[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = id;
+        positions[id] = i;
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert heap != null && positions != null && keys != null;
+        assert 0 <= size && size <= heap.length;
+    }
+}
@@ -0,0 +1,176 @@
+package pathfinder.datastructures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This represents an immutable 2-d tree over a set of Points, each with a value, for finding
+ * the Point nearest to any location, or every Point within some distance of it.  The tree is
+ * laid out in arrays: the Points of any subtree fill one run of the arrays, and the Point at
+ * the middle of the run splits the rest by x (at even depths) or by y (at odd depths), with
+ * the lower half before it and the upper half after it.  Searches skip every subtree on the
+ * far side of a split that is further away than the best found so far.
+ * There is a type parameter T representing the type of the values stored with the Points.
+ */
+public class KdTree<T> {
+
+    // AF(this) =
+    //      the Points in the tree => points[0], ..., points[points.length - 1]
+    //      the value of points[i] => values[i]
+
+    // Rep Invariant:
+    //      points != null && values != null && xs != null && ys != null &&
+    //      points.length == values.length == xs.length == ys.length &&
+    //      forall i, xs[i] == points[i].getX() && ys[i] == points[i].getY() &&
+    //      for the run [lo, hi) of every subtree at depth d, with mid = (lo + hi) / 2,
+    //          every Point in [lo, mid) is no greater than points[mid] on the axis of d, and
+    //          every Point in (mid, hi) is no less than points[mid] on the axis of d
+
+    /**
+     * The Points of the tree, in tree order.
+     */
+    private final Point[] points;
+
+    /**
+     * The value of each Point, in the same order.
+     */
+    private final Object[] values;
+
+    /**
+     * The coordinates of each Point, in the same order, read without going through the Points.
+     */
+    private final double[] xs;
+    private final double[] ys;
+
+    /**
+     * Creates a tree of the given Points and values.
+     *
+     * @param entries the Points to put in the tree, each with its value.
+     */
+    public KdTree(Map<Point, T> entries) {
+        points = entries.keySet().toArray(new Point[0]);
+        values = new Object[points.length];
+        build(0, points.length, true);
+        xs = new double[points.length];
+        ys = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            values[i] = entries.get(points[i]);
+            xs[i] = points[i].getX();
+            ys[i] = points[i].getY();
+        }
+    }
+
+    /**
+     * @return the number of Points in the tree.
+     */
+    public int size() {
+        return points.length;
+    }
+
+    /**
+     * Finds the Point in the tree closest to a location.  When several are equally close,
+     * any one of them may be found.
+     *
+     * @param location the location to search around.
+     * @return the value of the closest Point, or {@literal null} if the tree is empty.
+     */
+    @SuppressWarnings("unchecked") // Only T values are ever stored in values
+    public T nearest(Point location) {
+        int best = nearest(location.getX(), location.getY(), 0, points.length, true, -1);
+        return (best == -1) ? null : (T) values[best];
+    }
+
+    /**
+     * Finds every Point in the tree within some distance of a location.
+     *
+     * @param location the location to search around.
+     * @param radius   the greatest distance from location to include.
+     * @return the values of the Points no further than radius from location, in no set order.
+     */
+    @SuppressWarnings("unchecked") // Only T values are ever stored in values
+    public List<T> withinRadius(Point location, double radius) {
+        List<Integer> found = new ArrayList<>();
+        withinRadius(location.getX(), location.getY(), radius * radius, 0, points.length, true, found);
+        List<T> result = new ArrayList<>(found.size());
+        for (int i : found) {
+            result.add((T) values[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Arranges points[lo, hi) into a subtree, splitting by x if byX and by y otherwise.
+     */
+    private void build(int lo, int hi, boolean byX) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        Comparator<Point> axis = byX ? Comparator.comparingDouble(Point::getX)
+                : Comparator.comparingDouble(Point::getY);
+        Arrays.sort(points, lo, hi, axis); // So the middle Point splits the run
+        int mid = (lo + hi) >>> 1;
+        build(lo, mid, !byX);
+        build(mid + 1, hi, !byX);
+    }
+
+    /**
+     * Returns the index of the Point closest to (x, y) among best and the subtree over [lo, hi),
+     * or -1 if best is -1 and the subtree is empty.
+     */
+    private int nearest(double x, double y, int lo, int hi, boolean byX, int best) {
+        if (lo >= hi) {
+            return best;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (best == -1 || distanceSquared(mid, x, y) < distanceSquared(best, x, y)) {
+            best = mid;
+        }
+        double offset = byX ? x - xs[mid] : y - ys[mid]; // How far over the split (x, y) is
+        if (offset < 0) { // Search the near side first, so the far side can often be skipped
+            best = nearest(x, y, lo, mid, !byX, best);
+            if (offset * offset < distanceSquared(best, x, y)) {
+                best = nearest(x, y, mid + 1, hi, !byX, best);
+            }
+        } else {
+            best = nearest(x, y, mid + 1, hi, !byX, best);
+            if (offset * offset < distanceSquared(best, x, y)) {
+                best = nearest(x, y, lo, mid, !byX, best);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Adds the index of every Point of the subtree over [lo, hi) no further than the square
+     * root of radiusSquared from (x, y) to found.
+     */
+    private void withinRadius(double x, double y, double radiusSquared, int lo, int hi, boolean byX,
+                              List<Integer> found) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (distanceSquared(mid, x, y) <= radiusSquared) {
+            found.add(mid);
+        }
+        double offset = byX ? x - xs[mid] : y - ys[mid];
+        if (offset <= 0 || offset * offset <= radiusSquared) { // Lower side is in reach
+            withinRadius(x, y, radiusSquared, lo, mid, !byX, found);
+        }
+        if (offset >= 0 || offset * offset <= radiusSquared) { // Upper side is in reach
+            withinRadius(x, y, radiusSquared, mid + 1, hi, !byX, found);
+        }
+    }
+
+    /**
+     * Returns the square of the distance from points[i] to (x, y).
+     */
+    private double distanceSquared(int i, double x, double y) {
+        double dx = xs[i] - x;
+        double dy = ys[i] - y;
+        return dx * dx + dy * dy;
+    }
+}
@@ -35,6 +35,12 @@ public class Point {
      */
     private final double y;
 
+    /**
+     * The hash code of this point, worked out once.  Transient, so it is not sent with the
+     * point when it is converted to JSON.
+     */
+    private final transient int hash;
+
     /**
      * Constructs a new ordered pair using the provided coordinates. Neither coordinate
      * may be NaN or infinite.
@@ -49,6 +55,7 @@ public class Point {
         }
         this.x = x;
         this.y = y;
+        this.hash = (31 * Double.hashCode(x)) + Double.hashCode(y);
         // checkRep not necessary, the representation fields are final and immutable.
     }
 
@@ -77,7 +84,7 @@ public class Point {
             return false;
         }
         Point other = (Point) obj;
-        return (Double.compare(this.x, other.x) == 0) && (Double.compare(this.y, other.y) == 0);
+        return hash == other.hash && (Double.compare(this.x, other.x) == 0) && (Double.compare(this.y, other.y) == 0);
     }
 
     @Override
@@ -87,6 +94,6 @@ public class Point {
 
     @Override
     public int hashCode() {
-        return (31 * Double.hashCode(x)) + Double.hashCode(y);
+        return hash;
     }
 }
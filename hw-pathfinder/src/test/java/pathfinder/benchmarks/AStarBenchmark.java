@@ -0,0 +1,85 @@
+package pathfinder.benchmarks;
+
+import graph.DirectedGraph;
+import graph.Node;
+import pathfinder.AStar;
+import pathfinder.EuclideanHeuristic;
+import pathfinder.GenericDijkstra;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusPathsParser;
+import pathfinder.testUtils.CampusGraphs;
+
+import java.util.List;
+
+/**
+ * Routes between every pair of campus buildings with GenericDijkstra and with AStar using the
+ * straight-line heuristic fitted to the campus graph.  Reports the nodes settled and the time
+ * per query for each, after checking that both find routes of the same distance.
+ */
+public class AStarBenchmark {
+    private static final String buildingFile = "campus_buildings.tsv";
+    private static final int rounds = 5; // the first rounds also warm up the JIT
+    private static final double EPSILON = 1e-9;
+
+    public static void main(String[] args) {
+        DirectedGraph<Point, Double> campus = CampusGraphs.campusGraph();
+        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings(buildingFile);
+        EuclideanHeuristic heuristic = EuclideanHeuristic.forGraph(campus);
+        System.out.println("nodes: " + campus.size() + ", edges: " + campus.getEdgeCount()
+                + ", queries per round: " + buildings.size() * buildings.size()
+                + ", heuristic scale: " + String.format("%.3f", heuristic.getScale()));
+
+        GenericDijkstra<Point> dijkstra = new GenericDijkstra<>();
+        dijkstra.setCampusGraph(campus);
+        AStar<Point> aStar = new AStar<>();
+        aStar.setCampusGraph(campus);
+        aStar.setHeuristic(heuristic);
+
+        long dijkstraSettled = 0;
+        long aStarSettled = 0;
+        for (CampusBuilding start : buildings) { // Both must find routes of the same distance
+            for (CampusBuilding end : buildings) {
+                Path<Node<Point>> expected = dijkstra.findShortestPath(node(start), node(end));
+                Path<Node<Point>> actual = aStar.findShortestPath(node(start), node(end));
+                if (Math.abs(expected.getCost() - actual.getCost()) > EPSILON) {
+                    throw new IllegalStateException("Engines disagree from " + start.getShortName()
+                            + " to " + end.getShortName());
+                }
+                dijkstraSettled += dijkstra.getSettledCount();
+                aStarSettled += aStar.getSettledCount();
+            }
+        }
+        int queries = buildings.size() * buildings.size();
+        System.out.println(String.format("nodes settled per query: Dijkstra %.1f, A* %.1f",
+                (double) dijkstraSettled / queries, (double) aStarSettled / queries));
+
+        for (int round = 0; round < rounds; round++) {
+            System.out.println("round " + round + ":");
+            long start = System.nanoTime();
+            for (CampusBuilding from : buildings) {
+                for (CampusBuilding to : buildings) {
+                    dijkstra.findShortestPath(node(from), node(to));
+                }
+            }
+            System.out.println("  Dijkstra " + BenchmarkUtils.millis((System.nanoTime() - start) / queries)
+                    + " per query");
+            start = System.nanoTime();
+            for (CampusBuilding from : buildings) {
+                for (CampusBuilding to : buildings) {
+                    aStar.findShortestPath(node(from), node(to));
+                }
+            }
+            System.out.println("  A*       " + BenchmarkUtils.millis((System.nanoTime() - start) / queries)
+                    + " per query");
+        }
+    }
+
+    /*
+     * Returns the graph node at the location of building
+     */
+    private static Node<Point> node(CampusBuilding building) {
+        return new Node<>(new Point(building.getX(), building.getY()));
+    }
+}
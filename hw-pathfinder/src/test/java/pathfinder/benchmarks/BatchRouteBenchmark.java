@@ -0,0 +1,54 @@
+package pathfinder.benchmarks;
+
+import pathfinder.CampusMap;
+import pathfinder.Route;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compares routing a batch of building pairs with CampusMap.findRoutes, one search per distinct
+ * start, against routing each pair with its own findShortestPath call.  Batches are made of
+ * random pairs over a few sizes of pool of start buildings, since pairs that share a start are
+ * where one search saves work.  The route cache is off, so every pair is searched for.  Checks
+ * that both find routes of the same distance.
+ */
+public class BatchRouteBenchmark {
+    private static final String buildingFile = "campus_buildings.tsv";
+    private static final String pathsFile = "campus_paths.tsv";
+    private static final int rounds = 3; // the first rounds also warm up the JIT
+    private static final int batchSize = 100;
+    private static final int[] startPools = {1, 5, 51};
+    private static final double EPSILON = 1e-9;
+
+    public static void main(String[] args) {
+        CampusMap map = new CampusMap(0, 1);
+        map.initializeData(buildingFile, pathsFile);
+        List<String> names = new ArrayList<>(map.buildingNames().keySet());
+        Collections.sort(names);
+        System.out.println("pairs per batch: " + batchSize);
+        for (int round = 0; round < rounds; round++) {
+            System.out.println("round " + round + ":");
+            for (int pool : startPools) {
+                List<String[]> pairs = new ArrayList<>();
+                for (String[] pair : BenchmarkUtils.randomPairs(names, batchSize)) {
+                    pairs.add(new String[] {names.get(Math.floorMod(pair[0].hashCode(), pool)), pair[1]});
+                }
+                long start = System.nanoTime();
+                List<Route> batch = map.findRoutes(pairs);
+                long batchTime = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (int i = 0; i < pairs.size(); i++) {
+                    double cost = map.findShortestPath(pairs.get(i)[0], pairs.get(i)[1]).getCost();
+                    if (Math.abs(cost - batch.get(i).getPath().getCost()) > EPSILON) {
+                        throw new IllegalStateException("Batch disagrees for pair " + i);
+                    }
+                }
+                long singleTime = System.nanoTime() - start;
+                System.out.println(String.format("  %2d start(s): one by one %s, batch %s", pool,
+                        BenchmarkUtils.millis(singleTime), BenchmarkUtils.millis(batchTime)));
+            }
+        }
+    }
+}
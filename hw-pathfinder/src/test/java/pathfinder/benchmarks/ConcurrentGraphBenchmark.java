@@ -0,0 +1,120 @@
+package pathfinder.benchmarks;
+
+import graph.ConcurrentDirectedGraph;
+import graph.DirectedGraph;
+import graph.Edge;
+import graph.Graph;
+import graph.Node;
+import pathfinder.datastructures.Point;
+import pathfinder.testUtils.CampusGraphs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures the throughput of a mix of reads and writes on the campus graph from several threads
+ * at once, for a ConcurrentDirectedGraph and for a DirectedGraph with every call made while
+ * holding one lock.  A read walks the children of a random node and sums their lengths; a write
+ * removes a random campus edge and puts it back.  Reports operations per second for each graph
+ * and each share of writes, then checks that both graphs end with the same edges.
+ */
+public class ConcurrentGraphBenchmark {
+    private static final int threads = 4;
+    private static final int[] writePercents = {0, 10, 50};
+    private static final long runNanos = 1_000_000_000L; // each measured run
+    private static final int rounds = 3; // the first round also warms up the JIT
+
+    public static void main(String[] args) throws InterruptedException {
+        ConcurrentDirectedGraph<Point, Double> concurrent = new ConcurrentDirectedGraph<>();
+        DirectedGraph<Point, Double> locked = new DirectedGraph<>();
+        CampusGraphs.addCampusPaths(concurrent);
+        List<Edge<Point, Double>> edges = CampusGraphs.addCampusPaths(locked);
+        List<Node<Point>> nodes = new ArrayList<>(locked.listNodes());
+        System.out.println("nodes: " + locked.size() + ", edges: " + locked.getEdgeCount()
+                + ", threads: " + threads + ", processors: " + Runtime.getRuntime().availableProcessors());
+
+        for (int round = 0; round < rounds; round++) {
+            System.out.println("round " + round + ":");
+            for (int writePercent : writePercents) {
+                long concurrentOps = run(concurrent, new Object(), false, nodes, edges, writePercent);
+                long lockedOps = run(locked, new Object(), true, nodes, edges, writePercent);
+                System.out.println(String.format("  %2d%% writes: concurrent %,d ops/s, locked %,d ops/s",
+                        writePercent, concurrentOps, lockedOps));
+            }
+        }
+        if (!concurrent.toString().equals(locked.toString())) { // Every write puts its edge back
+            throw new IllegalStateException("Graphs differ after the runs");
+        }
+    }
+
+    /*
+     * Runs threads threads of random reads and writes on graph for runNanos, holding lock
+     * around every call if useLock, and returns the operations done per second
+     */
+    private static long run(Graph<Point, Double> graph, Object lock, boolean useLock,
+                            List<Node<Point>> nodes, List<Edge<Point, Double>> edges,
+                            int writePercent) throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        AtomicBoolean stop = new AtomicBoolean(false);
+        CountDownLatch ready = new CountDownLatch(threads);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Random random = new Random(BenchmarkUtils.SEED + t);
+            Thread worker = new Thread(() -> {
+                ready.countDown();
+                long done = 0;
+                double sink = 0;
+                while (!stop.get()) {
+                    if (random.nextInt(100) < writePercent) {
+                        Edge<Point, Double> edge = edges.get(random.nextInt(edges.size()));
+                        if (useLock) {
+                            synchronized (lock) {
+                                graph.removeEdge(edge);
+                                graph.addEdge(edge);
+                            }
+                        } else { // Each call is atomic on its own
+                            graph.removeEdge(edge);
+                            graph.addEdge(edge);
+                        }
+                    } else {
+                        Node<Point> node = nodes.get(random.nextInt(nodes.size()));
+                        if (useLock) {
+                            synchronized (lock) {
+                                sink += childLengths(graph, node);
+                            }
+                        } else {
+                            sink += childLengths(graph, node);
+                        }
+                    }
+                    done++;
+                }
+                operations.add(done + (sink < 0 ? 1 : 0)); // Keeps sink from being optimized away
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        ready.await();
+        long start = System.nanoTime();
+        Thread.sleep(runNanos / 1_000_000);
+        stop.set(true);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return operations.sum() * 1_000_000_000L / (System.nanoTime() - start);
+    }
+
+    /*
+     * Returns the sum of the lengths of the edges out of node
+     */
+    private static double childLengths(Graph<Point, Double> graph, Node<Point> node) {
+        double sum = 0;
+        for (Edge<Point, Double> edge : graph.listChildren(node, false)) {
+            sum += edge.getLabel();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,108 @@
+package pathfinder.benchmarks;
+
+import graph.DirectedGraph;
+import graph.WeightedIntGraph;
+import pathfinder.CampusMap;
+import pathfinder.ContractionHierarchy;
+import pathfinder.datastructures.Point;
+import pathfinder.testUtils.CampusGraphs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures CampusMap.buildContractionHierarchy on the campus data: the time to contract the
+ * graph, the number of shortcuts it adds, the heap the hierarchy holds, then the time per
+ * request between random pairs of buildings with Dijkstra's algorithm, A* and the hierarchy,
+ * and between random points on the map with Dijkstra's algorithm and the hierarchy.  Checks
+ * that every way gives the same distances first.  The route cache is off throughout.
+ */
+public class ContractionHierarchyBenchmark {
+    private static final String buildingFile = "campus_buildings.tsv";
+    private static final String pathsFile = "campus_paths.tsv";
+    private static final int rounds = 5; // the first rounds also warm up the JIT
+    private static final int queries = 2000;
+    private static final double EPSILON = 1e-9;
+
+    public static void main(String[] args) {
+        CampusMap searching = new CampusMap(0, 1);
+        searching.initializeData(buildingFile, pathsFile);
+        CampusMap contracted = new CampusMap(0, 1);
+        contracted.initializeData(buildingFile, pathsFile);
+        for (int round = 0; round < 3; round++) { // The last round is the one to read
+            long start = System.nanoTime();
+            contracted.buildContractionHierarchy();
+            System.out.println("build time: " + BenchmarkUtils.millis(System.nanoTime() - start));
+        }
+        CampusMap measured = new CampusMap(0, 1);
+        measured.initializeData(buildingFile, pathsFile);
+        long before = BenchmarkUtils.usedHeap();
+        measured.buildContractionHierarchy();
+        System.out.println("heap held by the hierarchy: "
+                + BenchmarkUtils.megabytes(BenchmarkUtils.usedHeap() - before));
+        DirectedGraph<Point, Double> campus = CampusGraphs.campusGraph(); // To count what it holds
+        WeightedIntGraph<Point> packed = new WeightedIntGraph<>(campus);
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(packed, 0);
+        System.out.println("nodes: " + packed.size() + ", edges: " + packed.getEdgeCount() + ", arcs: "
+                + hierarchy.getArcCount() + " (" + hierarchy.getShortcutCount() + " shortcuts), index arrays: "
+                + BenchmarkUtils.megabytes(hierarchy.indexBytes()));
+
+        List<String[]> pairs = BenchmarkUtils.randomPairs(new ArrayList<>(searching.buildingNames().keySet()),
+                queries);
+        Random random = new Random(BenchmarkUtils.SEED);
+        List<Point[]> points = new ArrayList<>();
+        for (String[] pair : pairs) { // Points somewhere around the buildings, snapped to paths
+            Point start = searching.findShortestPath(pair[0], pair[0]).getStart().getData();
+            Point end = searching.findShortestPath(pair[1], pair[1]).getStart().getData();
+            points.add(new Point[] {new Point(start.getX() + random.nextDouble() * 200 - 100,
+                    start.getY() + random.nextDouble() * 200 - 100),
+                    new Point(end.getX() + random.nextDouble() * 200 - 100,
+                            end.getY() + random.nextDouble() * 200 - 100)});
+        }
+        for (int i = 0; i < queries; i++) { // All must find routes of the same distance
+            String[] pair = pairs.get(i);
+            double expected = searching.findShortestPath(pair[0], pair[1]).getCost();
+            if (Math.abs(expected - contracted.findShortestPath(pair[0], pair[1],
+                    CampusMap.Engine.CONTRACTION_HIERARCHY).getCost()) > EPSILON
+                    || Math.abs(searching.findShortestPath(points.get(i)[0], points.get(i)[1]).getCost()
+                    - contracted.findShortestPath(points.get(i)[0], points.get(i)[1]).getCost()) > EPSILON) {
+                throw new IllegalStateException("Routes disagree from " + pair[0] + " to " + pair[1]);
+            }
+        }
+        System.out.println("queries per round: " + queries + ", all the same distance every way");
+
+        for (int round = 0; round < rounds; round++) {
+            System.out.println("round " + round + ":");
+            report("buildings, Dijkstra", searching, CampusMap.Engine.DIJKSTRA, pairs);
+            report("buildings, A*", searching, CampusMap.Engine.A_STAR, pairs);
+            report("buildings, hierarchy", contracted, CampusMap.Engine.CONTRACTION_HIERARCHY, pairs);
+            reportPoints("points, Dijkstra", searching, points);
+            reportPoints("points, hierarchy", contracted, points);
+        }
+    }
+
+    /*
+     * Routes between every pair of buildings on map once and prints the time per request
+     */
+    private static void report(String name, CampusMap map, CampusMap.Engine engine, List<String[]> pairs) {
+        long start = System.nanoTime();
+        for (String[] pair : pairs) {
+            map.findShortestPath(pair[0], pair[1], engine);
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.println(String.format("  %-22s %.1f us per request", name, elapsed / 1e3 / pairs.size()));
+    }
+
+    /*
+     * Routes between every pair of points on map once and prints the time per request
+     */
+    private static void reportPoints(String name, CampusMap map, List<Point[]> points) {
+        long start = System.nanoTime();
+        for (Point[] pair : points) {
+            map.findShortestPath(pair[0], pair[1]);
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.println(String.format("  %-22s %.1f us per request", name, elapsed / 1e3 / points.size()));
+    }
+}
@@ -0,0 +1,78 @@
+package pathfinder.benchmarks;
+
+import graph.DirectedGraph;
+import graph.Node;
+import pathfinder.GenericDijkstra;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusPathsParser;
+import pathfinder.testUtils.CampusGraphs;
+
+import java.util.List;
+
+/**
+ * Routes between every pair of campus buildings with both GenericDijkstra search modes:
+ * COPY_PATHS, which queues a whole copied Path for every edge relaxed, and PARENT_POINTERS,
+ * which keeps a distance and parent per node and builds only the returned Path.  Reports the
+ * time and the bytes allocated per query, after checking that both modes agree.
+ */
+public class DijkstraModeBenchmark {
+    private static final String buildingFile = "campus_buildings.tsv";
+    private static final int rounds = 5; // the first rounds also warm up the JIT
+
+    public static void main(String[] args) {
+        DirectedGraph<Point, Double> campus = CampusGraphs.campusGraph();
+        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings(buildingFile);
+        System.out.println("nodes: " + campus.size() + ", edges: " + campus.getEdgeCount()
+                + ", queries per round: " + buildings.size() * buildings.size());
+
+        GenericDijkstra<Point> copying = new GenericDijkstra<>();
+        copying.setCampusGraph(campus);
+        copying.setSearchMode(GenericDijkstra.SearchMode.COPY_PATHS);
+        GenericDijkstra<Point> parents = new GenericDijkstra<>();
+        parents.setCampusGraph(campus);
+        parents.setSearchMode(GenericDijkstra.SearchMode.PARENT_POINTERS);
+
+        for (CampusBuilding start : buildings) { // Both modes must give the same answers
+            for (CampusBuilding end : buildings) {
+                Path<Node<Point>> expected = copying.findShortestPath(node(start), node(end));
+                if (!expected.equals(parents.findShortestPath(node(start), node(end)))) {
+                    throw new IllegalStateException("Modes disagree from " + start.getShortName()
+                            + " to " + end.getShortName());
+                }
+            }
+        }
+
+        for (int round = 0; round < rounds; round++) {
+            System.out.println("round " + round + ":");
+            report("COPY_PATHS", copying, buildings);
+            report("PARENT_POINTERS", parents, buildings);
+        }
+    }
+
+    /*
+     * Runs every building pair through dijkstra once and prints the time and allocation per query
+     */
+    private static void report(String name, GenericDijkstra<Point> dijkstra, List<CampusBuilding> buildings) {
+        int queries = buildings.size() * buildings.size();
+        long allocated = BenchmarkUtils.allocatedBytes();
+        long start = System.nanoTime();
+        for (CampusBuilding from : buildings) {
+            for (CampusBuilding to : buildings) {
+                dijkstra.findShortestPath(node(from), node(to));
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        allocated = BenchmarkUtils.allocatedBytes() - allocated;
+        System.out.println(String.format("  %-16s %s per query, %.1f KB allocated per query", name,
+                BenchmarkUtils.millis(elapsed / queries), allocated / 1024.0 / queries));
+    }
+
+    /*
+     * Returns the graph node at the location of building
+     */
+    private static Node<Point> node(CampusBuilding building) {
+        return new Node<>(new Point(building.getX(), building.getY()));
+    }
+}
@@ -0,0 +1,109 @@
+package pathfinder.benchmarks;
+
+import pathfinder.CampusMap;
+import pathfinder.parser.CampusPath;
+import pathfinder.parser.CampusPathsParser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures how long precomputed routes take to keep up with changes to the campus paths: the
+ * time per change when a path gets longer, gets shorter, closes and opens again, with the
+ * routes repaired in place, against working out every route again with precomputeRoutes and
+ * against rebuilding the whole map with initializeData.  Checks first that the repaired routes
+ * have the same distances as searching, with many paths changed at once.
+ */
+public class DynamicRouteBenchmark {
+    private static final String buildingFile = "campus_buildings.tsv";
+    private static final String pathsFile = "campus_paths.tsv";
+    private static final int rounds = 5; // the first rounds also warm up the JIT
+    private static final int changes = 500;
+    private static final double EPSILON = 1e-9;
+
+    public static void main(String[] args) {
+        CampusMap searching = new CampusMap(0, 1);
+        searching.initializeData(buildingFile, pathsFile);
+        CampusMap precomputed = new CampusMap(0, 1);
+        precomputed.initializeData(buildingFile, pathsFile);
+        precomputed.precomputeRoutes(1);
+        List<CampusPath> paths = new ArrayList<>(CampusPathsParser.parseCampusPaths(pathsFile));
+        Collections.shuffle(paths, new Random(BenchmarkUtils.SEED));
+        List<CampusPath> changed = paths.subList(0, changes);
+        List<String> buildings = new ArrayList<>(searching.buildingNames().keySet());
+        System.out.println("paths: " + paths.size() + ", changes per round: " + changes);
+
+        for (CampusMap map : new CampusMap[] {searching, precomputed}) { // Many changes at once
+            for (int i = 0; i < 50; i++) {
+                CampusPath path = changed.get(i);
+                if (i % 3 == 0) {
+                    map.removePath(path);
+                } else {
+                    map.updatePath(path, path.getDistance() * (i % 3 == 1 ? 4 : 0.25));
+                }
+            }
+        }
+        if (!precomputed.hasPrecomputedRoutes()) {
+            throw new IllegalStateException("Routes were dropped");
+        }
+        for (String start : buildings) { // Must find routes of the same distance
+            for (String end : buildings) {
+                if (Math.abs(searching.findShortestPath(start, end).getCost()
+                        - precomputed.findShortestPath(start, end).getCost()) > EPSILON) {
+                    throw new IllegalStateException("Routes disagree from " + start + " to " + end);
+                }
+            }
+        }
+        precomputed = new CampusMap(0, 1); // Back to the paths as they were
+        precomputed.initializeData(buildingFile, pathsFile);
+        precomputed.precomputeRoutes(1);
+        System.out.println("all the same distance as searching after 50 changes");
+
+        for (int round = 0; round < rounds; round++) {
+            System.out.println("round " + round + ":");
+            long longer = 0;
+            long shorter = 0;
+            long closed = 0;
+            long opened = 0;
+            for (CampusPath path : changed) {
+                long start = System.nanoTime();
+                precomputed.updatePath(path, path.getDistance() * 4);
+                long next = System.nanoTime();
+                longer += next - start;
+                precomputed.updatePath(new CampusPath(path.getX1(), path.getY1(), path.getX2(), path.getY2(),
+                        path.getDistance() * 4), path.getDistance());
+                start = System.nanoTime();
+                shorter += start - next;
+                precomputed.removePath(path);
+                next = System.nanoTime();
+                closed += next - start;
+                precomputed.addPath(path);
+                opened += System.nanoTime() - next;
+            }
+            if (!precomputed.hasPrecomputedRoutes()) {
+                throw new IllegalStateException("Routes were dropped");
+            }
+            report("longer, repaired", longer);
+            report("shorter, repaired", shorter);
+            report("closed, repaired", closed);
+            report("opened, repaired", opened);
+            long start = System.nanoTime();
+            precomputed.precomputeRoutes(1);
+            report("precomputeRoutes(1)", (System.nanoTime() - start) * changes);
+            start = System.nanoTime();
+            CampusMap rebuilt = new CampusMap(0, 1);
+            rebuilt.initializeData(buildingFile, pathsFile);
+            rebuilt.precomputeRoutes(1);
+            report("initializeData", (System.nanoTime() - start) * changes);
+        }
+    }
+
+    /*
+     * Prints the time per change of one kind, from the time all the changes of a round took
+     */
+    private static void report(String name, long elapsed) {
+        System.out.println(String.format("  %-22s %.1f us per change", name, elapsed / 1e3 / changes));
+    }
+}
@@ -0,0 +1,109 @@
+package pathfinder.benchmarks;
+
+import graph.DirectedGraph;
+import graph.Edge;
+import graph.Node;
+import graph.WeightedIntGraph;
+import pathfinder.GenericDijkstra;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusPath;
+import pathfinder.parser.CampusPathsParser;
+
+import java.util.List;
+
+/**
+ * Compares the campus graph as a DirectedGraph of Point Nodes and Double Edges with the same
+ * graph packed into a WeightedIntGraph of int ids and double weights.  Reports the heap each
+ * one holds on its own, then routes between every pair of campus buildings with GenericDijkstra
+ * on each and reports the time and bytes allocated per query, after checking that both find
+ * routes of the same distance.
+ */
+public class IntGraphBenchmark {
+    private static final String buildingFile = "campus_buildings.tsv";
+    private static final String pathsFile = "campus_paths.tsv";
+    private static final int rounds = 5; // the first rounds also warm up the JIT
+    private static final double EPSILON = 1e-9;
+
+    public static void main(String[] args) {
+        List<CampusPath> paths = CampusPathsParser.parseCampusPaths(pathsFile);
+        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings(buildingFile);
+        long baseline = BenchmarkUtils.usedHeap();
+        DirectedGraph<Point, Double> campus = build(paths);
+        long genericHeap = BenchmarkUtils.usedHeap() - baseline;
+        WeightedIntGraph<Point> packed = new WeightedIntGraph<>(campus);
+        campus = null; // So only the packed graph, and the Points it shares, are left
+        long packedHeap = BenchmarkUtils.usedHeap() - baseline;
+        campus = build(paths);
+        System.out.println("nodes: " + packed.size() + ", edges: " + packed.getEdgeCount()
+                + ", queries per round: " + buildings.size() * buildings.size());
+        System.out.println("heap: DirectedGraph " + BenchmarkUtils.megabytes(genericHeap)
+                + ", WeightedIntGraph " + BenchmarkUtils.megabytes(packedHeap));
+
+        GenericDijkstra<Point> generic = new GenericDijkstra<>();
+        generic.setCampusGraph(campus);
+        GenericDijkstra<Point> primitive = new GenericDijkstra<>();
+        for (CampusBuilding start : buildings) { // Both must find routes of the same distance
+            for (CampusBuilding end : buildings) {
+                Path<Node<Point>> expected = generic.findShortestPath(node(start), node(end));
+                Path<Node<Point>> actual = primitive.findShortestPath(packed, node(start), node(end));
+                if (Math.abs(expected.getCost() - actual.getCost()) > EPSILON) {
+                    throw new IllegalStateException("Graphs disagree from " + start.getShortName()
+                            + " to " + end.getShortName());
+                }
+            }
+        }
+
+        int queries = buildings.size() * buildings.size();
+        for (int round = 0; round < rounds; round++) {
+            System.out.println("round " + round + ":");
+            long allocated = BenchmarkUtils.allocatedBytes();
+            long start = System.nanoTime();
+            for (CampusBuilding from : buildings) {
+                for (CampusBuilding to : buildings) {
+                    generic.findShortestPath(node(from), node(to));
+                }
+            }
+            report("DirectedGraph", System.nanoTime() - start, BenchmarkUtils.allocatedBytes() - allocated, queries);
+            allocated = BenchmarkUtils.allocatedBytes();
+            start = System.nanoTime();
+            for (CampusBuilding from : buildings) {
+                for (CampusBuilding to : buildings) {
+                    primitive.findShortestPath(packed, node(from), node(to));
+                }
+            }
+            report("WeightedIntGraph", System.nanoTime() - start, BenchmarkUtils.allocatedBytes() - allocated, queries);
+        }
+    }
+
+    /*
+     * Returns the campus graph of paths as a DirectedGraph
+     */
+    private static DirectedGraph<Point, Double> build(List<CampusPath> paths) {
+        DirectedGraph<Point, Double> campus = new DirectedGraph<>();
+        for (CampusPath path : paths) {
+            Node<Point> start = new Node<>(new Point(path.getX1(), path.getY1()));
+            Node<Point> end = new Node<>(new Point(path.getX2(), path.getY2()));
+            campus.addNode(start);
+            campus.addNode(end);
+            campus.addEdge(new Edge<>(start, end, path.getDistance()));
+        }
+        return campus;
+    }
+
+    /*
+     * Prints the time and allocation per query of one round on one graph
+     */
+    private static void report(String name, long elapsed, long allocated, int queries) {
+        System.out.println(String.format("  %-16s %s per query, %.1f KB allocated per query", name,
+                BenchmarkUtils.millis(elapsed / queries), allocated / 1024.0 / queries));
+    }
+
+    /*
+     * Returns the graph node at the location of building
+     */
+    private static Node<Point> node(CampusBuilding building) {
+        return new Node<>(new Point(building.getX(), building.getY()));
+    }
+}
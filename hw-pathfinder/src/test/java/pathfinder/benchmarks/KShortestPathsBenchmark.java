@@ -0,0 +1,77 @@
+package pathfinder.benchmarks;
+
+import graph.DirectedGraph;
+import graph.Node;
+import pathfinder.GenericDijkstra;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusPathsParser;
+import pathfinder.testUtils.CampusGraphs;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Times GenericDijkstra.findKShortestPaths between random pairs of campus buildings for k of
+ * 1, 3 and 10, and reports the time and nodes settled per query, and the spread of costs
+ * between the first and the last path found.  Checks first that every first path is as short
+ * as findShortestPath's and that the paths never get shorter.
+ */
+public class KShortestPathsBenchmark {
+    private static final String buildingFile = "campus_buildings.tsv";
+    private static final int rounds = 3; // the first rounds also warm up the JIT
+    private static final int queries = 100;
+    private static final int[] ks = {1, 3, 10};
+    private static final double EPSILON = 1e-9;
+
+    public static void main(String[] args) {
+        DirectedGraph<Point, Double> campus = CampusGraphs.campusGraph();
+        Map<String, Node<Point>> buildings = new HashMap<>();
+        for (CampusBuilding building : CampusPathsParser.parseCampusBuildings(buildingFile)) {
+            buildings.put(building.getShortName(), new Node<>(new Point(building.getX(), building.getY())));
+        }
+        List<String[]> pairs = BenchmarkUtils.randomPairs(List.copyOf(buildings.keySet()), queries);
+        GenericDijkstra<Point> dijkstra = new GenericDijkstra<>();
+        dijkstra.setCampusGraph(campus);
+        System.out.println("nodes: " + campus.size() + ", queries per round: " + queries);
+
+        for (int k : ks) { // Every k must start with the shortest path, and never get shorter
+            long settled = 0;
+            double spread = 0;
+            for (String[] pair : pairs) {
+                Node<Point> start = buildings.get(pair[0]);
+                Node<Point> end = buildings.get(pair[1]);
+                double shortest = dijkstra.findShortestPath(start, end).getCost();
+                List<Path<Node<Point>>> paths = dijkstra.findKShortestPaths(start, end, k);
+                settled += dijkstra.getSettledCount();
+                if (Math.abs(shortest - paths.get(0).getCost()) > EPSILON) {
+                    throw new IllegalStateException("First path is not the shortest for " + pair[0] + " to " + pair[1]);
+                }
+                for (int i = 1; i < paths.size(); i++) {
+                    if (paths.get(i).getCost() < paths.get(i - 1).getCost()) {
+                        throw new IllegalStateException("Paths out of order for " + pair[0] + " to " + pair[1]);
+                    }
+                }
+                if (shortest > 0) {
+                    spread += paths.get(paths.size() - 1).getCost() / shortest;
+                }
+            }
+            System.out.println(String.format("k = %2d: %.0f nodes settled per query, last path %.1f%% longer"
+                    + " than the first on average", k, (double) settled / queries, (spread / queries - 1) * 100));
+        }
+
+        for (int round = 0; round < rounds; round++) {
+            System.out.println("round " + round + ":");
+            for (int k : ks) {
+                long start = System.nanoTime();
+                for (String[] pair : pairs) {
+                    dijkstra.findKShortestPaths(buildings.get(pair[0]), buildings.get(pair[1]), k);
+                }
+                System.out.println(String.format("  k = %2d: %s per query", k,
+                        BenchmarkUtils.millis((System.nanoTime() - start) / queries)));
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package pathfinder.benchmarks;
+
+import graph.DirectedGraph;
+import graph.Node;
+import graph.WeightedIntGraph;
+import pathfinder.AStar;
+import pathfinder.EuclideanHeuristic;
+import pathfinder.GenericDijkstra;
+import pathfinder.LandmarkHeuristic;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusPathsParser;
+import pathfinder.testUtils.CampusGraphs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes between every pair of campus buildings with GenericDijkstra, with AStar using the
+ * straight-line heuristic, and with AStar using landmark heuristics of a few sizes.  Reports
+ * the time to choose each set of landmarks and the bytes their tables hold, then the nodes
+ * settled and the time per query for every way, after checking that all find routes of the
+ * same distance.
+ */
+public class LandmarkBenchmark {
+    private static final String buildingFile = "campus_buildings.tsv";
+    private static final int rounds = 5; // the first rounds also warm up the JIT
+    private static final int[] landmarkCounts = {4, 8, 16};
+    private static final double EPSILON = 1e-9;
+
+    public static void main(String[] args) {
+        DirectedGraph<Point, Double> campus = CampusGraphs.campusGraph();
+        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings(buildingFile);
+        int queries = buildings.size() * buildings.size();
+        System.out.println("nodes: " + campus.size() + ", edges: " + campus.getEdgeCount()
+                + ", queries per round: " + queries);
+
+        WeightedIntGraph<Point> packed = new WeightedIntGraph<>(campus);
+        List<String> names = new ArrayList<>();
+        List<AStar<Point>> searches = new ArrayList<>();
+        AStar<Point> euclidean = new AStar<>();
+        euclidean.setCampusGraph(campus);
+        euclidean.setHeuristic(EuclideanHeuristic.forGraph(campus));
+        names.add("A*, straight line");
+        searches.add(euclidean);
+        for (int count : landmarkCounts) {
+            LandmarkHeuristic<Point> heuristic = null;
+            long elapsed = 0;
+            for (int round = 0; round < 3; round++) { // The last round is the one to read
+                long start = System.nanoTime();
+                heuristic = LandmarkHeuristic.forGraph(packed, count, 0);
+                elapsed = System.nanoTime() - start;
+            }
+            System.out.println(count + " landmarks: chosen in " + BenchmarkUtils.millis(elapsed) + ", tables "
+                    + BenchmarkUtils.megabytes(heuristic.tableBytes()));
+            AStar<Point> aStar = new AStar<>();
+            aStar.setCampusGraph(campus);
+            aStar.setHeuristic(heuristic);
+            names.add("A*, " + count + " landmarks");
+            searches.add(aStar);
+        }
+
+        GenericDijkstra<Point> dijkstra = new GenericDijkstra<>();
+        dijkstra.setCampusGraph(campus);
+        long dijkstraSettled = 0;
+        long[] settled = new long[searches.size()];
+        for (CampusBuilding start : buildings) { // All must find routes of the same distance
+            for (CampusBuilding end : buildings) {
+                double expected = dijkstra.findShortestPath(node(start), node(end)).getCost();
+                dijkstraSettled += dijkstra.getSettledCount();
+                for (int i = 0; i < searches.size(); i++) {
+                    if (Math.abs(expected - searches.get(i).findShortestPath(node(start), node(end)).getCost())
+                            > EPSILON) {
+                        throw new IllegalStateException(names.get(i) + " disagrees from "
+                                + start.getShortName() + " to " + end.getShortName());
+                    }
+                    settled[i] += searches.get(i).getSettledCount();
+                }
+            }
+        }
+        System.out.println("nodes settled per query:");
+        System.out.println(String.format("  %-20s %.1f", "Dijkstra", (double) dijkstraSettled / queries));
+        for (int i = 0; i < searches.size(); i++) {
+            System.out.println(String.format("  %-20s %.1f", names.get(i), (double) settled[i] / queries));
+        }
+
+        for (int round = 0; round < rounds; round++) {
+            System.out.println("round " + round + ":");
+            long start = System.nanoTime();
+            for (CampusBuilding from : buildings) {
+                for (CampusBuilding to : buildings) {
+                    dijkstra.findShortestPath(node(from), node(to));
+                }
+            }
+            report("Dijkstra", System.nanoTime() - start, queries);
+            for (int i = 0; i < searches.size(); i++) {
+                start = System.nanoTime();
+                for (CampusBuilding from : buildings) {
+                    for (CampusBuilding to : buildings) {
+                        searches.get(i).findShortestPath(node(from), node(to));
+                    }
+                }
+                report(names.get(i), System.nanoTime() - start, queries);
+            }
+        }
+    }
+
+    /*
+     * Prints the time per query of one round of one way
+     */
+    private static void report(String name, long elapsed, int queries) {
+        System.out.println(String.format("  %-20s %.1f us per query", name, elapsed / 1e3 / queries));
+    }
+
+    /*
+     * Returns the graph node at the location of building
+     */
+    private static Node<Point> node(CampusBuilding building) {
+        return new Node<>(new Point(building.getX(), building.getY()));
+    }
+}
@@ -0,0 +1,92 @@
+package pathfinder.benchmarks;
+
+import graph.DirectedGraph;
+import graph.Edge;
+import graph.Node;
+import graph.NodeInterner;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusPath;
+import pathfinder.parser.CampusPathsParser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the campus graph twice, once with a new Node for every edge end and once with the
+ * canonical Nodes of a NodeInterner, then looks up the children of every edge end of the graph
+ * in each, as a search does.  Reports the heap of each graph and the time per lookup.  In the
+ * interned graph the edge ends are the graph's own keys, so lookups match by identity.
+ */
+public class NodeLookupBenchmark {
+    private static final String pathsFile = "campus_paths.tsv";
+    private static final int rounds = 5; // the first rounds also warm up the JIT
+    private static final int passes = 200; // lookups of every edge end per round
+
+    public static void main(String[] args) {
+        List<CampusPath> paths = CampusPathsParser.parseCampusPaths(pathsFile);
+        long baseline = BenchmarkUtils.usedHeap();
+        DirectedGraph<Point, Double> fresh = build(paths, null);
+        long freshHeap = BenchmarkUtils.usedHeap() - baseline;
+        DirectedGraph<Point, Double> interned = build(paths, new NodeInterner<>());
+        long internedHeap = BenchmarkUtils.usedHeap() - baseline - freshHeap;
+        System.out.println("nodes: " + fresh.size() + ", edges: " + fresh.getEdgeCount());
+        System.out.println("heap: new Nodes " + BenchmarkUtils.megabytes(freshHeap)
+                + ", interned Nodes " + BenchmarkUtils.megabytes(internedHeap));
+
+        List<Node<Point>> freshEnds = ends(fresh);
+        List<Node<Point>> internedEnds = ends(interned);
+        for (int round = 0; round < rounds; round++) {
+            System.out.println("round " + round + ":");
+            report("new Nodes", fresh, freshEnds);
+            report("interned Nodes", interned, internedEnds);
+        }
+    }
+
+    /*
+     * Returns the campus graph, with a new Node for every edge end if nodes is null, or the
+     * canonical Node from nodes otherwise
+     */
+    private static DirectedGraph<Point, Double> build(List<CampusPath> paths, NodeInterner<Point> nodes) {
+        DirectedGraph<Point, Double> campus = new DirectedGraph<>();
+        for (CampusPath path : paths) {
+            Point startPoint = new Point(path.getX1(), path.getY1());
+            Point endPoint = new Point(path.getX2(), path.getY2());
+            Node<Point> start = (nodes == null) ? new Node<>(startPoint) : nodes.intern(startPoint);
+            Node<Point> end = (nodes == null) ? new Node<>(endPoint) : nodes.intern(endPoint);
+            campus.addNode(start);
+            campus.addNode(end);
+            campus.addEdge(new Edge<>((nodes == null) ? new Node<>(startPoint) : start,
+                    (nodes == null) ? new Node<>(endPoint) : end, path.getDistance()));
+        }
+        return campus;
+    }
+
+    /*
+     * Returns the end Node of every edge of campus, as a search would reach them
+     */
+    private static List<Node<Point>> ends(DirectedGraph<Point, Double> campus) {
+        List<Node<Point>> ends = new ArrayList<>();
+        for (Node<Point> node : campus.listNodes()) {
+            for (Edge<Point, Double> edge : campus.listChildren(node, false)) {
+                ends.add(edge.getEnd());
+            }
+        }
+        return ends;
+    }
+
+    /*
+     * Looks up the children of every node in ends, passes times, and prints the time per lookup
+     */
+    private static void report(String name, DirectedGraph<Point, Double> campus, List<Node<Point>> ends) {
+        long found = 0;
+        long start = System.nanoTime();
+        for (int pass = 0; pass < passes; pass++) {
+            for (Node<Point> end : ends) {
+                found += campus.listChildren(end, true).size();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.println(String.format("  %-15s %.1f ns per lookup (%d edges seen)", name,
+                (double) elapsed / ((long) passes * ends.size()), found));
+    }
+}
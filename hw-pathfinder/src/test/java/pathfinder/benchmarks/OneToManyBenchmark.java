@@ -0,0 +1,78 @@
+package pathfinder.benchmarks;
+
+import pathfinder.CampusMap;
+import pathfinder.ShortestPathMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares three ways to get the distance from every campus building to every other: one
+ * findShortestPath call per pair, one shortestPathsFrom call per start reading only the costs,
+ * and one shortestPathsFrom call per start that also builds every path.  Reports the time and
+ * bytes allocated per start building, with the route cache off, after checking that all three
+ * agree on every distance.
+ */
+public class OneToManyBenchmark {
+    private static final String buildingFile = "campus_buildings.tsv";
+    private static final String pathsFile = "campus_paths.tsv";
+    private static final int rounds = 5; // the first rounds also warm up the JIT
+    private static final double EPSILON = 1e-9;
+
+    public static void main(String[] args) {
+        CampusMap map = new CampusMap(0, 1);
+        map.initializeData(buildingFile, pathsFile);
+        List<String> names = new ArrayList<>(map.buildingNames().keySet());
+        for (String start : names) { // All must agree on every distance
+            ShortestPathMap paths = map.shortestPathsFrom(start);
+            Map<String, Double> costs = paths.costs();
+            for (String end : names) {
+                double expected = map.findShortestPath(start, end).getCost();
+                if (Math.abs(expected - costs.get(end)) > EPSILON
+                        || Math.abs(expected - paths.get(end).getCost()) > EPSILON) {
+                    throw new IllegalStateException("Distances disagree from " + start + " to " + end);
+                }
+            }
+        }
+        System.out.println("buildings: " + names.size());
+
+        for (int round = 0; round < rounds; round++) {
+            System.out.println("round " + round + ":");
+            long allocated = BenchmarkUtils.allocatedBytes();
+            long start = System.nanoTime();
+            for (String from : names) {
+                for (String to : names) {
+                    map.findShortestPath(from, to).getCost();
+                }
+            }
+            report("findShortestPath per pair", System.nanoTime() - start,
+                    BenchmarkUtils.allocatedBytes() - allocated, names.size());
+            allocated = BenchmarkUtils.allocatedBytes();
+            start = System.nanoTime();
+            for (String from : names) {
+                map.shortestPathsFrom(from).costs();
+            }
+            report("shortestPathsFrom, costs", System.nanoTime() - start,
+                    BenchmarkUtils.allocatedBytes() - allocated, names.size());
+            allocated = BenchmarkUtils.allocatedBytes();
+            start = System.nanoTime();
+            for (String from : names) {
+                ShortestPathMap paths = map.shortestPathsFrom(from);
+                for (String to : names) {
+                    paths.get(to);
+                }
+            }
+            report("shortestPathsFrom, paths", System.nanoTime() - start,
+                    BenchmarkUtils.allocatedBytes() - allocated, names.size());
+        }
+    }
+
+    /*
+     * Prints the time and allocation per start building of one round of one way
+     */
+    private static void report(String name, long elapsed, long allocated, int starts) {
+        System.out.println(String.format("  %-26s %s per start, %.1f KB allocated per start", name,
+                BenchmarkUtils.millis(elapsed / starts), allocated / 1024.0 / starts));
+    }
+}
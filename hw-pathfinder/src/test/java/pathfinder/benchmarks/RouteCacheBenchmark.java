@@ -0,0 +1,74 @@
+package pathfinder.benchmarks;
+
+import pathfinder.CacheStats;
+import pathfinder.CampusMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Replays a skewed stream of /path queries, where a few building pairs are asked for far more
+ * often than the rest (pair rank r is picked with weight 1 / r, as in a Zipf distribution),
+ * against a CampusMap with no route cache and with route caches of a few sizes.  Reports the
+ * time per query and the hit rate and evictions of each cache.
+ */
+public class RouteCacheBenchmark {
+    private static final String buildingFile = "campus_buildings.tsv";
+    private static final String pathsFile = "campus_paths.tsv";
+    private static final int queries = 20_000;
+    private static final int rounds = 3; // the first rounds also warm up the JIT
+    private static final int[] cacheSizes = {0, 64, 256, 1024};
+
+    public static void main(String[] args) {
+        CampusMap names = new CampusMap();
+        names.initializeData(buildingFile, pathsFile);
+        List<String[]> stream = skewedPairs(new ArrayList<>(names.buildingNames().keySet()));
+        System.out.println("queries per round: " + queries);
+        for (int round = 0; round < rounds; round++) {
+            System.out.println("round " + round + ":");
+            for (int size : cacheSizes) {
+                CampusMap map = new CampusMap(size, CampusMap.DEFAULT_CACHE_TTL_MILLIS);
+                map.initializeData(buildingFile, pathsFile);
+                long start = System.nanoTime();
+                for (String[] pair : stream) {
+                    map.findShortestPath(pair[0], pair[1]);
+                }
+                long elapsed = System.nanoTime() - start;
+                CacheStats stats = map.getCacheStats();
+                System.out.println(String.format("  cache size %4d: %6.1f us per query, hit rate %.3f, %d evictions",
+                        size, elapsed / 1e3 / queries, stats.hitRate(), stats.getEvictions()));
+            }
+        }
+    }
+
+    /*
+     * Returns a stream of queries over every ordered pair of names, where the pair of rank r
+     * is picked with weight 1 / r
+     */
+    private static List<String[]> skewedPairs(List<String> names) {
+        Collections.sort(names); // Same stream no matter what order names came in
+        List<String[]> pairs = new ArrayList<>();
+        for (String start : names) {
+            for (String end : names) {
+                pairs.add(new String[] {start, end});
+            }
+        }
+        Random random = new Random(BenchmarkUtils.SEED);
+        Collections.shuffle(pairs, random); // Which pairs are popular is random
+        double[] cumulative = new double[pairs.size()];
+        double total = 0;
+        for (int rank = 0; rank < pairs.size(); rank++) {
+            total += 1.0 / (rank + 1);
+            cumulative[rank] = total;
+        }
+        List<String[]> stream = new ArrayList<>(queries);
+        for (int i = 0; i < queries; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            stream.add(pairs.get(rank >= 0 ? rank : -rank - 1));
+        }
+        return stream;
+    }
+}
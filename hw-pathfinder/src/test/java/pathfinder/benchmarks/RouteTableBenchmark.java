@@ -0,0 +1,80 @@
+package pathfinder.benchmarks;
+
+import pathfinder.CampusMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures CampusMap.precomputeRoutes on the campus data: the time to work out the routes from
+ * every building with different numbers of threads, the heap the routes hold, and the time per
+ * request between every pair of buildings when routes are looked up against when they are
+ * searched for with Dijkstra's algorithm or A*.  Checks that all three give the same distances.
+ */
+public class RouteTableBenchmark {
+    private static final String buildingFile = "campus_buildings.tsv";
+    private static final String pathsFile = "campus_paths.tsv";
+    private static final int rounds = 5; // the first rounds also warm up the JIT
+    private static final int[] threadCounts = {1, 2, 4};
+    private static final double EPSILON = 1e-9;
+
+    public static void main(String[] args) {
+        CampusMap searching = new CampusMap();
+        searching.initializeData(buildingFile, pathsFile);
+        CampusMap precomputed = new CampusMap();
+        precomputed.initializeData(buildingFile, pathsFile);
+        List<String> buildings = new ArrayList<>(searching.buildingNames().keySet());
+        int queries = buildings.size() * buildings.size();
+        System.out.println("buildings: " + buildings.size() + ", queries per round: " + queries
+                + ", processors: " + Runtime.getRuntime().availableProcessors());
+
+        for (int round = 0; round < 3; round++) { // The last round is the one to read
+            StringBuilder times = new StringBuilder("build time:");
+            for (int threads : threadCounts) {
+                long start = System.nanoTime();
+                precomputed.precomputeRoutes(threads);
+                times.append(" ").append(threads).append(" thread(s) ")
+                        .append(BenchmarkUtils.millis(System.nanoTime() - start)).append(",");
+            }
+            System.out.println(times.substring(0, times.length() - 1));
+        }
+        CampusMap measured = new CampusMap();
+        measured.initializeData(buildingFile, pathsFile);
+        long before = BenchmarkUtils.usedHeap();
+        measured.precomputeRoutes(1);
+        System.out.println("heap held by the routes: " + BenchmarkUtils.megabytes(BenchmarkUtils.usedHeap() - before));
+
+        for (String start : buildings) { // All must find routes of the same distance
+            for (String end : buildings) {
+                double expected = searching.findShortestPath(start, end).getCost();
+                if (Math.abs(expected - precomputed.findShortestPath(start, end).getCost()) > EPSILON
+                        || Math.abs(expected - searching.findShortestPath(start, end, CampusMap.Engine.A_STAR)
+                        .getCost()) > EPSILON) {
+                    throw new IllegalStateException("Routes disagree from " + start + " to " + end);
+                }
+            }
+        }
+
+        for (int round = 0; round < rounds; round++) {
+            System.out.println("round " + round + ":");
+            report("Dijkstra", searching, CampusMap.Engine.DIJKSTRA, buildings);
+            report("A*", searching, CampusMap.Engine.A_STAR, buildings);
+            report("precomputed", precomputed, CampusMap.Engine.DIJKSTRA, buildings);
+        }
+    }
+
+    /*
+     * Routes between every pair of buildings on map once and prints the time per request
+     */
+    private static void report(String name, CampusMap map, CampusMap.Engine engine, List<String> buildings) {
+        long start = System.nanoTime();
+        for (String from : buildings) {
+            for (String to : buildings) {
+                map.findShortestPath(from, to, engine);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.println(String.format("  %-12s %.1f us per request", name,
+                elapsed / 1e3 / (buildings.size() * buildings.size())));
+    }
+}
@@ -0,0 +1,132 @@
+package pathfinder.benchmarks;
+
+import pathfinder.CampusMap;
+import pathfinder.datastructures.KdTree;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusPath;
+import pathfinder.parser.CampusPathsParser;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compares snapping random points to the closest campus location with a KdTree against a scan
+ * of every location.  First checks that both find a location just as close for a sample of
+ * points, then times 1,000,000 snapping queries each way, spread over the map and a margin
+ * around it, and reports the nanoseconds per query.  Last, times the same queries through
+ * CampusMap.nearestLocation, and a few thousand point-to-point routes through findShortestPath.
+ */
+public class SpatialIndexBenchmark {
+    private static final String buildingFile = "campus_buildings.tsv";
+    private static final String pathsFile = "campus_paths.tsv";
+    private static final int rounds = 5; // the first rounds also warm up the JIT
+    private static final int queries = 1_000_000;
+    private static final int checked = 10_000;
+    private static final int routes = 2_000;
+    private static final double EPSILON = 1e-9;
+
+    public static void main(String[] args) {
+        Map<Point, Point> locations = new HashMap<>();
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (CampusPath path : CampusPathsParser.parseCampusPaths(pathsFile)) {
+            for (Point point : new Point[] {new Point(path.getX1(), path.getY1()),
+                    new Point(path.getX2(), path.getY2())}) {
+                locations.put(point, point);
+                minX = Math.min(minX, point.getX());
+                minY = Math.min(minY, point.getY());
+                maxX = Math.max(maxX, point.getX());
+                maxY = Math.max(maxY, point.getY());
+            }
+        }
+        KdTree<Point> tree = new KdTree<>(locations);
+        double[] xs = new double[locations.size()]; // As tight a scan as can be written
+        double[] ys = new double[locations.size()];
+        Point[] points = locations.keySet().toArray(new Point[0]);
+        for (int i = 0; i < points.length; i++) {
+            xs[i] = points[i].getX();
+            ys[i] = points[i].getY();
+        }
+        double marginX = (maxX - minX) / 10; // Some clicks land off the paths entirely
+        double marginY = (maxY - minY) / 10;
+        Random random = new Random(BenchmarkUtils.SEED);
+        Point[] targets = new Point[queries];
+        for (int i = 0; i < queries; i++) {
+            targets[i] = new Point(minX - marginX + random.nextDouble() * (maxX - minX + 2 * marginX),
+                    minY - marginY + random.nextDouble() * (maxY - minY + 2 * marginY));
+        }
+        for (int i = 0; i < checked; i++) { // Both must find a location just as close
+            Point target = targets[i];
+            double scanned = distanceSquared(points[scan(xs, ys, target)], target);
+            if (Math.abs(scanned - distanceSquared(tree.nearest(target), target)) > EPSILON) {
+                throw new IllegalStateException("Nearest locations disagree for " + target);
+            }
+        }
+        System.out.println("locations: " + points.length + ", queries: " + queries);
+
+        CampusMap map = new CampusMap(0, 1);
+        map.initializeData(buildingFile, pathsFile);
+        long sink = 0; // Keeps the JIT from dropping the queries
+        for (int round = 0; round < rounds; round++) {
+            System.out.println("round " + round + ":");
+            long start = System.nanoTime();
+            for (Point target : targets) {
+                sink += scan(xs, ys, target);
+            }
+            report("linear scan", System.nanoTime() - start, queries);
+            start = System.nanoTime();
+            for (Point target : targets) {
+                sink += tree.nearest(target).hashCode();
+            }
+            report("KdTree.nearest", System.nanoTime() - start, queries);
+            start = System.nanoTime();
+            for (Point target : targets) {
+                sink += map.nearestLocation(target).hashCode();
+            }
+            report("CampusMap.nearestLocation", System.nanoTime() - start, queries);
+            start = System.nanoTime();
+            for (int i = 0; i < routes; i++) {
+                sink += (long) map.findShortestPath(targets[2 * i], targets[2 * i + 1]).getCost();
+            }
+            report("findShortestPath(Point, Point)", System.nanoTime() - start, routes);
+        }
+        System.out.println("(" + sink + ")");
+    }
+
+    /*
+     * Returns the index of the location closest to target, checking every one
+     */
+    private static int scan(double[] xs, double[] ys, Point target) {
+        int best = 0;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < xs.length; i++) {
+            double dx = xs[i] - target.getX();
+            double dy = ys[i] - target.getY();
+            double distance = dx * dx + dy * dy;
+            if (distance < bestDistance) {
+                best = i;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    /*
+     * Returns the square of the distance between a and b
+     */
+    private static double distanceSquared(Point a, Point b) {
+        double dx = a.getX() - b.getX();
+        double dy = a.getY() - b.getY();
+        return dx * dx + dy * dy;
+    }
+
+    /*
+     * Prints the time per query of one round of one way
+     */
+    private static void report(String name, long elapsed, int count) {
+        System.out.println(String.format("  %-31s %.0f ns per query", name, (double) elapsed / count));
+    }
+}
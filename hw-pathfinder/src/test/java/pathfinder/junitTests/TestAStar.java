@@ -0,0 +1,196 @@
+package pathfinder.junitTests;
+
+import graph.DirectedGraph;
+import graph.Edge;
+import graph.Node;
+import graph.WeightedIntGraph;
+import org.junit.Test;
+import pathfinder.AStar;
+import pathfinder.CampusMap;
+import pathfinder.EuclideanHeuristic;
+import pathfinder.GenericDijkstra;
+import pathfinder.LandmarkHeuristic;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusPathsParser;
+import pathfinder.testUtils.CampusGraphs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * To test that AStar finds paths as cheap as GenericDijkstra's
+ */
+public class TestAStar {
+    private static final double EPSILON = 1e-9;
+    private final String buildingFile = "campus_buildings.tsv"; // building file
+    private final String pathsFile = "campus_paths.tsv"; // paths file
+
+    /*
+     * Returns a graph of points where the straight path a to d costs more than going around
+     */
+    private DirectedGraph<Point, Double> smallGraph() {
+        DirectedGraph<Point, Double> graph = new DirectedGraph<>();
+        Node<Point> a = new Node<>(new Point(0, 0));
+        Node<Point> b = new Node<>(new Point(0, 3));
+        Node<Point> c = new Node<>(new Point(4, 3));
+        Node<Point> d = new Node<>(new Point(4, 0));
+        Node<Point> e = new Node<>(new Point(9, 9));
+        graph.addNode(a);
+        graph.addNode(b);
+        graph.addNode(c);
+        graph.addNode(d);
+        graph.addNode(e);
+        graph.addEdge(new Edge<>(a, d, 20.0));
+        graph.addEdge(new Edge<>(a, b, 6.0));
+        graph.addEdge(new Edge<>(b, c, 8.0));
+        graph.addEdge(new Edge<>(c, d, 5.0));
+        return graph;
+    }
+
+    /*
+     * Test that the fitted scale is the lowest cost per unit of length of any edge
+     */
+    @Test
+    public void testHeuristicForGraph() {
+        EuclideanHeuristic heuristic = EuclideanHeuristic.forGraph(smallGraph());
+        assertEquals(5.0 / 3.0, heuristic.getScale(), EPSILON); // from c to d
+        assertEquals(25.0 / 3.0, heuristic.estimate(new Node<>(new Point(0, 0)),
+                new Node<>(new Point(3, 4))), EPSILON);
+        assertEquals(0.0, EuclideanHeuristic.forGraph(new DirectedGraph<>()).getScale(), EPSILON);
+    }
+
+    /*
+     * Test that A* takes the cheaper way around rather than the straight edge
+     */
+    @Test
+    public void testCheapestPathSmallGraph() {
+        DirectedGraph<Point, Double> graph = smallGraph();
+        AStar<Point> aStar = new AStar<>();
+        aStar.setCampusGraph(graph);
+        aStar.setHeuristic(EuclideanHeuristic.forGraph(graph));
+        Path<Node<Point>> path = aStar.findShortestPath(new Node<>(new Point(0, 0)),
+                new Node<>(new Point(4, 0)));
+        assertEquals(19.0, path.getCost(), EPSILON);
+        List<Point> stops = new ArrayList<>();
+        for (Path<Node<Point>>.Segment segment : path) {
+            stops.add(segment.getEnd().getData());
+        }
+        assertEquals(Arrays.asList(new Point(0, 3), new Point(4, 3), new Point(4, 0)), stops);
+        assertNull(aStar.findShortestPath(new Node<>(new Point(0, 0)), new Node<>(new Point(9, 9))));
+        assertEquals(0.0, aStar.findShortestPath(new Node<>(new Point(4, 3)),
+                new Node<>(new Point(4, 3))).getCost(), EPSILON);
+    }
+
+    /*
+     * Test that both CampusMap engines find routes of the same distance, and that A*
+     * settles no more nodes than Dijkstra
+     */
+    @Test
+    public void testEnginesAgreeCampus() {
+        CampusMap map = new CampusMap();
+        map.initializeData(buildingFile, pathsFile);
+        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings(buildingFile);
+        for (int i = 0; i < buildings.size(); i += 4) { // A spread of pairs keeps this quick
+            for (int j = 0; j < buildings.size(); j += 3) {
+                String start = buildings.get(i).getShortName();
+                String end = buildings.get(j).getShortName();
+                Path<Node<Point>> dijkstra = map.findShortestPath(start, end, CampusMap.Engine.DIJKSTRA);
+                Path<Node<Point>> aStar = map.findShortestPath(start, end, CampusMap.Engine.A_STAR);
+                assertEquals(dijkstra.getCost(), aStar.getCost(), EPSILON);
+                assertEquals(dijkstra.getStart(), aStar.getStart());
+                assertEquals(dijkstra.getEnd(), aStar.getEnd());
+            }
+        }
+    }
+
+    /*
+     * Test that the straight-line heuristic never settles more nodes than Dijkstra on campus,
+     * and settles fewer overall
+     */
+    @Test
+    public void testSettlesFewerNodesCampus() {
+        DirectedGraph<Point, Double> campus = CampusGraphs.campusGraph();
+        GenericDijkstra<Point> dijkstra = new GenericDijkstra<>();
+        dijkstra.setCampusGraph(campus);
+        AStar<Point> aStar = new AStar<>();
+        aStar.setCampusGraph(campus);
+        aStar.setHeuristic(EuclideanHeuristic.forGraph(campus));
+        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings(buildingFile);
+        int dijkstraSettled = 0;
+        int aStarSettled = 0;
+        for (int i = 0; i + 1 < buildings.size(); i += 5) {
+            Node<Point> start = new Node<>(new Point(buildings.get(i).getX(), buildings.get(i).getY()));
+            Node<Point> end = new Node<>(new Point(buildings.get(i + 1).getX(), buildings.get(i + 1).getY()));
+            assertEquals(dijkstra.findShortestPath(start, end).getCost(),
+                    aStar.findShortestPath(start, end).getCost(), EPSILON);
+            assertTrue(aStar.getSettledCount() <= dijkstra.getSettledCount());
+            dijkstraSettled += dijkstra.getSettledCount();
+            aStarSettled += aStar.getSettledCount();
+        }
+        assertTrue(aStarSettled < dijkstraSettled);
+    }
+
+    /*
+     * Test that the landmark heuristic never guesses more than the real cost between any two
+     * nodes, never more than an edge's cost plus the guess after it, and 0 towards the
+     * unreachable node
+     */
+    @Test
+    public void testLandmarkHeuristicSmallGraph() {
+        DirectedGraph<Point, Double> graph = smallGraph();
+        LandmarkHeuristic<Point> heuristic = LandmarkHeuristic.forGraph(new WeightedIntGraph<>(graph), 2, 0);
+        assertEquals(2, heuristic.getLandmarkCount());
+        assertEquals(5, LandmarkHeuristic.forGraph(new WeightedIntGraph<>(graph), 10, 0).getLandmarkCount());
+        GenericDijkstra<Point> dijkstra = new GenericDijkstra<>();
+        dijkstra.setCampusGraph(graph);
+        for (Node<Point> from : graph.listNodes()) {
+            for (Node<Point> to : graph.listNodes()) {
+                Path<Node<Point>> path = dijkstra.findShortestPath(from, to);
+                double guess = heuristic.estimate(from, to);
+                assertTrue(guess >= 0);
+                assertTrue(path == null || guess <= path.getCost() + EPSILON);
+                for (Edge<Point, Double> edge : graph.listChildren(from, false)) {
+                    assertTrue(guess <= edge.getLabel() + heuristic.estimate(edge.getEnd(), to) + EPSILON);
+                }
+            }
+        }
+        assertEquals(0.0, heuristic.estimate(new Node<>(new Point(0, 0)), new Node<>(new Point(1, 1))), EPSILON);
+    }
+
+    /*
+     * Test that landmarks find routes of the same distance as Dijkstra on campus, settling
+     * fewer nodes overall than the straight-line heuristic
+     */
+    @Test
+    public void testLandmarksCampus() {
+        DirectedGraph<Point, Double> campus = CampusGraphs.campusGraph();
+        GenericDijkstra<Point> dijkstra = new GenericDijkstra<>();
+        dijkstra.setCampusGraph(campus);
+        AStar<Point> euclidean = new AStar<>();
+        euclidean.setCampusGraph(campus);
+        euclidean.setHeuristic(EuclideanHeuristic.forGraph(campus));
+        AStar<Point> landmarks = new AStar<>();
+        landmarks.setCampusGraph(campus);
+        landmarks.setHeuristic(LandmarkHeuristic.forGraph(new WeightedIntGraph<>(campus), 8, 0));
+        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings(buildingFile);
+        int euclideanSettled = 0;
+        int landmarksSettled = 0;
+        for (int i = 0; i + 1 < buildings.size(); i += 5) {
+            Node<Point> start = new Node<>(new Point(buildings.get(i).getX(), buildings.get(i).getY()));
+            Node<Point> end = new Node<>(new Point(buildings.get(i + 1).getX(), buildings.get(i + 1).getY()));
+            double expected = dijkstra.findShortestPath(start, end).getCost();
+            assertEquals(expected, euclidean.findShortestPath(start, end).getCost(), EPSILON);
+            assertEquals(expected, landmarks.findShortestPath(start, end).getCost(), EPSILON);
+            euclideanSettled += euclidean.getSettledCount();
+            landmarksSettled += landmarks.getSettledCount();
+        }
+        assertTrue(landmarksSettled < euclideanSettled);
+    }
+}
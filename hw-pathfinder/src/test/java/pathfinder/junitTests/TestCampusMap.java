@@ -1,7 +1,12 @@
 package pathfinder.junitTests;
 
 import org.junit.Test;
+import graph.Node;
 import pathfinder.CampusMap;
+import pathfinder.Route;
+import pathfinder.ShortestPathMap;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusPath;
 
 import java.io.File;
 import java.io.IOException;
@@ -9,11 +14,15 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /*
@@ -64,4 +73,316 @@ public class TestCampusMap {
             assertEquals(buildingNames.get(shortName), longList.get(i)); // buildingNames has long name
         }
     }
-}
\ No newline at end of file
+
+    /*
+     * Test that routes report the version of the paths they were found on, and that removing
+     * and adding paths publishes new versions that later routes see
+     */
+    @Test
+    public void testRouteVersions() {
+        CampusMap testMap = new CampusMap();
+        testMap.initializeData(buildingFile, pathsFile);
+        Route before = testMap.findRoute("CSE", "MGH", CampusMap.Engine.DIJKSTRA);
+        assertEquals(testMap.getGraphVersion(), before.getGraphVersion());
+        CampusPath firstPath = firstPathOf(before);
+
+        assertTrue(testMap.removePath(firstPath));
+        assertEquals(before.getGraphVersion() + 1, testMap.getGraphVersion());
+        Route without = testMap.findRoute("CSE", "MGH", CampusMap.Engine.A_STAR);
+        assertEquals(testMap.getGraphVersion(), without.getGraphVersion());
+        assertNotEquals(before.getPath(), without.getPath()); // Cannot use the removed path
+        assertTrue(without.getPath().getCost() >= before.getPath().getCost());
+
+        testMap.addPath(firstPath);
+        Route after = testMap.findRoute("CSE", "MGH", CampusMap.Engine.DIJKSTRA);
+        assertEquals(before.getGraphVersion() + 2, after.getGraphVersion());
+        assertEquals(before.getPath().getCost(), after.getPath().getCost(), 1e-9);
+        assertFalse(testMap.removePath(new CampusPath(0, 0, 1, 1, 1))); // Not on the map
+    }
+
+    /*
+     * Test that precomputed routes have the same distances as searching, and are repaired
+     * when a path closes
+     */
+    @Test
+    public void testPrecomputedRoutes() {
+        CampusMap searching = new CampusMap();
+        searching.initializeData(buildingFile, pathsFile);
+        CampusMap precomputed = new CampusMap();
+        precomputed.initializeData(buildingFile, pathsFile);
+        precomputed.precomputeRoutes(2);
+        assertTrue(precomputed.hasPrecomputedRoutes());
+        assertSameDistances(searching, precomputed, CampusMap.Engine.DIJKSTRA);
+        Route route = precomputed.findRoute("CSE", "MGH", CampusMap.Engine.DIJKSTRA);
+        assertTrue(precomputed.removePath(firstPathOf(route)));
+        assertTrue(precomputed.hasPrecomputedRoutes());
+        assertNotEquals(route.getPath(), precomputed.findShortestPath("CSE", "MGH"));
+    }
+
+    /*
+     * Asserts that every pair of buildings is as far apart on actual, searched with engine, as
+     * on expected, searched with Dijkstra's algorithm
+     */
+    private void assertSameDistances(CampusMap expected, CampusMap actual, CampusMap.Engine engine) {
+        for (String start : expected.buildingNames().keySet()) {
+            for (String end : expected.buildingNames().keySet()) {
+                assertEquals(expected.findShortestPath(start, end).getCost(),
+                        actual.findShortestPath(start, end, engine).getCost(), 1e-9);
+            }
+        }
+    }
+
+    /*
+     * Returns the campus path that the first segment of route goes along
+     */
+    private CampusPath firstPathOf(Route route) {
+        pathfinder.datastructures.Path<Node<Point>>.Segment first = route.getPath().iterator().next();
+        return new CampusPath(first.getStart().getData().getX(), first.getStart().getData().getY(),
+                first.getEnd().getData().getX(), first.getEnd().getData().getY(), first.getCost());
+    }
+
+    /*
+     * Test that precomputed routes stay in use, with the same distances as searching, as paths
+     * get longer, shorter, close and open again, and are dropped when a new location is added
+     */
+    @Test
+    public void testUpdatePath() {
+        CampusMap searching = new CampusMap(0, 1);
+        searching.initializeData(buildingFile, pathsFile);
+        CampusMap precomputed = new CampusMap(0, 1);
+        precomputed.initializeData(buildingFile, pathsFile);
+        precomputed.precomputeRoutes(2);
+        Route route = precomputed.findRoute("CSE", "MGH", CampusMap.Engine.DIJKSTRA);
+        CampusPath path = firstPathOf(route);
+        CampusPath longer = new CampusPath(path.getX1(), path.getY1(), path.getX2(), path.getY2(),
+                path.getDistance() * 10);
+        for (CampusMap map : new CampusMap[] {searching, precomputed}) {
+            long version = map.getGraphVersion();
+            assertTrue(map.updatePath(path, longer.getDistance()));
+            assertEquals(version + 1, map.getGraphVersion());
+        }
+        assertTrue(precomputed.hasPrecomputedRoutes());
+        assertTrue(precomputed.findShortestPath("CSE", "MGH").getCost() > route.getPath().getCost());
+        assertSameDistances(searching, precomputed, CampusMap.Engine.DIJKSTRA);
+
+        for (CampusMap map : new CampusMap[] {searching, precomputed}) { // Back, then closed
+            assertTrue(map.updatePath(longer, path.getDistance()));
+            assertTrue(map.removePath(path));
+        }
+        assertTrue(precomputed.hasPrecomputedRoutes());
+        assertSameDistances(searching, precomputed, CampusMap.Engine.DIJKSTRA);
+
+        CampusPath shorter = firstPathOf(precomputed.findRoute("BAG", "KNE", CampusMap.Engine.DIJKSTRA));
+        for (CampusMap map : new CampusMap[] {searching, precomputed}) { // Open again, and one free
+            map.addPath(path);
+            assertTrue(map.updatePath(shorter, 0.0));
+        }
+        assertTrue(precomputed.hasPrecomputedRoutes());
+        assertEquals(route.getPath().getCost(), precomputed.findShortestPath("CSE", "MGH").getCost(), 1e-9);
+        assertSameDistances(searching, precomputed, CampusMap.Engine.DIJKSTRA);
+
+        assertFalse(precomputed.updatePath(longer, 1.0)); // Not on the map at that distance
+        precomputed.addPath(new CampusPath(path.getX1(), path.getY1(), -1, -1, 1.0));
+        assertFalse(precomputed.hasPrecomputedRoutes());
+    }
+
+    /*
+     * Test that a batch of routes matches routing each pair alone, in the order asked, on one
+     * version, whether searched for or looked up
+     */
+    @Test
+    public void testFindRoutes() {
+        CampusMap single = new CampusMap(0, 1);
+        single.initializeData(buildingFile, pathsFile);
+        CampusMap batch = new CampusMap();
+        batch.initializeData(buildingFile, pathsFile);
+        List<String> names = new ArrayList<>(single.buildingNames().keySet());
+        List<String[]> pairs = new ArrayList<>();
+        for (int i = 0; i < names.size(); i += 2) {
+            for (int j = names.size() - 1; j >= 0; j -= 3) {
+                pairs.add(new String[] {names.get(i), names.get(j)});
+            }
+        }
+        pairs.add(pairs.get(0)); // The same pair twice
+        List<Route> routes = batch.findRoutes(pairs);
+        assertEquals(pairs.size(), routes.size());
+        for (int i = 0; i < pairs.size(); i++) {
+            assertEquals(single.findShortestPath(pairs.get(i)[0], pairs.get(i)[1]).getCost(),
+                    routes.get(i).getPath().getCost(), 1e-9);
+            assertEquals(batch.getGraphVersion(), routes.get(i).getGraphVersion());
+        }
+        assertEquals(routes.get(1), batch.findRoute(pairs.get(1)[0], pairs.get(1)[1],
+                CampusMap.Engine.DIJKSTRA)); // Cached by the batch
+        batch.precomputeRoutes(1);
+        List<Route> looked = batch.findRoutes(pairs);
+        for (int i = 0; i < pairs.size(); i++) {
+            assertEquals(routes.get(i).getPath().getCost(), looked.get(i).getPath().getCost(), 1e-9);
+        }
+    }
+
+    /*
+     * Test that a batch with any pair that is not two buildings is refused
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindRoutesInvalid() {
+        CampusMap testMap = new CampusMap();
+        testMap.initializeData(buildingFile, pathsFile);
+        testMap.findRoutes(List.of(new String[] {"CSE", "MGH"}, new String[] {"CSE", "NOPE"}));
+    }
+
+    /*
+     * Test that the paths from one building match finding each path alone, and that their
+     * costs can be read without the paths
+     */
+    @Test
+    public void testShortestPathsFrom() {
+        CampusMap testMap = new CampusMap(0, 1);
+        testMap.initializeData(buildingFile, pathsFile);
+        ShortestPathMap paths = testMap.shortestPathsFrom("CSE");
+        assertEquals("CSE", paths.getStart());
+        assertEquals(testMap.getGraphVersion(), paths.getGraphVersion());
+        assertEquals(numOfBuildings, paths.size()); // Every building can be walked to
+        Map<String, Double> costs = paths.costs();
+        for (String end : testMap.buildingNames().keySet()) {
+            pathfinder.datastructures.Path<Node<Point>> expected = testMap.findShortestPath("CSE", end);
+            assertTrue(paths.containsKey(end));
+            assertEquals(expected.getCost(), paths.costTo(end), 1e-9);
+            assertEquals(expected.getCost(), costs.get(end), 1e-9);
+            assertEquals(expected, paths.get(end));
+        }
+        assertEquals(0.0, paths.costTo("CSE"), 0);
+        assertEquals(Double.POSITIVE_INFINITY, paths.costTo("NOPE"), 0);
+        assertNull(paths.get("NOPE"));
+        int entries = 0;
+        for (Map.Entry<String, pathfinder.datastructures.Path<Node<Point>>> entry : paths.entrySet()) {
+            assertEquals(paths.get(entry.getKey()), entry.getValue());
+            entries++;
+        }
+        assertEquals(numOfBuildings, entries);
+    }
+
+    /*
+     * Test that the paths from a building cannot be changed
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testShortestPathsFromUnmodifiable() {
+        CampusMap testMap = new CampusMap();
+        testMap.initializeData(buildingFile, pathsFile);
+        testMap.shortestPathsFrom("CSE").remove("MGH");
+    }
+
+    /*
+     * Test that paths from a building that does not exist are refused
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testShortestPathsFromInvalid() {
+        CampusMap testMap = new CampusMap();
+        testMap.initializeData(buildingFile, pathsFile);
+        testMap.shortestPathsFrom("NOPE");
+    }
+
+    /*
+     * Test that routes between points snap to the closest locations, and match routes between
+     * the buildings there
+     */
+    @Test
+    public void testFindShortestPathPoints() {
+        CampusMap testMap = new CampusMap();
+        testMap.initializeData(buildingFile, pathsFile);
+        pathfinder.datastructures.Path<Node<Point>> byName = testMap.findShortestPath("CSE", "MGH");
+        Point cse = byName.getStart().getData();
+        Point mgh = byName.getEnd().getData();
+        assertEquals(cse, testMap.nearestLocation(new Point(cse.getX() + 0.5, cse.getY() - 0.5)));
+        assertEquals("CSE", testMap.nearestBuilding(new Point(cse.getX() + 0.5, cse.getY() - 0.5)));
+        pathfinder.datastructures.Path<Node<Point>> byPoint = testMap.findShortestPath(
+                new Point(cse.getX() + 0.5, cse.getY() - 0.5), new Point(mgh.getX() - 0.5, mgh.getY()));
+        assertEquals(byName.getCost(), byPoint.getCost(), 1e-9);
+        testMap.precomputeRoutes(1);
+        assertEquals(byName.getCost(), testMap.findShortestPath(cse, mgh).getCost(), 1e-9);
+        Point far = new Point(-1e6, -1e6); // Off the map, but still snaps somewhere
+        assertEquals(testMap.nearestLocation(far), testMap.findShortestPath(far, far).getStart().getData());
+    }
+
+    /*
+     * Test that added locations can be snapped to, and that buildings are found within a radius
+     */
+    @Test
+    public void testNearestAfterAddPath() {
+        CampusMap testMap = new CampusMap();
+        testMap.initializeData(buildingFile, pathsFile);
+        Point cse = testMap.findShortestPath("CSE", "CSE").getStart().getData();
+        assertTrue(testMap.buildingsWithin(cse, 0).contains("CSE"));
+        assertTrue(testMap.buildingsWithin(cse, 200).size() > 1);
+        Point island = new Point(-5000, -5000);
+        testMap.addPath(new CampusPath(-5000, -5000, -5010, -5000, 10));
+        assertEquals(island, testMap.nearestLocation(new Point(-4999, -4999)));
+        assertNull(testMap.findShortestPath(island, cse)); // Snapped, but not connected
+    }
+
+    /*
+     * Test that the contraction hierarchy gives the same distances as searching, between
+     * buildings and between points, and is dropped once the paths change
+     */
+    @Test
+    public void testContractionHierarchy() {
+        CampusMap testMap = new CampusMap(0, 1);
+        testMap.initializeData(buildingFile, pathsFile);
+        assertFalse(testMap.hasContractionHierarchy());
+        testMap.buildContractionHierarchy();
+        assertTrue(testMap.hasContractionHierarchy());
+        assertSameDistances(testMap, testMap, CampusMap.Engine.CONTRACTION_HIERARCHY);
+        Point cse = testMap.findShortestPath("CSE", "CSE").getStart().getData();
+        Point off = new Point(cse.getX() + 300, cse.getY() + 200); // Between buildings
+        pathfinder.datastructures.Path<Node<Point>> viaHierarchy = testMap.findShortestPath(off, cse);
+        testMap.addPath(new CampusPath(-5000, -5000, -5010, -5000, 10));
+        assertFalse(testMap.hasContractionHierarchy());
+        assertEquals(testMap.findShortestPath(off, cse).getCost(), viaHierarchy.getCost(), 1e-9);
+        assertEquals(testMap.findShortestPath("CSE", "MGH").getCost(), testMap.findShortestPath("CSE",
+                "MGH", CampusMap.Engine.CONTRACTION_HIERARCHY).getCost(), 1e-9); // Searches instead
+    }
+
+    /*
+     * Test that A* with landmarks gives the same distances as Dijkstra between every pair of
+     * buildings, and that the landmarks are dropped once the paths change
+     */
+    @Test
+    public void testLandmarks() {
+        CampusMap testMap = new CampusMap(0, 1);
+        testMap.initializeData(buildingFile, pathsFile);
+        assertFalse(testMap.hasLandmarks());
+        testMap.buildLandmarks(8);
+        assertTrue(testMap.hasLandmarks());
+        assertSameDistances(testMap, testMap, CampusMap.Engine.A_STAR_LANDMARKS);
+        Route route = testMap.findRoute("CSE", "MGH", CampusMap.Engine.A_STAR_LANDMARKS);
+        assertTrue(testMap.removePath(firstPathOf(route)));
+        assertFalse(testMap.hasLandmarks());
+        assertEquals(testMap.findShortestPath("CSE", "MGH").getCost(), testMap.findShortestPath("CSE",
+                "MGH", CampusMap.Engine.A_STAR_LANDMARKS).getCost(), 1e-9); // Straight-line guess instead
+    }
+
+    /*
+     * Test that alternate routes start with the shortest one, get no shorter, and are all
+     * different ways between the same two buildings
+     */
+    @Test
+    public void testFindKShortestPaths() {
+        CampusMap testMap = new CampusMap();
+        testMap.initializeData(buildingFile, pathsFile);
+        List<pathfinder.datastructures.Path<Node<Point>>> paths = testMap.findKShortestPaths("CSE", "MGH", 3);
+        assertEquals(3, paths.size());
+        assertEquals(testMap.findShortestPath("CSE", "MGH").getCost(), paths.get(0).getCost(), 1e-9);
+        for (int i = 0; i < paths.size(); i++) {
+            assertEquals(paths.get(0).getStart(), paths.get(i).getStart());
+            assertEquals(paths.get(0).getEnd(), paths.get(i).getEnd());
+            assertTrue(i == 0 || paths.get(i - 1).getCost() <= paths.get(i).getCost());
+        }
+        assertEquals(3, new HashSet<>(paths).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindKShortestPathsInvalid() {
+        CampusMap testMap = new CampusMap();
+        testMap.initializeData(buildingFile, pathsFile);
+        testMap.findKShortestPaths("CSE", "MGH", 0);
+    }
+}
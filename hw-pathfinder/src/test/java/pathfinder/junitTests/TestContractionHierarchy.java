@@ -0,0 +1,124 @@
+package pathfinder.junitTests;
+
+import graph.DirectedGraph;
+import graph.Edge;
+import graph.Node;
+import graph.WeightedIntGraph;
+import org.junit.Test;
+import pathfinder.ContractionHierarchy;
+import pathfinder.GenericDijkstra;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.testUtils.CampusGraphs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * To test that a ContractionHierarchy finds paths as cheap as GenericDijkstra, made only of
+ * edges of the graph it was built from
+ */
+public class TestContractionHierarchy {
+    /*
+     * Returns a random graph of size points with one-way edges, duplicate edges, reflexive edges
+     * and, with few edges, points that cannot reach each other
+     */
+    private DirectedGraph<Point, Double> randomGraph(Random random, int size, int edges) {
+        DirectedGraph<Point, Double> graph = new DirectedGraph<>();
+        for (int i = 0; i < size; i++) {
+            graph.addNode(new Node<>(new Point(i, 0)));
+        }
+        for (int i = 0; i < edges; i++) {
+            Node<Point> start = new Node<>(new Point(random.nextInt(size), 0));
+            Node<Point> end = new Node<>(new Point(random.nextInt(size), 0));
+            graph.addEdge(new Edge<>(start, end, (double) (1 + random.nextInt(20)))); // Many ties
+        }
+        return graph;
+    }
+
+    /*
+     * Asserts that path is made of edges of graph, and costs what its segments add up to
+     */
+    private void assertMadeOfEdges(DirectedGraph<Point, Double> graph, Path<Node<Point>> path) {
+        double cost = 0;
+        for (Path<Node<Point>>.Segment segment : path) {
+            assertTrue(graph.listChildren(segment.getStart(), true).contains(
+                    new Edge<>(segment.getStart(), segment.getEnd(), segment.getCost())));
+            cost += segment.getCost();
+        }
+        assertEquals(cost, path.getCost(), 1e-9);
+    }
+
+    /*
+     * Test that every pair of a few random graphs, sparse and dense, gets the same cost as
+     * Dijkstra's algorithm, or no path when there is none
+     */
+    @Test
+    public void testRandomGraphs() {
+        Random random = new Random(331);
+        for (int edges : new int[] {40, 120, 400}) {
+            DirectedGraph<Point, Double> graph = randomGraph(random, 40, edges);
+            ContractionHierarchy hierarchy = ContractionHierarchy.build(new WeightedIntGraph<>(graph), 0);
+            GenericDijkstra<Point> dijkstra = new GenericDijkstra<>();
+            dijkstra.setCampusGraph(graph);
+            for (int i = 0; i < 40; i++) {
+                for (int j = 0; j < 40; j++) {
+                    Path<Node<Point>> expected = dijkstra.findShortestPath(new Node<>(new Point(i, 0)),
+                            new Node<>(new Point(j, 0)));
+                    Path<Node<Point>> actual = hierarchy.find(new Point(i, 0), new Point(j, 0));
+                    if (expected == null) {
+                        assertNull(actual);
+                    } else {
+                        assertEquals(expected.getCost(), actual.getCost(), 1e-9);
+                        assertEquals(new Point(i, 0), actual.getStart().getData());
+                        assertEquals(new Point(j, 0), actual.getEnd().getData());
+                        assertMadeOfEdges(graph, actual);
+                    }
+                }
+            }
+        }
+    }
+
+    /*
+     * Test that a path to itself costs nothing, and that points not in the graph have no path
+     */
+    @Test
+    public void testItselfAndUnknown() {
+        DirectedGraph<Point, Double> graph = randomGraph(new Random(331), 10, 30);
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(new WeightedIntGraph<>(graph), 7);
+        assertEquals(7, hierarchy.getGraphVersion());
+        assertEquals(0.0, hierarchy.find(new Point(3, 0), new Point(3, 0)).getCost(), 1e-9);
+        assertNull(hierarchy.find(new Point(3, 0), new Point(3, 1)));
+        assertNull(hierarchy.find(new Point(-1, 0), new Point(3, 0)));
+    }
+
+    /*
+     * Test that random pairs of campus locations get the same cost as Dijkstra's algorithm
+     */
+    @Test
+    public void testCampus() {
+        DirectedGraph<Point, Double> campus = new DirectedGraph<>();
+        List<Point> locations = new ArrayList<>();
+        for (Edge<Point, Double> edge : CampusGraphs.addCampusPaths(campus)) {
+            locations.add(edge.getStart().getData());
+        }
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(new WeightedIntGraph<>(campus), 0);
+        assertTrue(hierarchy.getArcCount() >= hierarchy.getShortcutCount());
+        GenericDijkstra<Point> dijkstra = new GenericDijkstra<>();
+        dijkstra.setCampusGraph(campus);
+        Random random = new Random(331);
+        for (int i = 0; i < 200; i++) {
+            Point start = locations.get(random.nextInt(locations.size()));
+            Point end = locations.get(random.nextInt(locations.size()));
+            Path<Node<Point>> actual = hierarchy.find(start, end);
+            assertEquals(dijkstra.findShortestPath(new Node<>(start), new Node<>(end)).getCost(),
+                    actual.getCost(), 1e-9);
+            assertMadeOfEdges(campus, actual);
+        }
+    }
+}
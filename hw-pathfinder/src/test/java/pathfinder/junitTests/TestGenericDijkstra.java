@@ -0,0 +1,285 @@
+package pathfinder.junitTests;
+
+import graph.DirectedGraph;
+import graph.Edge;
+import graph.Node;
+import graph.WeightedIntGraph;
+import org.junit.Test;
+import pathfinder.CampusMap;
+import pathfinder.GenericDijkstra;
+import pathfinder.ShortestPathTree;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusPathsParser;
+import pathfinder.testUtils.CampusGraphs;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * To test that both search modes of GenericDijkstra, and its search on a WeightedIntGraph,
+ * find the same paths
+ */
+public class TestGenericDijkstra {
+    private final String buildingFile = "campus_buildings.tsv"; // building file
+    private final String pathsFile = "campus_paths.tsv"; // paths file
+
+    /*
+     * Returns a small graph where the fewest-edges path, a to d, is not the cheapest
+     */
+    private DirectedGraph<String, Double> smallGraph() {
+        DirectedGraph<String, Double> graph = new DirectedGraph<>();
+        for (String name : new String[] {"a", "b", "c", "d", "e"}) {
+            graph.addNode(new Node<>(name));
+        }
+        graph.addEdge(new Edge<>(new Node<>("a"), new Node<>("d"), 10.0));
+        graph.addEdge(new Edge<>(new Node<>("a"), new Node<>("b"), 1.0));
+        graph.addEdge(new Edge<>(new Node<>("b"), new Node<>("c"), 2.0));
+        graph.addEdge(new Edge<>(new Node<>("b"), new Node<>("c"), 1.5)); // cheaper duplicate
+        graph.addEdge(new Edge<>(new Node<>("c"), new Node<>("d"), 3.0));
+        graph.addEdge(new Edge<>(new Node<>("c"), new Node<>("a"), 0.5)); // cycle back
+        return graph;
+    }
+
+    /*
+     * Test that parent pointers find the cheapest path, not the shortest one
+     */
+    @Test
+    public void testParentPointersCheapestPath() {
+        GenericDijkstra<String> dijkstra = new GenericDijkstra<>();
+        dijkstra.setCampusGraph(smallGraph());
+        Path<Node<String>> path = dijkstra.findShortestPath(new Node<>("a"), new Node<>("d"));
+        assertEquals(5.5, path.getCost(), 1e-9);
+        assertEquals("a =(1.000)=> b =(1.500)=> c =(3.000)=> d", path.toString());
+        assertNull(dijkstra.findShortestPath(new Node<>("a"), new Node<>("e")));
+        assertEquals(0.0, dijkstra.findShortestPath(new Node<>("b"), new Node<>("b")).getCost(), 1e-9);
+    }
+
+    /*
+     * Test that both modes agree on the small graph
+     */
+    @Test
+    public void testModesAgreeSmallGraph() {
+        GenericDijkstra<String> copying = new GenericDijkstra<>();
+        copying.setCampusGraph(smallGraph());
+        copying.setSearchMode(GenericDijkstra.SearchMode.COPY_PATHS);
+        GenericDijkstra<String> parents = new GenericDijkstra<>();
+        parents.setCampusGraph(smallGraph());
+        for (String start : new String[] {"a", "b", "c", "d", "e"}) {
+            for (String end : new String[] {"a", "b", "c", "d", "e"}) {
+                assertEquals(copying.findShortestPath(new Node<>(start), new Node<>(end)),
+                        parents.findShortestPath(new Node<>(start), new Node<>(end)));
+            }
+        }
+    }
+
+    /*
+     * Test that both modes agree on routes between campus buildings
+     */
+    @Test
+    public void testModesAgreeCampus() {
+        DirectedGraph<Point, Double> campus = CampusGraphs.campusGraph();
+        GenericDijkstra<Point> copying = new GenericDijkstra<>();
+        copying.setCampusGraph(campus);
+        copying.setSearchMode(GenericDijkstra.SearchMode.COPY_PATHS);
+        CampusMap map = new CampusMap();
+        map.initializeData(buildingFile, pathsFile);
+        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings(buildingFile);
+        for (int i = 0; i < buildings.size(); i += 5) { // A spread of pairs keeps this quick
+            for (int j = 0; j < buildings.size(); j += 3) {
+                CampusBuilding start = buildings.get(i);
+                CampusBuilding end = buildings.get(j);
+                Path<Node<Point>> expected = copying.findShortestPath(
+                        new Node<>(new Point(start.getX(), start.getY())),
+                        new Node<>(new Point(end.getX(), end.getY())));
+                assertEquals(expected, map.findShortestPath(start.getShortName(), end.getShortName()));
+            }
+        }
+    }
+
+    /*
+     * Test that one search for many ends gives each end the same path as a search for it alone
+     */
+    @Test
+    public void testManyEndsSmallGraph() {
+        GenericDijkstra<String> single = new GenericDijkstra<>();
+        single.setCampusGraph(smallGraph());
+        GenericDijkstra<String> many = new GenericDijkstra<>();
+        many.setCampusGraph(smallGraph());
+        List<Node<String>> ends = new ArrayList<>();
+        for (String end : new String[] {"a", "b", "c", "d", "e", "z"}) {
+            ends.add(new Node<>(end));
+        }
+        for (String start : new String[] {"a", "b", "c", "d", "e"}) {
+            Map<Node<String>, Path<Node<String>>> paths = many.findShortestPaths(new Node<>(start), ends);
+            assertEquals(ends.size(), paths.size());
+            for (Node<String> end : ends) {
+                assertEquals(single.findShortestPath(new Node<>(start), end), paths.get(end));
+            }
+        }
+        assertNull(many.findShortestPaths(new Node<>("a"), ends).get(new Node<>("e"))); // Not reachable
+    }
+
+    /*
+     * Test that a search for many ends stops once the last one is settled
+     */
+    @Test
+    public void testManyEndsStopsEarly() {
+        GenericDijkstra<String> dijkstra = new GenericDijkstra<>();
+        dijkstra.setCampusGraph(smallGraph());
+        dijkstra.findShortestPaths(new Node<>("a"), List.of(new Node<>("a"), new Node<>("b")));
+        assertEquals(2, dijkstra.getSettledCount());
+    }
+
+    /*
+     * Test that the tree of paths from each start gives the same paths as a search per end,
+     * and their costs without building them
+     */
+    @Test
+    public void testShortestPathTreeSmallGraph() {
+        GenericDijkstra<String> dijkstra = new GenericDijkstra<>();
+        dijkstra.setCampusGraph(smallGraph());
+        for (String start : new String[] {"a", "b", "c", "d", "e"}) {
+            ShortestPathTree<String> tree = dijkstra.shortestPathsFrom(new Node<>(start));
+            assertEquals(new Node<>(start), tree.getStart());
+            for (String end : new String[] {"a", "b", "c", "d", "e", "z"}) {
+                Path<Node<String>> expected = dijkstra.findShortestPath(new Node<>(start), new Node<>(end));
+                assertEquals(expected, tree.pathTo(new Node<>(end)));
+                assertEquals(expected != null, tree.isReached(new Node<>(end)));
+                assertEquals(expected == null ? Double.POSITIVE_INFINITY : expected.getCost(),
+                        tree.costTo(new Node<>(end)), 1e-9);
+            }
+        }
+    }
+
+    /*
+     * Test that alternate paths come cheapest first, stop when there are no more, and include
+     * the path to itself alone
+     */
+    @Test
+    public void testKShortestSmallGraph() {
+        GenericDijkstra<String> dijkstra = new GenericDijkstra<>();
+        dijkstra.setCampusGraph(smallGraph());
+        List<Path<Node<String>>> paths = dijkstra.findKShortestPaths(new Node<>("a"), new Node<>("d"), 3);
+        assertEquals(2, paths.size()); // Only two ways that visit no node twice
+        assertEquals("a =(1.000)=> b =(1.500)=> c =(3.000)=> d", paths.get(0).toString());
+        assertEquals("a =(10.000)=> d", paths.get(1).toString());
+        assertEquals(1, dijkstra.findKShortestPaths(new Node<>("a"), new Node<>("d"), 1).size());
+        assertEquals(List.of(new Path<>(new Node<>("b"))),
+                dijkstra.findKShortestPaths(new Node<>("b"), new Node<>("b"), 3));
+        assertTrue(dijkstra.findKShortestPaths(new Node<>("a"), new Node<>("e"), 3).isEmpty());
+    }
+
+    /*
+     * Test that alternate paths on random graphs are the cheapest paths that visit no node
+     * twice, found by trying every such path
+     */
+    @Test
+    public void testKShortestMatchesEnumeration() {
+        Random random = new Random(331);
+        for (int trial = 0; trial < 20; trial++) {
+            DirectedGraph<Integer, Double> graph = new DirectedGraph<>();
+            for (int i = 0; i < 8; i++) {
+                graph.addNode(new Node<>(i));
+            }
+            for (int i = 0; i < 20; i++) {
+                graph.addEdge(new Edge<>(new Node<>(random.nextInt(8)), new Node<>(random.nextInt(8)),
+                        (double) (1 + random.nextInt(10))));
+            }
+            GenericDijkstra<Integer> dijkstra = new GenericDijkstra<>();
+            dijkstra.setCampusGraph(graph);
+            List<Double> expected = new ArrayList<>();
+            enumerate(graph, new Node<>(0), new Node<>(7), new ArrayList<>(List.of(new Node<>(0))), 0, expected);
+            Collections.sort(expected);
+            List<Path<Node<Integer>>> paths = dijkstra.findKShortestPaths(new Node<>(0), new Node<>(7), 10);
+            assertEquals(Math.min(10, expected.size()), paths.size());
+            Set<List<Node<Integer>>> distinct = new HashSet<>();
+            for (int i = 0; i < paths.size(); i++) {
+                assertEquals(expected.get(i), paths.get(i).getCost(), 1e-9);
+                List<Node<Integer>> nodes = new ArrayList<>(List.of(paths.get(i).getStart()));
+                for (Path<Node<Integer>>.Segment segment : paths.get(i)) {
+                    nodes.add(segment.getEnd());
+                }
+                assertEquals(nodes.size(), new HashSet<>(nodes).size()); // No node twice
+                assertTrue(distinct.add(nodes));
+            }
+        }
+    }
+
+    /*
+     * Adds to costs the cost of every path from the end of visited to end that visits no node
+     * twice, taking the cheapest of any duplicate edges
+     */
+    private void enumerate(DirectedGraph<Integer, Double> graph, Node<Integer> at, Node<Integer> end,
+                           List<Node<Integer>> visited, double cost, List<Double> costs) {
+        if (at.equals(end)) {
+            costs.add(cost);
+            return;
+        }
+        Map<Node<Integer>, Double> cheapest = new HashMap<>();
+        for (Edge<Integer, Double> edge : graph.listChildren(at, false)) {
+            cheapest.merge(edge.getEnd(), edge.getLabel(), Math::min);
+        }
+        for (Map.Entry<Node<Integer>, Double> next : cheapest.entrySet()) {
+            if (!visited.contains(next.getKey())) {
+                visited.add(next.getKey());
+                enumerate(graph, next.getKey(), end, visited, cost + next.getValue(), costs);
+                visited.remove(visited.size() - 1);
+            }
+        }
+    }
+
+    /*
+     * Test that the search on a WeightedIntGraph agrees with parent pointers on the small graph
+     */
+    @Test
+    public void testIntGraphSmallGraph() {
+        GenericDijkstra<String> parents = new GenericDijkstra<>();
+        parents.setCampusGraph(smallGraph());
+        WeightedIntGraph<String> intGraph = new WeightedIntGraph<>(smallGraph());
+        GenericDijkstra<String> packed = new GenericDijkstra<>();
+        for (String start : new String[] {"a", "b", "c", "d", "e"}) {
+            for (String end : new String[] {"a", "b", "c", "d", "e"}) {
+                assertEquals(parents.findShortestPath(new Node<>(start), new Node<>(end)),
+                        packed.findShortestPath(intGraph, new Node<>(start), new Node<>(end)));
+            }
+        }
+        assertNull(packed.findShortestPath(intGraph, new Node<>("a"), new Node<>("z"))); // Not in graph
+    }
+
+    /*
+     * Test that the search on a WeightedIntGraph agrees with CampusMap on routes between
+     * campus buildings, reusing its arrays from one query to the next
+     */
+    @Test
+    public void testIntGraphCampus() {
+        DirectedGraph<Point, Double> campus = CampusGraphs.campusGraph();
+        WeightedIntGraph<Point> intGraph = new WeightedIntGraph<>(campus);
+        GenericDijkstra<Point> packed = new GenericDijkstra<>();
+        CampusMap map = new CampusMap();
+        map.initializeData(buildingFile, pathsFile);
+        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings(buildingFile);
+        for (int i = 0; i < buildings.size(); i += 5) { // A spread of pairs keeps this quick
+            for (int j = 0; j < buildings.size(); j += 3) {
+                CampusBuilding start = buildings.get(i);
+                CampusBuilding end = buildings.get(j);
+                Path<Node<Point>> actual = packed.findShortestPath(intGraph,
+                        new Node<>(new Point(start.getX(), start.getY())),
+                        new Node<>(new Point(end.getX(), end.getY())));
+                assertEquals(map.findShortestPath(start.getShortName(), end.getShortName()).getCost(),
+                        actual.getCost(), 1e-9);
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package pathfinder.junitTests;
+
+import graph.Node;
+import org.junit.Test;
+import pathfinder.CacheStats;
+import pathfinder.CampusMap;
+import pathfinder.Route;
+import pathfinder.RouteCache;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusPath;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/*
+ * To test that RouteCache evicts, expires and invalidates routes, and counts each of them
+ */
+public class TestRouteCache {
+    private static final CampusMap.Engine DIJKSTRA = CampusMap.Engine.DIJKSTRA;
+    private final String buildingFile = "campus_buildings.tsv"; // building file
+    private final String pathsFile = "campus_paths.tsv"; // paths file
+
+    /*
+     * Returns a route of version graphVersion
+     */
+    private Route route(long graphVersion) {
+        return new Route(new Path<>(new Node<>(new Point(0, 0))), graphVersion);
+    }
+
+    /*
+     * Test that the least recently used route is evicted when full
+     */
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        RouteCache cache = new RouteCache(2, 1000);
+        Route ab = route(0);
+        Route bc = route(0);
+        cache.put("A", "B", DIJKSTRA, ab);
+        cache.put("B", "C", DIJKSTRA, bc);
+        assertSame(ab, cache.get("A", "B", DIJKSTRA, 0)); // A to B is now the most recent
+        cache.put("C", "D", DIJKSTRA, route(0));
+        assertNull(cache.get("B", "C", DIJKSTRA, 0));
+        assertSame(ab, cache.get("A", "B", DIJKSTRA, 0));
+        CacheStats stats = cache.stats();
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getEvictions());
+        assertEquals(2, stats.getSize());
+    }
+
+    /*
+     * Test that routes are kept apart by direction and engine
+     */
+    @Test
+    public void testKeys() {
+        RouteCache cache = new RouteCache(10, 1000);
+        cache.put("A", "B", DIJKSTRA, route(0));
+        assertNull(cache.get("B", "A", DIJKSTRA, 0));
+        assertNull(cache.get("A", "B", CampusMap.Engine.A_STAR, 0));
+    }
+
+    /*
+     * Test that routes are not given out once older than the time to live
+     */
+    @Test
+    public void testExpires() {
+        AtomicLong now = new AtomicLong(0);
+        RouteCache cache = new RouteCache(10, 5, now::get);
+        Route ab = route(0);
+        cache.put("A", "B", DIJKSTRA, ab);
+        now.set(4_999_999);
+        assertSame(ab, cache.get("A", "B", DIJKSTRA, 0));
+        now.set(5_000_000);
+        assertNull(cache.get("A", "B", DIJKSTRA, 0));
+        assertEquals(1, cache.stats().getExpirations());
+        assertEquals(0, cache.stats().getSize());
+    }
+
+    /*
+     * Test that routes of older versions, or dropped by clear, are not given out
+     */
+    @Test
+    public void testInvalidates() {
+        RouteCache cache = new RouteCache(10, 1000);
+        cache.put("A", "B", DIJKSTRA, route(0));
+        cache.put("B", "C", DIJKSTRA, route(0));
+        assertNull(cache.get("A", "B", DIJKSTRA, 1));
+        cache.clear();
+        assertNull(cache.get("B", "C", DIJKSTRA, 0));
+        assertEquals(2, cache.stats().getInvalidations());
+        assertEquals(0.0, cache.stats().hitRate(), 0);
+    }
+
+    /*
+     * Test that a cache of size 0 holds nothing
+     */
+    @Test
+    public void testSizeZero() {
+        RouteCache cache = new RouteCache(0, 1000);
+        cache.put("A", "B", DIJKSTRA, route(0));
+        assertNull(cache.get("A", "B", DIJKSTRA, 0));
+        assertEquals(0, cache.stats().getEvictions());
+    }
+
+    /*
+     * Test that CampusMap answers repeated queries from its cache until the paths change
+     */
+    @Test
+    public void testCampusMapCache() {
+        CampusMap map = new CampusMap(16, 60_000);
+        map.initializeData(buildingFile, pathsFile);
+        Route first = map.findRoute("CSE", "MGH", DIJKSTRA);
+        assertSame(first, map.findRoute("CSE", "MGH", DIJKSTRA));
+        assertEquals(1, map.getCacheStats().getHits());
+        assertEquals(1, map.getCacheStats().getMisses());
+        map.addPath(new CampusPath(0, 0, 1, 1, 2)); // Far from both, but still a change
+        Route second = map.findRoute("CSE", "MGH", DIJKSTRA);
+        assertNotSame(first, second);
+        assertEquals(first.getPath().getCost(), second.getPath().getCost(), 1e-9);
+        assertEquals(1, map.getCacheStats().getInvalidations());
+        assertEquals(1.0 / 3, map.getCacheStats().hitRate(), 1e-9);
+    }
+}
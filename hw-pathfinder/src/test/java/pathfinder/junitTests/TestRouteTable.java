@@ -0,0 +1,153 @@
+package pathfinder.junitTests;
+
+import graph.DirectedGraph;
+import graph.Edge;
+import graph.Node;
+import graph.WeightedIntGraph;
+import org.junit.Test;
+import pathfinder.GenericDijkstra;
+import pathfinder.RouteTable;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * To test that a RouteTable repaired after paths change weight, close and open again has the
+ * same routes as searching the changed graph from scratch
+ */
+public class TestRouteTable {
+    private final int size = 30; // points in each random graph
+
+    /*
+     * Asserts that table has a route of the right cost, made of edges of graph, between every
+     * start and every point of graph, or no route when graph has none
+     */
+    private void assertMatches(DirectedGraph<Point, Double> graph, List<Point> starts, RouteTable table) {
+        GenericDijkstra<Point> dijkstra = new GenericDijkstra<>();
+        dijkstra.setCampusGraph(graph);
+        for (Point start : starts) {
+            for (int i = 0; i < size; i++) {
+                Path<Node<Point>> expected = dijkstra.findShortestPath(new Node<>(start), new Node<>(new Point(i, 0)));
+                Path<Node<Point>> actual = table.find(start, new Point(i, 0));
+                if (expected == null) {
+                    assertNull(actual);
+                } else {
+                    assertEquals(expected.getCost(), actual.getCost(), 1e-9);
+                    for (Path<Node<Point>>.Segment segment : actual) {
+                        assertTrue(graph.listChildren(segment.getStart(), true).contains(
+                                new Edge<>(segment.getStart(), segment.getEnd(), segment.getCost())));
+                    }
+                }
+            }
+        }
+    }
+
+    /*
+     * Test that random changes to random graphs, sparse and dense, are repaired into the same
+     * routes as a new search, and leave the table they were made from as it was
+     */
+    @Test
+    public void testRandomChanges() {
+        Random random = new Random(331);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            for (int edgeCount : new int[] {40, 90, 200}) {
+                DirectedGraph<Point, Double> graph = new DirectedGraph<>();
+                for (int i = 0; i < size; i++) {
+                    graph.addNode(new Node<>(new Point(i, 0)));
+                }
+                List<Edge<Point, Double>> edges = new ArrayList<>(); // Every edge ever added, open or not
+                for (int i = 0; i < edgeCount; i++) {
+                    Edge<Point, Double> edge = new Edge<>(new Node<>(new Point(random.nextInt(size), 0)),
+                            new Node<>(new Point(random.nextInt(size), 0)), (double) (1 + random.nextInt(20)));
+                    if (!graph.listChildren(edge.getStart(), true).contains(edge)) {
+                        graph.addEdge(edge);
+                        edges.add(edge);
+                    }
+                }
+                List<Point> starts = List.of(new Point(0, 0), new Point(1, 0), new Point(2, 0));
+                RouteTable original = RouteTable.build(new WeightedIntGraph<>(graph), starts, 0, pool);
+                String before = graph.toString();
+                List<Edge<Point, Double>> originalEdges = new ArrayList<>(edges);
+                boolean[] closed = new boolean[edges.size()];
+                RouteTable table = original;
+                for (int change = 1; change <= 60; change++) {
+                    int index = random.nextInt(edges.size());
+                    Edge<Point, Double> edge = edges.get(index);
+                    double oldWeight = closed[index] ? Double.POSITIVE_INFINITY : edge.getLabel();
+                    double newWeight;
+                    if (closed[index]) { // Open it again, at its old weight
+                        newWeight = edge.getLabel();
+                    } else if (random.nextInt(4) == 0) {
+                        newWeight = Double.POSITIVE_INFINITY;
+                    } else {
+                        newWeight = random.nextInt(30); // Zero, shorter or longer, with many ties
+                    }
+                    Edge<Point, Double> changed = new Edge<>(edge.getStart(), edge.getEnd(), newWeight);
+                    if (!closed[index] && newWeight != Double.POSITIVE_INFINITY
+                            && graph.listChildren(edge.getStart(), true).contains(changed)) {
+                        continue; // Would merge with another edge
+                    }
+                    if (!closed[index]) {
+                        graph.removeEdge(edge);
+                    }
+                    if (newWeight != Double.POSITIVE_INFINITY) {
+                        graph.addEdge(changed);
+                        edges.set(index, changed);
+                    }
+                    closed[index] = newWeight == Double.POSITIVE_INFINITY;
+                    table = table.withWeight(edge.getStart().getData(), edge.getEnd().getData(), oldWeight,
+                            newWeight, change);
+                    assertEquals(change, table.getGraphVersion());
+                    assertMatches(graph, starts, table);
+                }
+                DirectedGraph<Point, Double> originalGraph = new DirectedGraph<>();
+                for (int i = 0; i < size; i++) {
+                    originalGraph.addNode(new Node<>(new Point(i, 0)));
+                }
+                for (Edge<Point, Double> edge : originalEdges) {
+                    originalGraph.addEdge(edge);
+                }
+                assertEquals(before, originalGraph.toString());
+                assertMatches(originalGraph, starts, original); // Not changed by the repairs
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /*
+     * Test that a path that is not in the graph at that weight cannot be changed
+     */
+    @Test
+    public void testUnknownPath() {
+        DirectedGraph<Point, Double> graph = new DirectedGraph<>();
+        Node<Point> a = new Node<>(new Point(0, 0));
+        Node<Point> b = new Node<>(new Point(1, 0));
+        graph.addNode(a);
+        graph.addNode(b);
+        graph.addEdge(new Edge<>(a, b, 2.0));
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            RouteTable table = RouteTable.build(new WeightedIntGraph<>(graph), List.of(a.getData()), 0, pool);
+            assertNull(table.withWeight(a.getData(), b.getData(), 3.0, 1.0, 1));
+            assertNull(table.withWeight(b.getData(), a.getData(), 2.0, 1.0, 1));
+            assertNull(table.withWeight(a.getData(), new Point(5, 5), 2.0, 1.0, 1));
+            RouteTable closed = table.withWeight(a.getData(), b.getData(), 2.0, Double.POSITIVE_INFINITY, 1);
+            assertNull(closed.find(a.getData(), b.getData()));
+            RouteTable opened = closed.withWeight(a.getData(), b.getData(), Double.POSITIVE_INFINITY, 1.5, 2);
+            assertEquals(1.5, opened.find(a.getData(), b.getData()).getCost(), 1e-9);
+            assertEquals(2.0, table.find(a.getData(), b.getData()).getCost(), 1e-9);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package pathfinder.junitTests.datastructures;
+
+import org.junit.Test;
+import pathfinder.datastructures.IndexedMinHeap;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestIndexedMinHeap {
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D); // Accuracy required to 1 PPB
+
+    @Test
+    public void testPollInPriorityOrder() {
+        IndexedMinHeap heap = new IndexedMinHeap(5);
+        heap.offer(3, 30D);
+        heap.offer(0, 10D);
+        heap.offer(4, 5D);
+        heap.offer(1, 20D);
+        assertEquals(4, heap.size());
+        assertEquals(5D, heap.peekKey(), EPSILON);
+        assertEquals(4, heap.poll());
+        assertEquals(0, heap.poll());
+        assertEquals(1, heap.poll());
+        assertEquals(3, heap.poll());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void testDecreaseKey() {
+        IndexedMinHeap heap = new IndexedMinHeap(3);
+        heap.offer(0, 10D);
+        heap.offer(1, 20D);
+        heap.offer(2, 30D);
+        assertTrue(heap.offer(2, 1D)); // lowered, so moves to the front
+        assertFalse(heap.offer(0, 15D)); // higher than before, so ignored
+        assertEquals(3, heap.size());
+        assertEquals(2, heap.poll());
+        assertEquals(0, heap.poll());
+        assertEquals(1, heap.poll());
+    }
+
+    @Test
+    public void testContainsAndClear() {
+        IndexedMinHeap heap = new IndexedMinHeap(4);
+        heap.offer(2, 1D);
+        assertTrue(heap.contains(2));
+        assertFalse(heap.contains(1));
+        heap.poll();
+        assertFalse(heap.contains(2));
+        heap.offer(1, 1D);
+        heap.offer(3, 2D);
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(3));
+        heap.offer(3, 4D); // usable again after clearing
+        assertEquals(3, heap.poll());
+    }
+
+    @Test
+    public void testRandomOffersPollSorted() {
+        Random random = new Random(331);
+        IndexedMinHeap heap = new IndexedMinHeap(200);
+        for (int i = 0; i < 1000; i++) {
+            heap.offer(random.nextInt(200), random.nextDouble() * 100);
+        }
+        double last = Double.NEGATIVE_INFINITY;
+        while (!heap.isEmpty()) {
+            double key = heap.peekKey();
+            assertTrue(key >= last);
+            last = key;
+            heap.poll();
+        }
+    }
+
+    @Test(expected = java.util.NoSuchElementException.class)
+    public void testPollEmpty() {
+        new IndexedMinHeap(1).poll();
+    }
+}
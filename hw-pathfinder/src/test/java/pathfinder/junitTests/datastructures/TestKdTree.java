@@ -0,0 +1,111 @@
+package pathfinder.junitTests.datastructures;
+
+import org.junit.Test;
+import pathfinder.datastructures.KdTree;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestKdTree {
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D); // Accuracy required to 1 PPB
+
+    /**
+     * Returns count random points on a small grid, so that many share an x or a y, each mapped
+     * to its index.
+     */
+    private Map<Point, Integer> randomPoints(Random random, int count) {
+        Map<Point, Integer> points = new HashMap<>();
+        while (points.size() < count) {
+            points.putIfAbsent(new Point(random.nextInt(50), random.nextInt(50)), points.size());
+        }
+        return points;
+    }
+
+    /**
+     * Returns the square of the distance between two points.
+     */
+    private double distanceSquared(Point a, Point b) {
+        double dx = a.getX() - b.getX();
+        double dy = a.getY() - b.getY();
+        return dx * dx + dy * dy;
+    }
+
+    @Test
+    public void testEmpty() {
+        KdTree<Integer> tree = new KdTree<>(Collections.emptyMap());
+        assertEquals(0, tree.size());
+        assertNull(tree.nearest(new Point(1, 2)));
+        assertTrue(tree.withinRadius(new Point(1, 2), 100).isEmpty());
+    }
+
+    @Test
+    public void testNearestExact() {
+        Map<Point, String> points = new HashMap<>();
+        points.put(new Point(0, 0), "origin");
+        points.put(new Point(10, 0), "east");
+        points.put(new Point(0, 10), "north");
+        KdTree<String> tree = new KdTree<>(points);
+        assertEquals(3, tree.size());
+        assertEquals("origin", tree.nearest(new Point(0, 0)));
+        assertEquals("east", tree.nearest(new Point(7, 1)));
+        assertEquals("north", tree.nearest(new Point(-5, 9)));
+    }
+
+    @Test
+    public void testNearestMatchesScan() {
+        Random random = new Random(331);
+        Map<Point, Integer> points = randomPoints(random, 500);
+        List<Point> byIndex = new ArrayList<>(Collections.nCopies(points.size(), (Point) null));
+        points.forEach((point, index) -> byIndex.set(index, point));
+        KdTree<Integer> tree = new KdTree<>(points);
+        for (int i = 0; i < 2000; i++) {
+            Point query = new Point(random.nextDouble() * 60 - 5, random.nextDouble() * 60 - 5);
+            double best = Double.POSITIVE_INFINITY;
+            for (Point point : points.keySet()) {
+                best = Math.min(best, distanceSquared(point, query));
+            }
+            Point found = byIndex.get(tree.nearest(query));
+            assertEquals(best, distanceSquared(found, query), EPSILON); // Ties may pick either
+        }
+    }
+
+    @Test
+    public void testWithinRadiusMatchesScan() {
+        Random random = new Random(331);
+        Map<Point, Integer> points = randomPoints(random, 500);
+        KdTree<Integer> tree = new KdTree<>(points);
+        for (int i = 0; i < 500; i++) {
+            Point query = new Point(random.nextInt(50), random.nextDouble() * 50);
+            double radius = random.nextDouble() * 10;
+            List<Integer> expected = new ArrayList<>();
+            points.forEach((point, index) -> {
+                if (distanceSquared(point, query) <= radius * radius) {
+                    expected.add(index);
+                }
+            });
+            List<Integer> found = tree.withinRadius(query, radius);
+            Collections.sort(expected);
+            Collections.sort(found);
+            assertEquals(expected, found);
+        }
+    }
+
+    @Test
+    public void testWithinRadiusIncludesEdge() {
+        Map<Point, String> points = new HashMap<>();
+        points.put(new Point(3, 4), "on the circle");
+        points.put(new Point(3, 4.001), "just outside");
+        KdTree<String> tree = new KdTree<>(points);
+        assertEquals(List.of("on the circle"), tree.withinRadius(new Point(0, 0), 5));
+    }
+}
@@ -0,0 +1,55 @@
+package pathfinder.testUtils;
+
+import graph.DirectedGraph;
+import graph.Edge;
+import graph.Graph;
+import graph.Node;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusPath;
+import pathfinder.parser.CampusPathsParser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the graph of the campus paths for tests and benchmarks that search it directly,
+ * without a CampusMap: a node for every location, and an edge weighted by its distance for
+ * every path in campus_paths.tsv.
+ */
+public final class CampusGraphs {
+    private static final String pathsFile = "campus_paths.tsv";
+
+    private CampusGraphs() {
+    }
+
+    /**
+     * Returns a new graph of the campus paths.
+     * @return a DirectedGraph with a node for every location and an edge for every path
+     */
+    public static DirectedGraph<Point, Double> campusGraph() {
+        DirectedGraph<Point, Double> campus = new DirectedGraph<>();
+        addCampusPaths(campus);
+        return campus;
+    }
+
+    /**
+     * Adds every campus path to a graph, with the locations at either end.
+     * @param graph the graph to add the paths to
+     * @spec.requires graph != null
+     * @spec.effects Adds a node for every location and an edge for every path to graph.
+     * @return the edge of every path, in the order the paths are in the file
+     */
+    public static List<Edge<Point, Double>> addCampusPaths(Graph<Point, Double> graph) {
+        List<Edge<Point, Double>> edges = new ArrayList<>();
+        for (CampusPath path : CampusPathsParser.parseCampusPaths(pathsFile)) {
+            Node<Point> start = new Node<>(new Point(path.getX1(), path.getY1()));
+            Node<Point> end = new Node<>(new Point(path.getX2(), path.getY2()));
+            Edge<Point, Double> edge = new Edge<>(start, end, path.getDistance());
+            graph.addNode(start);
+            graph.addNode(end);
+            graph.addEdge(edge);
+            edges.add(edge);
+        }
+        return edges;
+    }
+}